@@ -7,8 +7,10 @@ package aplicatie_standup.app_standup;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class SpectacoleApplication {
 
     public static void main(String[] args) {
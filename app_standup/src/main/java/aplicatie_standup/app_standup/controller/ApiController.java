@@ -0,0 +1,222 @@
+/** Clasa pentru API-ul JSON al listelor (type-ahead)
+ * @author Sova Ioan-Rares
+ * @version 17 Octombrie 2026
+ */
+package aplicatie_standup.app_standup.controller;
+
+import aplicatie_standup.app_standup.db.Inserare;
+import aplicatie_standup.app_standup.model.Session;
+import aplicatie_standup.app_standup.repository.ArtistRepository;
+import aplicatie_standup.app_standup.repository.BiletRepository;
+import aplicatie_standup.app_standup.repository.ListaRepository;
+import aplicatie_standup.app_standup.repository.LocatieRepository;
+import aplicatie_standup.app_standup.repository.OrganizatorRepository;
+import aplicatie_standup.app_standup.repository.SpectacolRepository;
+import aplicatie_standup.app_standup.service.CodBiletGenerator;
+import aplicatie_standup.app_standup.service.CodBiletIndex;
+import aplicatie_standup.app_standup.service.CsvImportService;
+import aplicatie_standup.app_standup.service.SalesFeed;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * Aceleasi liste ca paginile Thymeleaf, ca JSON: q (prin indexul de cautare), sortBy/sortDir
+ * (aceleasi coloane permise ca in pagini) si limit. Randurile sunt scrise in raspuns pe masura
+ * ce sunt citite din ResultSet, fara sa fie adunate intr-o lista.
+ */
+@RestController
+@RequestMapping("/api")
+public class ApiController {
+
+    // Randurile sunt trimise clientului in grupuri, nu la fiecare rand
+    private static final int RANDURI_PER_FLUSH = 100;
+
+    private final SpectacolRepository spectacole;
+    private final BiletRepository bilete;
+    private final ArtistRepository artisti;
+    private final LocatieRepository locatii;
+    private final OrganizatorRepository organizatori;
+    private final ObjectMapper objectMapper;
+    private final SalesFeed feed;
+    private final CsvImportService importService;
+    private final CodBiletIndex coduri;
+
+    @Value("${app.api.max-limit:1000}") private int limitaMaxima;
+
+    public ApiController(SpectacolRepository spectacole, BiletRepository bilete, ArtistRepository artisti,
+                         LocatieRepository locatii, OrganizatorRepository organizatori, ObjectMapper objectMapper,
+                         SalesFeed feed, CsvImportService importService, CodBiletIndex coduri) {
+        this.spectacole = spectacole;
+        this.bilete = bilete;
+        this.artisti = artisti;
+        this.locatii = locatii;
+        this.organizatori = organizatori;
+        this.objectMapper = objectMapper;
+        this.feed = feed;
+        this.importService = importService;
+        this.coduri = coduri;
+    }
+
+    @GetMapping("/spectacole")
+    public ResponseEntity<StreamingResponseBody> spectacole(
+            @RequestParam(value = "q", required = false, defaultValue = "") String search,
+            @RequestParam(value = "sortBy", defaultValue = "DATA") String sortBy,
+            @RequestParam(value = "sortDir", defaultValue = "ASC") String sortDir,
+            @RequestParam(value = "limit", defaultValue = "20") int limit,
+            HttpSession httpSession
+    ) {
+        return lista(spectacole, search, sortBy, sortDir, limit, null, httpSession);
+    }
+
+    @GetMapping("/artisti")
+    public ResponseEntity<StreamingResponseBody> artisti(
+            @RequestParam(value = "q", required = false, defaultValue = "") String search,
+            @RequestParam(value = "sortBy", defaultValue = "NUME") String sortBy,
+            @RequestParam(value = "sortDir", defaultValue = "ASC") String sortDir,
+            @RequestParam(value = "limit", defaultValue = "20") int limit,
+            HttpSession httpSession
+    ) {
+        return lista(artisti, search, sortBy, sortDir, limit, null, httpSession);
+    }
+
+    @GetMapping("/locatii")
+    public ResponseEntity<StreamingResponseBody> locatii(
+            @RequestParam(value = "q", required = false, defaultValue = "") String search,
+            @RequestParam(value = "sortBy", defaultValue = "NUME") String sortBy,
+            @RequestParam(value = "sortDir", defaultValue = "ASC") String sortDir,
+            @RequestParam(value = "limit", defaultValue = "20") int limit,
+            HttpSession httpSession
+    ) {
+        return lista(locatii, search, sortBy, sortDir, limit, null, httpSession);
+    }
+
+    @GetMapping("/organizatori")
+    public ResponseEntity<StreamingResponseBody> organizatori(
+            @RequestParam(value = "q", required = false, defaultValue = "") String search,
+            @RequestParam(value = "sortBy", defaultValue = "NUME") String sortBy,
+            @RequestParam(value = "sortDir", defaultValue = "ASC") String sortDir,
+            @RequestParam(value = "limit", defaultValue = "20") int limit,
+            HttpSession httpSession
+    ) {
+        return lista(organizatori, search, sortBy, sortDir, limit, null, httpSession);
+    }
+
+    /** Biletele spectatorului logat (toate, pentru admin). */
+    @GetMapping("/bilete")
+    public ResponseEntity<StreamingResponseBody> bilete(
+            @RequestParam(value = "sortBy", defaultValue = "DATA") String sortBy,
+            @RequestParam(value = "sortDir", defaultValue = "DESC") String sortDir,
+            @RequestParam(value = "limit", defaultValue = "20") int limit,
+            HttpSession httpSession
+    ) {
+        Session ses = getSession(httpSession);
+        Integer spectator = ses != null && !"admin".equalsIgnoreCase(ses.role) ? ses.idSpectator : null;
+        if (ses != null && spectator == null && !"admin".equalsIgnoreCase(ses.role)) {
+            return eroare(HttpStatus.FORBIDDEN, "Contul nu are un spectator asociat.");
+        }
+        return lista(bilete, "", sortBy, sortDir, limit, spectator, httpSession);
+    }
+
+    /**
+     * Biletul cu acest cod (din memorie, fara SQL): adminul vede orice bilet, spectatorul doar
+     * pe ale lui. Un cod cu caracterul de control gresit este respins ca atare.
+     */
+    @GetMapping("/bilete/cod/{cod}")
+    public ResponseEntity<StreamingResponseBody> biletDupaCod(@PathVariable String cod, HttpSession httpSession) {
+        Session ses = getSession(httpSession);
+        if (ses == null) return eroare(HttpStatus.UNAUTHORIZED, "Neautentificat.");
+        try {
+            CodBiletIndex.Intrare bilet = coduri.cauta(cod);
+            boolean admin = "admin".equalsIgnoreCase(ses.role);
+            if (bilet == null || (!admin && (ses.idSpectator == null || ses.idSpectator != bilet.idSpectator()))) {
+                boolean formaCod = cod.length() >= CodBiletGenerator.LUNGIME;
+                return eroare(HttpStatus.NOT_FOUND, formaCod && CodBiletGenerator.valoare(cod) < 0
+                        ? "Cod invalid (caracterul de control nu se potriveste)." : "Biletul nu exista.");
+            }
+            return json(HttpStatus.OK, Map.of("cod", cod, "idSpectacol", bilet.idSpectacol(), "idSpectator", bilet.idSpectator()));
+        } catch (SQLException ex) {
+            return eroare(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage());
+        }
+    }
+
+    /** Biletele cumparate de acum inainte, ca evenimente SSE "bilet" (doar admin). */
+    @GetMapping(value = "/bilete/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> bileteLive(@RequestHeader(value = "Last-Event-ID", required = false) Long ultimulVazut,
+                                                 HttpSession httpSession) {
+        Session ses = getSession(httpSession);
+        if (ses == null) return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        if (!"admin".equalsIgnoreCase(ses.role)) return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        SseEmitter emitter = feed.aboneaza(ultimulVazut);
+        if (emitter == null) return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        return ResponseEntity.ok().header("X-Accel-Buffering", "no").body(emitter);
+    }
+
+    /**
+     * Import in masa pentru scripturi: corpul cererii este CSV-ul (Content-Type: text/csv), citit
+     * direct din stream, fara multipart. Raspunsul este raportul importului.
+     */
+    @PostMapping(value = "/import/{tip}", consumes = "text/csv")
+    public ResponseEntity<StreamingResponseBody> importCsv(@PathVariable String tip, HttpServletRequest request,
+                                                           HttpSession httpSession) {
+        Session ses = getSession(httpSession);
+        if (ses == null) return eroare(HttpStatus.UNAUTHORIZED, "Neautentificat.");
+        if (!"admin".equalsIgnoreCase(ses.role)) return eroare(HttpStatus.FORBIDDEN, "Neautorizat.");
+        Inserare inserare = Inserare.dupaNume(tip);
+        if (inserare == null) return eroare(HttpStatus.NOT_FOUND, "Tip necunoscut: " + tip);
+        try {
+            return json(HttpStatus.OK, importService.importa(inserare, request.getInputStream()));
+        } catch (IOException | SQLException | RuntimeException ex) {
+            return eroare(HttpStatus.BAD_REQUEST, ex.getMessage() != null ? ex.getMessage() : "Eroare necunoscută.");
+        }
+    }
+
+    private ResponseEntity<StreamingResponseBody> lista(ListaRepository<?> repository, String search, String sortBy, String sortDir,
+                                                        int limit, Integer idSpectator, HttpSession httpSession) {
+        if (getSession(httpSession) == null) return eroare(HttpStatus.UNAUTHORIZED, "Neautentificat.");
+        int top = Math.max(1, Math.min(limit, limitaMaxima));
+
+        StreamingResponseBody corp = out -> {
+            try (JsonGenerator json = objectMapper.createGenerator(out)) {
+                json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                int[] randuri = {0};
+                json.writeStartArray();
+                repository.parcurge(search, sortBy, sortDir, top, idSpectator, rand -> {
+                    json.writeObject(rand);
+                    if (++randuri[0] % RANDURI_PER_FLUSH == 0) json.flush();
+                });
+                json.writeEndArray();
+            } catch (SQLException ex) {
+                // Raspunsul poate fi deja partial trimis; conexiunea se inchide cu eroare
+                throw new IOException("Eroare la citirea listei: " + ex.getMessage(), ex);
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(corp);
+    }
+
+    private static Session getSession(HttpSession httpSession) {
+        return (Session) httpSession.getAttribute("currentSession");
+    }
+
+    private ResponseEntity<StreamingResponseBody> eroare(HttpStatus status, String mesaj) {
+        return json(status, Map.of("error", mesaj));
+    }
+
+    // Acelasi tip de raspuns ca listele, ca metodele sa aiba un singur tip de intoarcere
+    private ResponseEntity<StreamingResponseBody> json(HttpStatus status, Object valoare) {
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON)
+                .body(out -> out.write(objectMapper.writeValueAsBytes(valoare)));
+    }
+}
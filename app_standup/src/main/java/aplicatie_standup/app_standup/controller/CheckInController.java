@@ -0,0 +1,114 @@
+/** Clasa pentru API-ul de check-in (scanarea biletelor la intrare)
+ * @author Sova Ioan-Rares
+ * @version 17 Octombrie 2026
+ */
+package aplicatie_standup.app_standup.controller;
+
+import aplicatie_standup.app_standup.model.Session;
+import aplicatie_standup.app_standup.service.CheckInService;
+import aplicatie_standup.app_standup.service.CheckInService.Rezultat;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Check-in-ul unui spectacol, pentru cititoarele de la usi (cont de admin): POST il deschide
+ * (biletele se incarca in memorie), DELETE il inchide, GET arata cate bilete s-au scanat.
+ * O scanare raspunde direct din memorie: 200 valid, 409 folosit sau check-in inchis,
+ * 404 necunoscut (sau caracter de control gresit). /scanari primeste mai multe coduri
+ * (text/plain, unul pe linie) intr-o singura cerere si intoarce un rezultat pentru fiecare.
+ */
+@RestController
+@RequestMapping("/api/checkin/{idSpectacol}")
+public class CheckInController {
+
+    private final CheckInService checkIn;
+
+    public CheckInController(CheckInService checkIn) {
+        this.checkIn = checkIn;
+    }
+
+    @PostMapping
+    public ResponseEntity<Object> deschide(@PathVariable int idSpectacol, HttpSession httpSession) {
+        ResponseEntity<Object> refuz = verificaAdmin(httpSession);
+        if (refuz != null) return refuz;
+        try {
+            return ResponseEntity.ok(checkIn.deschide(idSpectacol));
+        } catch (SQLException ex) {
+            return eroare(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage());
+        }
+    }
+
+    @GetMapping
+    public ResponseEntity<Object> stare(@PathVariable int idSpectacol, HttpSession httpSession) {
+        ResponseEntity<Object> refuz = verificaAdmin(httpSession);
+        if (refuz != null) return refuz;
+        CheckInService.Stare stare = checkIn.stare(idSpectacol);
+        return stare != null ? ResponseEntity.ok(stare) : eroare(HttpStatus.NOT_FOUND, "Check-in-ul nu este deschis.");
+    }
+
+    @DeleteMapping
+    public ResponseEntity<Object> inchide(@PathVariable int idSpectacol, HttpSession httpSession) {
+        ResponseEntity<Object> refuz = verificaAdmin(httpSession);
+        if (refuz != null) return refuz;
+        return checkIn.inchide(idSpectacol)
+                ? ResponseEntity.noContent().build() : eroare(HttpStatus.NOT_FOUND, "Check-in-ul nu este deschis.");
+    }
+
+    @PostMapping("/scan")
+    public ResponseEntity<Object> scan(@PathVariable int idSpectacol, @RequestParam String cod, HttpSession httpSession) {
+        ResponseEntity<Object> refuz = verificaAdmin(httpSession);
+        if (refuz != null) return refuz;
+        try {
+            Rezultat r = checkIn.scaneaza(idSpectacol, cod.trim());
+            return ResponseEntity.status(status(r)).body(raspuns(cod, r));
+        } catch (SQLException ex) {
+            return eroare(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage());
+        }
+    }
+
+    @PostMapping(value = "/scanari", consumes = "text/plain")
+    public ResponseEntity<Object> scanari(@PathVariable int idSpectacol, @RequestBody String coduri, HttpSession httpSession) {
+        ResponseEntity<Object> refuz = verificaAdmin(httpSession);
+        if (refuz != null) return refuz;
+        List<Map<String, String>> rezultate = new ArrayList<>();
+        try {
+            for (String linie : coduri.split("\n")) {
+                String cod = linie.trim();
+                if (!cod.isEmpty()) rezultate.add(raspuns(cod, checkIn.scaneaza(idSpectacol, cod)));
+            }
+        } catch (SQLException ex) {
+            return eroare(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage());
+        }
+        return ResponseEntity.ok(rezultate);
+    }
+
+    private static HttpStatus status(Rezultat r) {
+        return switch (r) {
+            case VALID -> HttpStatus.OK;
+            case FOLOSIT, INCHIS -> HttpStatus.CONFLICT;
+            case NECUNOSCUT, CONTROL -> HttpStatus.NOT_FOUND;
+        };
+    }
+
+    private static Map<String, String> raspuns(String cod, Rezultat r) {
+        return Map.of("cod", cod, "rezultat", r.name().toLowerCase());
+    }
+
+    private static ResponseEntity<Object> verificaAdmin(HttpSession httpSession) {
+        Session ses = (Session) httpSession.getAttribute("currentSession");
+        if (ses == null) return eroare(HttpStatus.UNAUTHORIZED, "Neautentificat.");
+        if (!"admin".equalsIgnoreCase(ses.role)) return eroare(HttpStatus.FORBIDDEN, "Neautorizat.");
+        return null;
+    }
+
+    private static ResponseEntity<Object> eroare(HttpStatus status, String mesaj) {
+        return ResponseEntity.status(status).body(Map.of("error", mesaj));
+    }
+}
@@ -0,0 +1,60 @@
+/** Clasa pentru aplicarea limitatorului de conexiuni pe DataSource-ul aplicatiei
+ * @author Sova Ioan-Rares
+ * @version 17 Octombrie 2026
+ */
+package aplicatie_standup.app_standup.db;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Inlocuieste bean-ul "dataSource" (pool-ul Hikari) cu un LimitedDataSource, astfel incat
+ * toate componentele care primesc DataSource trec prin aceeasi limita:
+ * app.db.max-concurrent conexiuni simultane (0 = fara limita), asteptare maxima
+ * app.db.acquire-timeout-ms. Expune db.limiter.active si db.limiter.waiting.
+ */
+@Component
+public class DbConcurrencyLimiter implements BeanPostProcessor, MeterBinder, Ordered {
+
+    /** Limitatorul inveleste primul pool-ul; celelalte invelisuri (SqlInstrumentation) vin peste el. */
+    static final int ORDINE = 0;
+
+    private final int maxConcurente;
+    private final long timeoutMs;
+    private volatile LimitedDataSource limitat;
+
+    // BeanPostProcessor-ele se creeaza inaintea celorlalte bean-uri, deci citim direct din Environment
+    public DbConcurrencyLimiter(Environment env) {
+        this.maxConcurente = env.getProperty("app.db.max-concurrent", Integer.class, 0);
+        this.timeoutMs = env.getProperty("app.db.acquire-timeout-ms", Long.class, 2000L);
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (maxConcurente <= 0 || !"dataSource".equals(beanName) || !(bean instanceof DataSource ds)) return bean;
+        limitat = new LimitedDataSource(ds, maxConcurente, timeoutMs);
+        return limitat;
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDINE;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        LimitedDataSource ds = limitat;
+        if (ds == null) return;
+        Gauge.builder("db.limiter.active", ds, LimitedDataSource::inLucru)
+                .description("Conexiuni deschise prin limitator").register(registry);
+        Gauge.builder("db.limiter.waiting", ds, LimitedDataSource::inAsteptare)
+                .description("Cereri care asteapta o conexiune la limitator").register(registry);
+    }
+}
@@ -0,0 +1,120 @@
+/** Clasa cu validarea si INSERT-ul pentru entitatile adaugate de admin
+ * @author Sova Ioan-Rares
+ * @version 17 Octombrie 2026
+ */
+package aplicatie_standup.app_standup.db;
+
+import aplicatie_standup.app_standup.service.SearchIndex;
+
+import java.math.BigDecimal;
+import java.sql.*;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * INSERT-ul si regulile de validare ale formularelor de adaugare (/spectacol/add, /artist/add,
+ * /locatie/add, /organizator/add), folosite si de importul CSV: capul de tabel al fisierului
+ * are aceleasi nume de campuri ca formularul. leaga() valideaza un rand si ii seteaza
+ * parametrii; o valoare invalida arunca RuntimeException cu mesajul afisat utilizatorului.
+ */
+public enum Inserare {
+
+    SPECTACOL("INSERT INTO Spectacol (Titlu, Data_Spectacol, Ora, Pret_Bilet, ID_Locatie, ID_Organizator) VALUES (?,?,?,?,?,?)",
+            SearchIndex.Entitate.SPECTACOL, List.of("titlu", "data", "ora", "pret", "idloc", "idorg")) {
+        @Override
+        public void leaga(Map<String, String> form, PreparedStatement ps) throws SQLException {
+            int idLoc, idOrg;
+            BigDecimal pret;
+            Date data;
+            Time ora;
+            try { idLoc = Integer.parseInt(form.getOrDefault("idloc", "0")); } catch (NumberFormatException e) { throw new RuntimeException("ID Locație trebuie să fie un număr valid!"); }
+            try { idOrg = Integer.parseInt(form.getOrDefault("idorg", "0")); } catch (NumberFormatException e) { throw new RuntimeException("ID Organizator trebuie să fie un număr valid!"); }
+            try { pret = new BigDecimal(form.getOrDefault("pret", "0")); } catch (Exception e) { throw new RuntimeException("Prețul trebuie să fie un număr valid!"); }
+
+            try { data = Date.valueOf(form.getOrDefault("data", "")); } catch (Exception e) { throw new RuntimeException("Formatul datei este incorect! (Trebuie: YYYY-MM-DD)"); }
+            String oraStr = form.getOrDefault("ora", "");
+            if (oraStr.length() == 5) oraStr += ":00";
+            try { ora = Time.valueOf(oraStr); } catch (Exception e) { throw new RuntimeException("Formatul orei este incorect! (Trebuie: HH:MM:SS)"); }
+
+            ps.setString(1, form.getOrDefault("titlu", ""));
+            ps.setDate(2, data);
+            ps.setTime(3, ora);
+            ps.setBigDecimal(4, pret);
+            ps.setInt(5, idLoc);
+            ps.setInt(6, idOrg);
+        }
+    },
+
+    ARTIST("INSERT INTO Artist (Nume_Artist, Prenume_Artist, Nationalitate, Varsta, Experienta_Ani) VALUES (?,?,?,?,?)",
+            SearchIndex.Entitate.ARTIST, List.of("nume", "prenume", "nationalitate", "varsta", "experienta")) {
+        @Override
+        public void leaga(Map<String, String> form, PreparedStatement ps) throws SQLException {
+            if (areCifre(form.getOrDefault("nationalitate", ""))) throw new RuntimeException("Naționalitatea nu poate conține cifre!");
+
+            ps.setString(1, form.getOrDefault("nume", "")); ps.setString(2, form.getOrDefault("prenume", "")); ps.setString(3, form.getOrDefault("nationalitate", ""));
+            int varsta = 0; try { varsta = Integer.parseInt(form.getOrDefault("varsta", "0")); } catch(Exception e){}
+            int exp = 0; try { exp = Integer.parseInt(form.getOrDefault("experienta", "0")); } catch(Exception e){}
+            ps.setInt(4, varsta); ps.setInt(5, exp);
+        }
+    },
+
+    LOCATIE("INSERT INTO Locatie (Nume_Locatie, Adresa, Oras, Capacitate) VALUES (?,?,?,?)",
+            SearchIndex.Entitate.LOCATIE, List.of("nume", "adresa", "oras", "capacitate")) {
+        @Override
+        public void leaga(Map<String, String> form, PreparedStatement ps) throws SQLException {
+            if (areCifre(form.getOrDefault("oras", ""))) throw new RuntimeException("Orașul nu poate conține cifre!");
+            int capacitate;
+            try { capacitate = Integer.parseInt(form.get("capacitate")); } catch (NumberFormatException e) { throw new RuntimeException("Capacitatea trebuie să fie un număr valid!"); }
+
+            ps.setString(1, form.get("nume")); ps.setString(2, form.get("adresa")); ps.setString(3, form.get("oras")); ps.setInt(4, capacitate);
+        }
+    },
+
+    ORGANIZATOR("INSERT INTO Organizator (Nume_Organizator, Email_Organizator, Telefon_Organizator) VALUES (?,?,?)",
+            SearchIndex.Entitate.ORGANIZATOR, List.of("nume", "email", "telefon")) {
+        @Override
+        public void leaga(Map<String, String> form, PreparedStatement ps) throws SQLException {
+            if (!form.getOrDefault("email", "").contains("@gmail.com")) throw new RuntimeException("Email-ul trebuie să fie de tip @gmail.com!");
+            if (!TELEFON.matcher(form.getOrDefault("telefon", "")).matches()) throw new RuntimeException("Telefonul trebuie să aibă exact 10 cifre!");
+
+            ps.setString(1, form.get("nume")); ps.setString(2, form.get("email")); ps.setString(3, form.get("telefon"));
+        }
+    };
+
+    // Compilate o data, nu la fiecare rand (String.matches compileaza expresia la fiecare apel)
+    private static final Pattern CIFRA = Pattern.compile("\\d");
+    private static final Pattern TELEFON = Pattern.compile("\\d{10}");
+
+    private final String sql;
+    private final SearchIndex.Entitate entitate;
+    private final List<String> campuri;
+
+    Inserare(String sql, SearchIndex.Entitate entitate, List<String> campuri) {
+        this.sql = sql;
+        this.entitate = entitate;
+        this.campuri = campuri;
+    }
+
+    /** Valideaza campurile formularului si seteaza parametrii INSERT-ului. */
+    public abstract void leaga(Map<String, String> form, PreparedStatement ps) throws SQLException;
+
+    public String sql() { return sql; }
+
+    public SearchIndex.Entitate entitate() { return entitate; }
+
+    /** Numele campurilor formularului (si ale coloanelor din CSV), in ordinea din INSERT. */
+    public List<String> campuri() { return campuri; }
+
+    /** Tipul din URL (/import/artist -> ARTIST), sau null. */
+    public static Inserare dupaNume(String nume) {
+        for (Inserare i : values()) {
+            if (i.name().equalsIgnoreCase(nume)) return i;
+        }
+        return null;
+    }
+
+    private static boolean areCifre(String text) {
+        return CIFRA.matcher(text).find();
+    }
+}
@@ -0,0 +1,186 @@
+/** Clasa pentru masurarea conexiunilor si interogarilor SQL
+ * @author Sova Ioan-Rares
+ * @version 17 Octombrie 2026
+ */
+package aplicatie_standup.app_standup.db;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DataSource care masoara, fara schimbari in codul care il foloseste: obtinerea conexiunii
+ * (db.conexiune), executia fiecarei interogari si parcurgerea ResultSet-ului (vezi SqlMetrics).
+ * Conexiunile, statement-urile si ResultSet-urile sunt inlocuite cu proxy-uri care
+ * inregistreaza timpul si dau mai departe orice alt apel.
+ * <p>
+ * Pana la activeaza() (cand exista MeterRegistry) conexiunile sunt date direct, nemasurate.
+ */
+public class InstrumentedDataSource extends DelegatingDataSource {
+
+    private volatile SqlMetrics metrici;
+
+    public InstrumentedDataSource(DataSource tinta) {
+        super(tinta);
+    }
+
+    public void activeaza(SqlMetrics metrici) {
+        this.metrici = metrici;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        SqlMetrics m = metrici;
+        if (m == null) return obtainTargetDataSource().getConnection();
+        long t0 = System.nanoTime();
+        Connection conexiune = obtainTargetDataSource().getConnection();
+        m.conexiune().record(System.nanoTime() - t0, TimeUnit.NANOSECONDS);
+        return proxy(Connection.class, new Conexiune(conexiune, m));
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        SqlMetrics m = metrici;
+        Connection conexiune = obtainTargetDataSource().getConnection(username, password);
+        return m == null ? conexiune : proxy(Connection.class, new Conexiune(conexiune, m));
+    }
+
+    private static <T> T proxy(Class<T> tip, InvocationHandler handler) {
+        return tip.cast(Proxy.newProxyInstance(tip.getClassLoader(), new Class<?>[]{tip}, handler));
+    }
+
+    private static Object apeleaza(Object tinta, Method metoda, Object[] args) throws Throwable {
+        try {
+            return metoda.invoke(tinta, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    // equals/hashCode pe identitatea proxy-ului, ca doua proxy-uri peste aceeasi conexiune sa nu fie "egale"
+    private static Object identitate(Object proxy, Method metoda, Object[] args) {
+        return switch (metoda.getName()) {
+            case "equals" -> proxy == args[0];
+            case "hashCode" -> System.identityHashCode(proxy);
+            default -> proxy.getClass().getInterfaces()[0].getSimpleName() + "@" + Integer.toHexString(System.identityHashCode(proxy));
+        };
+    }
+
+    /** Inlocuieste statement-urile create cu variante masurate. */
+    private record Conexiune(Connection tinta, SqlMetrics metrici) implements InvocationHandler {
+        @Override
+        public Object invoke(Object proxy, Method metoda, Object[] args) throws Throwable {
+            if (metoda.getDeclaringClass() == Object.class) return identitate(proxy, metoda, args);
+            Object rezultat = apeleaza(tinta, metoda, args);
+            return switch (metoda.getName()) {
+                case "prepareStatement" -> proxy(PreparedStatement.class, new Instructiune(rezultat, metrici, (String) args[0]));
+                case "prepareCall" -> proxy(CallableStatement.class, new Instructiune(rezultat, metrici, (String) args[0]));
+                case "createStatement" -> proxy(Statement.class, new Instructiune(rezultat, metrici, null));
+                default -> rezultat;
+            };
+        }
+    }
+
+    /**
+     * Masoara execute* si, pentru executeQuery, intoarce un ResultSet care numara randurile.
+     * sqlPregatit este SQL-ul din prepareStatement (null pentru Statement, unde vine la executie).
+     */
+    private static final class Instructiune implements InvocationHandler {
+        private final Object tinta;
+        private final SqlMetrics metrici;
+        private final String sqlPregatit;
+        private final String numePregatit;
+        private Citire citireDeschisa;
+
+        Instructiune(Object tinta, SqlMetrics metrici, String sqlPregatit) {
+            this.tinta = tinta;
+            this.metrici = metrici;
+            this.sqlPregatit = sqlPregatit;
+            this.numePregatit = sqlPregatit == null ? null : SqlMetrics.nume(sqlPregatit);
+            if (sqlPregatit != null) metrici.pregatire(numePregatit, sqlPregatit);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method metoda, Object[] args) throws Throwable {
+            if (metoda.getDeclaringClass() == Object.class) return identitate(proxy, metoda, args);
+            String numeMetoda = metoda.getName();
+            if (numeMetoda.equals("close") && citireDeschisa != null) citireDeschisa.inchide();
+            if (!numeMetoda.startsWith("execute")) return apeleaza(tinta, metoda, args);
+
+            String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : sqlPregatit;
+            // Statement.executeBatch() nu are un singur SQL
+            String nume = sql == null ? "batch" : sql == sqlPregatit ? numePregatit : SqlMetrics.nume(sql);
+            // Statement.execute*(sql): textul ajunge la server abia acum
+            if (sql != null && sql != sqlPregatit) metrici.pregatire(nume, sql);
+            SqlMetrics.Meters m = metrici.pentru(nume);
+            long t0 = System.nanoTime();
+            Object rezultat;
+            try {
+                rezultat = apeleaza(tinta, metoda, args);
+            } catch (SQLException ex) {
+                m.erori().increment();
+                throw ex;
+            }
+            long executie = System.nanoTime() - t0;
+            m.executare().record(executie, TimeUnit.NANOSECONDS);
+
+            if (rezultat instanceof ResultSet rs) {
+                if (citireDeschisa != null) citireDeschisa.inchide();
+                citireDeschisa = new Citire(rs, m, metrici, nume, sql, executie);
+                return proxy(ResultSet.class, citireDeschisa);
+            }
+            long randuri = rezultat instanceof Integer n ? n : rezultat instanceof Long n ? n : 0;
+            if (rezultat instanceof int[] lot) for (int n : lot) randuri += Math.max(n, 0);
+            if (randuri > 0) m.randuri().record(randuri);
+            metrici.verificaLent(nume, executie, randuri, sql);
+            return rezultat;
+        }
+    }
+
+    /** Numara randurile si, la inchidere, inregistreaza timpul de citire (fetch + mapare). */
+    private static final class Citire implements InvocationHandler {
+        private final ResultSet tinta;
+        private final SqlMetrics.Meters meters;
+        private final SqlMetrics metrici;
+        private final String nume;
+        private final String sql;
+        private final long executie;
+        private final long inceput = System.nanoTime();
+        private long randuri;
+        private boolean inchisa;
+
+        Citire(ResultSet tinta, SqlMetrics.Meters meters, SqlMetrics metrici, String nume, String sql, long executie) {
+            this.tinta = tinta;
+            this.meters = meters;
+            this.metrici = metrici;
+            this.nume = nume;
+            this.sql = sql;
+            this.executie = executie;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method metoda, Object[] args) throws Throwable {
+            if (metoda.getDeclaringClass() == Object.class) return identitate(proxy, metoda, args);
+            Object rezultat = apeleaza(tinta, metoda, args);
+            if (rezultat == Boolean.TRUE && metoda.getName().equals("next")) randuri++;
+            else if (metoda.getName().equals("close")) inchide();
+            return rezultat;
+        }
+
+        // Apelat si la inchiderea statement-ului, care inchide ResultSet-ul fara sa treaca prin proxy
+        void inchide() {
+            if (inchisa) return;
+            inchisa = true;
+            long citire = System.nanoTime() - inceput;
+            meters.citire().record(citire, TimeUnit.NANOSECONDS);
+            meters.randuri().record(randuri);
+            metrici.verificaLent(nume, executie + citire, randuri, sql);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+/** Clasa pentru paginarea keyset (pe cursor) a listelor sortabile
+ * @author Sova Ioan-Rares
+ * @version 17 Octombrie 2026
+ */
+package aplicatie_standup.app_standup.db;
+
+import org.springframework.jdbc.core.RowMapper;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Paginare pe cursor peste o coloana de sortare din whitelist-ul safeColumns,
+ * cu coloana ID ca departajare stabila. In loc de OFFSET, pagina urmatoare
+ * incepe dupa (valoare, id) ultimului rand, deci costul nu creste cu adancimea.
+ * <p>
+ * NULL-urile sunt tratate ca in SQL Server: primele la ASC, ultimele la DESC.
+ * <p>
+ * Textul SQL depinde doar de coloana, ordinea de citire si tipul cursorului (vezi Variante);
+ * valorile cursorului si numarul de randuri sunt parametri.
+ */
+public final class Keyset {
+
+    /** Alias-ul coloanei de sortare adaugate in SELECT pentru a construi cursorul. */
+    public static final String CHEIE = "Cheie_Sortare";
+
+    /** Ce conditie de cursor apare in WHERE: niciuna (prima pagina), pe NULL sau pe o valoare. */
+    public enum Cursor { FARA, NUL, VALOARE }
+
+    private final String coloana;
+    private final String coloanaId;
+    private final boolean crescator;
+    private final int marime;
+    private final Object valoare;
+    private final int id;
+    private final boolean areCursor;
+    private final boolean inapoi;
+
+    private Keyset(String coloana, String coloanaId, boolean crescator, int marime, String after, String before) {
+        this.coloana = coloana;
+        this.coloanaId = coloanaId;
+        this.crescator = crescator;
+        this.marime = marime;
+        this.inapoi = (after == null || after.isEmpty()) && before != null && !before.isEmpty();
+        String cursor = inapoi ? before : after;
+        Object[] decodat = cursor == null || cursor.isEmpty() ? null : decodeaza(cursor);
+        this.areCursor = decodat != null;
+        this.valoare = areCursor ? decodat[0] : null;
+        this.id = areCursor ? (Integer) decodat[1] : 0;
+    }
+
+    /**
+     * @param coloana coloana de sortare, deja validata prin safeColumns
+     * @param after cursorul paginii urmatoare (are prioritate)
+     * @param before cursorul paginii anterioare
+     */
+    public static Keyset pe(String coloana, String coloanaId, String direction, int marime, String after, String before) {
+        return new Keyset(coloana, coloanaId, !"DESC".equals(direction), marime, after, before);
+    }
+
+    /** Valoarea pentru TOP (?): un rand in plus ne spune daca mai exista o pagina. */
+    public int randuriCitite() {
+        return marime + 1;
+    }
+
+    public String coloana() {
+        return coloana;
+    }
+
+    /** Ordinea in care se citesc randurile: invers fata de sortare cand mergem la pagina anterioara. */
+    public boolean crescator() {
+        return crescator != inapoi;
+    }
+
+    public Cursor cursor() {
+        return !areCursor ? Cursor.FARA : valoare == null ? Cursor.NUL : Cursor.VALOARE;
+    }
+
+    /** Coloana de sortare, adaugata la sfarsitul listei din SELECT. */
+    public static String select(String coloana) {
+        return ", " + coloana + " AS " + CHEIE;
+    }
+
+    public static String orderBy(String coloana, String coloanaId, boolean crescator) {
+        String dir = crescator ? "ASC" : "DESC";
+        return " ORDER BY " + coloana + " " + dir + ", " + coloanaId + " " + dir;
+    }
+
+    /** Leaga parametrii cursorului incepand cu indexul dat; intoarce urmatorul index liber. */
+    public int bind(PreparedStatement ps, int index) throws SQLException {
+        if (!areCursor) return index;
+        if (valoare != null) {
+            ps.setObject(index++, valoare);
+            ps.setObject(index++, valoare);
+        }
+        ps.setInt(index++, id);
+        return index;
+    }
+
+    public <T> Pagina<T> pagina(ResultSet rs, RowMapper<T> mapper) throws SQLException {
+        List<T> randuri = new ArrayList<>();
+        List<String> chei = new ArrayList<>();
+        while (rs.next()) {
+            randuri.add(mapper.mapRow(rs, randuri.size()));
+            chei.add(codeaza(rs.getObject(CHEIE), rs.getInt(coloanaId.substring(coloanaId.indexOf('.') + 1))));
+        }
+
+        boolean maiSunt = randuri.size() > marime;
+        if (maiSunt) {
+            randuri.remove(marime);
+            chei.remove(marime);
+        }
+        if (inapoi) {
+            Collections.reverse(randuri);
+            Collections.reverse(chei);
+        }
+        if (randuri.isEmpty()) return new Pagina<>(randuri, null, null);
+
+        String urmator = inapoi || maiSunt ? chei.get(chei.size() - 1) : null;
+        String anterior = inapoi ? (maiSunt ? chei.get(0) : null) : (areCursor ? chei.get(0) : null);
+        return new Pagina<>(randuri, urmator, anterior);
+    }
+
+    /** Conditia de cursor pentru WHERE, cu parametrii legati de bind(); null pentru Cursor.FARA. */
+    public static String conditie(String coloana, String coloanaId, boolean inainte, Cursor cursor) {
+        if (cursor == Cursor.FARA) return null;
+        String op = inainte ? ">" : "<";
+        if (cursor == Cursor.NUL) {
+            return inainte
+                    ? "((" + coloana + " IS NULL AND " + coloanaId + " > ?) OR " + coloana + " IS NOT NULL)"
+                    : "(" + coloana + " IS NULL AND " + coloanaId + " < ?)";
+        }
+        return "(" + coloana + " " + op + " ? OR (" + coloana + " = ? AND " + coloanaId + " " + op + " ?)"
+                + (inainte ? "" : " OR " + coloana + " IS NULL") + ")";
+    }
+
+    // --- Codificarea cursorului: tip|valoare|id in Base64 URL-safe ---
+
+    static String codeaza(Object valoare, int id) {
+        String tip, text;
+        if (valoare == null) { tip = "0"; text = ""; }
+        else if (valoare instanceof Integer || valoare instanceof Short || valoare instanceof Byte) { tip = "I"; text = valoare.toString(); }
+        else if (valoare instanceof Long) { tip = "L"; text = valoare.toString(); }
+        else if (valoare instanceof BigDecimal bd) { tip = "N"; text = bd.toPlainString(); }
+        else if (valoare instanceof Timestamp ts) { tip = "TS"; text = ts.toLocalDateTime().toString(); }
+        else if (valoare instanceof java.time.LocalDateTime ldt) { tip = "TS"; text = ldt.toString(); }
+        else if (valoare instanceof Date d) { tip = "D"; text = d.toLocalDate().toString(); }
+        else if (valoare instanceof java.time.LocalDate ld) { tip = "D"; text = ld.toString(); }
+        else if (valoare instanceof Time t) { tip = "T"; text = t.toLocalTime().toString(); }
+        else if (valoare instanceof java.time.LocalTime lt) { tip = "T"; text = lt.toString(); }
+        else { tip = "S"; text = valoare.toString(); }
+        String brut = tip + "|" + id + "|" + text;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(brut.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Object[] decodeaza(String cursor) {
+        try {
+            String brut = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parti = brut.split("\\|", 3);
+            int id = Integer.parseInt(parti[1]);
+            String text = parti[2];
+            Object valoare = switch (parti[0]) {
+                case "0" -> null;
+                case "I" -> Integer.valueOf(text);
+                case "L" -> Long.valueOf(text);
+                case "N" -> new BigDecimal(text);
+                case "TS" -> Timestamp.valueOf(java.time.LocalDateTime.parse(text));
+                case "D" -> Date.valueOf(java.time.LocalDate.parse(text));
+                case "T" -> Time.valueOf(java.time.LocalTime.parse(text));
+                case "S" -> text;
+                default -> throw new IllegalArgumentException(parti[0]);
+            };
+            return new Object[]{valoare, id};
+        } catch (RuntimeException ex) {
+            // Cursor invalid (modificat manual) -> pornim de la prima pagina
+            return null;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/** Clasa pentru limitarea numarului de conexiuni folosite simultan
+ * @author Sova Ioan-Rares
+ * @version 17 Octombrie 2026
+ */
+package aplicatie_standup.app_standup.db;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * DataSource care lasa cel mult maxConcurente conexiuni deschise in acelasi timp. Cu fire
+ * virtuale pot exista mii de cereri in lucru; fara limita, toate ar astepta in coada pool-ului
+ * pana la connection-timeout. Aici asteapta intr-o coada corecta (FIFO) cel mult timeoutMs,
+ * apoi primesc SQLTransientConnectionException, tratata de handler-e ca orice eroare SQL.
+ * <p>
+ * Permisiunea se elibereaza la primul close() al conexiunii. Semaphore nu fixeaza firul
+ * virtual pe firul purtator in timpul asteptarii (spre deosebire de synchronized).
+ */
+public class LimitedDataSource extends DelegatingDataSource {
+
+    @FunctionalInterface
+    private interface Deschidere {
+        Connection deschide() throws SQLException;
+    }
+
+    private final int maxConcurente;
+    private final long timeoutNanos;
+    private final Semaphore permise;
+
+    public LimitedDataSource(DataSource tinta, int maxConcurente, long timeoutMs) {
+        super(tinta);
+        this.maxConcurente = maxConcurente;
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        this.permise = new Semaphore(maxConcurente, true);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return limiteaza(() -> obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return limiteaza(() -> obtainTargetDataSource().getConnection(username, password));
+    }
+
+    /** Conexiuni deschise prin acest DataSource. */
+    public int inLucru() {
+        return maxConcurente - permise.availablePermits();
+    }
+
+    /** Cereri care asteapta o permisiune. */
+    public int inAsteptare() {
+        return permise.getQueueLength();
+    }
+
+    public int maxConcurente() {
+        return maxConcurente;
+    }
+
+    private Connection limiteaza(Deschidere deschidere) throws SQLException {
+        try {
+            if (!permise.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw new SQLTransientConnectionException("Baza de date este ocupată (" + maxConcurente
+                        + " cereri în lucru). Încearcă din nou.");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Întrerupt în așteptarea bazei de date.", ex);
+        }
+        try {
+            return elibereazaLaInchidere(deschidere.deschide());
+        } catch (SQLException | RuntimeException ex) {
+            permise.release();
+            throw ex;
+        }
+    }
+
+    private Connection elibereazaLaInchidere(Connection conexiune) {
+        AtomicBoolean inchisa = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, metoda, args) -> {
+                    boolean inchidere = "close".equals(metoda.getName()) && inchisa.compareAndSet(false, true);
+                    try {
+                        return metoda.invoke(conexiune, args);
+                    } catch (InvocationTargetException ex) {
+                        throw ex.getCause();
+                    } finally {
+                        if (inchidere) permise.release();
+                    }
+                });
+    }
+}
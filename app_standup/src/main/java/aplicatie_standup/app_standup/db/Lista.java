@@ -0,0 +1,109 @@
+/** Clasa cu definitiile listelor (coloane, tabele, sortari permise)
+ * @author Sova Ioan-Rares
+ * @version 17 Octombrie 2026
+ */
+package aplicatie_standup.app_standup.db;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Interogarea de baza a fiecarei liste, folosita atat de paginile Thymeleaf cat si de /api:
+ * coloanele din SELECT (in ordinea asteptata de RowMappers), FROM-ul cu JOIN-uri, coloanele
+ * dupa care se poate sorta (sortBy -> coloana SQL), conditia LIKE folosita cand indexul
+ * de cautare nu poate raspunde si, pentru bilete, conditia pe spectator. Textele SQL complete
+ * sunt construite o singura data, in Variante.
+ */
+public enum Lista {
+
+    SPECTACOL("s.ID_Spectacol, s.Titlu, s.Data_Spectacol, s.Ora, s.Pret_Bilet, l.Nume_Locatie, o.Nume_Organizator, s.ID_Locatie, s.ID_Organizator",
+            " FROM Spectacol s LEFT JOIN Locatie l ON s.ID_Locatie = l.ID_Locatie LEFT JOIN Organizator o ON s.ID_Organizator = o.ID_Organizator",
+            "s.ID_Spectacol",
+            Map.of("ID", "s.ID_Spectacol", "TITLU", "s.Titlu", "DATA", "s.Data_Spectacol",
+                    "ORA", "s.Ora", "PRET", "s.Pret_Bilet", "LOCATIE", "l.Nume_Locatie", "ORGANIZATOR", "o.Nume_Organizator"),
+            "s.Data_Spectacol",
+            "(s.Titlu LIKE ? OR l.Nume_Locatie LIKE ? OR o.Nume_Organizator LIKE ?)",
+            null),
+
+    BILET("b.ID_Bilet, s.Titlu, sp.Nume_Spectator, b.Data_Cumparare, b.Cod_Bilet",
+            " FROM Bilet b LEFT JOIN Spectacol s ON b.ID_Spectacol = s.ID_Spectacol LEFT JOIN Spectator sp ON b.ID_Spectator = sp.ID_Spectator",
+            "b.ID_Bilet",
+            Map.of("ID", "b.ID_Bilet", "TITLU", "s.Titlu", "SPECTATOR", "sp.Nume_Spectator", "DATA", "b.Data_Cumparare", "COD", "b.Cod_Bilet"),
+            "b.Data_Cumparare",
+            null,
+            "b.ID_Spectator = ?"),
+
+    ARTIST("ID_Artist, Nume_Artist, Prenume_Artist, Nationalitate, Varsta, Experienta_Ani",
+            " FROM Artist",
+            "ID_Artist",
+            Map.of("ID", "ID_Artist", "NUME", "Nume_Artist", "PRENUME", "Prenume_Artist", "NATIONALITATE", "Nationalitate", "VARSTA", "Varsta", "EXPERIENTA", "Experienta_Ani"),
+            "Nume_Artist",
+            "(Nume_Artist LIKE ? OR Prenume_Artist LIKE ? OR Nationalitate LIKE ?)",
+            null),
+
+    LOCATIE("ID_Locatie, Nume_Locatie, Adresa, Oras, Capacitate",
+            " FROM Locatie",
+            "ID_Locatie",
+            Map.of("ID", "ID_Locatie", "NUME", "Nume_Locatie", "ADRESA", "Adresa", "ORAS", "Oras", "CAPACITATE", "Capacitate"),
+            "Nume_Locatie",
+            "(Nume_Locatie LIKE ? OR Adresa LIKE ? OR Oras LIKE ?)",
+            null),
+
+    ORGANIZATOR("ID_Organizator, Nume_Organizator, Email_Organizator, Telefon_Organizator",
+            " FROM Organizator",
+            "ID_Organizator",
+            Map.of("ID", "ID_Organizator", "NUME", "Nume_Organizator", "EMAIL", "Email_Organizator", "TELEFON", "Telefon_Organizator"),
+            "Nume_Organizator",
+            "(Nume_Organizator LIKE ? OR Email_Organizator LIKE ? OR Telefon_Organizator LIKE ?)",
+            null);
+
+    private final String coloane;
+    private final String from;
+    private final String coloanaId;
+    private final Map<String, String> coloaneSortare;
+    private final String coloanaImplicita;
+    private final String like;
+    private final String proprietar;
+
+    Lista(String coloane, String from, String coloanaId, Map<String, String> coloaneSortare,
+          String coloanaImplicita, String like, String proprietar) {
+        this.coloane = coloane;
+        this.from = from;
+        this.coloanaId = coloanaId;
+        this.coloaneSortare = coloaneSortare;
+        this.coloanaImplicita = coloanaImplicita;
+        this.like = like;
+        this.proprietar = proprietar;
+    }
+
+    /** Coloanele din SELECT, fara virgula finala. */
+    public String coloane() { return coloane; }
+
+    /** " FROM ..." cu JOIN-urile listei. */
+    public String from() { return from; }
+
+    public String coloanaId() { return coloanaId; }
+
+    /** Conditia LIKE pe trei coloane (trei parametri "%q%"), sau null daca lista nu are cautare. */
+    public String like() { return like; }
+
+    /** Conditia care restrange lista la randurile unui spectator (un parametru), sau null. */
+    public String proprietar() { return proprietar; }
+
+    /** Toate coloanele SQL dupa care poate fi sortata lista (valorile posibile ale lui coloana()). */
+    public Set<String> coloaneSortare() {
+        Set<String> toate = new TreeSet<>(coloaneSortare.values());
+        toate.add(coloanaImplicita);
+        return toate;
+    }
+
+    /** Coloana SQL pentru sortBy; valorile necunoscute cad pe coloana implicita, deci nu ajung in SQL. */
+    public String coloana(String sortBy) {
+        return coloaneSortare.getOrDefault(sortBy.toUpperCase(), coloanaImplicita);
+    }
+
+    public static String directie(String sortDir) {
+        return "DESC".equalsIgnoreCase(sortDir) ? "DESC" : "ASC";
+    }
+}
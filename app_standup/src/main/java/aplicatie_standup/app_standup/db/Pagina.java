@@ -0,0 +1,18 @@
+/** Clasa pentru o pagina de rezultate obtinuta prin paginare keyset
+ * @author Sova Ioan-Rares
+ * @version 17 Octombrie 2026
+ */
+package aplicatie_standup.app_standup.db;
+
+import java.util.List;
+
+/**
+ * Randurile paginii curente si cursoarele catre pagina urmatoare / anterioara
+ * (null daca nu exista).
+ */
+public record Pagina<T>(List<T> randuri, String cursorUrmator, String cursorAnterior) {
+
+    public Pagina {
+        randuri = List.copyOf(randuri);
+    }
+}
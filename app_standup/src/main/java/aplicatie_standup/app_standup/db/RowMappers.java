@@ -0,0 +1,64 @@
+/** Clasa cu RowMapper-ele pentru randurile afisate in pagini
+ * @author Sova Ioan-Rares
+ * @version 17 Octombrie 2026
+ */
+package aplicatie_standup.app_standup.db;
+
+import aplicatie_standup.app_standup.model.*;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Transforma randurile din ResultSet direct in record-uri imutabile, dupa pozitia
+ * coloanelor din SELECT-urile din SpectacoleController / SpectacolCatalog.
+ * Datele sunt citite ca LocalDate / LocalTime / LocalDateTime si formatate abia
+ * in sablon (vezi view.DateFormats), deci mapper-ele sunt constante fara stare.
+ */
+public final class RowMappers {
+
+    private RowMappers() {}
+
+    /** s.ID_Spectacol, s.Titlu, s.Data_Spectacol, s.Ora, s.Pret_Bilet, l.Nume_Locatie, o.Nume_Organizator, s.ID_Locatie, s.ID_Organizator */
+    public static final RowMapper<SpectacolRow> SPECTACOL = (rs, i) ->
+            new SpectacolRow(rs.getInt(1), rs.getString(2), rs.getObject(3, LocalDate.class), rs.getObject(4, LocalTime.class),
+                    rs.getBigDecimal(5), rs.getString(6), rs.getString(7), rs.getInt(8), rs.getInt(9));
+
+    /** b.ID_Bilet, s.Titlu, sp.Nume_Spectator, b.Data_Cumparare, b.Cod_Bilet */
+    public static final RowMapper<BiletRow> BILET = (rs, i) ->
+            new BiletRow(rs.getInt(1), rs.getString(2), rs.getString(3), rs.getObject(4, LocalDateTime.class), rs.getString(5));
+
+    /** ID_Artist, Nume_Artist, Prenume_Artist, Nationalitate, Varsta, Experienta_Ani */
+    public static final RowMapper<ArtistRow> ARTIST = (rs, i) ->
+            new ArtistRow(rs.getInt(1), rs.getString(2), rs.getString(3), rs.getString(4), rs.getInt(5), rs.getInt(6));
+
+    /** ID_Locatie, Nume_Locatie, Adresa, Oras, Capacitate */
+    public static final RowMapper<LocatieRow> LOCATIE = (rs, i) ->
+            new LocatieRow(rs.getInt(1), rs.getString(2), rs.getString(3), rs.getString(4), rs.getInt(5));
+
+    /** ID_Organizator, Nume_Organizator, Email_Organizator, Telefon_Organizator */
+    public static final RowMapper<OrganizatorRow> ORGANIZATOR = (rs, i) ->
+            new OrganizatorRow(rs.getInt(1), rs.getString(2), rs.getString(3), rs.getString(4));
+
+    /** Cod_Bilet, Titlu, Nume_Spectator (sqlRecent) */
+    public static final RowMapper<BiletRecentRow> BILET_RECENT = (rs, i) ->
+            new BiletRecentRow(rs.getString(1), rs.getString(2) + " -> " + rs.getString(3));
+
+    /** l.Nume_Locatie, s.Titlu, s.Data_Spectacol (sqlUp) */
+    public static final RowMapper<SpectacolViitorRow> SPECTACOL_VIITOR = (rs, i) ->
+            new SpectacolViitorRow(rs.getString(1), rs.getString(2), rs.getObject(3, LocalDate.class));
+
+    /** o.Nume_Organizator, s.Titlu (sqlRec) */
+    public static final RowMapper<SpectacolRecentRow> SPECTACOL_RECENT = (rs, i) ->
+            new SpectacolRecentRow(rs.getString(1), rs.getString(2));
+
+    /** Titlu, Nr, Total (COMPLEXA 1) */
+    public static final RowMapper<VanzareRow> VANZARE = (rs, i) ->
+            new VanzareRow(rs.getString(1), rs.getInt(2), rs.getBigDecimal(3));
+
+    /** Nume_Organizator, Total (COMPLEXA 2) */
+    public static final RowMapper<VenitOrganizatorRow> VENIT_ORGANIZATOR = (rs, i) ->
+            new VenitOrganizatorRow(rs.getString(1), rs.getBigDecimal(2));
+}
@@ -0,0 +1,54 @@
+/** Clasa pentru aplicarea masuratorilor SQL pe DataSource-ul aplicatiei
+ * @author Sova Ioan-Rares
+ * @version 17 Octombrie 2026
+ */
+package aplicatie_standup.app_standup.db;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Inveleste bean-ul "dataSource" intr-un InstrumentedDataSource (app.sql.metrics.enabled).
+ * Ruleaza dupa DbConcurrencyLimiter, deci db.conexiune include si asteptarea la limitator.
+ * Masuratorile pornesc dupa crearea tuturor bean-urilor, cand MeterRegistry exista sigur.
+ */
+@Component
+public class SqlInstrumentation implements BeanPostProcessor, SmartInitializingSingleton, Ordered {
+
+    private final boolean activ;
+    private final long pragLentMs;
+    private final ObjectProvider<MeterRegistry> registry;
+    private InstrumentedDataSource instrumentat;
+
+    // BeanPostProcessor-ele se creeaza inaintea celorlalte bean-uri, deci citim direct din Environment
+    public SqlInstrumentation(Environment env, ObjectProvider<MeterRegistry> registry) {
+        this.activ = env.getProperty("app.sql.metrics.enabled", Boolean.class, true);
+        this.pragLentMs = env.getProperty("app.sql.slow-query-ms", Long.class, 500L);
+        this.registry = registry;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!activ || !"dataSource".equals(beanName) || !(bean instanceof DataSource ds)) return bean;
+        instrumentat = new InstrumentedDataSource(ds);
+        return instrumentat;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        MeterRegistry r = registry.getIfAvailable();
+        if (instrumentat != null && r != null) instrumentat.activeaza(new SqlMetrics(r, pragLentMs));
+    }
+
+    @Override
+    public int getOrder() {
+        return DbConcurrencyLimiter.ORDINE + 1;
+    }
+}
@@ -0,0 +1,120 @@
+/** Clasa pentru metricile interogarilor SQL si log-ul de interogari lente
+ * @author Sova Ioan-Rares
+ * @version 17 Octombrie 2026
+ */
+package aplicatie_standup.app_standup.db;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Metricile per interogare, dupa nume:
+ * sql.executare (executeQuery / executeUpdate), sql.citire (parcurgerea ResultSet-ului, adica
+ * fetch + maparea randurilor), sql.randuri (randuri citite sau modificate), sql.erori.
+ * Numele este comentariul de la inceputul interogarii ("/* complexa1 *&#47; SELECT ...") sau,
+ * daca lipseste, verbul si primul tabel ("select bilet"), ca numarul de serii sa ramana mic
+ * si pentru SQL construit dinamic. Meter-ele sunt create o data per nume si tinute in map-uri.
+ * <p>
+ * Interogarile care dureaza (executie + citire) peste pragul dat sunt scrise in log-ul "sql.lent".
+ * <p>
+ * sql.pregatiri{nume} numara textele trimise spre pregatire (prepareStatement sau Statement.execute
+ * cu SQL), iar sql.texte cate texte distincte au fost vazute (cel mult MAX_TEXTE): daca sql.texte
+ * creste odata cu traficul, SQL Server compileaza planuri noi in loc sa le refoloseasca.
+ */
+public final class SqlMetrics {
+
+    private static final Logger LENT = LoggerFactory.getLogger("sql.lent");
+    private static final int MAX_SQL_IN_LOG = 500;
+    private static final int MAX_TEXTE = 10_000;
+
+    private final MeterRegistry registry;
+    private final long pragLentNanos;
+    private final Timer conexiune;
+    private final Map<String, Meters> metrici = new ConcurrentHashMap<>();
+    private final Set<String> texte = ConcurrentHashMap.newKeySet();
+
+    record Meters(Timer executare, Timer citire, DistributionSummary randuri, Counter erori, Counter pregatiri) {}
+
+    public SqlMetrics(MeterRegistry registry, long pragLentMs) {
+        this.registry = registry;
+        this.pragLentNanos = TimeUnit.MILLISECONDS.toNanos(pragLentMs);
+        this.conexiune = Timer.builder("db.conexiune").description("Obtinerea unei conexiuni (limitator + pool)")
+                .register(registry);
+        Gauge.builder("sql.texte", texte, Set::size).description("Texte SQL distincte trimise spre pregatire")
+                .register(registry);
+    }
+
+    Timer conexiune() {
+        return conexiune;
+    }
+
+    Meters pentru(String nume) {
+        Meters m = metrici.get(nume);
+        return m != null ? m : metrici.computeIfAbsent(nume, n -> new Meters(
+                Timer.builder("sql.executare").description("Executia interogarii").tag("nume", n).register(registry),
+                Timer.builder("sql.citire").description("Parcurgerea ResultSet-ului (fetch + mapare)").tag("nume", n).register(registry),
+                DistributionSummary.builder("sql.randuri").description("Randuri citite / modificate").tag("nume", n).register(registry),
+                Counter.builder("sql.erori").description("Interogari terminate cu SQLException").tag("nume", n).register(registry),
+                Counter.builder("sql.pregatiri").description("Texte SQL trimise spre pregatire").tag("nume", n).register(registry)));
+    }
+
+    void pregatire(String nume, String sql) {
+        pentru(nume).pregatiri().increment();
+        if (texte.size() < MAX_TEXTE) texte.add(sql);
+    }
+
+    void verificaLent(String nume, long nanos, long randuri, String sql) {
+        if (nanos < pragLentNanos) return;
+        String text = sql == null ? "" : sql.length() > MAX_SQL_IN_LOG ? sql.substring(0, MAX_SQL_IN_LOG) + "..." : sql;
+        LENT.warn("SQL lent [{}]: {} ms, {} randuri: {}", nume, TimeUnit.NANOSECONDS.toMillis(nanos), randuri, text);
+    }
+
+    /** Numele unei interogari: comentariul de la inceput sau "verb tabel". */
+    public static String nume(String sql) {
+        String s = sql.stripLeading();
+        if (s.startsWith("/*")) {
+            int sfarsit = s.indexOf("*/");
+            if (sfarsit > 2) return s.substring(2, sfarsit).strip();
+        }
+        int spatiu = indexSpatiu(s, 0);
+        if (spatiu < 0) return s.toLowerCase(Locale.ROOT);
+        String verb = s.substring(0, spatiu).toLowerCase(Locale.ROOT);
+        String cuvantTabel = switch (verb) {
+            case "insert" -> "INTO";
+            case "update" -> null;
+            default -> "FROM";
+        };
+        String tabel = cuvantTabel == null ? cuvantDupa(s, spatiu) : cuvantDupa(s, cuvantTabel);
+        return tabel == null ? verb : verb + " " + tabel.toLowerCase(Locale.ROOT);
+    }
+
+    private static String cuvantDupa(String s, String cuvant) {
+        String mare = s.toUpperCase(Locale.ROOT);
+        int i = mare.indexOf(" " + cuvant + " ");
+        return i < 0 ? null : cuvantDupa(s, i + cuvant.length() + 1);
+    }
+
+    private static String cuvantDupa(String s, int start) {
+        int i = start;
+        while (i < s.length() && Character.isWhitespace(s.charAt(i))) i++;
+        int j = i;
+        while (j < s.length() && (Character.isLetterOrDigit(s.charAt(j)) || s.charAt(j) == '_')) j++;
+        return j > i ? s.substring(i, j) : null;
+    }
+
+    private static int indexSpatiu(String s, int start) {
+        for (int i = start; i < s.length(); i++) if (Character.isWhitespace(s.charAt(i))) return i;
+        return -1;
+    }
+}
@@ -0,0 +1,120 @@
+/** Clasa cu textele SQL pregatite pentru fiecare lista
+ * @author Sova Ioan-Rares
+ * @version 17 Octombrie 2026
+ */
+package aplicatie_standup.app_standup.db;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Toate textele SELECT posibile pentru o lista, construite o singura data la pornire:
+ * coloana de sortare x ordinea de citire x tipul cursorului x filtru (fara, LIKE, IN cu
+ * 8, 64, 512 sau app.search.max-ids parametri) x conditia pe spectator. Orice cerere foloseste unul dintre aceste
+ * texte, cu valorile ca parametri (inclusiv TOP si ID-urile din indexul de cautare), deci
+ * SQL Server compileaza un numar fix de planuri si driverul poate refolosi statement-urile
+ * pregatite pe fiecare conexiune din pool.
+ */
+public final class Variante {
+
+    /** Cum se restrang randurile: fara filtru, LIKE pe trei coloane sau IN cu ID-urile din indexul de cautare. */
+    public enum Filtru { NIMIC, LIKE, IDURI }
+
+    private record Cheie(String coloana, boolean crescator, Keyset.Cursor cursor, Filtru filtru, int parametriIn, boolean proprietar) {}
+
+    // Cate ID-uri mai multe decat cea anterioara primeste fiecare marime a listei IN
+    private static final int PAS_IN = 8;
+
+    private final Lista lista;
+    private final int maxIduri;
+    private final Map<Cheie, String> texte;
+
+    /**
+     * @param maxIduri cel mai mare numar de ID-uri dat de indexul de cautare (app.search.max-ids);
+     *                 0 daca lista nu se cauta prin index
+     */
+    public Variante(Lista lista, int maxIduri) {
+        this.lista = lista;
+        this.maxIduri = maxIduri;
+        List<Filtru> filtre = new ArrayList<>(List.of(Filtru.NIMIC));
+        if (lista.like() != null) filtre.add(Filtru.LIKE);
+        boolean[] proprietar = lista.proprietar() == null ? new boolean[]{false} : new boolean[]{false, true};
+
+        Map<Cheie, String> toate = new HashMap<>();
+        for (String coloana : lista.coloaneSortare()) {
+            for (boolean crescator : new boolean[]{true, false}) {
+                for (Keyset.Cursor cursor : Keyset.Cursor.values()) {
+                    for (boolean p : proprietar) {
+                        for (Filtru filtru : filtre) {
+                            Cheie cheie = new Cheie(coloana, crescator, cursor, filtru, 0, p);
+                            toate.put(cheie, construieste(cheie));
+                        }
+                        for (int n : marimiIn(maxIduri)) {
+                            Cheie cheie = new Cheie(coloana, crescator, cursor, Filtru.IDURI, n, p);
+                            toate.put(cheie, construieste(cheie));
+                        }
+                    }
+                }
+            }
+        }
+        this.texte = Map.copyOf(toate);
+    }
+
+    /**
+     * Textul pentru o cerere. Parametrii se leaga in ordinea: TOP, filtrul (3 pentru LIKE,
+     * parametriIn(iduri) pentru IN), spectatorul, apoi cursorul (Keyset.bind).
+     */
+    public String sql(Keyset keyset, Filtru filtru, int iduri, boolean proprietar) {
+        Cheie cheie = new Cheie(keyset.coloana(), keyset.crescator(), keyset.cursor(), filtru,
+                filtru == Filtru.IDURI ? parametriIn(iduri) : 0, proprietar);
+        String sql = texte.get(cheie);
+        if (sql == null) throw new IllegalArgumentException("Interogare neprevazuta pentru lista " + lista + ": " + cheie);
+        return sql;
+    }
+
+    /** Numarul de texte distincte ale listei. */
+    public int numar() {
+        return texte.size();
+    }
+
+    /**
+     * Parametrii din IN pentru n ID-uri: cea mai mica marime din marimiIn() care le cuprinde;
+     * locurile in plus repeta ultimul ID.
+     */
+    public int parametriIn(int iduri) {
+        return parametriIn(iduri, maxIduri);
+    }
+
+    /** Ca mai sus, pentru un index care da cel mult maxIduri ID-uri. */
+    public static int parametriIn(int iduri, int maxIduri) {
+        for (int n : marimiIn(maxIduri)) if (n >= iduri) return n;
+        return iduri;
+    }
+
+    // Putin texte (si planuri) cu pretul unor parametri repetati: 8, 64, 512, ..., apoi maxIduri
+    private static List<Integer> marimiIn(int maxIduri) {
+        List<Integer> marimi = new ArrayList<>();
+        for (long n = PAS_IN; maxIduri > 0; n *= PAS_IN) {
+            marimi.add((int) Math.min(n, maxIduri));
+            if (n >= maxIduri) break;
+        }
+        return marimi;
+    }
+
+    private String construieste(Cheie cheie) {
+        List<String> conditii = new ArrayList<>();
+        if (cheie.filtru() == Filtru.LIKE) conditii.add(lista.like());
+        if (cheie.filtru() == Filtru.IDURI) {
+            conditii.add(lista.coloanaId() + " IN (" + "?,".repeat(cheie.parametriIn() - 1) + "?)");
+        }
+        if (cheie.proprietar()) conditii.add(lista.proprietar());
+        String cursor = Keyset.conditie(cheie.coloana(), lista.coloanaId(), cheie.crescator(), cheie.cursor());
+        if (cursor != null) conditii.add(cursor);
+
+        return "SELECT TOP (?) " + lista.coloane() + Keyset.select(cheie.coloana()) + lista.from()
+                + (conditii.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditii))
+                + Keyset.orderBy(cheie.coloana(), lista.coloanaId(), cheie.crescator());
+    }
+}
@@ -0,0 +1,6 @@
+package aplicatie_standup.app_standup.model;
+
+/**
+ * Un rand din lista de artisti (/artisti).
+ */
+public record ArtistRow(int id, String nume, String prenume, String nationalitate, int varsta, int experienta) {}
@@ -0,0 +1,6 @@
+package aplicatie_standup.app_standup.model;
+
+/**
+ * Unul dintre ultimele bilete vandute, afisat adminului pe /bilete.
+ */
+public record BiletRecentRow(String cod, String info) {}
@@ -0,0 +1,8 @@
+package aplicatie_standup.app_standup.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Un rand din lista de bilete (/bilete).
+ */
+public record BiletRow(int id, String spectacol, String spectator, LocalDateTime dataCumparare, String cod) {}
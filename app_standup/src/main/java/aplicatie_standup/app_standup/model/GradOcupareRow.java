@@ -0,0 +1,6 @@
+package aplicatie_standup.app_standup.model;
+
+/**
+ * Gradul de ocupare al unei locatii in raport (COMPLEXA 4).
+ */
+public record GradOcupareRow(String nume, String procent) {}
@@ -0,0 +1,6 @@
+package aplicatie_standup.app_standup.model;
+
+/**
+ * Un rand din lista de locatii (/locatii).
+ */
+public record LocatieRow(int id, String nume, String adresa, String oras, int capacitate) {}
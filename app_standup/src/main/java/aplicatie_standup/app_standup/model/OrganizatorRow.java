@@ -0,0 +1,6 @@
+package aplicatie_standup.app_standup.model;
+
+/**
+ * Un rand din lista de organizatori (/organizatori).
+ */
+public record OrganizatorRow(int id, String nume, String email, String telefon) {}
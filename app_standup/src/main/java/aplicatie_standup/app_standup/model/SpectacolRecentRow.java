@@ -0,0 +1,6 @@
+package aplicatie_standup.app_standup.model;
+
+/**
+ * Un spectacol recent al unui organizator, afisat pe /organizatori.
+ */
+public record SpectacolRecentRow(String org, String show) {}
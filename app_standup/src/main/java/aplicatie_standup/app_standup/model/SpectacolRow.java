@@ -0,0 +1,11 @@
+package aplicatie_standup.app_standup.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Un rand din lista de spectacole (/spectacole).
+ */
+public record SpectacolRow(int id, String titlu, LocalDate data, LocalTime ora, BigDecimal pret,
+                           String locatie, String organizator, int idLocatie, int idOrganizator) {}
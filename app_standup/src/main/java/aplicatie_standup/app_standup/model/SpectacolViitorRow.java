@@ -0,0 +1,8 @@
+package aplicatie_standup.app_standup.model;
+
+import java.time.LocalDate;
+
+/**
+ * Un spectacol programat curand, afisat pe /locatii.
+ */
+public record SpectacolViitorRow(String loc, String show, LocalDate data) {}
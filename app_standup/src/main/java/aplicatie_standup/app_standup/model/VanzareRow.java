@@ -0,0 +1,8 @@
+package aplicatie_standup.app_standup.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Vanzarile unui spectacol in raport (COMPLEXA 1).
+ */
+public record VanzareRow(String titlu, int nr, BigDecimal total) {}
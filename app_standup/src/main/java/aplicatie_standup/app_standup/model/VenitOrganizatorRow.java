@@ -0,0 +1,8 @@
+package aplicatie_standup.app_standup.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Venitul total al unui organizator in raport (COMPLEXA 2).
+ */
+public record VenitOrganizatorRow(String nume, BigDecimal total) {}
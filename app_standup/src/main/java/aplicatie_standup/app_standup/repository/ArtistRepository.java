@@ -0,0 +1,48 @@
+/** Clasa pentru accesul la tabela Artist
+ * @author Sova Ioan-Rares
+ * @version 17 Octombrie 2026
+ */
+package aplicatie_standup.app_standup.repository;
+
+import aplicatie_standup.app_standup.db.Inserare;
+import aplicatie_standup.app_standup.db.Lista;
+import aplicatie_standup.app_standup.db.RowMappers;
+import aplicatie_standup.app_standup.model.ArtistRow;
+import aplicatie_standup.app_standup.service.SearchIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.Map;
+
+@Repository
+public class ArtistRepository extends ListaRepository<ArtistRow> {
+
+    private static final String SQL_MODIFICA =
+            "UPDATE Artist SET Nume_Artist=?, Prenume_Artist=?, Nationalitate=?, Varsta=?, Experienta_Ani=? WHERE ID_Artist=?";
+    private static final String SQL_STERGE = "DELETE FROM Artist WHERE ID_Artist=?";
+
+    public ArtistRepository(DataSource dataSource, SearchIndex searchIndex, MeterRegistry registry,
+                            @Value("${app.pagination.page-size:50}") int marimePagina,
+                            @Value("${app.search.max-ids:1000}") int maxIduri) {
+        super(dataSource, Lista.ARTIST, RowMappers.ARTIST, searchIndex, SearchIndex.Entitate.ARTIST,
+                registry, marimePagina, maxIduri);
+    }
+
+    public int adauga(Map<String, String> form) throws SQLException {
+        return insereaza(Inserare.ARTIST, form);
+    }
+
+    public int modifica(int id, String nume, String prenume, String nationalitate, int varsta, int experienta) throws SQLException {
+        return executa(SQL_MODIFICA, ps -> {
+            ps.setString(1, nume); ps.setString(2, prenume); ps.setString(3, nationalitate);
+            ps.setInt(4, varsta); ps.setInt(5, experienta); ps.setInt(6, id);
+        });
+    }
+
+    public int sterge(int id) throws SQLException {
+        return executa(SQL_STERGE, ps -> ps.setInt(1, id));
+    }
+}
@@ -0,0 +1,28 @@
+/** Clasa pentru citirea listei de bilete
+ * @author Sova Ioan-Rares
+ * @version 17 Octombrie 2026
+ */
+package aplicatie_standup.app_standup.repository;
+
+import aplicatie_standup.app_standup.db.Lista;
+import aplicatie_standup.app_standup.db.RowMappers;
+import aplicatie_standup.app_standup.model.BiletRow;
+import aplicatie_standup.app_standup.service.SearchIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+
+/**
+ * Lista de bilete (fara cautare), toate sau doar ale unui spectator. Biletele noi sunt scrise
+ * de BiletBatchWriter, in loturi.
+ */
+@Repository
+public class BiletRepository extends ListaRepository<BiletRow> {
+
+    public BiletRepository(DataSource dataSource, SearchIndex searchIndex, MeterRegistry registry,
+                           @Value("${app.pagination.page-size:50}") int marimePagina) {
+        super(dataSource, Lista.BILET, RowMappers.BILET, searchIndex, null, registry, marimePagina, 0);
+    }
+}
@@ -0,0 +1,160 @@
+/** Clasa de baza pentru accesul la tabelele afisate ca liste
+ * @author Sova Ioan-Rares
+ * @version 17 Octombrie 2026
+ */
+package aplicatie_standup.app_standup.repository;
+
+import aplicatie_standup.app_standup.db.Inserare;
+import aplicatie_standup.app_standup.db.Keyset;
+import aplicatie_standup.app_standup.db.Lista;
+import aplicatie_standup.app_standup.db.Pagina;
+import aplicatie_standup.app_standup.db.Variante;
+import aplicatie_standup.app_standup.service.SearchIndex;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.core.RowMapper;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.*;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Citirea unei liste (pagina keyset pentru paginile Thymeleaf, primele n randuri pentru /api)
+ * cu unul dintre textele SQL construite o data in Variante: sortarea, cautarea si cursorul
+ * aleg textul, valorile lor sunt parametri. Numarul de texte apare in sql.variante{lista}.
+ */
+public abstract class ListaRepository<T> {
+
+    /** Primeste randurile pe masura ce sunt citite din ResultSet. */
+    @FunctionalInterface
+    public interface Consumator<T> {
+        void accepta(T rand) throws IOException;
+    }
+
+    /** Seteaza parametrii unui UPDATE / DELETE. */
+    @FunctionalInterface
+    protected interface Parametri {
+        void leaga(PreparedStatement ps) throws SQLException;
+    }
+
+    // Randurile aduse de driver intr-un drum, pentru citirile fara pagina (/api)
+    private static final int RANDURI_PER_FETCH = 100;
+
+    private record Cautare(Variante.Filtru filtru, String like, int[] ids) {
+        // Indexul a raspuns ca nu exista niciun rand
+        boolean goala() {
+            return filtru == Variante.Filtru.IDURI && ids.length == 0;
+        }
+    }
+
+    protected final DataSource dataSource;
+    private final Lista lista;
+    private final RowMapper<T> mapper;
+    private final SearchIndex searchIndex;
+    private final SearchIndex.Entitate entitate;
+    private final Variante variante;
+    private final int marimePagina;
+
+    /**
+     * @param entitate indexul folosit pentru q, sau null daca lista nu are cautare
+     */
+    protected ListaRepository(DataSource dataSource, Lista lista, RowMapper<T> mapper, SearchIndex searchIndex,
+                              SearchIndex.Entitate entitate, MeterRegistry registry, int marimePagina, int maxIduri) {
+        this.dataSource = dataSource;
+        this.lista = lista;
+        this.mapper = mapper;
+        this.searchIndex = searchIndex;
+        this.entitate = entitate;
+        this.marimePagina = marimePagina;
+        this.variante = new Variante(lista, entitate == null ? 0 : maxIduri);
+        Gauge.builder("sql.variante", variante, Variante::numar).tag("lista", lista.name().toLowerCase())
+                .description("Textele SQL distincte ale listei").register(registry);
+    }
+
+    /** O pagina; after/before sunt cursoarele primite de la pagina anterioara. */
+    public Pagina<T> pagina(String search, String sortBy, String sortDir, String after, String before) throws SQLException {
+        return pagina(search, sortBy, sortDir, after, before, null);
+    }
+
+    /** @param idProprietar daca nu e null, doar randurile acestui spectator (Lista.proprietar()) */
+    public Pagina<T> pagina(String search, String sortBy, String sortDir, String after, String before,
+                            Integer idProprietar) throws SQLException {
+        Keyset keyset = Keyset.pe(lista.coloana(sortBy), lista.coloanaId(), Lista.directie(sortDir), marimePagina, after, before);
+        Cautare cautare = cautare(search);
+        if (cautare.goala()) return new Pagina<>(List.of(), null, null);
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = pregateste(conn, keyset, keyset.randuriCitite(), cautare, idProprietar);
+             ResultSet rs = ps.executeQuery()) {
+            return keyset.pagina(rs, mapper);
+        }
+    }
+
+    /** Primele limit randuri, date pe rand consumatorului, fara sa fie adunate intr-o lista. */
+    public void parcurge(String search, String sortBy, String sortDir, int limit, Integer idProprietar,
+                         Consumator<? super T> consumator) throws SQLException, IOException {
+        Keyset keyset = Keyset.pe(lista.coloana(sortBy), lista.coloanaId(), Lista.directie(sortDir), limit, null, null);
+        Cautare cautare = cautare(search);
+        if (cautare.goala()) return;
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = pregateste(conn, keyset, limit, cautare, idProprietar)) {
+            ps.setFetchSize(Math.min(limit, RANDURI_PER_FETCH));
+            try (ResultSet rs = ps.executeQuery()) {
+                int rand = 0;
+                while (rs.next()) consumator.accepta(mapper.mapRow(rs, rand++));
+            }
+        }
+    }
+
+    /** Executa INSERT-ul formularului si intoarce ID-ul generat (0 daca driverul nu il da). */
+    protected int insereaza(Inserare inserare, Map<String, String> form) throws SQLException {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(inserare.sql(), Statement.RETURN_GENERATED_KEYS)) {
+            inserare.leaga(form, ps);
+            ps.executeUpdate();
+            try (ResultSet chei = ps.getGeneratedKeys()) {
+                return chei.next() ? chei.getInt(1) : 0;
+            }
+        }
+    }
+
+    /** Executa un UPDATE / DELETE cu text fix; intoarce randurile modificate. */
+    protected int executa(String sql, Parametri parametri) throws SQLException {
+        try (Connection conn = dataSource.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+            parametri.leaga(ps);
+            return ps.executeUpdate();
+        }
+    }
+
+    private Cautare cautare(String search) {
+        if (entitate == null || search == null || search.isEmpty()) return new Cautare(Variante.Filtru.NIMIC, null, null);
+        int[] ids = searchIndex.cauta(entitate, search);
+        return ids == null ? new Cautare(Variante.Filtru.LIKE, "%" + search + "%", null) : new Cautare(Variante.Filtru.IDURI, null, ids);
+    }
+
+    private PreparedStatement pregateste(Connection conn, Keyset keyset, int top, Cautare cautare,
+                                         Integer idProprietar) throws SQLException {
+        int[] ids = cautare.ids();
+        PreparedStatement ps = conn.prepareStatement(
+                variante.sql(keyset, cautare.filtru(), ids == null ? 0 : ids.length, idProprietar != null));
+        try {
+            int index = 1;
+            ps.setInt(index++, top);
+            if (cautare.filtru() == Variante.Filtru.LIKE) {
+                for (int i = 0; i < 3; i++) ps.setString(index++, cautare.like());
+            } else if (cautare.filtru() == Variante.Filtru.IDURI) {
+                int parametri = variante.parametriIn(ids.length);
+                for (int i = 0; i < parametri; i++) ps.setInt(index++, ids[Math.min(i, ids.length - 1)]);
+            }
+            if (idProprietar != null) ps.setInt(index++, idProprietar);
+            keyset.bind(ps, index);
+            return ps;
+        } catch (SQLException ex) {
+            ps.close();
+            throw ex;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/** Clasa pentru accesul la tabela Locatie
+ * @author Sova Ioan-Rares
+ * @version 17 Octombrie 2026
+ */
+package aplicatie_standup.app_standup.repository;
+
+import aplicatie_standup.app_standup.db.Inserare;
+import aplicatie_standup.app_standup.db.Lista;
+import aplicatie_standup.app_standup.db.RowMappers;
+import aplicatie_standup.app_standup.model.LocatieRow;
+import aplicatie_standup.app_standup.model.SpectacolViitorRow;
+import aplicatie_standup.app_standup.service.SearchIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+public class LocatieRepository extends ListaRepository<LocatieRow> {
+
+    private static final String SQL_MODIFICA = "UPDATE Locatie SET Nume_Locatie=?, Adresa=?, Oras=?, Capacitate=? WHERE ID_Locatie=?";
+    private static final String SQL_STERGE = "DELETE FROM Locatie WHERE ID_Locatie=?";
+    private static final String SQL_URMATOARE = "/* sqlUp */ SELECT TOP 5 l.Nume_Locatie, s.Titlu, s.Data_Spectacol FROM Locatie l " +
+            "JOIN Spectacol s ON l.ID_Locatie=s.ID_Locatie WHERE s.Data_Spectacol >= CAST(GETDATE() AS DATE) ORDER BY s.Data_Spectacol ASC";
+
+    public LocatieRepository(DataSource dataSource, SearchIndex searchIndex, MeterRegistry registry,
+                             @Value("${app.pagination.page-size:50}") int marimePagina,
+                             @Value("${app.search.max-ids:1000}") int maxIduri) {
+        super(dataSource, Lista.LOCATIE, RowMappers.LOCATIE, searchIndex, SearchIndex.Entitate.LOCATIE,
+                registry, marimePagina, maxIduri);
+    }
+
+    public int adauga(Map<String, String> form) throws SQLException {
+        return insereaza(Inserare.LOCATIE, form);
+    }
+
+    public int modifica(int id, String nume, String adresa, String oras, int capacitate) throws SQLException {
+        return executa(SQL_MODIFICA, ps -> {
+            ps.setString(1, nume); ps.setString(2, adresa); ps.setString(3, oras);
+            ps.setInt(4, capacitate); ps.setInt(5, id);
+        });
+    }
+
+    public int sterge(int id) throws SQLException {
+        return executa(SQL_STERGE, ps -> ps.setInt(1, id));
+    }
+
+    /** Urmatoarele 5 spectacole, cu locatia lor (cardul din /locatii). */
+    public List<SpectacolViitorRow> urmatoareleSpectacole() throws SQLException {
+        try (Connection conn = dataSource.getConnection(); PreparedStatement ps = conn.prepareStatement(SQL_URMATOARE);
+             ResultSet rs = ps.executeQuery()) {
+            List<SpectacolViitorRow> up = new ArrayList<>();
+            while (rs.next()) up.add(RowMappers.SPECTACOL_VIITOR.mapRow(rs, up.size()));
+            return up;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/** Clasa pentru accesul la tabela Organizator
+ * @author Sova Ioan-Rares
+ * @version 17 Octombrie 2026
+ */
+package aplicatie_standup.app_standup.repository;
+
+import aplicatie_standup.app_standup.db.Inserare;
+import aplicatie_standup.app_standup.db.Lista;
+import aplicatie_standup.app_standup.db.RowMappers;
+import aplicatie_standup.app_standup.model.OrganizatorRow;
+import aplicatie_standup.app_standup.model.SpectacolRecentRow;
+import aplicatie_standup.app_standup.service.SearchIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+public class OrganizatorRepository extends ListaRepository<OrganizatorRow> {
+
+    private static final String SQL_MODIFICA = "UPDATE Organizator SET Nume_Organizator=?, Email_Organizator=?, Telefon_Organizator=? WHERE ID_Organizator=?";
+    private static final String SQL_STERGE = "DELETE FROM Organizator WHERE ID_Organizator=?";
+    private static final String SQL_RECENTE = "/* sqlRec */ SELECT TOP 5 o.Nume_Organizator, s.Titlu FROM Organizator o " +
+            "JOIN Spectacol s ON o.ID_Organizator=s.ID_Organizator ORDER BY s.Data_Spectacol DESC";
+
+    public OrganizatorRepository(DataSource dataSource, SearchIndex searchIndex, MeterRegistry registry,
+                                 @Value("${app.pagination.page-size:50}") int marimePagina,
+                                 @Value("${app.search.max-ids:1000}") int maxIduri) {
+        super(dataSource, Lista.ORGANIZATOR, RowMappers.ORGANIZATOR, searchIndex, SearchIndex.Entitate.ORGANIZATOR,
+                registry, marimePagina, maxIduri);
+    }
+
+    public int adauga(Map<String, String> form) throws SQLException {
+        return insereaza(Inserare.ORGANIZATOR, form);
+    }
+
+    public int modifica(int id, String nume, String email, String telefon) throws SQLException {
+        return executa(SQL_MODIFICA, ps -> {
+            ps.setString(1, nume); ps.setString(2, email); ps.setString(3, telefon); ps.setInt(4, id);
+        });
+    }
+
+    public int sterge(int id) throws SQLException {
+        return executa(SQL_STERGE, ps -> ps.setInt(1, id));
+    }
+
+    /** Ultimele 5 spectacole, cu organizatorul lor (cardul din /organizatori). */
+    public List<SpectacolRecentRow> spectacoleRecente() throws SQLException {
+        try (Connection conn = dataSource.getConnection(); PreparedStatement ps = conn.prepareStatement(SQL_RECENTE);
+             ResultSet rs = ps.executeQuery()) {
+            List<SpectacolRecentRow> rec = new ArrayList<>();
+            while (rs.next()) rec.add(RowMappers.SPECTACOL_RECENT.mapRow(rs, rec.size()));
+            return rec;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/** Clasa pentru accesul la tabela Spectacol
+ * @author Sova Ioan-Rares
+ * @version 17 Octombrie 2026
+ */
+package aplicatie_standup.app_standup.repository;
+
+import aplicatie_standup.app_standup.db.Inserare;
+import aplicatie_standup.app_standup.db.Lista;
+import aplicatie_standup.app_standup.db.RowMappers;
+import aplicatie_standup.app_standup.model.SpectacolRow;
+import aplicatie_standup.app_standup.service.SearchIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.*;
+import java.util.HashMap;
+import java.util.Map;
+
+@Repository
+public class SpectacolRepository extends ListaRepository<SpectacolRow> {
+
+    private static final String SQL_MODIFICA =
+            "UPDATE Spectacol SET Titlu=?, Data_Spectacol=?, Ora=?, Pret_Bilet=?, ID_Locatie=?, ID_Organizator=? WHERE ID_Spectacol=?";
+    private static final String SQL_BILETE_PE_SPECTATOR =
+            "SELECT ID_Spectator, COUNT(*) FROM Bilet WHERE ID_Spectacol = ? GROUP BY ID_Spectator";
+    private static final String SQL_STERGE_SCANARI = "DELETE FROM Scanare_Bilet WHERE ID_Spectacol = ?";
+    private static final String SQL_STERGE_BILETE = "DELETE FROM Bilet WHERE ID_Spectacol = ?";
+    private static final String SQL_STERGE = "DELETE FROM Spectacol WHERE ID_Spectacol=?";
+
+    public SpectacolRepository(DataSource dataSource, SearchIndex searchIndex, MeterRegistry registry,
+                               @Value("${app.pagination.page-size:50}") int marimePagina,
+                               @Value("${app.search.max-ids:1000}") int maxIduri) {
+        super(dataSource, Lista.SPECTACOL, RowMappers.SPECTACOL, searchIndex, SearchIndex.Entitate.SPECTACOL,
+                registry, marimePagina, maxIduri);
+    }
+
+    /** Valideaza formularul de adaugare (Inserare.SPECTACOL) si intoarce ID-ul spectacolului nou. */
+    public int adauga(Map<String, String> form) throws SQLException {
+        return insereaza(Inserare.SPECTACOL, form);
+    }
+
+    /** idLocatie / idOrganizator null lasa coloana goala. */
+    public int modifica(int id, String titlu, Date data, Time ora, BigDecimal pret, Integer idLocatie, Integer idOrganizator) throws SQLException {
+        return executa(SQL_MODIFICA, ps -> {
+            ps.setString(1, titlu);
+            ps.setDate(2, data);
+            ps.setTime(3, ora);
+            ps.setBigDecimal(4, pret);
+            if (idLocatie != null) ps.setInt(5, idLocatie); else ps.setNull(5, Types.INTEGER);
+            if (idOrganizator != null) ps.setInt(6, idOrganizator); else ps.setNull(6, Types.INTEGER);
+            ps.setInt(7, id);
+        });
+    }
+
+    /**
+     * Sterge spectacolul impreuna cu biletele si scanarile lor, intr-o singura tranzactie;
+     * intoarce biletele sterse pe ID_Spectator.
+     */
+    public Map<Integer, Integer> sterge(int id) throws SQLException {
+        Map<Integer, Integer> peSpectator = new HashMap<>();
+        try (Connection conn = dataSource.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                try (PreparedStatement ps = conn.prepareStatement(SQL_BILETE_PE_SPECTATOR)) {
+                    ps.setInt(1, id);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) peSpectator.put(rs.getInt(1), rs.getInt(2));
+                    }
+                }
+                for (String sql : new String[]{SQL_STERGE_SCANARI, SQL_STERGE_BILETE, SQL_STERGE}) {
+                    try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                        ps.setInt(1, id);
+                        ps.executeUpdate();
+                    }
+                }
+                conn.commit();
+            } catch (SQLException ex) {
+                conn.rollback();
+                throw ex;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+        return peSpectator;
+    }
+}
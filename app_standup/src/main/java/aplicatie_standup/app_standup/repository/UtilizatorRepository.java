@@ -0,0 +1,160 @@
+/** Clasa pentru accesul la conturi (Utilizator + Spectator)
+ * @author Sova Ioan-Rares
+ * @version 17 Octombrie 2026
+ */
+package aplicatie_standup.app_standup.repository;
+
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.*;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Interogarile pentru login (LoginService) si inregistrare (RegistrationService), toate cu
+ * text fix si parametri, deci pregatite o data pe fiecare conexiune.
+ */
+@Repository
+public class UtilizatorRepository {
+
+    /** Datele din Utilizator necesare la login. */
+    public record Cont(String hash, String rol, Integer idSpectator) {}
+
+    /** Campul care a facut ca un cont nou sa fie respins. */
+    public enum Duplicat { USERNAME, CONTACT }
+
+    private static final String SQL_CONT = "/* login */ SELECT Parola, Rol, ID_Spectator FROM Utilizator WHERE Username=?";
+    private static final String SQL_PAROLE = "SELECT Username, Parola FROM Utilizator";
+    private static final String SQL_RESCRIE = "UPDATE Utilizator SET Parola=? WHERE Username=? AND Parola=?";
+    private static final String SQL_OCUPAT = "/* inregistrareVerificare */ " +
+            "SELECT 'u' FROM Utilizator WHERE Username = ? " +
+            "UNION ALL SELECT 'c' FROM Spectator WHERE Email_Spectator = ? OR Telefon_Spectator = ?";
+    private static final String SQL_INSERT_SPECTATOR = "INSERT INTO Spectator (Nume_Spectator, Email_Spectator, Telefon_Spectator) VALUES (?, ?, ?)";
+    private static final String SQL_INSERT_UTILIZATOR = "INSERT INTO Utilizator (Username, Parola, Rol, ID_Spectator) VALUES (?, ?, 'user', ?)";
+    private static final String SQL_NUMAR = "SELECT (SELECT COUNT(*) FROM Utilizator) + (SELECT COUNT(*) FROM Spectator)";
+    private static final String SQL_USERNAME = "SELECT Username FROM Utilizator";
+    private static final String SQL_CONTACTE = "SELECT Email_Spectator, Telefon_Spectator FROM Spectator";
+
+    private final DataSource dataSource;
+
+    public UtilizatorRepository(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    public Optional<Cont> cont(String username) throws SQLException {
+        try (Connection conn = dataSource.getConnection(); PreparedStatement ps = conn.prepareStatement(SQL_CONT)) {
+            ps.setString(1, username);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) return Optional.empty();
+                Integer idSpectator = rs.getInt("ID_Spectator");
+                if (rs.wasNull()) idSpectator = null;
+                return Optional.of(new Cont(rs.getString("Parola"), rs.getString("Rol"), idSpectator));
+            }
+        }
+    }
+
+    /** Username si parola (hash sau, pentru conturile vechi, in clar) pentru fiecare cont. */
+    public void parcurgeParole(BiConsumer<String, String> consumator) throws SQLException {
+        try (Connection conn = dataSource.getConnection(); PreparedStatement ps = conn.prepareStatement(SQL_PAROLE);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) consumator.accept(rs.getString(1), rs.getString(2));
+        }
+    }
+
+    /** Inlocuieste parola doar daca este inca cea veche; intoarce false daca altcineva a schimbat-o intre timp. */
+    public boolean rescrieParola(String username, String vechi, String nou) throws SQLException {
+        try (Connection conn = dataSource.getConnection(); PreparedStatement ps = conn.prepareStatement(SQL_RESCRIE)) {
+            ps.setString(1, nou);
+            ps.setString(2, username);
+            ps.setString(3, vechi);
+            return ps.executeUpdate() > 0;
+        }
+    }
+
+    /** Campul deja folosit (username-ul are prioritate), sau null daca toate sunt libere. */
+    public Duplicat ocupat(String username, String email, String telefon) throws SQLException {
+        try (Connection conn = dataSource.getConnection(); PreparedStatement ps = conn.prepareStatement(SQL_OCUPAT)) {
+            ps.setString(1, username);
+            ps.setString(2, email);
+            ps.setString(3, telefon);
+            Duplicat rezultat = null;
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    if ("u".equals(rs.getString(1))) return Duplicat.USERNAME;
+                    rezultat = Duplicat.CONTACT;
+                }
+            }
+            return rezultat;
+        }
+    }
+
+    /**
+     * Spectator + Utilizator intr-o singura tranzactie. Intoarce null daca contul a fost creat,
+     * altfel campul respins de constrangerile UNIQUE (si nimic nu ramane scris).
+     */
+    public Duplicat creeaza(String username, String hash, String nume, String email, String telefon) throws SQLException {
+        try (Connection conn = dataSource.getConnection()) {
+            conn.setAutoCommit(false);
+            boolean spectatorInserat = false;
+            try {
+                int idSpectator;
+                try (PreparedStatement ps = conn.prepareStatement(SQL_INSERT_SPECTATOR, Statement.RETURN_GENERATED_KEYS)) {
+                    ps.setString(1, nume);
+                    ps.setString(2, email);
+                    ps.setString(3, telefon);
+                    ps.executeUpdate();
+                    try (ResultSet chei = ps.getGeneratedKeys()) {
+                        if (!chei.next()) throw new SQLException("INSERT Spectator nu a intors ID-ul generat.");
+                        idSpectator = chei.getInt(1);
+                    }
+                }
+                spectatorInserat = true;
+                try (PreparedStatement ps = conn.prepareStatement(SQL_INSERT_UTILIZATOR)) {
+                    ps.setString(1, username);
+                    ps.setString(2, hash);
+                    ps.setInt(3, idSpectator);
+                    ps.executeUpdate();
+                }
+                conn.commit();
+                return null;
+            } catch (SQLException ex) {
+                conn.rollback();
+                if (!esteDuplicat(ex)) throw ex;
+                return spectatorInserat ? Duplicat.USERNAME : Duplicat.CONTACT;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    /** Conturile plus spectatorii (pentru dimensionarea filtrului Bloom). */
+    public int numar() throws SQLException {
+        try (Connection conn = dataSource.getConnection(); PreparedStatement ps = conn.prepareStatement(SQL_NUMAR);
+             ResultSet rs = ps.executeQuery()) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    public void parcurgeUsername(Consumer<String> consumator) throws SQLException {
+        try (Connection conn = dataSource.getConnection(); PreparedStatement ps = conn.prepareStatement(SQL_USERNAME);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) consumator.accept(rs.getString(1));
+        }
+    }
+
+    /** Email-ul si telefonul fiecarui spectator (oricare poate fi null). */
+    public void parcurgeContacte(BiConsumer<String, String> consumator) throws SQLException {
+        try (Connection conn = dataSource.getConnection(); PreparedStatement ps = conn.prepareStatement(SQL_CONTACTE);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) consumator.accept(rs.getString(1), rs.getString(2));
+        }
+    }
+
+    // Incalcare de constrangere UNIQUE: H2 23505, SQL Server 2627 (constrangere) / 2601 (index unic)
+    private static boolean esteDuplicat(SQLException ex) {
+        return "23505".equals(ex.getSQLState()) || ex.getErrorCode() == 2627 || ex.getErrorCode() == 2601;
+    }
+}
@@ -0,0 +1,251 @@
+/** Clasa pentru scrierea grupata (batch) a biletelor in baza de date
+ * @author Sova Ioan-Rares
+ * @version 17 Octombrie 2026
+ */
+package aplicatie_standup.app_standup.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pune cererile de scriere a biletelor intr-o coada si le scrie dintr-un singur fir,
+ * grupate in batch-uri JDBC (addBatch/executeBatch) confirmate intr-o singura tranzactie
+ * la fiecare max-delay-ms sau max-rows randuri. Fiecare apelant asteapta confirmarea
+ * batch-ului din care face parte.
+ */
+@Service
+public class BiletBatchWriter {
+
+    private static final String SQL_INSERT =
+            "INSERT INTO Bilet (ID_Spectacol, ID_Spectator, Data_Cumparare, Cod_Bilet) VALUES (?, ?, CURRENT_TIMESTAMP, ?)";
+
+    // "preluata" decide atomic cine castiga intre firul de scriere si un apelant care renunta (timeout)
+    private record Cerere(int idSpectacol, int idSpectator, String codBilet,
+                          AtomicBoolean preluata, CompletableFuture<Void> rezultat) {}
+
+    /**
+     * Batch-ul cu biletul a fost trimis, dar commit-ul nu s-a confirmat in timeout-ms: biletul poate
+     * sa fi fost scris sau nu. Locul ramane rezervat pana la reconcilierea OccupancyTracker.
+     */
+    public static final class RezultatNecunoscutException extends RuntimeException {
+        RezultatNecunoscutException() {
+            super("Nu știm încă dacă biletul a fost salvat. Verifică lista de bilete în câteva minute.");
+        }
+    }
+
+    private final DataSource dataSource;
+    private final boolean activ;
+    private final int maxRanduri;
+    private final long maxAsteptareNanos;
+    private final long timeoutMs;
+    private final BlockingQueue<Cerere> coada;
+
+    private final Counter randuriScrise;
+    private final DistributionSummary dimensiuneBatch;
+    private final Timer timpCommit;
+
+    private volatile boolean oprit;
+    private Thread scriitor;
+
+    public BiletBatchWriter(DataSource dataSource, MeterRegistry registry,
+                            @Value("${app.bilet.batch.enabled:true}") boolean activ,
+                            @Value("${app.bilet.batch.max-rows:200}") int maxRanduri,
+                            @Value("${app.bilet.batch.max-delay-ms:5}") long maxAsteptareMs,
+                            @Value("${app.bilet.batch.queue-capacity:10000}") int capacitateCoada,
+                            @Value("${app.bilet.batch.timeout-ms:5000}") long timeoutMs) {
+        this.dataSource = dataSource;
+        this.activ = activ;
+        this.maxRanduri = maxRanduri;
+        this.maxAsteptareNanos = TimeUnit.MILLISECONDS.toNanos(maxAsteptareMs);
+        this.timeoutMs = timeoutMs;
+        this.coada = new ArrayBlockingQueue<>(capacitateCoada);
+
+        this.randuriScrise = Counter.builder("bilet.batch.rows").description("Bilete scrise in baza de date").register(registry);
+        this.dimensiuneBatch = DistributionSummary.builder("bilet.batch.size").description("Randuri per batch").register(registry);
+        this.timpCommit = Timer.builder("bilet.batch.commit").description("Durata executeBatch + commit")
+                .publishPercentiles(0.5, 0.95, 0.99).register(registry);
+        registry.gauge("bilet.batch.queue", coada, BlockingQueue::size);
+    }
+
+    @PostConstruct
+    void porneste() {
+        if (!activ) return;
+        scriitor = new Thread(this::bucla, "bilet-batch-writer");
+        scriitor.setDaemon(true);
+        scriitor.start();
+    }
+
+    @PreDestroy
+    void opreste() throws InterruptedException {
+        oprit = true;
+        if (scriitor != null) scriitor.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    /**
+     * Scrie biletul si asteapta confirmarea commit-ului.
+     * Cu app.bilet.batch.enabled=false biletul este scris direct, cu autocommit.
+     */
+    public void scrie(int idSpectacol, int idSpectator, String codBilet) throws SQLException {
+        if (!activ) {
+            try (Connection conn = dataSource.getConnection(); PreparedStatement ps = conn.prepareStatement(SQL_INSERT)) {
+                seteaza(ps, idSpectacol, idSpectator, codBilet);
+                ps.executeUpdate();
+            }
+            randuriScrise.increment();
+            return;
+        }
+
+        Cerere cerere = new Cerere(idSpectacol, idSpectator, codBilet, new AtomicBoolean(), new CompletableFuture<>());
+        try {
+            if (oprit || !coada.offer(cerere, timeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new RuntimeException("Prea multe cereri simultan. Încearcă din nou.");
+            }
+            try {
+                cerere.rezultat().get(timeoutMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException ex) {
+                if (cerere.preluata().compareAndSet(false, true)) {
+                    // Firul de scriere nu a ajuns la ea -> sigur nu va fi scrisa
+                    throw new RuntimeException("Timpul de așteptare pentru salvarea biletului a expirat.");
+                }
+                // Este deja in curs de scriere -> asteptam commit-ul, dar tot cel mult timeout-ms
+                try {
+                    cerere.rezultat().get(timeoutMs, TimeUnit.MILLISECONDS);
+                } catch (TimeoutException necunoscut) {
+                    throw new RezultatNecunoscutException();
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Cumpărarea a fost întreruptă.");
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof SQLException sqlEx) throw sqlEx;
+            throw new RuntimeException(ex.getCause().getMessage(), ex.getCause());
+        }
+    }
+
+    private void bucla() {
+        List<Cerere> batch = new ArrayList<>(maxRanduri);
+        while (!oprit || !coada.isEmpty()) {
+            try {
+                Cerere prima = coada.poll(100, TimeUnit.MILLISECONDS);
+                if (prima == null) continue;
+                batch.add(prima);
+
+                long termen = System.nanoTime() + maxAsteptareNanos;
+                while (batch.size() < maxRanduri) {
+                    long ramas = termen - System.nanoTime();
+                    if (ramas <= 0) break;
+                    Cerere urmatoarea = coada.poll(ramas, TimeUnit.NANOSECONDS);
+                    if (urmatoarea == null) break;
+                    batch.add(urmatoarea);
+                }
+                scrieBatch(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException ex) {
+                batch.forEach(c -> c.rezultat().completeExceptionally(ex));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void scrieBatch(List<Cerere> batch) {
+        // Cererile abandonate de apelant (timeout) nu mai sunt scrise
+        batch.removeIf(c -> !c.preluata().compareAndSet(false, true));
+        if (batch.isEmpty()) return;
+
+        long t0 = System.nanoTime();
+        boolean confirmat = false;
+        boolean esuat = false;
+        try (Connection conn = dataSource.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = conn.prepareStatement(SQL_INSERT)) {
+                for (Cerere c : batch) {
+                    seteaza(ps, c.idSpectacol(), c.idSpectator(), c.codBilet());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                conn.commit();
+                confirmat = true;
+            } catch (SQLException ex) {
+                esuat = true;
+                try {
+                    conn.rollback();
+                    conn.setAutoCommit(true);
+                } catch (SQLException ignorat) {
+                    // Conexiune pierduta (ex. in timpul commit-ului) -> reluarea foloseste alta conexiune
+                }
+            }
+        } catch (SQLException ex) {
+            // Dupa commit, doar inchiderea conexiunii a esuat
+            if (!confirmat && !esuat) {
+                batch.forEach(c -> c.rezultat().completeExceptionally(ex));
+                return;
+            }
+        }
+        if (esuat) {
+            // Un singur rand invalid nu trebuie sa piarda tot batch-ul -> reluam rand cu rand
+            scrieIndividual(batch);
+            return;
+        }
+        timpCommit.record(System.nanoTime() - t0, TimeUnit.NANOSECONDS);
+        dimensiuneBatch.record(batch.size());
+        randuriScrise.increment(batch.size());
+        batch.forEach(c -> c.rezultat().complete(null));
+    }
+
+    // Un commit esuat poate fi totusi aplicat pe server (ex. conexiunea cade dupa commit). Cod_Bilet are
+    // index unic (UX_Bilet_Cod), deci un bilet scris deja este respins de baza si socotit scris
+    private void scrieIndividual(List<Cerere> batch) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(SQL_INSERT)) {
+            for (Cerere c : batch) {
+                try {
+                    seteaza(ps, c.idSpectacol(), c.idSpectator(), c.codBilet());
+                    ps.executeUpdate();
+                } catch (SQLException ex) {
+                    if (!esteDuplicat(ex)) {
+                        c.rezultat().completeExceptionally(ex);
+                        continue;
+                    }
+                    // Scris de commit-ul neconfirmat, care nu a fost numarat
+                }
+                randuriScrise.increment();
+                c.rezultat().complete(null);
+            }
+        } catch (SQLException ex) {
+            batch.forEach(c -> c.rezultat().completeExceptionally(ex));
+        }
+    }
+
+    // Incalcare de constrangere UNIQUE: H2 23505, SQL Server 2627 (constrangere) / 2601 (index unic)
+    private static boolean esteDuplicat(SQLException ex) {
+        return "23505".equals(ex.getSQLState()) || ex.getErrorCode() == 2627 || ex.getErrorCode() == 2601;
+    }
+
+    private static void seteaza(PreparedStatement ps, int idSpectacol, int idSpectator, String codBilet) throws SQLException {
+        ps.setInt(1, idSpectacol); ps.setInt(2, idSpectator); ps.setString(3, codBilet);
+    }
+}
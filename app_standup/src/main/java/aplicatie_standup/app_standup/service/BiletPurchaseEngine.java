@@ -0,0 +1,63 @@
+/** Clasa pentru cumpararea biletelor fara depasirea capacitatii locatiei
+ * @author Sova Ioan-Rares
+ * @version 17 Octombrie 2026
+ */
+package aplicatie_standup.app_standup.service;
+
+import org.springframework.stereotype.Service;
+
+import java.sql.SQLException;
+
+/**
+ * Rezerva un loc in OccupancyTracker (increment atomic cat timp spectacolul nu
+ * este plin) inainte de a scrie biletul in baza de date. Daca scrierea esueaza,
+ * locul este eliberat la loc.
+ */
+@Service
+public class BiletPurchaseEngine {
+
+    private final OccupancyTracker ocupare;
+    private final BiletBatchWriter batchWriter;
+    private final SalesAggregates agregate;
+    private final CodBiletGenerator coduri;
+    private final CodBiletIndex index;
+
+    public BiletPurchaseEngine(OccupancyTracker ocupare, BiletBatchWriter batchWriter, SalesAggregates agregate,
+                               CodBiletGenerator coduri, CodBiletIndex index) {
+        this.ocupare = ocupare;
+        this.batchWriter = batchWriter;
+        this.agregate = agregate;
+        this.coduri = coduri;
+        this.index = index;
+    }
+
+    /**
+     * Rezerva un loc si salveaza biletul.
+     * @return codul biletului cumparat
+     * @throws RuntimeException daca spectacolul nu exista sau nu mai sunt locuri
+     */
+    public String cumpara(int idSpectacol, int idSpectator) throws SQLException {
+        if (!ocupare.rezerva(idSpectacol)) throw new RuntimeException("Nu mai sunt locuri disponibile pentru acest spectacol.");
+
+        String codBilet = coduri.genereaza();
+        try {
+            agregate.vanzare(idSpectacol, idSpectator, () -> batchWriter.scrie(idSpectacol, idSpectator, codBilet));
+        } catch (BiletBatchWriter.RezultatNecunoscutException ex) {
+            // Biletul poate fi in baza -> locul ramane ocupat; reconcilierea il corecteaza daca nu este
+            ocupare.necunoscut(idSpectacol);
+            throw ex;
+        } catch (SQLException | RuntimeException ex) {
+            // Biletul nu a ajuns in baza de date -> eliberam locul rezervat
+            ocupare.elibereaza(idSpectacol);
+            throw ex;
+        }
+        index.adauga(codBilet, idSpectacol, idSpectator);
+        ocupare.confirma(idSpectacol);
+        return codBilet;
+    }
+
+    /** Locurile ramase, sau OccupancyTracker.FARA_LIMITA pentru spectacolele fara capacitate. */
+    public int locuriRamase(int idSpectacol) throws SQLException {
+        return ocupare.ramase(idSpectacol);
+    }
+}
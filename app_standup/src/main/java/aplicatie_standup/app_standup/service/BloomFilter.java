@@ -0,0 +1,75 @@
+/** Clasa pentru un filtru Bloom de siruri de caractere
+ * @author Sova Ioan-Rares
+ * @version 17 Octombrie 2026
+ */
+package aplicatie_standup.app_standup.service;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtru Bloom: poatePrezent() == false inseamna sigur absent; true inseamna "poate",
+ * cu probabilitatea de fals pozitiv aleasa la creare (cat timp nu se depaseste capacitatea).
+ * Adaugarile sunt sigure din mai multe fire (bitii se seteaza cu CAS).
+ */
+final class BloomFilter {
+
+    private final AtomicLongArray biti;
+    private final int numarBiti;
+    private final int numarFunctii;
+    private final int capacitate;
+    private final AtomicInteger adaugate = new AtomicInteger();
+
+    BloomFilter(int capacitate, double falsPozitiv) {
+        this.capacitate = Math.max(1, capacitate);
+        long m = (long) Math.ceil(-this.capacitate * Math.log(falsPozitiv) / (Math.log(2) * Math.log(2)));
+        this.numarBiti = (int) Math.max(64, Math.min(m, Integer.MAX_VALUE - 63));
+        this.numarFunctii = Math.max(1, (int) Math.round((double) numarBiti / this.capacitate * Math.log(2)));
+        this.biti = new AtomicLongArray((numarBiti + 63) / 64);
+    }
+
+    void adauga(String valoare) {
+        long h = hash(valoare);
+        int h1 = (int) h, h2 = (int) (h >>> 32);
+        for (int i = 0; i < numarFunctii; i++) {
+            int bit = Math.floorMod(h1 + i * h2, numarBiti);
+            long masca = 1L << bit;
+            int cuvant = bit >>> 6;
+            long vechi;
+            while (((vechi = biti.get(cuvant)) & masca) == 0 && !biti.compareAndSet(cuvant, vechi, vechi | masca)) {
+                Thread.onSpinWait();
+            }
+        }
+        adaugate.incrementAndGet();
+    }
+
+    boolean poatePrezent(String valoare) {
+        long h = hash(valoare);
+        int h1 = (int) h, h2 = (int) (h >>> 32);
+        for (int i = 0; i < numarFunctii; i++) {
+            int bit = Math.floorMod(h1 + i * h2, numarBiti);
+            if ((biti.get(bit >>> 6) & (1L << bit)) == 0) return false;
+        }
+        return true;
+    }
+
+    /** Peste capacitate rata de fals pozitiv creste; filtrul trebuie reconstruit mai mare. */
+    boolean plin() {
+        return adaugate.get() > capacitate;
+    }
+
+    // FNV-1a pe 64 de biti, urmat de amestecul final din MurmurHash3 (bitii de sus si de jos independenti)
+    private static long hash(String valoare) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < valoare.length(); i++) {
+            h ^= valoare.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
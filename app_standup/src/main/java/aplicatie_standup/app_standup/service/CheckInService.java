@@ -0,0 +1,544 @@
+/** Clasa pentru validarea biletelor la intrarea in sala (check-in)
+ * @author Sova Ioan-Rares
+ * @version 17 Octombrie 2026
+ */
+package aplicatie_standup.app_standup.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Check-in fara SQL pe scanare. deschide() citeste o data codurile biletelor spectacolului
+ * intr-un vector sortat de long-uri (cheile din CodBiletIndex, 8 octeti pe bilet) si un bitmap
+ * al biletelor folosite. O scanare este o cautare binara si un CAS pe cuvantul bitului, deci
+ * acelasi bilet scanat a doua oara (si in paralel, la alta usa) este respins. Biletele vandute
+ * dupa deschidere sunt gasite in CodBiletIndex.
+ * <p>
+ * Fiecare bilet intra o singura data in coada scanarilor, deci coada este marginita de numarul
+ * de bilete. Un singur fir o goleste la fiecare flush-ms: cuvintele schimbate ale bitmap-ului
+ * sunt scrise pe loc in fisierul spectacolului (app.checkin.dir), biletele vandute dupa deschidere
+ * se adauga intr-un al doilea fisier (un cod pe linie), apoi scanarile intra in
+ * Scanare_Bilet in batch-uri de batch-size. La pornire, spectacolele care au fisier se redeschid
+ * cu scanarile din fisier si din baza. Bitmap-ul este al fiecarei instante: toate usile unui
+ * spectacol trebuie sa scaneze prin aceeasi instanta.
+ * Metrici: checkin.scanari{rezultat}, checkin.scrise, checkin.coada, checkin.bilete
+ */
+@Service
+public class CheckInService {
+
+    /** Raspunsul pentru o scanare. */
+    public enum Rezultat { VALID, FOLOSIT, NECUNOSCUT, CONTROL, INCHIS }
+
+    /** Starea check-in-ului unui spectacol. */
+    public record Stare(int idSpectacol, int bilete, int scanate) {}
+
+    private static final String SQL_CODURI = "/* checkin coduri */ SELECT Cod_Bilet FROM Bilet WHERE ID_Spectacol = ?";
+    private static final String SQL_SCANATE = "/* checkin scanate */ SELECT Cod_Bilet FROM Scanare_Bilet WHERE ID_Spectacol = ?";
+    private static final String SQL_INSERT = "INSERT INTO Scanare_Bilet (Cod_Bilet, ID_Spectacol, Data_Scanare) VALUES (?, ?, ?)";
+
+    private static final int VERSIUNE_FISIER = 0x43484B31; // "CHK1"
+    // versiune, spectacol, chei, altele, cuvinte; bitmap-ul urmeaza imediat, ca sa fie rescris pe loc
+    private static final int ANTET = 20;
+    private static final String EXTENSIE = ".chk";
+    private static final String EXTENSIE_TARZII = ".tarzii";
+
+    // bit = -1 pentru un bilet vandut dupa deschidere (nu are bit in fisier)
+    private record Scanare(Poarta poarta, String cod, int bit, long laMs) {}
+
+    private final DataSource dataSource;
+    private final CodBiletIndex index;
+    private final Path director;
+    private final long flushMs;
+    private final int marimeBatch;
+    private final Map<Integer, Poarta> porti = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Scanare> coada = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger inCoada = new AtomicInteger();
+    // Scanarile care nu au ajuns inca in baza (baza indisponibila); doar sub lacatul lui persista()
+    private final List<Scanare> deScris = new ArrayList<>();
+
+    private final Map<Rezultat, Counter> scanari = new EnumMap<>(Rezultat.class);
+    private final Counter scrise;
+
+    private volatile boolean oprit;
+    private Thread scriitor;
+
+    public CheckInService(DataSource dataSource, CodBiletIndex index, MeterRegistry registry,
+                          @Value("${app.checkin.dir:${java.io.tmpdir}/standup-checkin}") String director,
+                          @Value("${app.checkin.flush-ms:200}") long flushMs,
+                          @Value("${app.checkin.batch-size:500}") int marimeBatch) {
+        this.dataSource = dataSource;
+        this.index = index;
+        this.director = Path.of(director);
+        this.flushMs = flushMs;
+        this.marimeBatch = marimeBatch;
+        try {
+            Files.createDirectories(this.director);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Nu pot crea directorul de check-in " + director, ex);
+        }
+
+        for (Rezultat r : Rezultat.values()) {
+            scanari.put(r, Counter.builder("checkin.scanari").tag("rezultat", r.name().toLowerCase())
+                    .description("Bilete scanate la intrare").register(registry));
+        }
+        this.scrise = Counter.builder("checkin.scrise").description("Scanari scrise in Scanare_Bilet").register(registry);
+        Gauge.builder("checkin.coada", inCoada, AtomicInteger::get)
+                .description("Scanari care asteapta sa fie scrise").register(registry);
+        Gauge.builder("checkin.bilete", porti, p -> p.values().stream().mapToInt(Poarta::bilete).sum())
+                .description("Bilete incarcate pentru check-in").register(registry);
+    }
+
+    @PostConstruct
+    void porneste() {
+        scriitor = new Thread(this::bucla, "checkin-writer");
+        scriitor.setDaemon(true);
+        scriitor.start();
+    }
+
+    @PreDestroy
+    void opreste() throws InterruptedException {
+        oprit = true;
+        scriitor.join(10_000);
+        for (Poarta p : porti.values()) p.inchide();
+    }
+
+    /** Spectacolele care aveau check-in-ul deschis inainte de repornire. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void laPornire() {
+        try (DirectoryStream<Path> fisiere = Files.newDirectoryStream(director, "*" + EXTENSIE)) {
+            for (Path fisier : fisiere) {
+                try {
+                    Poarta p = Poarta.citeste(fisier);
+                    aplicaScanate(p);
+                    porti.put(p.idSpectacol, p);
+                } catch (IOException ex) {
+                    ex.printStackTrace();
+                }
+            }
+        } catch (IOException ex) {
+            ex.printStackTrace();
+        }
+    }
+
+    /**
+     * Incarca biletele spectacolului si pregateste scanarea. Daca check-in-ul este deja deschis,
+     * doar intoarce starea lui.
+     */
+    public synchronized Stare deschide(int idSpectacol) throws SQLException {
+        Poarta existenta = porti.get(idSpectacol);
+        if (existenta != null) return existenta.stare();
+
+        long[] chei = new long[1024];
+        int n = 0;
+        List<String> altele = new ArrayList<>();
+        try (Connection conn = dataSource.getConnection(); PreparedStatement ps = conn.prepareStatement(SQL_CODURI)) {
+            ps.setInt(1, idSpectacol);
+            ps.setFetchSize(10_000);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    String cod = rs.getString(1);
+                    long cheie = CodBiletIndex.cheie(cod);
+                    if (cheie == CodBiletIndex.GOL) {
+                        altele.add(cod);
+                        continue;
+                    }
+                    if (n == chei.length) chei = Arrays.copyOf(chei, n * 2);
+                    chei[n++] = cheie;
+                }
+            }
+        }
+        chei = Arrays.copyOf(chei, n);
+        Arrays.sort(chei);
+        String[] sortate = altele.toArray(String[]::new);
+        Arrays.sort(sortate);
+
+        Poarta p = new Poarta(idSpectacol, chei, sortate, new AtomicLongArray((n + sortate.length + 63) >>> 6), fisier(idSpectacol));
+        aplicaScanate(p);
+        try {
+            p.scrie();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Nu pot scrie fisierul de check-in pentru spectacolul " + idSpectacol, ex);
+        }
+        porti.put(idSpectacol, p);
+        return p.stare();
+    }
+
+    /** Opreste check-in-ul: scanarile ramase se scriu, fisierul se sterge. */
+    public boolean inchide(int idSpectacol) {
+        persista();
+        synchronized (this) {
+            Poarta p = porti.remove(idSpectacol);
+            if (p == null) return false;
+            p.inchide();
+            try {
+                Files.deleteIfExists(p.fisier);
+                Files.deleteIfExists(p.fisierTarzii);
+            } catch (IOException ex) {
+                ex.printStackTrace();
+            }
+            return true;
+        }
+    }
+
+    /** Starea check-in-ului, sau null daca nu este deschis. */
+    public Stare stare(int idSpectacol) {
+        Poarta p = porti.get(idSpectacol);
+        return p == null ? null : p.stare();
+    }
+
+    /**
+     * Valideaza un cod la intrare si il marcheaza folosit. Codul poate fi scris ca la
+     * CodBiletGenerator.valoare (cratime, litere mici, O / I / L).
+     */
+    public Rezultat scaneaza(int idSpectacol, String cod) throws SQLException {
+        Poarta p = porti.get(idSpectacol);
+        Rezultat r;
+        if (p == null) {
+            r = Rezultat.INCHIS;
+        } else {
+            int bit = p.bit(cod);
+            if (bit >= 0) {
+                r = p.marcheaza(bit) ? Rezultat.VALID : Rezultat.FOLOSIT;
+                if (r == Rezultat.VALID) adaugaInCoada(new Scanare(p, p.text(bit), bit, System.currentTimeMillis()));
+            } else {
+                r = scanareTarzie(p, cod);
+            }
+        }
+        scanari.get(r).increment();
+        return r;
+    }
+
+    /**
+     * Scrie scanarile din coada: intai bitmap-ul in fisiere, apoi randurile in Scanare_Bilet.
+     * Ruleaza periodic pe firul checkin-writer; intoarce numarul de randuri scrise in baza.
+     */
+    public synchronized int persista() {
+        for (Scanare s; (s = coada.poll()) != null; ) {
+            inCoada.decrementAndGet();
+            deScris.add(s);
+            if (s.bit() >= 0) s.poarta().scrieCuvant(s.bit() >>> 6);
+            else s.poarta().scrieTarziu(s.cod());
+        }
+        for (Poarta p : porti.values()) p.sincronizeaza();
+        if (deScris.isEmpty()) return 0;
+
+        int total = 0;
+        try (Connection conn = dataSource.getConnection()) {
+            while (!deScris.isEmpty()) {
+                List<Scanare> batch = deScris.subList(0, Math.min(marimeBatch, deScris.size()));
+                total += scrieBatch(conn, batch);
+                // Baza nu a raspuns: restul batch-ului ramane de scris
+                if (!batch.isEmpty()) break;
+            }
+        } catch (SQLException ex) {
+            // Baza indisponibila: scanarile raman in deScris pentru urmatoarea trecere
+            ex.printStackTrace();
+        }
+        scrise.increment(total);
+        return total;
+    }
+
+    private Rezultat scanareTarzie(Poarta p, String cod) throws SQLException {
+        CodBiletIndex.Intrare bilet = index.cauta(cod);
+        if (bilet == null || bilet.idSpectacol() != p.idSpectacol) {
+            return cod.length() >= CodBiletGenerator.LUNGIME && CodBiletGenerator.valoare(cod) < 0
+                    ? Rezultat.CONTROL : Rezultat.NECUNOSCUT;
+        }
+        String canonic = canonic(cod);
+        if (!p.tarzii.add(canonic)) return Rezultat.FOLOSIT;
+        adaugaInCoada(new Scanare(p, canonic, -1, System.currentTimeMillis()));
+        return Rezultat.VALID;
+    }
+
+    private void adaugaInCoada(Scanare s) {
+        inCoada.incrementAndGet();
+        coada.add(s);
+    }
+
+    // Numarul de randuri scrise; scanarile tratate sunt scoase din batch, iar daca baza nu a raspuns
+    // raman in el cele inca nescrise (cele scrise pana atunci sunt numarate)
+    private int scrieBatch(Connection conn, List<Scanare> batch) throws SQLException {
+        conn.setAutoCommit(false);
+        try (PreparedStatement ps = conn.prepareStatement(SQL_INSERT)) {
+            for (Scanare s : batch) {
+                seteaza(ps, s);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+            conn.commit();
+            int scrise = batch.size();
+            batch.clear();
+            return scrise;
+        } catch (SQLException ex) {
+            conn.rollback();
+        } finally {
+            conn.setAutoCommit(true);
+        }
+        // Un cod scanat deja prin alta instanta (cheie duplicata) nu trebuie sa blocheze restul
+        int scrise = 0;
+        try (PreparedStatement ps = conn.prepareStatement(SQL_INSERT)) {
+            for (int i = 0; i < batch.size(); i++) {
+                try {
+                    seteaza(ps, batch.get(i));
+                    ps.executeUpdate();
+                    scrise++;
+                } catch (SQLException ex) {
+                    if (ex.getSQLState() == null || !ex.getSQLState().startsWith("23")) {
+                        ex.printStackTrace();
+                        batch.subList(0, i).clear();
+                        return scrise;
+                    }
+                }
+            }
+        }
+        batch.clear();
+        return scrise;
+    }
+
+    private void bucla() {
+        while (!oprit) {
+            try {
+                Thread.sleep(flushMs);
+            } catch (InterruptedException ex) {
+                break;
+            }
+            try {
+                persista();
+            } catch (RuntimeException ex) {
+                ex.printStackTrace();
+            }
+        }
+        // Ultima trecere la oprire
+        persista();
+    }
+
+    private void aplicaScanate(Poarta p) {
+        try (Connection conn = dataSource.getConnection(); PreparedStatement ps = conn.prepareStatement(SQL_SCANATE)) {
+            ps.setInt(1, p.idSpectacol);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    String cod = rs.getString(1);
+                    int bit = p.bit(cod);
+                    if (bit >= 0) p.marcheaza(bit);
+                    else p.tarzii.add(canonic(cod));
+                }
+            }
+        } catch (SQLException ex) {
+            // Raman scanarile din fisier
+            ex.printStackTrace();
+        }
+    }
+
+    private static void seteaza(PreparedStatement ps, Scanare s) throws SQLException {
+        ps.setString(1, s.cod());
+        ps.setInt(2, s.poarta().idSpectacol);
+        ps.setTimestamp(3, new Timestamp(s.laMs()));
+    }
+
+    private static String canonic(String cod) {
+        long v = CodBiletGenerator.valoare(cod);
+        return v >= 0 ? CodBiletGenerator.codifica(v) : cod;
+    }
+
+    private Path fisier(int idSpectacol) {
+        return director.resolve(idSpectacol + EXTENSIE);
+    }
+
+    // Biletele unui spectacol deschis: bitul i este cheia i, apoi codurile din "altele"
+    private static final class Poarta {
+        final int idSpectacol;
+        final long[] chei;
+        final String[] altele;
+        final AtomicLongArray folosite;
+        // Biletele vandute dupa deschidere si scanate; in fisierTarzii, cate un cod pe linie
+        final Set<String> tarzii = ConcurrentHashMap.newKeySet();
+        final Path fisier;
+        final Path fisierTarzii;
+        // Cuvintele schimbate si codurile tarzii noi de la ultima sincronizare; doar pe firul care persista
+        private final Set<Integer> murdare = new HashSet<>();
+        private final List<String> tarziiNescrise = new ArrayList<>();
+        private FileChannel canal;
+        private FileChannel canalTarzii;
+
+        Poarta(int idSpectacol, long[] chei, String[] altele, AtomicLongArray folosite, Path fisier) {
+            this.idSpectacol = idSpectacol;
+            this.chei = chei;
+            this.altele = altele;
+            this.folosite = folosite;
+            this.fisier = fisier;
+            this.fisierTarzii = fisier.resolveSibling(idSpectacol + EXTENSIE_TARZII);
+        }
+
+        int bit(String cod) {
+            long cheie = CodBiletIndex.cheie(cod);
+            if (cheie != CodBiletIndex.GOL) {
+                int i = Arrays.binarySearch(chei, cheie);
+                return i >= 0 ? i : -1;
+            }
+            int j = Arrays.binarySearch(altele, cod);
+            return j >= 0 ? chei.length + j : -1;
+        }
+
+        // true doar pentru prima marcare a bitului
+        boolean marcheaza(int bit) {
+            int cuvant = bit >>> 6;
+            long masca = 1L << bit;
+            while (true) {
+                long v = folosite.get(cuvant);
+                if ((v & masca) != 0) return false;
+                if (folosite.compareAndSet(cuvant, v, v | masca)) return true;
+            }
+        }
+
+        String text(int bit) {
+            return bit < chei.length ? CodBiletIndex.text(chei[bit]) : altele[bit - chei.length];
+        }
+
+        int bilete() {
+            return chei.length + altele.length;
+        }
+
+        Stare stare() {
+            int scanate = tarzii.size();
+            for (int i = 0; i < folosite.length(); i++) scanate += Long.bitCount(folosite.get(i));
+            return new Stare(idSpectacol, bilete(), scanate);
+        }
+
+        void scrieCuvant(int cuvant) {
+            murdare.add(cuvant);
+        }
+
+        void scrieTarziu(String cod) {
+            tarziiNescrise.add(cod);
+        }
+
+        // Cuvintele murdare, pe loc in fisier; codurile tarzii noi, la sfarsitul fisierului lor
+        void sincronizeaza() {
+            if (canal == null || (murdare.isEmpty() && tarziiNescrise.isEmpty())) return;
+            try {
+                ByteBuffer b = ByteBuffer.allocate(8);
+                for (int cuvant : murdare) {
+                    b.clear();
+                    b.putLong(folosite.get(cuvant)).flip();
+                    canal.write(b, ANTET + 8L * cuvant);
+                }
+                canal.force(false);
+                murdare.clear();
+                if (!tarziiNescrise.isEmpty()) {
+                    ByteBuffer linii = ByteBuffer.wrap((String.join("\n", tarziiNescrise) + "\n").getBytes(StandardCharsets.UTF_8));
+                    while (linii.hasRemaining()) canalTarzii.write(linii);
+                    canalTarzii.force(false);
+                    tarziiNescrise.clear();
+                }
+            } catch (IOException ex) {
+                ex.printStackTrace();
+            }
+        }
+
+        // Fisierul intreg, scris alaturi si mutat atomic
+        void scrie() throws IOException {
+            Path temporar = Files.createTempFile(fisier.getParent(), String.valueOf(idSpectacol), ".tmp");
+            try {
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporar)))) {
+                    out.writeInt(VERSIUNE_FISIER);
+                    out.writeInt(idSpectacol);
+                    out.writeInt(chei.length);
+                    out.writeInt(altele.length);
+                    out.writeInt(folosite.length());
+                    for (int i = 0; i < folosite.length(); i++) out.writeLong(folosite.get(i));
+                    for (long c : chei) out.writeLong(c);
+                    for (String c : altele) out.writeUTF(c);
+                }
+                Files.move(temporar, fisier, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temporar);
+            }
+            // Scanarile tarzii gasite in baza la deschidere; cele noi se adauga la sfarsit
+            StringBuilder linii = new StringBuilder();
+            for (String cod : tarzii) linii.append(cod).append('\n');
+            Path temporarTarzii = Files.createTempFile(fisier.getParent(), String.valueOf(idSpectacol), ".tmp");
+            try {
+                Files.writeString(temporarTarzii, linii);
+                Files.move(temporarTarzii, fisierTarzii, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temporarTarzii);
+            }
+            canal = FileChannel.open(fisier, StandardOpenOption.WRITE);
+            canalTarzii = FileChannel.open(fisierTarzii, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+
+        static Poarta citeste(Path fisier) throws IOException {
+            Poarta p;
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(fisier)))) {
+                if (in.readInt() != VERSIUNE_FISIER) throw new IOException("Fisier de check-in necunoscut: " + fisier);
+                int idSpectacol = in.readInt();
+                long[] chei = new long[in.readInt()];
+                String[] altele = new String[in.readInt()];
+                AtomicLongArray folosite = new AtomicLongArray(in.readInt());
+                for (int i = 0; i < folosite.length(); i++) folosite.set(i, in.readLong());
+                for (int i = 0; i < chei.length; i++) chei[i] = in.readLong();
+                for (int i = 0; i < altele.length; i++) altele[i] = in.readUTF();
+                p = new Poarta(idSpectacol, chei, altele, folosite, fisier);
+            }
+            String complete = "";
+            if (Files.exists(p.fisierTarzii)) {
+                String continut = Files.readString(p.fisierTarzii);
+                // O linie fara sfarsit a fost scrisa pe jumatate la oprire si se taie
+                complete = continut.substring(0, continut.lastIndexOf('\n') + 1);
+                for (String cod : complete.split("\n")) if (!cod.isEmpty()) p.tarzii.add(cod);
+            }
+            p.canal = FileChannel.open(fisier, StandardOpenOption.WRITE);
+            p.canalTarzii = FileChannel.open(p.fisierTarzii, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            p.canalTarzii.truncate(complete.getBytes(StandardCharsets.UTF_8).length);
+            return p;
+        }
+
+        void inchide() {
+            try {
+                if (canal != null) canal.close();
+                if (canalTarzii != null) canalTarzii.close();
+            } catch (IOException ex) {
+                ex.printStackTrace();
+            }
+        }
+    }
+}
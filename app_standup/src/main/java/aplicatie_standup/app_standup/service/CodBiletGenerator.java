@@ -0,0 +1,250 @@
+/** Clasa pentru generarea codurilor de bilet
+ * @author Sova Ioan-Rares
+ * @version 17 Octombrie 2026
+ */
+package aplicatie_standup.app_standup.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Codul unui bilet este o permutare cu cheie a unei valori de 60 de biti, unica prin constructie:
+ * nod (5 biti, app.bilet.cod.nod) | secventa (55 de biti). Permutarea este o retea Feistel cu
+ * 4 runde pe doua jumatati de 30 de biti, cu SipHash-2-4 (cheia app.bilet.cod.cheie) ca functie
+ * de runda: fara cheie, codurile vazute nu spun nimic despre celelalte, iar dintre 2^60 de valori
+ * doar cele vandute sunt bilete. Valoarea se scrie in base32 Crockford (12 caractere) plus un
+ * caracter de control (mod 37), care prinde o greseala de tastare sau doua caractere inversate.
+ * <p>
+ * Secventa incepe la pornire de la (secunde de la 2026-01-01) x 2^24, deci o instanta repornita
+ * continua peste toate codurile date inainte, cat timp nu s-au dat mai mult de 2^24 (16 milioane)
+ * de coduri pe secunda; CodBiletIndex o muta si peste codurile gasite in baza. Firele iau blocuri
+ * de BLOC valori din benzi separate, deci un cod nou inseamna de obicei un singur CAS necontestat.
+ * Metrici: bilet.coduri, bilet.coduri.blocuri
+ */
+@Service
+public class CodBiletGenerator {
+
+    public static final int LUNGIME = 13;
+
+    static final int BITI_NOD = 5;
+    static final int BITI_SECVENTA = 55;
+    private static final long MASCA_SECVENTA = (1L << BITI_SECVENTA) - 1;
+    private static final int BITI_JUMATATE = 30;
+    private static final long MASCA_JUMATATE = (1L << BITI_JUMATATE) - 1;
+    private static final int RUNDE = 4;
+
+    // Valori luate o data de o banda; putere a lui 2 si divizor al lui 2^24
+    static final int BLOC = 1024;
+    // O banda ocupa 16 long-uri (128 de octeti), ca benzile vecine sa nu fie pe aceeasi linie de cache
+    private static final int PAS_BANDA = 16;
+    private static final long EPOCA_SECUNDE = 1_767_225_600L; // 2026-01-01T00:00:00Z
+
+    private static final char[] ALFABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    // Simbolurile de control pentru restul 32..36
+    private static final char[] CONTROL = "0123456789ABCDEFGHJKMNPQRSTVWXYZ*~$=U".toCharArray();
+    private static final int[] VALORI = new int[128];
+
+    static {
+        java.util.Arrays.fill(VALORI, -1);
+        for (int i = 0; i < ALFABET.length; i++) {
+            VALORI[ALFABET[i]] = i;
+            VALORI[Character.toLowerCase(ALFABET[i])] = i;
+        }
+        // Caracterele care se confunda la citire
+        VALORI['O'] = VALORI['o'] = 0;
+        VALORI['I'] = VALORI['i'] = VALORI['L'] = VALORI['l'] = 1;
+    }
+
+    private final long k0;
+    private final long k1;
+    private final long prefixNod;
+    private final AtomicLong urmatorulBloc;
+    // Pentru fiecare banda: urmatoarea secventa din blocul ei, sau -1 daca blocul s-a terminat
+    private final AtomicLongArray benzi;
+    private final int mascaBenzi;
+    private final Counter generate;
+    private final Counter blocuri;
+
+    /**
+     * @param cheie 32 de cifre hexa, aceeasi pe toate instantele; nu are valoare implicita, deci
+     *              aplicatia nu porneste fara ea
+     */
+    public CodBiletGenerator(@Value("${app.bilet.cod.cheie:}") String cheie,
+                             @Value("${app.bilet.cod.nod:0}") int nod,
+                             MeterRegistry registry) {
+        if (cheie.isBlank()) {
+            throw new IllegalArgumentException("app.bilet.cod.cheie lipseste: seteaza variabila de mediu APP_BILET_COD_CHEIE "
+                    + "la 32 de cifre hexa aleatoare (de ex. openssl rand -hex 16), aceeasi pe toate instantele.");
+        }
+        byte[] octeti = HexFormat.of().parseHex(cheie);
+        if (octeti.length != 16) throw new IllegalArgumentException("app.bilet.cod.cheie trebuie sa aiba 32 de cifre hexa.");
+        if (nod < 0 || nod >= 1 << BITI_NOD) throw new IllegalArgumentException("app.bilet.cod.nod trebuie sa fie intre 0 si 31.");
+        this.k0 = citesteLong(octeti, 0);
+        this.k1 = citesteLong(octeti, 8);
+        this.prefixNod = (long) nod << BITI_SECVENTA;
+        this.urmatorulBloc = new AtomicLong(secunde() << 24);
+
+        int numarBenzi = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 4 - 1)) << 1;
+        this.mascaBenzi = numarBenzi - 1;
+        this.benzi = new AtomicLongArray(numarBenzi * PAS_BANDA);
+        for (int i = 0; i < numarBenzi; i++) benzi.set(i * PAS_BANDA, -1);
+
+        this.generate = Counter.builder("bilet.coduri").description("Coduri de bilet generate").register(registry);
+        this.blocuri = Counter.builder("bilet.coduri.blocuri")
+                .description("Blocuri de " + BLOC + " secvente luate din contorul comun").register(registry);
+    }
+
+    /** Un cod nou, diferit de toate cele date de orice nod cu alt app.bilet.cod.nod. */
+    public String genereaza() {
+        generate.increment();
+        return codifica(permuta(prefixNod | urmatoareaSecventa()));
+    }
+
+    /**
+     * Valoarea de 60 de biti a unui cod (dupa permutare), sau -1 daca textul nu are forma unui
+     * cod sau caracterul de control nu se potriveste. Cratimele si spatiile sunt ignorate,
+     * literele mici si O / I / L sunt citite ca 0 / 1 / 1.
+     */
+    public static long valoare(String cod) {
+        if (cod == null) return -1;
+        long v = 0;
+        int cifre = 0;
+        char control = 0;
+        for (int i = 0; i < cod.length(); i++) {
+            char c = cod.charAt(i);
+            if (c == '-' || c == ' ') continue;
+            if (cifre == LUNGIME - 1) {
+                if (control != 0) return -1;
+                int x = c < 128 ? VALORI[c] : -1;
+                control = x >= 0 ? ALFABET[x] : Character.toUpperCase(c);
+                continue;
+            }
+            int x = c < 128 ? VALORI[c] : -1;
+            if (x < 0) return -1;
+            v = (v << 5) | x;
+            cifre++;
+        }
+        if (cifre != LUNGIME - 1 || control == 0) return -1;
+        return CONTROL[(int) Long.remainderUnsigned(v, 37)] == control ? v : -1;
+    }
+
+    /** Textul canonic al unei valori (cele 12 caractere + controlul). */
+    public static String codifica(long valoare) {
+        char[] c = new char[LUNGIME];
+        for (int i = LUNGIME - 2; i >= 0; i--) c[i] = ALFABET[(int) ((valoare >>> (5 * (LUNGIME - 2 - i))) & 31)];
+        c[LUNGIME - 1] = CONTROL[(int) Long.remainderUnsigned(valoare, 37)];
+        return new String(c);
+    }
+
+    /** Nodul care a generat valoarea (dupa inversarea permutarii). */
+    public int nod(long valoare) {
+        return (int) (inverseaza(valoare) >>> BITI_SECVENTA);
+    }
+
+    /** Secventa din valoare (dupa inversarea permutarii). */
+    public long secventa(long valoare) {
+        return inverseaza(valoare) & MASCA_SECVENTA;
+    }
+
+    public int nodulAcesta() {
+        return (int) (prefixNod >>> BITI_SECVENTA);
+    }
+
+    /**
+     * Urmatoarele blocuri incep dupa secventa data (de ex. cea mai mare gasita in baza pentru acest nod).
+     * O secventa de dupa secunda curenta nu a fost data de aceasta cheie (cod emis cu o cheie anterioara,
+     * care se inverseaza la o valoare oarecare) si este ignorata, ca sa nu consume spatiul secventelor.
+     */
+    public void continuaDupa(long secventa) {
+        if (secventa >= (secunde() + 1) << 24) return;
+        long primulBlocLiber = (secventa | (BLOC - 1)) + 1;
+        urmatorulBloc.accumulateAndGet(primulBlocLiber, Math::max);
+    }
+
+    private static long secunde() {
+        return Math.max(0, System.currentTimeMillis() / 1000 - EPOCA_SECUNDE);
+    }
+
+    private long urmatoareaSecventa() {
+        int banda = (int) (mix(Thread.currentThread().threadId()) & mascaBenzi) * PAS_BANDA;
+        while (true) {
+            long v = benzi.get(banda);
+            if (v >= 0) {
+                // Ultima valoare din bloc lasa banda goala
+                long dupa = ((v + 1) & (BLOC - 1)) == 0 ? -1 : v + 1;
+                if (benzi.compareAndSet(banda, v, dupa)) return v;
+                continue;
+            }
+            long inceput = urmatorulBloc.getAndAdd(BLOC);
+            if (inceput > MASCA_SECVENTA - BLOC) throw new IllegalStateException("Secventele codurilor de bilet s-au epuizat.");
+            blocuri.increment();
+            // Daca alt fir a umplut banda intre timp, blocul acesta ramane al nostru si restul lui se pierde
+            benzi.compareAndSet(banda, -1, inceput + 1);
+            return inceput;
+        }
+    }
+
+    long permuta(long x) {
+        long st = x >>> BITI_JUMATATE, dr = x & MASCA_JUMATATE;
+        for (int r = 0; r < RUNDE; r++) {
+            long nou = st ^ (sipHash(k0, k1, ((long) r << 32) | dr) & MASCA_JUMATATE);
+            st = dr;
+            dr = nou;
+        }
+        return (st << BITI_JUMATATE) | dr;
+    }
+
+    long inverseaza(long y) {
+        long st = y >>> BITI_JUMATATE, dr = y & MASCA_JUMATATE;
+        for (int r = RUNDE - 1; r >= 0; r--) {
+            long vechi = dr ^ (sipHash(k0, k1, ((long) r << 32) | st) & MASCA_JUMATATE);
+            dr = st;
+            st = vechi;
+        }
+        return (st << BITI_JUMATATE) | dr;
+    }
+
+    /** SipHash-2-4 pentru un mesaj de 8 octeti. */
+    static long sipHash(long k0, long k1, long m) {
+        long v0 = k0 ^ 0x736f6d6570736575L, v1 = k1 ^ 0x646f72616e646f6dL;
+        long v2 = k0 ^ 0x6c7967656e657261L, v3 = k1 ^ 0x7465646279746573L;
+        long b = 8L << 56;
+        for (int bloc = 0; bloc < 2; bloc++) {
+            long mi = bloc == 0 ? m : b;
+            v3 ^= mi;
+            for (int i = 0; i < 2; i++) {
+                v0 += v1; v1 = Long.rotateLeft(v1, 13); v1 ^= v0; v0 = Long.rotateLeft(v0, 32);
+                v2 += v3; v3 = Long.rotateLeft(v3, 16); v3 ^= v2;
+                v0 += v3; v3 = Long.rotateLeft(v3, 21); v3 ^= v0;
+                v2 += v1; v1 = Long.rotateLeft(v1, 17); v1 ^= v2; v2 = Long.rotateLeft(v2, 32);
+            }
+            v0 ^= mi;
+        }
+        v2 ^= 0xff;
+        for (int i = 0; i < 4; i++) {
+            v0 += v1; v1 = Long.rotateLeft(v1, 13); v1 ^= v0; v0 = Long.rotateLeft(v0, 32);
+            v2 += v3; v3 = Long.rotateLeft(v3, 16); v3 ^= v2;
+            v0 += v3; v3 = Long.rotateLeft(v3, 21); v3 ^= v0;
+            v2 += v1; v1 = Long.rotateLeft(v1, 17); v1 ^= v2; v2 = Long.rotateLeft(v2, 32);
+        }
+        return v0 ^ v1 ^ v2 ^ v3;
+    }
+
+    // Firele (si cele virtuale) se impart uniform pe benzi
+    private static long mix(long x) {
+        x = (x ^ (x >>> 33)) * 0xff51afd7ed558ccdL;
+        return x ^ (x >>> 33);
+    }
+
+    private static long citesteLong(byte[] b, int de) {
+        long v = 0;
+        for (int i = 7; i >= 0; i--) v = (v << 8) | (b[de + i] & 0xff);
+        return v;
+    }
+}
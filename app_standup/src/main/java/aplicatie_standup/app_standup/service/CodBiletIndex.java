@@ -0,0 +1,258 @@
+/** Clasa pentru cautarea biletelor dupa cod, din memorie
+ * @author Sova Ioan-Rares
+ * @version 17 Octombrie 2026
+ */
+package aplicatie_standup.app_standup.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Cod_Bilet -> (spectacol, spectator) pentru toate biletele, intr-o tabela cu adresare deschisa
+ * pe long-uri (cheia este valoarea de 60 de biti a codului, vezi CodBiletGenerator): aproximativ
+ * 32 de octeti pe bilet, fara obiecte per intrare. Citirile sunt optimiste (StampedLock), deci nu
+ * se blocheaza intre ele; scrierile (o vanzare, stergerea unui spectacol) iau lacatul scurt.
+ * <p>
+ * Codurile vechi (8 caractere din UUID) incap tot intr-un long; orice alt text ajunge intr-un
+ * HashMap separat. Pana la prima incarcare, cautarile merg la baza de date.
+ * Metrici: bilet.coduri.index
+ */
+@Service
+public class CodBiletIndex {
+
+    /** Biletul unui cod. */
+    public record Intrare(int idSpectacol, int idSpectator) {}
+
+    private static final String SQL_TOATE = "/* coduri */ SELECT Cod_Bilet, ID_Spectacol, ID_Spectator FROM Bilet";
+    private static final String SQL_COD = "/* cod */ SELECT ID_Spectacol, ID_Spectator FROM Bilet WHERE Cod_Bilet = ?";
+
+    static final long GOL = -1;
+    private static final int CAPACITATE_INITIALA = 1 << 12;
+    private static final char[] ALFABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int[] VALORI = new int[128];
+
+    static {
+        Arrays.fill(VALORI, -1);
+        for (int i = 0; i < ALFABET.length; i++) VALORI[ALFABET[i]] = i;
+    }
+
+    private final DataSource dataSource;
+    private final CodBiletGenerator generator;
+    private final StampedLock lacat = new StampedLock();
+    private final Map<String, Long> altele = new HashMap<>();
+    // Un singur camp, ca o citire optimista sa vada cheile si valorile aceleiasi tabele
+    private Tabela tabela = new Tabela(CAPACITATE_INITIALA);
+    private int numar;
+    private volatile boolean incarcat;
+
+    public CodBiletIndex(DataSource dataSource, CodBiletGenerator generator, MeterRegistry registry) {
+        this.dataSource = dataSource;
+        this.generator = generator;
+        Gauge.builder("bilet.coduri.index", this, CodBiletIndex::numar)
+                .description("Coduri de bilet tinute in memorie").register(registry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void laPornire() {
+        try {
+            incarca();
+        } catch (SQLException ex) {
+            // Cautarile raman pe baza de date
+            ex.printStackTrace();
+        }
+    }
+
+    /** Citeste toate codurile din Bilet si muta generatorul dupa codurile date de acest nod. */
+    public void incarca() throws SQLException {
+        long maxSecventa = -1;
+        int nod = generator.nodulAcesta();
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(SQL_TOATE)) {
+            ps.setFetchSize(10_000);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    String cod = rs.getString(1);
+                    adauga(cod, rs.getInt(2), rs.getInt(3));
+                    long v = CodBiletGenerator.valoare(cod);
+                    if (v >= 0 && generator.nod(v) == nod) maxSecventa = Math.max(maxSecventa, generator.secventa(v));
+                }
+            }
+        }
+        if (maxSecventa >= 0) generator.continuaDupa(maxSecventa);
+        incarcat = true;
+    }
+
+    /** Un bilet abia scris in baza. */
+    public void adauga(String cod, int idSpectacol, int idSpectator) {
+        long cheie = cheie(cod);
+        long valoare = ((long) idSpectacol << 32) | (idSpectator & 0xffffffffL);
+        long stamp = lacat.writeLock();
+        try {
+            if (cheie == GOL) {
+                altele.put(cod, valoare);
+            } else {
+                if ((numar + 1) * 3L > tabela.chei.length * 2L) tabela = tabela.dubla();
+                if (tabela.pune(cheie, valoare)) numar++;
+            }
+        } finally {
+            lacat.unlockWrite(stamp);
+        }
+    }
+
+    /** Biletul cu acest cod, sau null. */
+    public Intrare cauta(String cod) throws SQLException {
+        if (!incarcat) return cautaInBaza(cod);
+        long cheie = cheie(cod);
+        long valoare;
+        if (cheie == GOL) {
+            long stamp = lacat.readLock();
+            try {
+                valoare = altele.getOrDefault(cod, 0L);
+            } finally {
+                lacat.unlockRead(stamp);
+            }
+        } else {
+            long stamp = lacat.tryOptimisticRead();
+            valoare = tabela.gaseste(cheie);
+            if (!lacat.validate(stamp)) {
+                stamp = lacat.readLock();
+                try {
+                    valoare = tabela.gaseste(cheie);
+                } finally {
+                    lacat.unlockRead(stamp);
+                }
+            }
+        }
+        int idSpectacol = (int) (valoare >>> 32);
+        // 0 = spectacol sters
+        return idSpectacol == 0 ? null : new Intrare(idSpectacol, (int) valoare);
+    }
+
+    /** Biletele spectacolului au fost sterse din baza. */
+    public void stergeSpectacol(int idSpectacol) {
+        long stamp = lacat.writeLock();
+        try {
+            long[] chei = tabela.chei, valori = tabela.valori;
+            for (int i = 0; i < chei.length; i++) {
+                if (chei[i] != GOL && (int) (valori[i] >>> 32) == idSpectacol) valori[i] = 0;
+            }
+            altele.values().removeIf(v -> (int) (v >>> 32) == idSpectacol);
+        } finally {
+            lacat.unlockWrite(stamp);
+        }
+    }
+
+    public int numar() {
+        long stamp = lacat.readLock();
+        try {
+            return numar + altele.size();
+        } finally {
+            lacat.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Cheia din tabela: valoarea unui cod nou, sau, pentru codurile vechi de cel mult 12 caractere
+     * base32 (fara alias-uri), valoarea lor cu lungimea in primii 4 biti. GOL pentru restul.
+     */
+    static long cheie(String cod) {
+        long v = CodBiletGenerator.valoare(cod);
+        if (v >= 0) return v;
+        int n = cod.length();
+        if (n == 0 || n > 12) return GOL;
+        long x = 0;
+        for (int i = 0; i < n; i++) {
+            char c = Character.toUpperCase(cod.charAt(i));
+            int d = c < 128 ? VALORI[c] : -1;
+            if (d < 0) return GOL;
+            x = (x << 5) | d;
+        }
+        return ((long) n << 60) | x;
+    }
+
+    /** Textul unei chei (inversul lui cheie()): codul canonic, sau codul vechi cu litere mari. */
+    static String text(long cheie) {
+        int n = (int) (cheie >>> 60);
+        if (n == 0) return CodBiletGenerator.codifica(cheie);
+        char[] c = new char[n];
+        for (int i = n - 1; i >= 0; i--, cheie >>>= 5) c[i] = ALFABET[(int) (cheie & 31)];
+        return new String(c);
+    }
+
+    private Intrare cautaInBaza(String cod) throws SQLException {
+        try (Connection conn = dataSource.getConnection(); PreparedStatement ps = conn.prepareStatement(SQL_COD)) {
+            long v = CodBiletGenerator.valoare(cod);
+            ps.setString(1, v >= 0 ? CodBiletGenerator.codifica(v) : cod);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? new Intrare(rs.getInt(1), rs.getInt(2)) : null;
+            }
+        }
+    }
+
+    // Valoarea 0 inseamna "lipsa": un ID_Spectacol nu este niciodata 0
+    private static final class Tabela {
+        final long[] chei;
+        final long[] valori;
+
+        Tabela(int capacitate) {
+            chei = new long[capacitate];
+            valori = new long[capacitate];
+            Arrays.fill(chei, GOL);
+        }
+
+        Tabela dubla() {
+            Tabela noua = new Tabela(chei.length * 2);
+            for (int i = 0; i < chei.length; i++) {
+                if (chei[i] != GOL) noua.pune(chei[i], valori[i]);
+            }
+            return noua;
+        }
+
+        // true pentru o cheie noua; altfel valoarea se inlocuieste
+        boolean pune(long cheie, long valoare) {
+            int masca = chei.length - 1;
+            for (int i = pozitie(cheie, masca); ; i = (i + 1) & masca) {
+                if (chei[i] == GOL) {
+                    // Valoarea inaintea cheii: o citire optimista care vede cheia nu ia o valoare veche
+                    valori[i] = valoare;
+                    chei[i] = cheie;
+                    return true;
+                }
+                if (chei[i] == cheie) {
+                    valori[i] = valoare;
+                    return false;
+                }
+            }
+        }
+
+        // Poate rula in paralel cu o scriere (citire optimista): se opreste dupa cel mult o trecere prin tabela
+        long gaseste(long cheie) {
+            int masca = chei.length - 1;
+            int i = pozitie(cheie, masca);
+            for (int pasi = 0; pasi <= masca; pasi++, i = (i + 1) & masca) {
+                long k = chei[i];
+                if (k == cheie) return valori[i];
+                if (k == GOL) return 0;
+            }
+            return 0;
+        }
+    }
+
+    private static int pozitie(long cheie, int masca) {
+        long h = cheie * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & masca;
+    }
+}
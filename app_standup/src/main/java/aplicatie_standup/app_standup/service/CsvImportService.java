@@ -0,0 +1,223 @@
+/** Clasa pentru importul in masa al spectacolelor, artistilor, locatiilor si organizatorilor din CSV
+ * @author Sova Ioan-Rares
+ * @version 17 Octombrie 2026
+ */
+package aplicatie_standup.app_standup.service;
+
+import aplicatie_standup.app_standup.db.Inserare;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Citeste CSV-ul rand cu rand din stream (capul de tabel = numele campurilor din formularul de
+ * adaugare), valideaza fiecare rand cu aceleasi reguli ca formularul (Inserare) si scrie randurile
+ * valide cu addBatch/executeBatch, cate app.import.batch-size intr-o tranzactie. Daca un lot este
+ * respins de baza (de ex. o cheie straina inexistenta), lotul se reia rand cu rand, ca randurile
+ * bune sa intre si fiecare rand gresit sa apara in raport cu linia lui.
+ */
+@Service
+public class CsvImportService {
+
+    /** Raportul unui import; erori contine cel mult app.import.max-errors mesaje. */
+    public record Rezultat(int importate, int respinse, List<String> erori, long durataMs) {}
+
+    private record Rand(long linie, Map<String, String> campuri) {}
+
+    private final DataSource dataSource;
+    private final SearchIndex searchIndex;
+    private final SpectacolCatalog catalog;
+    private final SalesAggregates agregate;
+    private final OccupancyTracker ocupare;
+    private final DataVersions versiuni;
+    private final int marimeLot;
+    private final int maxErori;
+    private final Counter importate;
+    private final Counter respinse;
+    private final MeterRegistry registry;
+
+    public CsvImportService(DataSource dataSource, SearchIndex searchIndex, SpectacolCatalog catalog,
+                            SalesAggregates agregate, OccupancyTracker ocupare, DataVersions versiuni, MeterRegistry registry,
+                            @Value("${app.import.batch-size:1000}") int marimeLot,
+                            @Value("${app.import.max-errors:100}") int maxErori) {
+        this.dataSource = dataSource;
+        this.searchIndex = searchIndex;
+        this.catalog = catalog;
+        this.agregate = agregate;
+        this.ocupare = ocupare;
+        this.versiuni = versiuni;
+        this.marimeLot = marimeLot;
+        this.maxErori = maxErori;
+        this.registry = registry;
+        this.importate = Counter.builder("import.randuri").tag("rezultat", "importat").description("Randuri CSV").register(registry);
+        this.respinse = Counter.builder("import.randuri").tag("rezultat", "respins").description("Randuri CSV").register(registry);
+    }
+
+    /**
+     * Importa randurile din CSV.
+     * @throws RuntimeException daca fisierul e gol sau capul de tabel are coloane necunoscute
+     */
+    public Rezultat importa(Inserare tip, InputStream continut) throws IOException, SQLException {
+        long start = System.nanoTime();
+        CsvReader csv = new CsvReader(new BufferedReader(new InputStreamReader(continut, StandardCharsets.UTF_8), 64 * 1024));
+        String[] coloane = capDeTabel(tip, csv.rand());
+
+        Stare stare = new Stare();
+        try (Connection conn = dataSource.getConnection()) {
+            // Randurile importate sunt cele cu ID peste acesta (IDENTITY)
+            int ultimulId = ultimulId(conn, tip);
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = conn.prepareStatement(tip.sql())) {
+                List<Rand> lot = new ArrayList<>(marimeLot);
+                List<String> valori;
+                while ((valori = csv.rand()) != null) {
+                    if (valori.size() != coloane.length) {
+                        stare.eroare(csv.linie(), "are " + valori.size() + " coloane, capul de tabel are " + coloane.length + ".");
+                        continue;
+                    }
+                    Map<String, String> campuri = new HashMap<>(coloane.length * 2);
+                    for (int i = 0; i < coloane.length; i++) campuri.put(coloane[i], valori.get(i));
+                    try {
+                        tip.leaga(campuri, ps);
+                    } catch (RuntimeException ex) {
+                        stare.eroare(csv.linie(), ex.getMessage());
+                        continue;
+                    }
+                    ps.addBatch();
+                    lot.add(new Rand(csv.linie(), campuri));
+                    if (lot.size() == marimeLot) scrieLot(tip, conn, ps, lot, stare);
+                }
+                if (!lot.isEmpty()) scrieLot(tip, conn, ps, lot, stare);
+            } catch (IOException | SQLException | RuntimeException ex) {
+                // Loturile confirmate raman; cel in curs se anuleaza
+                conn.rollback();
+                throw ex;
+            } finally {
+                conn.setAutoCommit(true);
+                if (stare.importate > 0) dupaImport(tip, ultimulId);
+            }
+        }
+
+        long durata = System.nanoTime() - start;
+        Timer.builder("import.durata").tag("tip", tip.name().toLowerCase()).description("Durata unui import CSV")
+                .register(registry).record(durata, TimeUnit.NANOSECONDS);
+        importate.increment(stare.importate);
+        respinse.increment(stare.respinse);
+        return new Rezultat(stare.importate, stare.respinse, stare.erori, durata / 1_000_000);
+    }
+
+    private String[] capDeTabel(Inserare tip, List<String> cap) {
+        if (cap == null) throw new RuntimeException("Fișierul CSV este gol.");
+        String[] coloane = new String[cap.size()];
+        for (int i = 0; i < coloane.length; i++) {
+            String coloana = cap.get(i).trim().toLowerCase();
+            if (!tip.campuri().contains(coloana)) {
+                throw new RuntimeException("Coloană necunoscută în capul de tabel: \"" + cap.get(i) + "\". Coloane permise: " + String.join(", ", tip.campuri()) + ".");
+            }
+            coloane[i] = coloana;
+        }
+        return coloane;
+    }
+
+    private void scrieLot(Inserare tip, Connection conn, PreparedStatement ps, List<Rand> lot, Stare stare) throws SQLException {
+        try {
+            ps.executeBatch();
+            conn.commit();
+            stare.importate += lot.size();
+        } catch (SQLException ex) {
+            conn.rollback();
+            ps.clearBatch();
+            // Lotul se reia rand cu rand; fiecare INSERT reusit ramane in tranzactie
+            for (Rand rand : lot) {
+                try {
+                    tip.leaga(rand.campuri(), ps);
+                    ps.executeUpdate();
+                    stare.importate++;
+                } catch (SQLException exRand) {
+                    stare.eroare(rand.linie(), exRand.getMessage());
+                }
+            }
+            conn.commit();
+        }
+        lot.clear();
+    }
+
+    // Doar randurile noi ajung in index, agregate si ocupare; restul tabelului nu se reciteste
+    private void dupaImport(Inserare tip, int ultimulId) throws SQLException {
+        searchIndex.adaugaDupa(tip.entitate(), ultimulId);
+        versiuni.modificat(switch (tip) {
+            case SPECTACOL -> DataVersions.Tabel.SPECTACOL;
+            case ARTIST -> DataVersions.Tabel.ARTIST;
+            case LOCATIE -> DataVersions.Tabel.LOCATIE;
+            case ORGANIZATOR -> DataVersions.Tabel.ORGANIZATOR;
+        });
+        switch (tip) {
+            case SPECTACOL -> {
+                List<Integer> ids = idsDupa(tip, ultimulId);
+                // Locatiile si organizatorii noi nu au inca spectacole, deci nu schimba paginile din catalog
+                catalog.invalideaza();
+                agregate.spectacoleSalvate(ids);
+                for (int id : ids) ocupare.reincarca(id);
+            }
+            case LOCATIE -> agregate.locatiiSalvate(idsDupa(tip, ultimulId));
+            case ORGANIZATOR -> agregate.organizatoriSalvati(idsDupa(tip, ultimulId));
+            case ARTIST -> { }
+        }
+    }
+
+    private static String tabel(Inserare tip) {
+        return switch (tip) {
+            case SPECTACOL -> "Spectacol";
+            case ARTIST -> "Artist";
+            case LOCATIE -> "Locatie";
+            case ORGANIZATOR -> "Organizator";
+        };
+    }
+
+    private static int ultimulId(Connection conn, Inserare tip) throws SQLException {
+        String tabel = tabel(tip);
+        try (PreparedStatement ps = conn.prepareStatement("SELECT MAX(ID_" + tabel + ") FROM " + tabel);
+             ResultSet rs = ps.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private List<Integer> idsDupa(Inserare tip, int ultimulId) throws SQLException {
+        String tabel = tabel(tip);
+        List<Integer> ids = new ArrayList<>();
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement("SELECT ID_" + tabel + " FROM " + tabel + " WHERE ID_" + tabel + " > ?")) {
+            ps.setInt(1, ultimulId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) ids.add(rs.getInt(1));
+            }
+        }
+        return ids;
+    }
+
+    private final class Stare {
+        int importate;
+        int respinse;
+        final List<String> erori = new ArrayList<>();
+
+        void eroare(long linie, String mesaj) {
+            respinse++;
+            if (erori.size() < maxErori) erori.add("Linia " + linie + ": " + mesaj);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/** Clasa pentru citirea unui fisier CSV rand cu rand
+ * @author Sova Ioan-Rares
+ * @version 17 Octombrie 2026
+ */
+package aplicatie_standup.app_standup.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Citeste cate un rand (RFC 4180: campuri intre ghilimele, "" pentru ghilimele, rand nou in
+ * interiorul ghilimelelor) fara sa tina fisierul in memorie. Separatorul este ',' sau ';'
+ * (exportul Excel cu setari romanesti), ales dupa primul rand.
+ */
+final class CsvReader {
+
+    private final Reader in;
+    private final StringBuilder camp = new StringBuilder();
+    private char separator;
+    private int urmator = -2;
+    private long linie = 1;
+    private long linieRand;
+
+    CsvReader(Reader in) {
+        this.in = in;
+    }
+
+    /** Linia din fisier (de la 1) la care incepe ultimul rand intors de rand(). */
+    long linie() {
+        return linieRand;
+    }
+
+    /** Urmatorul rand, sau null la sfarsitul fisierului. Randurile goale sunt sarite. */
+    List<String> rand() throws IOException {
+        int c = citeste();
+        while (c == '\r' || c == '\n') {
+            if (c == '\n') linie++;
+            c = citeste();
+        }
+        if (c == -1) return null;
+        linieRand = linie;
+        // BOM-ul pus de Excel la inceputul fisierelor UTF-8
+        if (c == '\uFEFF') c = citeste();
+
+        List<String> campuri = new ArrayList<>();
+        camp.setLength(0);
+        boolean ghilimele = false;
+        boolean primul = separator == 0;
+        while (true) {
+            if (c == -1) {
+                if (ghilimele) throw new IOException("Ghilimele neînchise începând cu linia " + linieRand + ".");
+                break;
+            }
+            if (ghilimele) {
+                if (c == '"') {
+                    int d = citeste();
+                    if (d == '"') {
+                        camp.append('"');
+                    } else {
+                        ghilimele = false;
+                        c = d;
+                        continue;
+                    }
+                } else {
+                    if (c == '\n') linie++;
+                    camp.append((char) c);
+                }
+            } else if (c == '"' && camp.isEmpty()) {
+                ghilimele = true;
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r') {
+                    int d = citeste();
+                    if (d != '\n') pune(d);
+                }
+                linie++;
+                break;
+            } else if (primul && (c == ',' || c == ';') && separator == 0) {
+                // Primul separator gasit in capul de tabel decide pentru tot fisierul
+                separator = (char) c;
+                campuri.add(camp.toString());
+                camp.setLength(0);
+            } else if (c == separator) {
+                campuri.add(camp.toString());
+                camp.setLength(0);
+            } else {
+                camp.append((char) c);
+            }
+            c = citeste();
+        }
+        campuri.add(camp.toString());
+        if (primul && separator == 0) separator = ',';
+        return campuri;
+    }
+
+    private int citeste() throws IOException {
+        if (urmator != -2) {
+            int c = urmator;
+            urmator = -2;
+            return c;
+        }
+        return in.read();
+    }
+
+    private void pune(int c) {
+        urmator = c;
+    }
+}
@@ -0,0 +1,71 @@
+/** Clasa pentru versiunile datelor afisate in pagini
+ * @author Sova Ioan-Rares
+ * @version 17 Octombrie 2026
+ */
+package aplicatie_standup.app_standup.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Un numar de versiune si momentul ultimei modificari pentru fiecare tabel, marite de orice
+ * scriere facuta prin aplicatie (formularele add/edit/delete, importul CSV, vanzarea si
+ * reconcilierea locurilor). Paginile isi calculeaza ETag-ul din versiunile tabelelor pe care
+ * le afiseaza (view.ConditionalGet), fara sa citeasca baza de date.
+ * <p>
+ * Versiunile sunt ale acestei instante: scrierile facute de alte instante sau direct in baza
+ * nu le schimba (vezi app.http.conditional.max-age-seconds).
+ */
+@Service
+public class DataVersions {
+
+    public enum Tabel { SPECTACOL, BILET, ARTIST, LOCATIE, ORGANIZATOR }
+
+    private record Stare(AtomicLong versiune, AtomicLong modificat) {}
+
+    // Doua instante (sau doua porniri) cu aceleasi numere de versiune nu dau acelasi ETag
+    private final String instanta = Long.toString(ThreadLocalRandom.current().nextLong() >>> 1, 36);
+    private final Map<Tabel, Stare> stari = new EnumMap<>(Tabel.class);
+
+    public DataVersions(MeterRegistry registry) {
+        long acum = System.currentTimeMillis();
+        for (Tabel tabel : Tabel.values()) {
+            Stare stare = new Stare(new AtomicLong(), new AtomicLong(acum));
+            stari.put(tabel, stare);
+            Gauge.builder("date.versiune", stare.versiune(), AtomicLong::get).tag("tabel", tabel.name().toLowerCase())
+                    .description("Modificarile tabelului facute prin aceasta instanta").register(registry);
+        }
+    }
+
+    /** Dupa o scriere reusita in tabelele date. */
+    public void modificat(Tabel... tabele) {
+        long acum = System.currentTimeMillis();
+        for (Tabel tabel : tabele) {
+            Stare stare = stari.get(tabel);
+            // Momentul se scrie inaintea versiunii: cine vede versiunea noua vede si momentul ei
+            stare.modificat().accumulateAndGet(acum, Math::max);
+            stare.versiune().incrementAndGet();
+        }
+    }
+
+    /** Versiunile tabelelor, ca text: instanta + cate un numar pe tabel. */
+    public String versiuni(Collection<Tabel> tabele) {
+        StringBuilder sb = new StringBuilder(instanta);
+        for (Tabel tabel : tabele) sb.append('.').append(stari.get(tabel).versiune().get());
+        return sb.toString();
+    }
+
+    /** Ultima modificare (ms) a oricaruia dintre tabele; la pornire, momentul pornirii. */
+    public long modificatLa(Collection<Tabel> tabele) {
+        long max = 0;
+        for (Tabel tabel : tabele) max = Math.max(max, stari.get(tabel).modificat().get());
+        return max;
+    }
+}
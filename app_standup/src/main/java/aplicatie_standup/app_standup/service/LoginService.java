@@ -0,0 +1,224 @@
+/** Clasa pentru verificarea credentialelor la login
+ * @author Sova Ioan-Rares
+ * @version 17 Octombrie 2026
+ */
+package aplicatie_standup.app_standup.service;
+
+import aplicatie_standup.app_standup.model.Session;
+import aplicatie_standup.app_standup.repository.UtilizatorRepository;
+import aplicatie_standup.app_standup.repository.UtilizatorRepository.Cont;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Autentificarea pentru /login, fara drum la baza de date pe caile frecvente:
+ * <ul>
+ *     <li>parolele sunt pastrate ca hash BCrypt (cost app.login.bcrypt-cost); randurile vechi, cu parola
+ *     in clar, sunt rescrise cu hash la primul login reusit (sau toate la pornire, app.login.migrate-on-startup);</li>
+ *     <li>contul (hash, rol, ID_Spectator) sta intr-un cache pe username; /register il invalideaza;</li>
+ *     <li>dupa prea multe esecuri pe acelasi username sau IP in fereastra app.login.window-seconds,
+ *     incercarile sunt refuzate din memorie, fara hash si fara SQL.</li>
+ * </ul>
+ */
+@Service
+public class LoginService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LoginService.class);
+
+    /** Rezultatul unei incercari de autentificare. */
+    public sealed interface Rezultat {
+        record Reusit(Session sesiune) implements Rezultat {}
+        record Gresit() implements Rezultat {}
+        record Blocat(long secunde) implements Rezultat {}
+    }
+
+    /** Esecurile dintr-o fereastra, numarata de la primul esec. */
+    private record Esecuri(int numar, long inceput) {}
+
+    private final UtilizatorRepository utilizatori;
+    private final BCryptPasswordEncoder encoder;
+    private final Cache<String, Optional<Cont>> conturi;
+    private final Cache<String, Esecuri> esecuriUtilizator;
+    private final Cache<String, Esecuri> esecuriIp;
+    private final int maxPeUtilizator;
+    private final int maxPeIp;
+    private final long fereastraMs;
+    private final boolean migrarePornire;
+    // Creste la fiecare invalidare; o citire inceputa inainte nu mai ajunge in cache
+    private final AtomicLong generatie = new AtomicLong();
+    // Comparat cand username-ul nu exista, ca raspunsul sa dureze la fel si sa nu tradeze conturile
+    private final String hashFals;
+    private final Counter reusite;
+    private final Counter gresite;
+    private final Counter blocate;
+    private final Counter paroleRescrise;
+
+    public LoginService(UtilizatorRepository utilizatori, MeterRegistry registry,
+                        @Value("${app.login.bcrypt-cost:10}") int cost,
+                        @Value("${app.login.cache.max-entries:10000}") long maxIntrari,
+                        @Value("${app.login.cache.ttl-seconds:600}") long ttlSecunde,
+                        @Value("${app.login.max-failures-per-user:5}") int maxPeUtilizator,
+                        @Value("${app.login.max-failures-per-ip:20}") int maxPeIp,
+                        @Value("${app.login.window-seconds:900}") long fereastraSecunde,
+                        @Value("${app.login.migrate-on-startup:false}") boolean migrarePornire) {
+        this.utilizatori = utilizatori;
+        this.encoder = new BCryptPasswordEncoder(cost);
+        this.conturi = Caffeine.newBuilder()
+                .maximumSize(maxIntrari)
+                .expireAfterWrite(Duration.ofSeconds(ttlSecunde))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, conturi, "utilizatori");
+        this.esecuriUtilizator = Caffeine.newBuilder()
+                .maximumSize(100_000).expireAfterWrite(Duration.ofSeconds(fereastraSecunde)).build();
+        this.esecuriIp = Caffeine.newBuilder()
+                .maximumSize(100_000).expireAfterWrite(Duration.ofSeconds(fereastraSecunde)).build();
+        this.maxPeUtilizator = maxPeUtilizator;
+        this.maxPeIp = maxPeIp;
+        this.fereastraMs = fereastraSecunde * 1000;
+        this.migrarePornire = migrarePornire;
+        this.hashFals = encoder.encode("parola-inexistenta");
+        this.reusite = contor(registry, "reusit");
+        this.gresite = contor(registry, "gresit");
+        this.blocate = contor(registry, "blocat");
+        this.paroleRescrise = Counter.builder("login.parole.rescrise")
+                .description("Parole rescrise cu hash BCrypt (parole vechi in clar sau cost mai mic)").register(registry);
+    }
+
+    private static Counter contor(MeterRegistry registry, String rezultat) {
+        return Counter.builder("login.incercari").description("Incercari de autentificare")
+                .tag("rezultat", rezultat).register(registry);
+    }
+
+    public Rezultat autentifica(String username, String parola, String ip) throws SQLException {
+        String cheieUtilizator = cheie(username);
+        long ramas = Math.max(ramas(esecuriUtilizator, cheieUtilizator, maxPeUtilizator), ramas(esecuriIp, ip, maxPeIp));
+        if (ramas > 0) {
+            blocate.increment();
+            return new Rezultat.Blocat(Math.max(1, ramas / 1000));
+        }
+
+        Optional<Cont> cont = cont(username);
+        if (cont.isEmpty()) {
+            encoder.matches(parola, hashFals);
+        } else if (verifica(username, parola, cont.get())) {
+            esecuriUtilizator.invalidate(cheieUtilizator);
+            reusite.increment();
+            return new Rezultat.Reusit(new Session(username, cont.get().rol(), cont.get().idSpectator()));
+        }
+        inregistreazaEsec(esecuriUtilizator, cheieUtilizator);
+        inregistreazaEsec(esecuriIp, ip);
+        gresite.increment();
+        return new Rezultat.Gresit();
+    }
+
+    /** Hash-ul de salvat in Utilizator.Parola pentru un cont nou. */
+    public String hash(String parola) {
+        return encoder.encode(parola);
+    }
+
+    /** Apelat dupa ce un cont este creat sau modificat. */
+    public void invalideaza(String username) {
+        generatie.incrementAndGet();
+        conturi.invalidate(cheie(username));
+    }
+
+    /** Rescrie cu hash toate parolele ramase in clar (app.login.migrate-on-startup). */
+    @EventListener(ApplicationReadyEvent.class)
+    public void migreazaLaPornire() {
+        if (!migrarePornire) return;
+        try {
+            int migrate = migreazaToate();
+            if (migrate > 0) LOG.info("Parole rescrise cu hash BCrypt la pornire: {}", migrate);
+        } catch (SQLException ex) {
+            ex.printStackTrace();
+        }
+    }
+
+    public int migreazaToate() throws SQLException {
+        List<String[]> vechi = new ArrayList<>();
+        utilizatori.parcurgeParole((username, parola) -> {
+            if (!esteHash(parola)) vechi.add(new String[]{username, parola});
+        });
+        int migrate = 0;
+        for (String[] rand : vechi) {
+            if (rescrie(rand[0], rand[1], rand[1])) migrate++;
+        }
+        return migrate;
+    }
+
+    private Optional<Cont> cont(String username) throws SQLException {
+        String cheie = cheie(username);
+        Optional<Cont> cont = conturi.getIfPresent(cheie);
+        if (cont != null) return cont;
+
+        long generatieInainte = generatie.get();
+        cont = utilizatori.cont(username);
+        if (generatie.get() == generatieInainte) conturi.put(cheie, cont);
+        return cont;
+    }
+
+    // Username-ul se compara in baza fara majuscule (colatia SQL Server), deci si in cache si la blocare
+    private static String cheie(String username) {
+        return username.toLowerCase(Locale.ROOT);
+    }
+
+    private boolean verifica(String username, String parola, Cont cont) throws SQLException {
+        if (esteHash(cont.hash())) {
+            if (!encoder.matches(parola, cont.hash())) return false;
+            // Costul a crescut de la salvarea hash-ului: il refacem cat avem parola
+            if (encoder.upgradeEncoding(cont.hash())) rescrie(username, cont.hash(), parola);
+            return true;
+        }
+        // Rand vechi, cu parola in clar
+        if (!MessageDigest.isEqual(cont.hash().getBytes(StandardCharsets.UTF_8), parola.getBytes(StandardCharsets.UTF_8))) return false;
+        rescrie(username, cont.hash(), parola);
+        return true;
+    }
+
+    // Conditia pe valoarea veche face ca doua migrari simultane ale aceluiasi cont sa nu se calce
+    private boolean rescrie(String username, String vechi, String parola) throws SQLException {
+        boolean rescris = utilizatori.rescrieParola(username, vechi, encoder.encode(parola));
+        if (rescris) paroleRescrise.increment();
+        invalideaza(username);
+        return rescris;
+    }
+
+    static boolean esteHash(String parola) {
+        return parola != null && parola.length() == 60
+                && (parola.startsWith("$2a$") || parola.startsWith("$2b$") || parola.startsWith("$2y$"));
+    }
+
+    // Milisecunde pana la deblocare, 0 daca cheia nu este blocata
+    private long ramas(Cache<String, Esecuri> esecuri, String cheie, int max) {
+        Esecuri e = esecuri.getIfPresent(cheie);
+        if (e == null || e.numar() < max) return 0;
+        return Math.max(0, e.inceput() + fereastraMs - System.currentTimeMillis());
+    }
+
+    private void inregistreazaEsec(Cache<String, Esecuri> esecuri, String cheie) {
+        long acum = System.currentTimeMillis();
+        esecuri.asMap().merge(cheie, new Esecuri(1, acum), (vechi, nou) ->
+                vechi.inceput() + fereastraMs <= acum ? nou : new Esecuri(vechi.numar() + 1, vechi.inceput()));
+    }
+}
@@ -0,0 +1,269 @@
+/** Clasa pentru evidenta in memorie a locurilor ocupate la fiecare spectacol
+ * @author Sova Ioan-Rares
+ * @version 17 Octombrie 2026
+ */
+package aplicatie_standup.app_standup.service;
+
+import aplicatie_standup.app_standup.model.GradOcupareRow;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Locurile ocupate pe ID_Spectacol: capacitatea locatiei si biletele vandute, incarcate la pornire
+ * cu o singura interogare si apoi actualizate la fiecare cumparare (BiletPurchaseEngine) si la
+ * adaugarea / editarea / stergerea spectacolelor. Lista /spectacole si gradul de ocupare din /raport le citesc
+ * din memorie, fara SQL.
+ * <p>
+ * Ocupate include si rezervarile al caror bilet nu a ajuns inca in baza (inCurs). Reconcilierea
+ * periodica (app.occupancy.reconcile-ms) recitește numaratorile din baza si corecteaza diferentele
+ * (bilete scrise sau sterse pe alta cale); un spectacol cu cumparari in curs sau cu o cumparare
+ * terminata in timpul interogarii este lasat pentru runda urmatoare, ca sa nu pierdem o rezervare.
+ */
+@Service
+public class OccupancyTracker {
+
+    /** Locurile ramase pentru spectacolele fara locatie sau fara capacitate. */
+    public static final int FARA_LIMITA = Integer.MAX_VALUE;
+
+    private static final String SQL_TOATE = "/* ocupare */ SELECT s.ID_Spectacol, s.ID_Locatie, l.Nume_Locatie, l.Capacitate, COUNT(b.ID_Bilet) " +
+            "FROM Spectacol s LEFT JOIN Locatie l ON s.ID_Locatie = l.ID_Locatie LEFT JOIN Bilet b ON b.ID_Spectacol = s.ID_Spectacol " +
+            "GROUP BY s.ID_Spectacol, s.ID_Locatie, l.Nume_Locatie, l.Capacitate";
+
+    private static final String SQL_UNUL = "SELECT s.ID_Locatie, l.Nume_Locatie, l.Capacitate, " +
+            "(SELECT COUNT(*) FROM Bilet b WHERE b.ID_Spectacol = s.ID_Spectacol) " +
+            "FROM Spectacol s LEFT JOIN Locatie l ON s.ID_Locatie = l.ID_Locatie WHERE s.ID_Spectacol = ?";
+
+    private static final class Locuri {
+        // 0 = fara limita; locatia poate primi alta capacitate la reconciliere
+        volatile int capacitate;
+        volatile int idLocatie;
+        volatile String numeLocatie;
+        final AtomicInteger ocupate;
+        final AtomicInteger inCurs = new AtomicInteger();
+
+        Locuri(int idLocatie, String numeLocatie, int capacitate, int ocupate) {
+            this.idLocatie = idLocatie;
+            this.numeLocatie = numeLocatie;
+            this.capacitate = capacitate;
+            this.ocupate = new AtomicInteger(ocupate);
+        }
+
+        int ramase() {
+            int c = capacitate;
+            return c <= 0 ? FARA_LIMITA : Math.max(0, c - ocupate.get());
+        }
+    }
+
+    private final DataSource dataSource;
+    private final ConcurrentHashMap<Integer, Locuri> spectacole = new ConcurrentHashMap<>();
+    private final Counter corectii;
+    private final DataVersions versiuni;
+
+    public OccupancyTracker(DataSource dataSource, DataVersions versiuni, MeterRegistry registry) {
+        this.dataSource = dataSource;
+        this.versiuni = versiuni;
+        this.corectii = Counter.builder("ocupare.corectii")
+                .description("Spectacole corectate la reconcilierea cu baza de date").register(registry);
+        Gauge.builder("ocupare.spectacole", spectacole, Map::size)
+                .description("Spectacole urmarite in memorie").register(registry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void laPornire() {
+        reconciliazaPeriodic();
+    }
+
+    @Scheduled(initialDelayString = "${app.occupancy.reconcile-ms:60000}", fixedDelayString = "${app.occupancy.reconcile-ms:60000}")
+    public void reconciliazaPeriodic() {
+        try {
+            reconciliaza();
+        } catch (SQLException ex) {
+            // Valorile din memorie raman cele de dinainte; urmatoarea runda reincearca
+            ex.printStackTrace();
+        }
+    }
+
+    /**
+     * Rezerva un loc, sau intoarce false daca spectacolul este plin.
+     * @throws RuntimeException daca spectacolul nu exista
+     */
+    public boolean rezerva(int idSpectacol) throws SQLException {
+        Locuri l = locuri(idSpectacol);
+        int ocupate;
+        do {
+            ocupate = l.ocupate.get();
+            int capacitate = l.capacitate;
+            if (capacitate > 0 && ocupate >= capacitate) return false;
+        } while (!l.ocupate.compareAndSet(ocupate, ocupate + 1));
+        l.inCurs.incrementAndGet();
+        // Versiunea BILET se schimba abia la confirma: rezervarea singura nu este inca un bilet in baza
+        return true;
+    }
+
+    /** Biletul rezervat a fost scris in baza. */
+    public void confirma(int idSpectacol) {
+        Locuri l = spectacole.get(idSpectacol);
+        if (l != null) l.inCurs.decrementAndGet();
+        // Biletul este acum si in baza (raportul il citeste de acolo); singura schimbare de versiune a unei cumparari
+        versiuni.modificat(DataVersions.Tabel.BILET);
+    }
+
+    /**
+     * Nu se stie daca biletul rezervat a ajuns in baza: locul ramane ocupat, dar nu mai este in curs,
+     * ca urmatoarea reconciliere sa-l stabileasca dupa baza (altfel spectacolul ar fi sarit mereu).
+     */
+    public void necunoscut(int idSpectacol) {
+        Locuri l = spectacole.get(idSpectacol);
+        if (l != null) l.inCurs.decrementAndGet();
+        // Biletul poate fi deja in baza
+        versiuni.modificat(DataVersions.Tabel.BILET);
+    }
+
+    /** Biletul rezervat nu a ajuns in baza: locul se elibereaza. */
+    public void elibereaza(int idSpectacol) {
+        Locuri l = spectacole.get(idSpectacol);
+        if (l == null) return;
+        l.ocupate.decrementAndGet();
+        l.inCurs.decrementAndGet();
+        // Fara modificarea versiunii: locurile revin la valoarea de dinaintea rezervarii
+    }
+
+    /** Locurile ramase, sau FARA_LIMITA pentru spectacolele fara capacitate. */
+    public int ramase(int idSpectacol) throws SQLException {
+        return locuri(idSpectacol).ramase();
+    }
+
+    /**
+     * Locurile ramase pentru randurile unei pagini, doar din memorie; spectacolele inca
+     * neincarcate (adaugate pe alta cale) lipsesc pana la urmatoarea reconciliere.
+     */
+    public Map<Integer, Integer> ramase(Collection<Integer> idSpectacole) {
+        Map<Integer, Integer> ramase = new HashMap<>();
+        for (Integer id : idSpectacole) {
+            Locuri l = spectacole.get(id);
+            if (l != null) ramase.put(id, l.ramase());
+        }
+        return ramase;
+    }
+
+    /** Daca spectacolul este urmarit in memorie (exista), fara SQL. */
+    public boolean urmareste(int idSpectacol) {
+        return spectacole.containsKey(idSpectacol);
+    }
+
+    /** Spectacol sters: nu mai este urmarit. */
+    public void sterge(int idSpectacol) {
+        spectacole.remove(idSpectacol);
+    }
+
+    /**
+     * Spectacol adaugat sau editat (poate avea alta locatie): se recitesc locatia si capacitatea.
+     * Locurile ocupate raman cele din memorie, ca sa nu se piarda cumpararile in curs.
+     */
+    public void reincarca(int idSpectacol) throws SQLException {
+        Locuri citite = citeste(idSpectacol);
+        Locuri l = spectacole.putIfAbsent(idSpectacol, citite);
+        if (l == null) return;
+        l.idLocatie = citite.idLocatie;
+        l.numeLocatie = citite.numeLocatie;
+        l.capacitate = citite.capacitate;
+    }
+
+    /**
+     * Gradul de ocupare pe locatie (bilete / (Capacitate * numar spectacole)), ca in COMPLEXA 4,
+     * calculat din contoarele din memorie.
+     */
+    public List<GradOcupareRow> gradOcupare() {
+        // ID locatie -> {capacitate, spectacole, ocupate}
+        Map<Integer, int[]> peLocatie = new TreeMap<>();
+        Map<Integer, String> nume = new HashMap<>();
+        for (Locuri l : spectacole.values()) {
+            int idLocatie = l.idLocatie;
+            if (idLocatie == 0 || l.capacitate <= 0) continue;
+            int[] total = peLocatie.computeIfAbsent(idLocatie, k -> new int[3]);
+            total[0] = l.capacitate;
+            total[1]++;
+            total[2] += l.ocupate.get();
+            nume.put(idLocatie, l.numeLocatie);
+        }
+        List<GradOcupareRow> grad = new ArrayList<>(peLocatie.size());
+        peLocatie.forEach((id, t) -> grad.add(new GradOcupareRow(nume.get(id), ReportSource.procent(t[2], t[0], t[1]))));
+        return grad;
+    }
+
+    /**
+     * Recitește toate spectacolele si corecteaza contoarele care difera de baza.
+     * @return numarul de spectacole corectate
+     */
+    public synchronized int reconciliaza() throws SQLException {
+        // Instantaneul se ia inaintea interogarii: un bilet confirmat dupa el schimba "ocupate" si anuleaza corectia
+        Map<Integer, int[]> inainte = new HashMap<>();
+        spectacole.forEach((id, l) -> inainte.put(id, new int[]{l.ocupate.get(), l.inCurs.get()}));
+
+        Set<Integer> gasite = new HashSet<>();
+        int corectate = 0;
+        boolean schimbat = false;
+        try (Connection conn = dataSource.getConnection();
+             Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery(SQL_TOATE)) {
+            while (rs.next()) {
+                int id = rs.getInt(1);
+                int idLocatie = rs.getInt(2);
+                String numeLocatie = rs.getString(3);
+                int capacitate = rs.getInt(4);
+                int vandute = rs.getInt(5);
+                gasite.add(id);
+
+                Locuri l = spectacole.get(id);
+                if (l == null) {
+                    schimbat |= spectacole.putIfAbsent(id, new Locuri(idLocatie, numeLocatie, capacitate, vandute)) == null;
+                    continue;
+                }
+                l.idLocatie = idLocatie;
+                l.numeLocatie = numeLocatie;
+                l.capacitate = capacitate;
+                int[] vechi = inainte.get(id);
+                if (vechi == null || vechi[0] == vandute || vechi[1] != 0 || l.inCurs.get() != 0) continue;
+                if (l.ocupate.compareAndSet(vechi[0], vandute)) corectate++;
+            }
+        }
+        // Spectacole sterse pe alta cale; cele aparute dupa instantaneu raman
+        for (Integer id : inainte.keySet()) {
+            if (!gasite.contains(id)) schimbat |= spectacole.remove(id) != null;
+        }
+        corectii.increment(corectate);
+        if (schimbat || corectate > 0) versiuni.modificat(DataVersions.Tabel.BILET);
+        return corectate;
+    }
+
+    private Locuri locuri(int idSpectacol) throws SQLException {
+        Locuri l = spectacole.get(idSpectacol);
+        if (l != null) return l;
+
+        Locuri citite = citeste(idSpectacol);
+        l = spectacole.putIfAbsent(idSpectacol, citite);
+        return l != null ? l : citite;
+    }
+
+    private Locuri citeste(int idSpectacol) throws SQLException {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(SQL_UNUL)) {
+            ps.setInt(1, idSpectacol);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) throw new RuntimeException("Spectacolul nu există.");
+                return new Locuri(rs.getInt(1), rs.getString(2), rs.getInt(3), rs.getInt(4));
+            }
+        }
+    }
+}
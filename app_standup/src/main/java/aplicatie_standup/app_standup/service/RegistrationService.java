@@ -0,0 +1,120 @@
+/** Clasa pentru crearea conturilor noi (/register)
+ * @author Sova Ioan-Rares
+ * @version 17 Octombrie 2026
+ */
+package aplicatie_standup.app_standup.service;
+
+import aplicatie_standup.app_standup.repository.UtilizatorRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.sql.SQLException;
+import java.util.Locale;
+
+/**
+ * Inregistrarea unui cont: Spectator + Utilizator intr-o singura tranzactie, fara interogari
+ * de verificare inainte. Unicitatea (Username, Email_Spectator, Telefon_Spectator) o garanteaza
+ * constrangerile UNIQUE din baza; daca a doua inserare esueaza, rollback-ul sterge si Spectator-ul,
+ * deci doua inregistrari simultane nu pot lasa randuri orfane.
+ * <p>
+ * Un filtru Bloom cu username-urile, email-urile si telefoanele existente (construit la pornire)
+ * spune sigur cand o valoare este noua; numai cand filtrul zice "poate exista" se face o singura
+ * interogare care afla ce camp este ocupat, ca un duplicat evident sa nu ajunga la INSERT.
+ * Filtrul nu decide niciodata singur: o valoare lipsa din el (de ex. adaugata pe alta cale)
+ * ajunge la INSERT si este respinsa de constrangere.
+ */
+@Service
+public class RegistrationService {
+
+    public enum Rezultat { CREAT, USERNAME_FOLOSIT, CONTACT_FOLOSIT }
+
+    private final UtilizatorRepository utilizatori;
+    private final LoginService loginService;
+    private final double falsPozitiv;
+    // null pana la prima constructie; atunci fiecare inregistrare trece prin interogarea de verificare
+    private volatile BloomFilter filtru;
+    private final Counter absente;
+    private final Counter duplicate;
+    private final Counter falsPozitive;
+
+    public RegistrationService(UtilizatorRepository utilizatori, LoginService loginService, MeterRegistry registry,
+                               @Value("${app.register.bloom.false-positive-rate:0.01}") double falsPozitiv) {
+        this.utilizatori = utilizatori;
+        this.loginService = loginService;
+        this.falsPozitiv = falsPozitiv;
+        this.absente = contor(registry, "absent");
+        this.duplicate = contor(registry, "duplicat");
+        this.falsPozitive = contor(registry, "fals_pozitiv");
+    }
+
+    private static Counter contor(MeterRegistry registry, String rezultat) {
+        return Counter.builder("inregistrare.filtru").description("Verificarile filtrului Bloom la /register")
+                .tag("rezultat", rezultat).register(registry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void laPornire() {
+        try {
+            construieste();
+        } catch (SQLException ex) {
+            // Fara filtru, inregistrarile fac interogarea de verificare; se reincearca la urmatoarea inregistrare reusita
+            ex.printStackTrace();
+        }
+    }
+
+    /** Reciteste username-urile, email-urile si telefoanele; capacitatea lasa loc de crestere de patru ori. */
+    public synchronized void construieste() throws SQLException {
+        BloomFilter nou = new BloomFilter(Math.max(10_000, utilizatori.numar() * 4), falsPozitiv);
+        utilizatori.parcurgeUsername(u -> nou.adauga(username(u)));
+        utilizatori.parcurgeContacte((e, t) -> {
+            if (e != null) nou.adauga(email(e));
+            if (t != null) nou.adauga(telefon(t));
+        });
+        filtru = nou;
+    }
+
+    public Rezultat inregistreaza(String username, String parola, String nume, String email, String telefon) throws SQLException {
+        BloomFilter f = filtru;
+        if (f == null || f.poatePrezent(username(username)) || f.poatePrezent(email(email)) || f.poatePrezent(telefon(telefon))) {
+            // O singura interogare pentru cazul in care filtrul zice "poate exista"
+            UtilizatorRepository.Duplicat ocupat = utilizatori.ocupat(username, email, telefon);
+            if (ocupat != null) {
+                duplicate.increment();
+                return rezultat(ocupat);
+            }
+            if (f != null) falsPozitive.increment();
+        } else {
+            absente.increment();
+        }
+
+        // Hash-ul (zeci de ms) se calculeaza inainte de a lua conexiunea
+        UtilizatorRepository.Duplicat respins = utilizatori.creeaza(username, loginService.hash(parola), nume, email, telefon);
+        if (respins != null) {
+            duplicate.increment();
+            return rezultat(respins);
+        }
+
+        if (f != null) {
+            f.adauga(username(username));
+            f.adauga(email(email));
+            f.adauga(telefon(telefon));
+        }
+        // Un login incercat inainte de inregistrare a lasat "cont inexistent" in cache
+        loginService.invalideaza(username);
+        if (f == null || f.plin()) laPornire();
+        return Rezultat.CREAT;
+    }
+
+    private static Rezultat rezultat(UtilizatorRepository.Duplicat duplicat) {
+        return duplicat == UtilizatorRepository.Duplicat.USERNAME ? Rezultat.USERNAME_FOLOSIT : Rezultat.CONTACT_FOLOSIT;
+    }
+
+    // Cheile din filtru: litere mici, ca si colatia CI din SQL Server sa dea cel mult un fals pozitiv in plus
+    private static String username(String v) { return "u:" + v.toLowerCase(Locale.ROOT); }
+    private static String email(String v) { return "e:" + v.toLowerCase(Locale.ROOT); }
+    private static String telefon(String v) { return "t:" + v; }
+}
@@ -0,0 +1,114 @@
+/** Clasa cu interogarile SQL pentru pagina /raport
+ * @author Sova Ioan-Rares
+ * @version 17 Octombrie 2026
+ */
+package aplicatie_standup.app_standup.service;
+
+import aplicatie_standup.app_standup.db.RowMappers;
+import aplicatie_standup.app_standup.model.GradOcupareRow;
+import aplicatie_standup.app_standup.model.VanzareRow;
+import aplicatie_standup.app_standup.model.VenitOrganizatorRow;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Interogarile originale ale raportului, care scaneaza tot tabelul Bilet la fiecare apel.
+ * Raman ca referinta pentru SalesAggregates si ca varianta de rezerva
+ * (app.raport.aggregates.enabled=false). Comentariul de la inceputul fiecarei interogari
+ * este numele ei in metricile sql.* (vezi db.SqlMetrics).
+ */
+@Service
+public class ReportQueries implements ReportSource {
+
+    // COMPLEXA 1
+    private static final String SQL_VANZARI = "/* complexa1 */ SELECT T.Titlu, T.Nr, T.Total FROM " +
+            "(SELECT s.Titlu, COUNT(b.ID_Bilet) AS Nr, SUM(s.Pret_Bilet) AS Total " +
+            " FROM Spectacol s LEFT JOIN Bilet b ON s.ID_Spectacol = b.ID_Spectacol " +
+            " WHERE s.Data_Spectacol BETWEEN ? AND ? " +
+            " GROUP BY s.ID_Spectacol, s.Titlu) AS T " +
+            "WHERE T.Nr > 0 ORDER BY T.Total DESC";
+
+    // COMPLEXA 2
+    private static final String SQL_ORGANIZATORI = "/* complexa2 */ SELECT o.Nume_Organizator, SUM(s.Pret_Bilet) AS Total " +
+            "FROM Organizator o LEFT JOIN Spectacol s ON o.ID_Organizator=s.ID_Organizator " +
+            "LEFT JOIN Bilet b ON s.ID_Spectacol=b.ID_Spectacol " +
+            "WHERE o.ID_Organizator IN (SELECT ID_Organizator FROM Spectacol) " +
+            "GROUP BY o.Nume_Organizator " +
+            "HAVING SUM(s.Pret_Bilet) > 0 " +
+            "ORDER BY Total DESC";
+
+    // COMPLEXA 3
+    private static final String SQL_FIDEL = "/* complexa3 */ SELECT sp.Nume_Spectator, " +
+            "(SELECT COUNT(*) FROM Bilet b WHERE b.ID_Spectator = sp.ID_Spectator) AS Cnt " +
+            "FROM Spectator sp " +
+            "WHERE sp.ID_Spectator = (SELECT TOP 1 ID_Spectator FROM Bilet GROUP BY ID_Spectator ORDER BY COUNT(*) DESC)";
+
+    // COMPLEXA 4
+    private static final String SQL_OCUPARE = "/* complexa4 */ SELECT l.Nume_Locatie, l.Capacitate, " +
+            "(SELECT COUNT(*) FROM Spectacol s WHERE s.ID_Locatie = l.ID_Locatie) AS NrShow, " +
+            "(SELECT COUNT(*) FROM Bilet b JOIN Spectacol s ON b.ID_Spectacol=s.ID_Spectacol WHERE s.ID_Locatie=l.ID_Locatie) AS Vandute " +
+            "FROM Locatie l WHERE l.Capacitate > 0";
+
+    // Lista de control: ultimele 5 spectacole cu locatia lor
+    private static final String SQL_CONTROL = "/* control */ SELECT TOP 5 s.Titlu, l.Nume_Locatie FROM Spectacol s JOIN Locatie l ON s.ID_Locatie=l.ID_Locatie ORDER BY s.ID_Spectacol DESC";
+
+    private final DataSource dataSource;
+
+    public ReportQueries(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public List<VanzareRow> vanzari(LocalDate start, LocalDate end) throws SQLException {
+        List<VanzareRow> listaVanzari = new ArrayList<>();
+        try (Connection conn = dataSource.getConnection(); PreparedStatement ps = conn.prepareStatement(SQL_VANZARI)) {
+            ps.setDate(1, Date.valueOf(start)); ps.setDate(2, Date.valueOf(end));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) listaVanzari.add(RowMappers.VANZARE.mapRow(rs, listaVanzari.size()));
+            }
+        }
+        return listaVanzari;
+    }
+
+    @Override
+    public List<VenitOrganizatorRow> topOrganizatori() throws SQLException {
+        List<VenitOrganizatorRow> topOrg = new ArrayList<>();
+        try (Connection conn = dataSource.getConnection(); Statement st = conn.createStatement(); ResultSet rs = st.executeQuery(SQL_ORGANIZATORI)) {
+            while (rs.next()) topOrg.add(RowMappers.VENIT_ORGANIZATOR.mapRow(rs, topOrg.size()));
+        }
+        return topOrg;
+    }
+
+    @Override
+    public String fidel() throws SQLException {
+        try (Connection conn = dataSource.getConnection(); Statement st = conn.createStatement(); ResultSet rs = st.executeQuery(SQL_FIDEL)) {
+            return rs.next() ? ReportSource.fidel(rs.getString(1), rs.getInt(2)) : "Niciunul";
+        }
+    }
+
+    @Override
+    public List<GradOcupareRow> gradOcupare() throws SQLException {
+        List<GradOcupareRow> grad = new ArrayList<>();
+        try (Connection conn = dataSource.getConnection(); Statement st = conn.createStatement(); ResultSet rs = st.executeQuery(SQL_OCUPARE)) {
+            while (rs.next()) {
+                int nrShow = rs.getInt(3);
+                if (nrShow > 0) grad.add(new GradOcupareRow(rs.getString(1), ReportSource.procent(rs.getInt(4), rs.getInt(2), nrShow)));
+            }
+        }
+        return grad;
+    }
+
+    /** Ultimele 5 spectacole (cu locatie), ca "Titlu (în Locatie)". Nu depinde de Bilet, deci nu are varianta agregata. */
+    public List<String> listaControl() throws SQLException {
+        List<String> checkList = new ArrayList<>();
+        try (Connection conn = dataSource.getConnection(); Statement st = conn.createStatement(); ResultSet rs = st.executeQuery(SQL_CONTROL)) {
+            while (rs.next()) checkList.add(rs.getString(1) + " (în " + rs.getString(2) + ")");
+        }
+        return checkList;
+    }
+}
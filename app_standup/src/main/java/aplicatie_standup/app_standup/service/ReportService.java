@@ -0,0 +1,149 @@
+/** Clasa pentru asamblarea paginii /raport din sectiuni rulate in paralel
+ * @author Sova Ioan-Rares
+ * @version 17 Octombrie 2026
+ */
+package aplicatie_standup.app_standup.service;
+
+import aplicatie_standup.app_standup.model.GradOcupareRow;
+import aplicatie_standup.app_standup.model.VanzareRow;
+import aplicatie_standup.app_standup.model.VenitOrganizatorRow;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sectiunile raportului sunt independente, asa ca fiecare ruleaza pe firul ei (si pe propria
+ * conexiune din pool). Toate au acelasi termen, app.raport.section-timeout-ms: o sectiune
+ * care nu termina la timp este anulata, iar pagina se afiseaza cu celelalte sectiuni.
+ * Durata fiecarei sectiuni este inregistrata in timer-ul raport.sectiune{sectiune=...}.
+ * Cu spring.threads.virtual.enabled, sectiunile ruleaza pe fire virtuale in loc de app.raport.threads.
+ */
+@Service
+public class ReportService {
+
+    /** Numele afisate ale sectiunilor, in ordinea din pagina. */
+    static final String VANZARI = "Vânzări per spectacol";
+    static final String ORGANIZATORI = "Top organizatori";
+    static final String FIDEL = "Cel mai fidel spectator";
+    static final String OCUPARE = "Grad de ocupare";
+    static final String CONTROL = "Listă control";
+
+    private static final Map<String, String> ETICHETE = Map.of(
+            VANZARI, "vanzari", ORGANIZATORI, "organizatori", FIDEL, "fidel", OCUPARE, "ocupare", CONTROL, "control");
+
+    /**
+     * Raportul asamblat. Sectiunile din "indisponibile" au valoarea implicita (lista goala / "Indisponibil");
+     * durateMs are o intrare pentru fiecare sectiune terminata.
+     */
+    public record Raport(List<VanzareRow> vanzari, List<VenitOrganizatorRow> topOrganizatori, String fidel,
+                         List<GradOcupareRow> gradOcupare, List<String> listaControl,
+                         Map<String, Long> durateMs, List<String> indisponibile) {}
+
+    private final SalesAggregates agregate;
+    private final OccupancyTracker ocupare;
+    private final ReportQueries reportQueries;
+    private final boolean agregateActive;
+    private final long timeoutNanos;
+    private final ExecutorService executor;
+    private final Map<String, Timer> timere = new HashMap<>();
+
+    public ReportService(SalesAggregates agregate, OccupancyTracker ocupare, ReportQueries reportQueries, MeterRegistry registry,
+                         @Value("${app.raport.aggregates.enabled:true}") boolean agregateActive,
+                         @Value("${app.raport.section-timeout-ms:3000}") long timeoutMs,
+                         @Value("${app.raport.threads:10}") int fire,
+                         @Value("${spring.threads.virtual.enabled:false}") boolean fireVirtuale) {
+        this.agregate = agregate;
+        this.ocupare = ocupare;
+        this.reportQueries = reportQueries;
+        this.agregateActive = agregateActive;
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+
+        if (fireVirtuale) {
+            // Un fir virtual per sectiune; numarul de conexiuni e limitat de LimitedDataSource
+            this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("raport-", 1).factory());
+        } else {
+            AtomicInteger numar = new AtomicInteger();
+            this.executor = Executors.newFixedThreadPool(fire, r -> {
+                Thread t = new Thread(r, "raport-" + numar.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        ETICHETE.forEach((sectiune, eticheta) -> timere.put(sectiune, Timer.builder("raport.sectiune")
+                .description("Durata unei sectiuni din /raport").tag("sectiune", eticheta)
+                .publishPercentiles(0.5, 0.95, 0.99).register(registry)));
+    }
+
+    @PreDestroy
+    void opreste() {
+        executor.shutdownNow();
+    }
+
+    public Raport genereaza(LocalDate start, LocalDate end) throws InterruptedException {
+        ReportSource sursa = agregateActive ? agregate : reportQueries;
+        // Cu agregatele active, ocuparea vine din contoarele pe spectacol, care nu se reconstruiesc dupa editari
+        Callable<List<GradOcupareRow>> sursaOcupare = agregateActive ? this.ocupare::gradOcupare : sursa::gradOcupare;
+        Map<String, Long> durate = new ConcurrentHashMap<>();
+
+        Future<List<VanzareRow>> vanzari = porneste(VANZARI, () -> sursa.vanzari(start, end), durate);
+        Future<List<VenitOrganizatorRow>> organizatori = porneste(ORGANIZATORI, sursa::topOrganizatori, durate);
+        Future<String> fidel = porneste(FIDEL, sursa::fidel, durate);
+        Future<List<GradOcupareRow>> ocupare = porneste(OCUPARE, sursaOcupare, durate);
+        Future<List<String>> control = porneste(CONTROL, reportQueries::listaControl, durate);
+
+        long termen = System.nanoTime() + timeoutNanos;
+        List<String> indisponibile = new ArrayList<>();
+        Set<String> esuate = new HashSet<>();
+        Raport raport = new Raport(
+                asteapta(VANZARI, vanzari, termen, List.of(), indisponibile, esuate),
+                asteapta(ORGANIZATORI, organizatori, termen, List.of(), indisponibile, esuate),
+                asteapta(FIDEL, fidel, termen, "Indisponibil", indisponibile, esuate),
+                asteapta(OCUPARE, ocupare, termen, List.of(), indisponibile, esuate),
+                asteapta(CONTROL, control, termen, List.of(), indisponibile, esuate),
+                new LinkedHashMap<>(), indisponibile);
+        for (String sectiune : List.of(VANZARI, ORGANIZATORI, FIDEL, OCUPARE, CONTROL)) {
+            // O sectiune anulata isi poate inregistra durata dupa termen; nu o afisam
+            Long durata = durate.get(sectiune);
+            if (durata != null && !esuate.contains(sectiune)) {
+                raport.durateMs().put(sectiune, durata);
+            }
+        }
+        return raport;
+    }
+
+    private <T> Future<T> porneste(String sectiune, Callable<T> interogare, Map<String, Long> durate) {
+        return executor.submit(() -> {
+            long t0 = System.nanoTime();
+            try {
+                return interogare.call();
+            } finally {
+                long durata = System.nanoTime() - t0;
+                timere.get(sectiune).record(durata, TimeUnit.NANOSECONDS);
+                durate.put(sectiune, TimeUnit.NANOSECONDS.toMillis(durata));
+            }
+        });
+    }
+
+    private static <T> T asteapta(String sectiune, Future<T> rezultat, long termen, T implicit,
+                                  List<String> indisponibile, Set<String> esuate) throws InterruptedException {
+        try {
+            return rezultat.get(Math.max(0, termen - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+            rezultat.cancel(true);
+            indisponibile.add(sectiune + " (timp depășit)");
+            esuate.add(sectiune);
+        } catch (ExecutionException ex) {
+            ex.getCause().printStackTrace();
+            indisponibile.add(sectiune + " (" + ex.getCause().getMessage() + ")");
+            esuate.add(sectiune);
+        }
+        return implicit;
+    }
+}
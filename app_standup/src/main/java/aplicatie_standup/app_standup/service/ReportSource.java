@@ -0,0 +1,45 @@
+/** Interfata pentru sursele de date ale paginii /raport
+ * @author Sova Ioan-Rares
+ * @version 17 Octombrie 2026
+ */
+package aplicatie_standup.app_standup.service;
+
+import aplicatie_standup.app_standup.model.GradOcupareRow;
+import aplicatie_standup.app_standup.model.VanzareRow;
+import aplicatie_standup.app_standup.model.VenitOrganizatorRow;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Sectiunile grele din /raport (COMPLEXA 1-4). Implementate o data prin SQL direct
+ * (ReportQueries, referinta) si o data din agregatele tinute in memorie (SalesAggregates).
+ */
+public interface ReportSource {
+
+    /** COMPLEXA 1: biletele si incasarile per spectacol din perioada data. */
+    List<VanzareRow> vanzari(LocalDate start, LocalDate end) throws SQLException;
+
+    /** COMPLEXA 2: incasarile per organizator (grupate dupa nume). */
+    List<VenitOrganizatorRow> topOrganizatori() throws SQLException;
+
+    /** COMPLEXA 3: spectatorul cu cele mai multe bilete, ca text afisabil. */
+    String fidel() throws SQLException;
+
+    /** COMPLEXA 4: gradul de ocupare al locatiilor care au spectacole. */
+    List<GradOcupareRow> gradOcupare() throws SQLException;
+
+    static String procent(int vandute, int capacitatePerShow, int nrShow) {
+        double proc = 0.0;
+        if (nrShow > 0 && capacitatePerShow > 0) {
+            long capacitateTotala = (long) capacitatePerShow * nrShow;
+            proc = ((double) vandute / capacitateTotala) * 100;
+        }
+        return String.format("%.2f %%", proc);
+    }
+
+    static String fidel(String nume, int bilete) {
+        return nume + " (" + bilete + " bilete)";
+    }
+}
@@ -0,0 +1,283 @@
+/** Clasa pentru coada de asteptare din fata cumpararii (admission control)
+ * @author Sova Ioan-Rares
+ * @version 17 Octombrie 2026
+ */
+package aplicatie_standup.app_standup.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntPredicate;
+
+/**
+ * Sala de asteptare pentru cumpararea biletelor, per spectacol: o galeata de jetoane
+ * (rate-per-second admiteri pe secunda, cel mult burst deodata) si o coada FIFO in spatele ei.
+ * Cat timp coada spectacolului este goala si exista un jeton, cumpararea trece direct, deci
+ * in afara varfurilor nimeni nu vede sala. Altfel spectatorul primeste un loc in coada si
+ * pagina /coada ii arata pozitia pana este admis; admiterea ii pastreaza dreptul de cumparare
+ * window-seconds. Peste max-queue spectatori care asteapta, cererile noi sunt refuzate.
+ * <p>
+ * Jetoanele se reumplu la fiecare acces (fara fir separat); cine nu si-a mai reimprospatat
+ * pagina de abandon-seconds este scos din coada fara sa consume un jeton si nu mai este numarat
+ * in pozitia celor din spatele lui. Coada este a fiecarei instante, ca si rata: cu mai multe
+ * instante, un spectator trebuie sa ramana pe aceeasi instanta.
+ * <p>
+ * Cozile exista doar pentru spectacolele urmarite de OccupancyTracker; o coada goala si cu
+ * galeata plina (deci la fel ca una noua) este scoasa la cleanup-ms, iar stergerea spectacolului
+ * o scoate imediat.
+ * Metrici: coada.admise{mod=direct|coada}, coada.asteptare, coada.respinse, coada.abandonate, coada.lungime,
+ * coada.spectacole
+ */
+@Service
+public class SalaDeAsteptare {
+
+    public enum Stare { ADMIS, ASTEAPTA, RESPINS }
+
+    /** Raspunsul pentru un spectator: pozitia (de la 1) si estimarea au sens doar pentru ASTEAPTA. */
+    public record Loc(Stare stare, long pozitie, long estimareSecunde) {}
+
+    private static final Loc ADMIS = new Loc(Stare.ADMIS, 0, 0);
+    private static final Loc RESPINS = new Loc(Stare.RESPINS, 0, 0);
+    // Cat de des se cauta prin toata coada cei care au plecat
+    private static final long PAUZA_CURATARE = TimeUnit.SECONDS.toNanos(1);
+
+    private final IntPredicate exista;
+    private final boolean activa;
+    private final double rata;
+    private final double rafala;
+    private final int maxAsteptare;
+    private final long abandonNanos;
+    private final long fereastraNanos;
+    private final Map<Integer, Coada> cozi = new ConcurrentHashMap<>();
+
+    private final Counter admiseDirect;
+    private final Counter admiseDinCoada;
+    private final Counter respinse;
+    private final Counter abandonate;
+    private final Timer asteptare;
+
+    @Autowired
+    public SalaDeAsteptare(OccupancyTracker ocupare, MeterRegistry registry,
+                           @Value("${app.coada.enabled:true}") boolean activa,
+                           @Value("${app.coada.rate-per-second:50}") double rata,
+                           @Value("${app.coada.burst:50}") int rafala,
+                           @Value("${app.coada.max-queue:10000}") int maxAsteptare,
+                           @Value("${app.coada.abandon-seconds:30}") long abandonSecunde,
+                           @Value("${app.coada.window-seconds:120}") long fereastraSecunde) {
+        this(ocupare::urmareste, registry, activa, rata, rafala, maxAsteptare, abandonSecunde, fereastraSecunde);
+    }
+
+    /** @param exista daca un ID este al unui spectacol; doar acestea primesc o coada */
+    public SalaDeAsteptare(IntPredicate exista, MeterRegistry registry, boolean activa, double rata, int rafala,
+                           int maxAsteptare, long abandonSecunde, long fereastraSecunde) {
+        this.exista = exista;
+        this.activa = activa;
+        this.rata = rata;
+        this.rafala = Math.max(1, rafala);
+        this.maxAsteptare = maxAsteptare;
+        this.abandonNanos = TimeUnit.SECONDS.toNanos(abandonSecunde);
+        this.fereastraNanos = TimeUnit.SECONDS.toNanos(fereastraSecunde);
+
+        this.admiseDirect = Counter.builder("coada.admise").tag("mod", "direct")
+                .description("Cumparari admise").register(registry);
+        this.admiseDinCoada = Counter.builder("coada.admise").tag("mod", "coada")
+                .description("Cumparari admise").register(registry);
+        this.respinse = Counter.builder("coada.respinse").description("Cereri refuzate cu coada plina").register(registry);
+        this.abandonate = Counter.builder("coada.abandonate").description("Locuri parasite inainte de admitere").register(registry);
+        this.asteptare = Timer.builder("coada.asteptare").description("Timpul din coada pana la admitere")
+                .publishPercentiles(0.5, 0.95, 0.99).register(registry);
+        Gauge.builder("coada.lungime", cozi, c -> c.values().stream().mapToInt(Coada::lungime).sum())
+                .description("Spectatori care asteapta").register(registry);
+        Gauge.builder("coada.spectacole", cozi, Map::size).description("Cozi tinute in memorie").register(registry);
+    }
+
+    /**
+     * O cerere de cumparare. ADMIS: cumpararea poate continua (si apoi se apeleaza foloseste);
+     * ASTEAPTA: spectatorul are (sau avea deja) un loc in coada; RESPINS: coada este plina.
+     * Un ID necunoscut este admis fara coada; cumpararea il respinge daca spectacolul nu exista.
+     */
+    public Loc intra(int idSpectacol, int idSpectator) {
+        if (!activa) return ADMIS;
+        while (true) {
+            Coada coada = cozi.get(idSpectacol);
+            if (coada == null) {
+                if (!exista.test(idSpectacol)) return ADMIS;
+                coada = cozi.computeIfAbsent(idSpectacol, id -> new Coada());
+            }
+            Loc loc = coada.intra(idSpectator, System.nanoTime());
+            // null: coada tocmai a fost scoasa; se ia (sau se creeaza) cea noua
+            if (loc != null) return loc;
+            cozi.remove(idSpectacol, coada);
+        }
+    }
+
+    /** Locul spectatorului (pagina /coada), sau null daca nu este in coada si nici admis. */
+    public Loc stare(int idSpectacol, int idSpectator) {
+        Coada coada = cozi.get(idSpectacol);
+        return coada == null ? null : coada.stare(idSpectator, System.nanoTime());
+    }
+
+    /** Cumpararea admisa s-a terminat (reusita sau nu); dreptul de cumparare se consuma. */
+    public void foloseste(int idSpectacol, int idSpectator) {
+        Coada coada = cozi.get(idSpectacol);
+        if (coada != null) coada.foloseste(idSpectator);
+    }
+
+    /** Spectacol sters: coada lui dispare, cu tot cu cei care asteptau. */
+    public void sterge(int idSpectacol) {
+        Coada coada = cozi.remove(idSpectacol);
+        if (coada != null) coada.inchide();
+    }
+
+    /** Scoate cozile goale care s-ar comporta la fel ca una noua (galeata plina). */
+    @Scheduled(initialDelayString = "${app.coada.cleanup-ms:60000}", fixedDelayString = "${app.coada.cleanup-ms:60000}")
+    public void curata() {
+        long acum = System.nanoTime();
+        cozi.forEach((id, coada) -> {
+            if (coada.retrage(acum)) cozi.remove(id, coada);
+        });
+    }
+
+    private static final class Asteptare {
+        final int idSpectator;
+        // Creste de la capat spre coada; se renumeroteaza cand sunt scosi cei care au plecat
+        long numar;
+        final long intratLa;
+        long vazutLa;
+        long admisLa;
+
+        Asteptare(int idSpectator, long numar, long acum) {
+            this.idSpectator = idSpectator;
+            this.numar = numar;
+            this.intratLa = acum;
+            this.vazutLa = acum;
+        }
+    }
+
+    // Un spectacol; toate metodele sub lacatul cozii, deci doar cumpararile aceluiasi spectacol se asteapta
+    private final class Coada {
+        private final ArrayDeque<Asteptare> inAsteptare = new ArrayDeque<>();
+        // Ordinea admiterii, ca drepturile expirate sa fie scoase de la capat
+        private final ArrayDeque<Asteptare> admisi = new ArrayDeque<>();
+        private final Map<Integer, Asteptare> dupaSpectator = new HashMap<>();
+        private double jetoane = rafala;
+        private long reumplutLa = System.nanoTime();
+        private long curatatLa = reumplutLa;
+        private long urmatorulNumar;
+        // Scoasa din cozi; cine o mai gaseste ia alta
+        private boolean inchisa;
+
+        // null daca a fost inchisa intre timp
+        synchronized Loc intra(int idSpectator, long acum) {
+            if (inchisa) return null;
+            avanseaza(acum);
+            Asteptare a = dupaSpectator.get(idSpectator);
+            if (a != null) return loc(a, acum);
+            if (inAsteptare.isEmpty() && jetoane >= 1) {
+                jetoane--;
+                admiseDirect.increment();
+                return ADMIS;
+            }
+            if (inAsteptare.size() >= maxAsteptare) {
+                respinse.increment();
+                return RESPINS;
+            }
+            a = new Asteptare(idSpectator, urmatorulNumar++, acum);
+            inAsteptare.addLast(a);
+            dupaSpectator.put(idSpectator, a);
+            return loc(a, acum);
+        }
+
+        synchronized Loc stare(int idSpectator, long acum) {
+            avanseaza(acum);
+            Asteptare a = dupaSpectator.get(idSpectator);
+            return a == null ? null : loc(a, acum);
+        }
+
+        synchronized void foloseste(int idSpectator) {
+            Asteptare a = dupaSpectator.get(idSpectator);
+            if (a != null && a.admisLa != 0) dupaSpectator.remove(idSpectator);
+        }
+
+        synchronized int lungime() {
+            return inAsteptare.size();
+        }
+
+        synchronized void inchide() {
+            inchisa = true;
+        }
+
+        // Inchide coada daca este goala si galeata s-a umplut la loc
+        synchronized boolean retrage(long acum) {
+            avanseaza(acum);
+            if (!inAsteptare.isEmpty() || !dupaSpectator.isEmpty() || jetoane < rafala) return false;
+            inchisa = true;
+            return true;
+        }
+
+        private Loc loc(Asteptare a, long acum) {
+            a.vazutLa = acum;
+            if (a.admisLa != 0) return ADMIS;
+            long pozitie = a.numar - inAsteptare.peekFirst().numar + 1;
+            return new Loc(Stare.ASTEAPTA, pozitie, rata > 0 ? (long) Math.ceil(pozitie / rata) : -1);
+        }
+
+        // Reumple jetoanele pentru timpul scurs si admite de la capatul cozii cat ajung
+        private void avanseaza(long acum) {
+            jetoane = Math.min(rafala, jetoane + (acum - reumplutLa) / 1e9 * rata);
+            reumplutLa = acum;
+            if (acum - curatatLa >= Math.min(abandonNanos, PAUZA_CURATARE)) scoatePlecatii(acum);
+
+            while (!admisi.isEmpty()) {
+                Asteptare a = admisi.peekFirst();
+                if (dupaSpectator.get(a.idSpectator) == a && acum - a.admisLa < fereastraNanos) break;
+                admisi.pollFirst();
+                dupaSpectator.remove(a.idSpectator, a);
+            }
+
+            while (!inAsteptare.isEmpty() && jetoane >= 1) {
+                Asteptare a = inAsteptare.pollFirst();
+                if (acum - a.vazutLa > abandonNanos) {
+                    dupaSpectator.remove(a.idSpectator);
+                    abandonate.increment();
+                    continue;
+                }
+                jetoane--;
+                a.admisLa = acum;
+                admisi.addLast(a);
+                admiseDinCoada.increment();
+                asteptare.record(acum - a.intratLa, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        // Cei care au plecat, de oriunde din coada (cel mult o data pe PAUZA_CURATARE, cat costa o trecere
+        // prin toata coada); ceilalti sunt renumerotati, ca pozitia sa ii numere doar pe cei ramasi
+        private void scoatePlecatii(long acum) {
+            curatatLa = acum;
+            long numar = 0;
+            for (Iterator<Asteptare> it = inAsteptare.iterator(); it.hasNext(); ) {
+                Asteptare a = it.next();
+                if (acum - a.vazutLa > abandonNanos) {
+                    it.remove();
+                    dupaSpectator.remove(a.idSpectator);
+                    abandonate.increment();
+                } else {
+                    a.numar = numar++;
+                }
+            }
+            urmatorulNumar = numar;
+        }
+    }
+}
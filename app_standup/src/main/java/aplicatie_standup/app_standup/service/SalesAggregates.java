@@ -0,0 +1,425 @@
+/** Clasa pentru agregatele de vanzari tinute in memorie, folosite de pagina /raport
+ * @author Sova Ioan-Rares
+ * @version 17 Octombrie 2026
+ */
+package aplicatie_standup.app_standup.service;
+
+import aplicatie_standup.app_standup.model.GradOcupareRow;
+import aplicatie_standup.app_standup.model.VanzareRow;
+import aplicatie_standup.app_standup.model.VenitOrganizatorRow;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Biletele si incasarile per spectacol, organizator, spectator si locatie, citite o singura data
+ * din baza (la primul raport dupa pornire) si apoi actualizate la fiecare bilet cumparat si la fiecare
+ * spectacol, locatie sau organizator adaugat, editat ori sters. Raportul parcurge doar spectacolele /
+ * locatiile / organizatorii, deci durata lui nu mai depinde de numarul de bilete.
+ * <p>
+ * Rezultatele sunt aceleasi cu ReportQueries, inclusiv particularitatile interogarilor originale:
+ * COMPLEXA 2 aduna pretul o data pentru fiecare rand din LEFT JOIN (deci si pentru spectacolele
+ * fara bilete) si grupeaza dupa numele organizatorului. La egalitate, ordinea (si spectatorul
+ * "fidel") nu este specificata de SQL; aici se alege ID-ul cel mai mic.
+ * <p>
+ * Scrierile in baza nu tin niciun lacat; doar actualizarea contoarelor unui spectacol se face sub un
+ * lacat scurt (pe grupe de spectacole), ca o vanzare si o editare a aceluiasi spectacol sa nu se
+ * amestece. Reconstructia citeste baza fara lacat si publica rezultatul cu compareAndSet. Daca o
+ * scriere s-a suprapus cu citirea (incepute / terminate), reconstructia se reia; dupa cateva incercari
+ * starea este publicata ca incerta si reconcilierea periodica (app.raport.aggregates.reconcile-ms) o
+ * reconstruieste. Metrici: raport.agregate.reconstruiri{rezultat=exact|incert}
+ */
+@Service
+public class SalesAggregates implements ReportSource {
+
+    /** Scrierea biletului in baza, executata inainte de actualizarea contoarelor. */
+    @FunctionalInterface
+    public interface Scriere {
+        void executa() throws SQLException;
+    }
+
+    /** Stergerea unui spectacol cu biletele lui; intoarce biletele sterse pe ID_Spectator. */
+    @FunctionalInterface
+    public interface Stergere {
+        Map<Integer, Integer> executa() throws SQLException;
+    }
+
+    private static final int INCERCARI = 3;
+    private static final int GRUPE_LACATE = 64;
+
+    private static final String SQL_SPECTACOL =
+            "SELECT ID_Spectacol, Titlu, Data_Spectacol, Pret_Bilet, ID_Locatie, ID_Organizator FROM Spectacol WHERE ID_Spectacol = ?";
+    private static final String SQL_LOCATIE = "SELECT ID_Locatie, Nume_Locatie, Capacitate FROM Locatie WHERE ID_Locatie = ?";
+    private static final String SQL_ORGANIZATOR = "SELECT ID_Organizator, Nume_Organizator FROM Organizator WHERE ID_Organizator = ?";
+
+    // 0 = fara locatie / fara organizator (ID-urile din baza incep de la 1)
+    private record Spectacol(int id, String titlu, LocalDate data, BigDecimal pret, int idLocatie, int idOrganizator) {}
+
+    private record Locatie(int id, String nume, int capacitate) {}
+
+    private static final class Stare {
+        final Map<Integer, Spectacol> spectacole = new ConcurrentHashMap<>();
+        final Map<Integer, Locatie> locatii = new ConcurrentSkipListMap<>();
+        final Map<Integer, String> organizatori = new ConcurrentHashMap<>();
+        final ConcurrentHashMap<Integer, AtomicInteger> spectacolePeLocatie = new ConcurrentHashMap<>();
+        final ConcurrentHashMap<Integer, AtomicInteger> biletePeSpectacol = new ConcurrentHashMap<>();
+        final ConcurrentHashMap<Integer, AtomicInteger> biletePeSpectator = new ConcurrentHashMap<>();
+        final ConcurrentHashMap<Integer, AtomicInteger> biletePeLocatie = new ConcurrentHashMap<>();
+        final ConcurrentHashMap<Integer, AtomicReference<BigDecimal>> venitPeOrganizator = new ConcurrentHashMap<>();
+        // O scriere nu a putut fi aplicata sigur (ex. s-a suprapus cu citirea) -> reconciliere
+        volatile boolean incert;
+
+        int bilete(ConcurrentHashMap<Integer, AtomicInteger> contoare, int id) {
+            AtomicInteger contor = contoare.get(id);
+            return contor != null ? contor.get() : 0;
+        }
+
+        static void aduna(ConcurrentHashMap<Integer, AtomicInteger> contoare, int id, int delta) {
+            if (delta != 0) contoare.computeIfAbsent(id, k -> new AtomicInteger()).addAndGet(delta);
+        }
+    }
+
+    private final DataSource dataSource;
+    private final AtomicReference<Stare> stare = new AtomicReference<>();
+    // O singura reconstructie odata; celelalte rapoarte o asteapta pe aceasta
+    private final AtomicReference<CompletableFuture<Stare>> reconstructie = new AtomicReference<>();
+    private final AtomicLong incepute = new AtomicLong();
+    private final AtomicLong terminate = new AtomicLong();
+    private final Object[] lacate = new Object[GRUPE_LACATE];
+    private final Counter reconstruiriExacte;
+    private final Counter reconstruiriIncerte;
+
+    public SalesAggregates(DataSource dataSource, MeterRegistry registry) {
+        this.dataSource = dataSource;
+        for (int i = 0; i < lacate.length; i++) lacate[i] = new Object();
+        this.reconstruiriExacte = Counter.builder("raport.agregate.reconstruiri").tag("rezultat", "exact")
+                .description("Citiri complete ale agregatelor din baza").register(registry);
+        this.reconstruiriIncerte = Counter.builder("raport.agregate.reconstruiri").tag("rezultat", "incert")
+                .description("Citiri complete ale agregatelor din baza").register(registry);
+    }
+
+    /**
+     * Executa scrierea unui bilet si, daca reuseste, il adauga in agregate.
+     */
+    public void vanzare(int idSpectacol, int idSpectator, Scriere scriere) throws SQLException {
+        incepute.incrementAndGet();
+        try {
+            scriere.executa();
+            Stare s = stare.get();
+            if (s != null) adauga(s, idSpectacol, idSpectator);
+        } catch (BiletBatchWriter.RezultatNecunoscutException ex) {
+            // Biletul poate fi in baza sau nu
+            Stare s = stare.get();
+            if (s != null) s.incert = true;
+            throw ex;
+        } finally {
+            terminate.incrementAndGet();
+        }
+    }
+
+    /**
+     * Sterge spectacolul (cu biletele lui) si scade biletele lui din agregate. Stergerea intra in
+     * aceeasi numaratoare ca vanzarile, ca o reconstructie paralela sa nu o scada de doua ori.
+     */
+    public void spectacolSters(int idSpectacol, Stergere stergere) throws SQLException {
+        incepute.incrementAndGet();
+        try {
+            Map<Integer, Integer> peSpectator = stergere.executa();
+            Stare s = stare.get();
+            if (s == null) return;
+            synchronized (lacat(idSpectacol)) {
+                Spectacol vechi = s.spectacole.remove(idSpectacol);
+                // Deja lipsa: citit dupa stergere de o reconstructie
+                if (vechi == null) return;
+                AtomicInteger bilete = s.biletePeSpectacol.remove(idSpectacol);
+                contributie(s, vechi, bilete != null ? bilete.get() : 0, -1);
+                peSpectator.forEach((idSpectator, nr) -> Stare.aduna(s.biletePeSpectator, idSpectator, -nr));
+            }
+        } finally {
+            terminate.incrementAndGet();
+        }
+    }
+
+    /** Spectacole adaugate sau editate (un ID care nu mai exista in baza este scos). */
+    public void spectacoleSalvate(Collection<Integer> ids) throws SQLException {
+        aplica(ids, SQL_SPECTACOL, (s, id, rs) -> {
+            Spectacol nou = rs == null ? null : new Spectacol(rs.getInt(1), rs.getString(2), rs.getObject(3, LocalDate.class),
+                    rs.getBigDecimal(4), rs.getInt(5), rs.getInt(6));
+            synchronized (lacat(id)) {
+                Spectacol vechi = nou != null ? s.spectacole.put(id, nou) : s.spectacole.remove(id);
+                int bilete = s.bilete(s.biletePeSpectacol, id);
+                if (vechi != null) contributie(s, vechi, bilete, -1);
+                if (nou != null) contributie(s, nou, bilete, 1);
+            }
+        });
+    }
+
+    /** Locatii adaugate, editate sau sterse. */
+    public void locatiiSalvate(Collection<Integer> ids) throws SQLException {
+        aplica(ids, SQL_LOCATIE, (s, id, rs) -> {
+            if (rs == null) s.locatii.remove(id);
+            else s.locatii.put(id, new Locatie(id, rs.getString(2), rs.getInt(3)));
+        });
+    }
+
+    /** Organizatori adaugati, editati sau stersi. */
+    public void organizatoriSalvati(Collection<Integer> ids) throws SQLException {
+        aplica(ids, SQL_ORGANIZATOR, (s, id, rs) -> {
+            if (rs == null) s.organizatori.remove(id);
+            else s.organizatori.put(id, rs.getString(2));
+        });
+    }
+
+    /** Datele au fost scrise pe langa aplicatie (ex. direct in baza): urmatorul raport le recitește. */
+    public void invalideaza() {
+        stare.set(null);
+    }
+
+    /** Reconstruieste starea marcata incerta; intre timp rapoartele o folosesc pe cea existenta. */
+    @Scheduled(initialDelayString = "${app.raport.aggregates.reconcile-ms:60000}", fixedDelayString = "${app.raport.aggregates.reconcile-ms:60000}")
+    public void reconciliaza() {
+        Stare s = stare.get();
+        if (s == null || !s.incert) return;
+        try {
+            reconstruieste();
+        } catch (SQLException | RuntimeException ex) {
+            ex.printStackTrace();
+        }
+    }
+
+    @Override
+    public List<VanzareRow> vanzari(LocalDate start, LocalDate end) throws SQLException {
+        Stare s = stare();
+        List<Spectacol> selectate = new ArrayList<>();
+        for (Spectacol sp : s.spectacole.values()) {
+            if (sp.data() == null || sp.data().isBefore(start) || sp.data().isAfter(end)) continue;
+            if (s.bilete(s.biletePeSpectacol, sp.id()) > 0) selectate.add(sp);
+        }
+        List<VanzareRow> rezultat = new ArrayList<>(selectate.size());
+        selectate.sort(Comparator.comparingInt(Spectacol::id));
+        for (Spectacol sp : selectate) {
+            int nr = s.bilete(s.biletePeSpectacol, sp.id());
+            rezultat.add(new VanzareRow(sp.titlu(), nr, sp.pret() != null ? sp.pret().multiply(BigDecimal.valueOf(nr)) : null));
+        }
+        // ORDER BY Total DESC; in SQL Server NULL este ultimul la DESC
+        rezultat.sort(Comparator.comparing(VanzareRow::total, Comparator.nullsFirst(Comparator.<BigDecimal>naturalOrder())).reversed());
+        return rezultat;
+    }
+
+    @Override
+    public List<VenitOrganizatorRow> topOrganizatori() throws SQLException {
+        Stare s = stare();
+        Map<String, BigDecimal> peNume = new HashMap<>();
+        s.venitPeOrganizator.forEach((idOrg, venit) ->
+                peNume.merge(s.organizatori.get(idOrg), venit.get(), BigDecimal::add));
+
+        List<VenitOrganizatorRow> rezultat = new ArrayList<>();
+        peNume.forEach((nume, total) -> {
+            if (total.signum() > 0) rezultat.add(new VenitOrganizatorRow(nume, total));
+        });
+        rezultat.sort(Comparator.comparing(VenitOrganizatorRow::total).reversed()
+                .thenComparing(VenitOrganizatorRow::nume, Comparator.nullsFirst(Comparator.<String>naturalOrder())));
+        return rezultat;
+    }
+
+    @Override
+    public String fidel() throws SQLException {
+        Stare s = stare();
+        int idFidel = 0, maxim = 0;
+        for (Map.Entry<Integer, AtomicInteger> e : s.biletePeSpectator.entrySet()) {
+            int bilete = e.getValue().get();
+            if (bilete > maxim || (bilete == maxim && bilete > 0 && e.getKey() < idFidel)) {
+                idFidel = e.getKey();
+                maxim = bilete;
+            }
+        }
+        if (maxim == 0) return "Niciunul";
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement("SELECT Nume_Spectator FROM Spectator WHERE ID_Spectator = ?")) {
+            ps.setInt(1, idFidel);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? ReportSource.fidel(rs.getString(1), maxim) : "Niciunul";
+            }
+        }
+    }
+
+    @Override
+    public List<GradOcupareRow> gradOcupare() throws SQLException {
+        Stare s = stare();
+        List<GradOcupareRow> grad = new ArrayList<>();
+        for (Locatie l : s.locatii.values()) {
+            if (l.capacitate() <= 0) continue;
+            int nrShow = s.bilete(s.spectacolePeLocatie, l.id());
+            if (nrShow > 0) grad.add(new GradOcupareRow(l.nume(), ReportSource.procent(s.bilete(s.biletePeLocatie, l.id()), l.capacitate(), nrShow)));
+        }
+        return grad;
+    }
+
+    private void adauga(Stare s, int idSpectacol, int idSpectator) {
+        synchronized (lacat(idSpectacol)) {
+            Spectacol sp = s.spectacole.get(idSpectacol);
+            if (sp == null) {
+                // Spectacol adaugat pe alta cale -> reconciliere
+                s.incert = true;
+                return;
+            }
+            int inainte = s.biletePeSpectacol.computeIfAbsent(idSpectacol, k -> new AtomicInteger()).getAndIncrement();
+            Stare.aduna(s.biletePeSpectator, idSpectator, 1);
+            if (sp.idLocatie() != 0) Stare.aduna(s.biletePeLocatie, sp.idLocatie(), 1);
+            // Primul bilet inlocuieste randul NULL din LEFT JOIN, care era deja numarat in COMPLEXA 2
+            if (sp.idOrganizator() != 0 && sp.pret() != null && inainte > 0) {
+                s.venitPeOrganizator.computeIfAbsent(sp.idOrganizator(), k -> new AtomicReference<>(BigDecimal.ZERO))
+                        .accumulateAndGet(sp.pret(), BigDecimal::add);
+            }
+        }
+    }
+
+    // Ce aduce un spectacol cu bilete vandute in contoarele locatiei si organizatorului (semn -1 = il scoate)
+    private static void contributie(Stare s, Spectacol sp, int bilete, int semn) {
+        if (sp.idLocatie() != 0) {
+            Stare.aduna(s.spectacolePeLocatie, sp.idLocatie(), semn);
+            Stare.aduna(s.biletePeLocatie, sp.idLocatie(), semn * bilete);
+        }
+        if (sp.idOrganizator() != 0 && sp.pret() != null) {
+            BigDecimal venit = sp.pret().multiply(BigDecimal.valueOf((long) semn * Math.max(1, bilete)));
+            s.venitPeOrganizator.computeIfAbsent(sp.idOrganizator(), k -> new AtomicReference<>(BigDecimal.ZERO))
+                    .accumulateAndGet(venit, BigDecimal::add);
+        }
+    }
+
+    private Object lacat(int idSpectacol) {
+        return lacate[Math.floorMod(idSpectacol, GRUPE_LACATE)];
+    }
+
+    @FunctionalInterface
+    private interface Aplicare {
+        /** rs este null daca randul nu (mai) exista. */
+        void aplica(Stare s, int id, ResultSet rs) throws SQLException;
+    }
+
+    // Recitește randurile modificate si le aplica starii curente; citirea intra in numaratoarea scrierilor
+    private void aplica(Collection<Integer> ids, String sql, Aplicare aplicare) throws SQLException {
+        if (ids.isEmpty() || stare.get() == null) return;
+        incepute.incrementAndGet();
+        try (Connection conn = dataSource.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (int id : ids) {
+                ps.setInt(1, id);
+                try (ResultSet rs = ps.executeQuery()) {
+                    Stare s = stare.get();
+                    if (s == null) return;
+                    aplicare.aplica(s, id, rs.next() ? rs : null);
+                }
+            }
+        } finally {
+            terminate.incrementAndGet();
+        }
+    }
+
+    private Stare stare() throws SQLException {
+        Stare s = stare.get();
+        return s != null ? s : reconstruieste();
+    }
+
+    private Stare reconstruieste() throws SQLException {
+        CompletableFuture<Stare> noua = new CompletableFuture<>();
+        CompletableFuture<Stare> inCurs = reconstructie.compareAndExchange(null, noua);
+        if (inCurs != null) return asteapta(inCurs);
+        try {
+            Stare s = citesteValidat();
+            noua.complete(s);
+            return s;
+        } catch (SQLException | RuntimeException ex) {
+            noua.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            reconstructie.set(null);
+        }
+    }
+
+    // Asteptarea se poate intrerupe (sectiunile /raport anulate la timeout)
+    private static Stare asteapta(CompletableFuture<Stare> inCurs) throws SQLException {
+        try {
+            return inCurs.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Citirea agregatelor a fost întreruptă.", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof SQLException sqlEx) throw sqlEx;
+            throw new RuntimeException(ex.getCause().getMessage(), ex.getCause());
+        }
+    }
+
+    // Publica starea citita si verifica apoi ca nicio scriere nu s-a suprapus cu citirea: una inceputa
+    // inainte si neterminata, sau una inceputa pana la publicare (poate fi sau nu in citire)
+    private Stare citesteValidat() throws SQLException {
+        for (int incercare = 1; ; incercare++) {
+            long terminateInainte = terminate.get();
+            long inceputeInainte = incepute.get();
+            Stare veche = stare.get();
+            Stare s = citeste();
+            // invalideaza() intre timp -> citim din nou
+            if (!stare.compareAndSet(veche, s)) continue;
+            if (terminateInainte == inceputeInainte && incepute.get() == inceputeInainte) {
+                reconstruiriExacte.increment();
+                return s;
+            }
+            if (incercare >= INCERCARI) {
+                s.incert = true;
+                reconstruiriIncerte.increment();
+                return s;
+            }
+        }
+    }
+
+    private Stare citeste() throws SQLException {
+        Stare s = new Stare();
+        try (Connection conn = dataSource.getConnection(); Statement st = conn.createStatement()) {
+            try (ResultSet rs = st.executeQuery("SELECT ID_Locatie, Nume_Locatie, Capacitate FROM Locatie")) {
+                while (rs.next()) s.locatii.put(rs.getInt(1), new Locatie(rs.getInt(1), rs.getString(2), rs.getInt(3)));
+            }
+            try (ResultSet rs = st.executeQuery("SELECT ID_Organizator, Nume_Organizator FROM Organizator")) {
+                while (rs.next()) s.organizatori.put(rs.getInt(1), rs.getString(2));
+            }
+            try (ResultSet rs = st.executeQuery("SELECT ID_Spectacol, Titlu, Data_Spectacol, Pret_Bilet, ID_Locatie, ID_Organizator FROM Spectacol")) {
+                while (rs.next()) {
+                    Spectacol sp = new Spectacol(rs.getInt(1), rs.getString(2), rs.getObject(3, LocalDate.class),
+                            rs.getBigDecimal(4), rs.getInt(5), rs.getInt(6));
+                    s.spectacole.put(sp.id(), sp);
+                    if (sp.idLocatie() != 0) Stare.aduna(s.spectacolePeLocatie, sp.idLocatie(), 1);
+                }
+            }
+            try (ResultSet rs = st.executeQuery("SELECT ID_Spectacol, COUNT(*) FROM Bilet GROUP BY ID_Spectacol")) {
+                while (rs.next()) s.biletePeSpectacol.put(rs.getInt(1), new AtomicInteger(rs.getInt(2)));
+            }
+            try (ResultSet rs = st.executeQuery("SELECT ID_Spectator, COUNT(*) FROM Bilet GROUP BY ID_Spectator")) {
+                while (rs.next()) s.biletePeSpectator.put(rs.getInt(1), new AtomicInteger(rs.getInt(2)));
+            }
+        }
+
+        for (Spectacol sp : s.spectacole.values()) {
+            int nr = s.bilete(s.biletePeSpectacol, sp.id());
+            if (sp.idLocatie() != 0) Stare.aduna(s.biletePeLocatie, sp.idLocatie(), nr);
+            if (sp.idOrganizator() != 0 && sp.pret() != null) {
+                BigDecimal venit = sp.pret().multiply(BigDecimal.valueOf(Math.max(1, nr)));
+                s.venitPeOrganizator.computeIfAbsent(sp.idOrganizator(), k -> new AtomicReference<>(BigDecimal.ZERO))
+                        .accumulateAndGet(venit, BigDecimal::add);
+            }
+        }
+        return s;
+    }
+}
@@ -0,0 +1,277 @@
+/** Clasa pentru transmiterea in timp real a biletelor vandute catre admini (SSE)
+ * @author Sova Ioan-Rares
+ * @version 17 Octombrie 2026
+ */
+package aplicatie_standup.app_standup.service;
+
+import aplicatie_standup.app_standup.model.BiletRecentRow;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fiecare bilet cumparat prin /bilet/buy este pus intr-un buffer circular (ultimele
+ * app.sales-feed.history vanzari) si trimis tuturor adminilor conectati la /api/bilete/live.
+ * Cardul "Ultimele bilete" din /bilete se citeste din acelasi buffer, deci reincarcarea
+ * paginii nu mai interogheaza baza.
+ * <p>
+ * Fiecare client are o coada marginita (app.sales-feed.client-buffer) golita de firul lui
+ * virtual. Cumpararea doar adauga in coada, fara sa astepte; un client care nu tine pasul
+ * si isi umple coada este deconectat (feed.deconectati{motiv=lent}), iar browserul se
+ * reconecteaza cu Last-Event-ID si primeste din buffer ce a pierdut.
+ */
+@Service
+public class SalesFeed {
+
+    /** O vanzare; id-ul creste cu fiecare bilet si este ID-ul evenimentului SSE. */
+    public record Vanzare(long id, String cod, String titlu, String spectator) {
+        BiletRecentRow rand() {
+            return new BiletRecentRow(cod, titlu + " -> " + spectator);
+        }
+    }
+
+    private static final String SQL_RECENTE = "/* sqlRecent */ SELECT TOP %d b.Cod_Bilet, s.Titlu, sp.Nume_Spectator FROM Bilet b " +
+            "JOIN Spectacol s ON b.ID_Spectacol = s.ID_Spectacol JOIN Spectator sp ON b.ID_Spectator = sp.ID_Spectator ORDER BY b.Data_Cumparare DESC";
+    private static final String SQL_TITLU = "SELECT Titlu FROM Spectacol WHERE ID_Spectacol = ?";
+    private static final String SQL_SPECTATOR = "SELECT Nume_Spectator FROM Spectator WHERE ID_Spectator = ?";
+
+    // Pus in coada in locul unei vanzari: un comentariu SSE care tine conexiunea deschisa
+    private static final Object PULS = new Object();
+
+    private final DataSource dataSource;
+    private final int capacitateClient;
+    private final int maxClienti;
+    private final long timeoutMs;
+
+    // Buffer circular: vanzarea cu id-ul n este in istoric[n % istoric.length]
+    private final Vanzare[] istoric;
+    private long ultimulId;
+
+    private final List<Client> clienti = new CopyOnWriteArrayList<>();
+    private final AtomicInteger numarClient = new AtomicInteger();
+    // Titlurile si numele spectatorilor, ca o vanzare sa nu coste o interogare
+    private final Cache<Integer, String> titluri;
+    private final Cache<Integer, String> spectatori;
+    private final Counter evenimente;
+    private final Counter deconectatiLent;
+    private final Counter deconectatiEroare;
+
+    public SalesFeed(DataSource dataSource, MeterRegistry registry,
+                     @Value("${app.sales-feed.history:50}") int marimeIstoric,
+                     @Value("${app.sales-feed.client-buffer:64}") int capacitateClient,
+                     @Value("${app.sales-feed.max-clients:100}") int maxClienti,
+                     @Value("${app.sales-feed.timeout-ms:1800000}") long timeoutMs) {
+        this.dataSource = dataSource;
+        this.istoric = new Vanzare[Math.max(1, marimeIstoric)];
+        this.capacitateClient = capacitateClient;
+        this.maxClienti = maxClienti;
+        this.timeoutMs = timeoutMs;
+        this.titluri = Caffeine.newBuilder().maximumSize(10_000).recordStats().build();
+        this.spectatori = Caffeine.newBuilder().maximumSize(10_000).recordStats().build();
+        CaffeineCacheMetrics.monitor(registry, titluri, "feed-titluri");
+        CaffeineCacheMetrics.monitor(registry, spectatori, "feed-spectatori");
+        Gauge.builder("feed.clienti", clienti, List::size).description("Admini conectati la /api/bilete/live").register(registry);
+        this.evenimente = Counter.builder("feed.evenimente").description("Vanzari publicate").register(registry);
+        this.deconectatiLent = Counter.builder("feed.deconectati").tag("motiv", "lent")
+                .description("Clienti deconectati").register(registry);
+        this.deconectatiEroare = Counter.builder("feed.deconectati").tag("motiv", "eroare")
+                .description("Clienti deconectati").register(registry);
+    }
+
+    /** Istoricul porneste cu ultimele bilete din baza, citite o singura data. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void incarca() {
+        List<Vanzare> citite = new ArrayList<>();
+        try (Connection conn = dataSource.getConnection();
+             Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery(String.format(SQL_RECENTE, istoric.length))) {
+            while (rs.next()) citite.add(new Vanzare(0, rs.getString(1), rs.getString(2), rs.getString(3)));
+        } catch (SQLException ex) {
+            ex.printStackTrace();
+            return;
+        }
+        synchronized (this) {
+            // Cele mai vechi primele; vanzarile publicate intre timp raman mai noi
+            Vanzare[] existente = ultimele(istoric.length).toArray(new Vanzare[0]);
+            ultimulId = 0;
+            for (int i = citite.size() - 1; i >= 0; i--) adaugaInIstoric(citite.get(i));
+            for (int i = existente.length - 1; i >= 0; i--) adaugaInIstoric(existente[i]);
+        }
+    }
+
+    /**
+     * Publica un bilet cumparat. Nu blocheaza: clientii cu coada plina sunt deconectati.
+     * O eroare la citirea numelor nu anuleaza cumpararea; se afiseaza ID-urile.
+     */
+    public void publica(int idSpectacol, int idSpectator, String codBilet) {
+        String titlu = nume(titluri, SQL_TITLU, idSpectacol, "Spectacol #");
+        String spectator = nume(spectatori, SQL_SPECTATOR, idSpectator, "Spectator #");
+        synchronized (this) {
+            // Sub lock, ca vanzarile sa ajunga in cozi in ordinea id-urilor si o singura data
+            Vanzare vanzare = adaugaInIstoric(new Vanzare(0, codBilet, titlu, spectator));
+            for (Client c : clienti) {
+                if (!c.coada.offer(vanzare)) {
+                    deconectatiLent.increment();
+                    c.inchide();
+                }
+            }
+        }
+        evenimente.increment();
+    }
+
+    /** Ultimele n bilete, cel mai nou primul (cardul din /bilete). */
+    public synchronized List<BiletRecentRow> recente(int n) {
+        return ultimele(n).stream().map(Vanzare::rand).toList();
+    }
+
+    /** Titlul unui spectacol s-a schimbat sau spectacolul a fost sters. */
+    public void invalideaza(int idSpectacol) {
+        titluri.invalidate(idSpectacol);
+    }
+
+    /**
+     * Un admin nou; primeste mai intai vanzarile de dupa ultimulVazut (Last-Event-ID), cat timp
+     * mai sunt in buffer.
+     * @return null daca s-a atins app.sales-feed.max-clients
+     */
+    public SseEmitter aboneaza(Long ultimulVazut) {
+        if (clienti.size() >= maxClienti) return null;
+        Client client = new Client(new SseEmitter(timeoutMs));
+        synchronized (this) {
+            // Sub acelasi lock ca publica(): nicio vanzare nu cade intre istoric si coada si nu vine de doua ori
+            if (ultimulVazut != null) {
+                // Cel mult cat incape in coada, cele mai noi
+                List<Vanzare> pierdute = ultimele(capacitateClient);
+                for (int i = pierdute.size() - 1; i >= 0; i--) {
+                    if (pierdute.get(i).id() > ultimulVazut) client.coada.offer(pierdute.get(i));
+                }
+            }
+            clienti.add(client);
+        }
+        client.porneste();
+        return client.emitter;
+    }
+
+    /** Un comentariu periodic: conexiunile inchise de browser sunt descoperite la scriere. */
+    @Scheduled(fixedDelayString = "${app.sales-feed.heartbeat-ms:20000}")
+    public void puls() {
+        for (Client c : clienti) {
+            if (!c.coada.offer(PULS)) {
+                deconectatiLent.increment();
+                c.inchide();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void opreste() {
+        clienti.forEach(Client::inchide);
+    }
+
+    private Vanzare adaugaInIstoric(Vanzare v) {
+        Vanzare cuId = new Vanzare(++ultimulId, v.cod(), v.titlu(), v.spectator());
+        istoric[(int) (cuId.id() % istoric.length)] = cuId;
+        return cuId;
+    }
+
+    private List<Vanzare> ultimele(int n) {
+        List<Vanzare> ultimele = new ArrayList<>(Math.min(n, istoric.length));
+        for (long id = ultimulId; id > 0 && id > ultimulId - istoric.length && ultimele.size() < n; id--) {
+            ultimele.add(istoric[(int) (id % istoric.length)]);
+        }
+        return ultimele;
+    }
+
+    private String nume(Cache<Integer, String> cache, String sql, int id, String implicit) {
+        String nume = cache.getIfPresent(id);
+        if (nume != null) return nume;
+        try (Connection conn = dataSource.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) return implicit + id;
+                nume = rs.getString(1);
+            }
+        } catch (SQLException ex) {
+            ex.printStackTrace();
+            return implicit + id;
+        }
+        cache.put(id, nume);
+        return nume;
+    }
+
+    private final class Client {
+        final SseEmitter emitter;
+        final BlockingQueue<Object> coada = new ArrayBlockingQueue<>(capacitateClient);
+        private volatile Thread fir;
+        private volatile boolean inchis;
+
+        Client(SseEmitter emitter) {
+            this.emitter = emitter;
+            emitter.onCompletion(this::inchide);
+            emitter.onTimeout(this::inchide);
+            emitter.onError(ex -> inchide());
+        }
+
+        void porneste() {
+            fir = Thread.ofVirtual().name("feed-" + numarClient.incrementAndGet()).start(this::trimite);
+            if (inchis) fir.interrupt();
+        }
+
+        private void trimite() {
+            try {
+                while (!inchis) {
+                    Object urmator = coada.take();
+                    if (urmator == PULS) {
+                        emitter.send(SseEmitter.event().comment("puls"));
+                    } else {
+                        Vanzare v = (Vanzare) urmator;
+                        emitter.send(SseEmitter.event().id(String.valueOf(v.id())).name("bilet").data(v, MediaType.APPLICATION_JSON));
+                    }
+                }
+            } catch (InterruptedException ex) {
+                // Deconectat de publica(), de timeout sau la oprire
+            } catch (IOException | IllegalStateException ex) {
+                // Browserul a inchis conexiunea
+                deconectatiEroare.increment();
+            } finally {
+                inchide();
+            }
+        }
+
+        void inchide() {
+            synchronized (this) {
+                if (inchis) return;
+                inchis = true;
+            }
+            clienti.remove(this);
+            Thread t = fir;
+            if (t != null && t != Thread.currentThread()) t.interrupt();
+            try {
+                emitter.complete();
+            } catch (IllegalStateException ex) {
+                // Deja inchis
+            }
+        }
+    }
+}
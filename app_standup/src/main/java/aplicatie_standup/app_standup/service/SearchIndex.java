@@ -0,0 +1,243 @@
+/** Clasa pentru indexul de cautare (spectacole, artisti, locatii, organizatori)
+ * @author Sova Ioan-Rares
+ * @version 17 Octombrie 2026
+ */
+package aplicatie_standup.app_standup.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Index inversat in memorie pentru parametrul q din liste: fiecare cuvant din coloanele
+ * cautate (aceleasi coloane ca vechiul LIKE '%q%') duce la ID-urile randurilor care il contin.
+ * Textul este adus la litere mici si fara diacritice ("Locație" -> "locatie"), iar fiecare
+ * cuvant din q trebuie sa fie inceputul unui cuvant din rand (cautare pe prefix, pentru type-ahead).
+ * <p>
+ * Indexul se construieste la pornire si se actualizeaza din endpoint-urile de add/edit/delete.
+ * Cat timp nu este construit, sau cand q potriveste prea multe randuri (app.search.max-ids),
+ * cauta() intoarce null si apelantul foloseste LIKE ca inainte.
+ */
+@Service
+public class SearchIndex {
+
+    public enum Entitate {
+        SPECTACOL("SELECT s.ID_Spectacol, s.Titlu, l.Nume_Locatie, o.Nume_Organizator FROM Spectacol s " +
+                "LEFT JOIN Locatie l ON s.ID_Locatie = l.ID_Locatie LEFT JOIN Organizator o ON s.ID_Organizator = o.ID_Organizator", "s.ID_Spectacol"),
+        ARTIST("SELECT ID_Artist, Nume_Artist, Prenume_Artist, Nationalitate FROM Artist", "ID_Artist"),
+        LOCATIE("SELECT ID_Locatie, Nume_Locatie, Adresa, Oras FROM Locatie", "ID_Locatie"),
+        ORGANIZATOR("SELECT ID_Organizator, Nume_Organizator, Email_Organizator, Telefon_Organizator FROM Organizator", "ID_Organizator");
+
+        final String sql;
+        final String coloanaId;
+
+        Entitate(String sql, String coloanaId) {
+            this.sql = sql;
+            this.coloanaId = coloanaId;
+        }
+    }
+
+    private static final Pattern SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern SEMNE_DIACRITICE = Pattern.compile("\\p{M}+");
+
+    /** Cuvant -> ID-uri, plus cuvintele fiecarui rand (ca editarea sa poata scoate intrarile vechi). */
+    private static final class Index {
+        final ReentrantReadWriteLock blocare = new ReentrantReadWriteLock();
+        // Serializeaza reconstruirile (fara synchronized, care ar fixa firul virtual cat timp citeste din DB)
+        final ReentrantLock reconstruire = new ReentrantLock();
+        NavigableMap<String, Set<Integer>> postari = new TreeMap<>();
+        Map<Integer, Set<String>> cuvinte = new HashMap<>();
+        volatile boolean construit;
+
+        void adauga(int id, Set<String> tokeni) {
+            cuvinte.put(id, tokeni);
+            for (String t : tokeni) postari.computeIfAbsent(t, k -> new HashSet<>()).add(id);
+        }
+
+        void sterge(int id) {
+            Set<String> vechi = cuvinte.remove(id);
+            if (vechi == null) return;
+            for (String t : vechi) {
+                Set<Integer> ids = postari.get(t);
+                if (ids != null && ids.remove(id) && ids.isEmpty()) postari.remove(t);
+            }
+        }
+
+        // Intersectia, peste cuvintele din q, a reuniunii ID-urilor cuvintelor care incep cu ele
+        Set<Integer> cauta(List<String> prefixe, int maxIds) {
+            Set<Integer> rezultat = null;
+            for (String prefix : prefixe) {
+                Set<Integer> potrivite = new HashSet<>();
+                for (Set<Integer> ids : postari.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+                    if (rezultat == null) potrivite.addAll(ids);
+                    else for (Integer id : ids) if (rezultat.contains(id)) potrivite.add(id);
+                }
+                rezultat = potrivite;
+                if (rezultat.isEmpty()) break;
+            }
+            return rezultat != null && rezultat.size() <= maxIds ? rezultat : null;
+        }
+    }
+
+    private final DataSource dataSource;
+    private final int maxIds;
+    private final Map<Entitate, Index> indecsi = new EnumMap<>(Entitate.class);
+
+    public SearchIndex(DataSource dataSource, @Value("${app.search.max-ids:1000}") int maxIds) {
+        this.dataSource = dataSource;
+        this.maxIds = maxIds;
+        for (Entitate e : Entitate.values()) indecsi.put(e, new Index());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void laPornire() {
+        try {
+            construieste();
+        } catch (SQLException ex) {
+            // Cautarea merge in continuare cu LIKE; indexul se reincearca la prima cautare
+            ex.printStackTrace();
+        }
+    }
+
+    /** Reciteste toate cele patru tabele. */
+    public void construieste() throws SQLException {
+        for (Entitate e : Entitate.values()) construieste(e);
+    }
+
+    /**
+     * ID-urile randurilor care contin toate cuvintele din q (ca prefixe), sortate crescator,
+     * sau null daca trebuie folosit LIKE (index neconstruit, q fara cuvinte, prea multe rezultate).
+     */
+    public int[] cauta(Entitate entitate, String q) {
+        List<String> prefixe = tokeni(q);
+        if (prefixe.isEmpty()) return null;
+
+        Index index = indecsi.get(entitate);
+        if (!index.construit) {
+            try {
+                construieste(entitate);
+            } catch (SQLException ex) {
+                ex.printStackTrace();
+                return null;
+            }
+        }
+        Set<Integer> ids;
+        index.blocare.readLock().lock();
+        try {
+            ids = index.cauta(prefixe, maxIds);
+        } finally {
+            index.blocare.readLock().unlock();
+        }
+        if (ids == null) return null;
+        return ids.stream().mapToInt(Integer::intValue).sorted().toArray();
+    }
+
+    /**
+     * Reciteste randul cu ID-ul dat (sau il scoate, daca a fost sters). Pentru locatii si
+     * organizatori sunt reindexate si spectacolele lor, care se cauta si dupa aceste nume.
+     */
+    public void actualizeaza(Entitate entitate, int id) {
+        try {
+            reindexeaza(entitate, " WHERE " + entitate.coloanaId + " = ?", id, true);
+            if (entitate == Entitate.LOCATIE) reindexeaza(Entitate.SPECTACOL, " WHERE s.ID_Locatie = ?", id, false);
+            if (entitate == Entitate.ORGANIZATOR) reindexeaza(Entitate.SPECTACOL, " WHERE s.ID_Organizator = ?", id, false);
+        } catch (SQLException ex) {
+            // Nu putem garanta indexul -> il reconstruim la urmatoarea cautare
+            ex.printStackTrace();
+            indecsi.get(entitate).construit = false;
+            indecsi.get(Entitate.SPECTACOL).construit = false;
+        }
+    }
+
+    /**
+     * Adauga randurile cu ID mai mare decat dupaId (ex. cele scrise de un import), fara sa reciteasca
+     * restul tabelului.
+     */
+    public void adaugaDupa(Entitate entitate, int dupaId) {
+        try {
+            reindexeaza(entitate, " WHERE " + entitate.coloanaId + " > ?", dupaId, false);
+        } catch (SQLException ex) {
+            ex.printStackTrace();
+            indecsi.get(entitate).construit = false;
+        }
+    }
+
+    /** Cuvintele unui text: litere mici, fara diacritice, despartite de orice nu e litera sau cifra. */
+    static List<String> tokeni(String text) {
+        if (text == null || text.isBlank()) return List.of();
+        String simplu = SEMNE_DIACRITICE.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        List<String> rezultat = new ArrayList<>();
+        for (String t : SEPARATOR.split(simplu)) if (!t.isEmpty()) rezultat.add(t);
+        return rezultat;
+    }
+
+    /** Reciteste tabelul unei singure entitati. */
+    public void construieste(Entitate entitate) throws SQLException {
+        Index index = indecsi.get(entitate);
+        index.reconstruire.lock();
+        try {
+            Index nou = new Index();
+            try (Connection conn = dataSource.getConnection();
+                 PreparedStatement ps = conn.prepareStatement(entitate.sql);
+                 ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) nou.adauga(rs.getInt(1), cuvinte(rs));
+            }
+            index.blocare.writeLock().lock();
+            try {
+                index.postari = nou.postari;
+                index.cuvinte = nou.cuvinte;
+                index.construit = true;
+            } finally {
+                index.blocare.writeLock().unlock();
+            }
+        } finally {
+            index.reconstruire.unlock();
+        }
+    }
+
+    private void reindexeaza(Entitate entitate, String where, int id, boolean stergeDacaLipseste) throws SQLException {
+        Index index = indecsi.get(entitate);
+        index.reconstruire.lock();
+        try {
+            if (!index.construit) return;
+            Map<Integer, Set<String>> citite = new HashMap<>();
+            try (Connection conn = dataSource.getConnection(); PreparedStatement ps = conn.prepareStatement(entitate.sql + where)) {
+                ps.setInt(1, id);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) citite.put(rs.getInt(1), cuvinte(rs));
+                }
+            }
+            index.blocare.writeLock().lock();
+            try {
+                if (stergeDacaLipseste) index.sterge(id);
+                citite.forEach((idRand, tokeni) -> {
+                    index.sterge(idRand);
+                    index.adauga(idRand, tokeni);
+                });
+            } finally {
+                index.blocare.writeLock().unlock();
+            }
+        } finally {
+            index.reconstruire.unlock();
+        }
+    }
+
+    private static Set<String> cuvinte(ResultSet rs) throws SQLException {
+        Set<String> tokeni = new HashSet<>();
+        for (int i = 2; i <= 4; i++) tokeni.addAll(tokeni(rs.getString(i)));
+        return tokeni;
+    }
+}
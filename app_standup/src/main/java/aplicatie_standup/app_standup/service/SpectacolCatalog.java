@@ -0,0 +1,71 @@
+/** Clasa pentru citirea catalogului de spectacole, cu cache in memorie
+ * @author Sova Ioan-Rares
+ * @version 17 Octombrie 2026
+ */
+package aplicatie_standup.app_standup.service;
+
+import aplicatie_standup.app_standup.db.Lista;
+import aplicatie_standup.app_standup.db.Pagina;
+import aplicatie_standup.app_standup.model.SpectacolRow;
+import aplicatie_standup.app_standup.repository.SpectacolRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Catalogul de spectacole (Spectacol + Locatie + Organizator) tinut intr-un cache
+ * pe cheia (cautare, coloana de sortare, directie, cursor). Catalogul se schimba doar la
+ * editarile facute de admin, care apeleaza invalideaza().
+ */
+@Service
+public class SpectacolCatalog {
+
+    private record Cheie(String search, String column, String direction, String after, String before) {}
+
+    private final SpectacolRepository spectacole;
+    private final Cache<Cheie, Pagina<SpectacolRow>> cache;
+    // Creste la fiecare invalidare; o incarcare inceputa inainte nu mai ajunge in cache
+    private final AtomicLong generatie = new AtomicLong();
+
+    public SpectacolCatalog(SpectacolRepository spectacole, MeterRegistry registry,
+                            @Value("${app.catalog.cache.max-entries:500}") long maxIntrari,
+                            @Value("${app.catalog.cache.ttl-seconds:300}") long ttlSecunde) {
+        this.spectacole = spectacole;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxIntrari)
+                .expireAfterWrite(Duration.ofSeconds(ttlSecunde))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, cache, "spectacole");
+    }
+
+    /**
+     * O pagina din catalog; after/before sunt cursoarele primite de la pagina anterioara.
+     */
+    public Pagina<SpectacolRow> cauta(String search, String sortBy, String sortDir, String after, String before) throws SQLException {
+        String column = Lista.SPECTACOL.coloana(sortBy);
+        String direction = Lista.directie(sortDir);
+        Cheie cheie = new Cheie(search, column, direction, after, before);
+
+        Pagina<SpectacolRow> pagina = cache.getIfPresent(cheie);
+        if (pagina != null) return pagina;
+
+        long generatieInainte = generatie.get();
+        pagina = spectacole.pagina(search, sortBy, sortDir, after, before);
+        if (generatie.get() == generatieInainte) cache.put(cheie, pagina);
+        return pagina;
+    }
+
+    /** Apelat de endpoint-urile care modifica spectacole, locatii sau organizatori. */
+    public void invalideaza() {
+        generatie.incrementAndGet();
+        cache.invalidateAll();
+    }
+}
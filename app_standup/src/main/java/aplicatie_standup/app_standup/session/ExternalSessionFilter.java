@@ -0,0 +1,355 @@
+/** Clasa pentru sesiunile HTTP pastrate in afara containerului de servlet-uri
+ * @author Sova Ioan-Rares
+ * @version 17 Octombrie 2026
+ */
+package aplicatie_standup.app_standup.session;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.*;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Inlocuieste HttpSession-ul containerului cu o sesiune citita dintr-un SessionStore
+ * (app.session.store: memory = o singura instanta, file = director comun mai multor instante),
+ * identificata prin cookie-ul app.session.cookie-name. Controller-ele folosesc HttpSession ca inainte.
+ * <ul>
+ *     <li>sesiunea se citeste din depozit doar cand cererea o cere (getSession), nu la fiecare cerere;</li>
+ *     <li>se scrie inapoi doar daca s-a apelat setAttribute/removeAttribute (obiectele modificate pe loc
+ *     nu sunt observate); altfel doar se actualizeaza ultimul acces, cel mult o data la
+ *     app.session.touch-interval-seconds;</li>
+ *     <li>o sesiune noua nu este salvata si nu primeste cookie cat timp ramane goala.</li>
+ * </ul>
+ * Cookie-ul se trimite la primul setAttribute, deci inainte ca raspunsul sa fie trimis.
+ */
+@Component
+public class ExternalSessionFilter extends OncePerRequestFilter implements Ordered {
+
+    /** Inaintea oricarui filtru care ar putea folosi sesiunea. */
+    public static final int ORDINE = Ordered.HIGHEST_PRECEDENCE + 50;
+
+    private static final Pattern ID_VALID = Pattern.compile("[A-Za-z0-9_-]{43}");
+
+    private final SessionStore store;
+    private final String numeCookie;
+    private final long inactivitateMs;
+    private final long intervalAtingereMs;
+    private final SecureRandom aleator = new SecureRandom();
+    private final ScheduledExecutorService curatare;
+    private final Counter scrieri;
+    private final Counter atingeri;
+
+    public ExternalSessionFilter(MeterRegistry registry,
+                                 @Value("${app.session.store:memory}") String tip,
+                                 @Value("${app.session.dir:${java.io.tmpdir}/standup-sesiuni}") String director,
+                                 @Value("${app.session.cookie-name:SESIUNE}") String numeCookie,
+                                 @Value("${server.servlet.session.timeout:30m}") Duration inactivitate,
+                                 @Value("${app.session.touch-interval-seconds:60}") long intervalAtingereSecunde,
+                                 @Value("${app.session.cleanup-seconds:60}") long curatareSecunde) {
+        this.inactivitateMs = inactivitate.toMillis();
+        this.store = switch (tip) {
+            case "memory" -> new MemorySessionStore(inactivitateMs);
+            case "file" -> new FileSessionStore(Path.of(director), inactivitateMs);
+            default -> throw new IllegalArgumentException("app.session.store necunoscut: " + tip + " (memory sau file)");
+        };
+        this.numeCookie = numeCookie;
+        this.intervalAtingereMs = intervalAtingereSecunde * 1000;
+        this.scrieri = Counter.builder("sesiune.scrieri").description("Sesiuni scrise in depozit (au fost modificate)").register(registry);
+        this.atingeri = Counter.builder("sesiune.atingeri").description("Sesiuni la care s-a actualizat doar ultimul acces").register(registry);
+        this.curatare = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "sesiuni-curatare");
+            t.setDaemon(true);
+            return t;
+        });
+        curatare.scheduleWithFixedDelay(this::curata, curatareSecunde, curatareSecunde, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void opreste() {
+        curatare.shutdownNow();
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDINE;
+    }
+
+    public String numeCookie() {
+        return numeCookie;
+    }
+
+    /** Salveaza o sesiune cu aceste atribute si intoarce ID-ul ei (valoarea cookie-ului). */
+    public String creeaza(Map<String, Object> atribute) {
+        String id = idNou();
+        store.scrie(id, SessionCodec.codifica(System.currentTimeMillis(), atribute));
+        return id;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Cerere cerere = new Cerere(request, response);
+        try {
+            chain.doFilter(cerere, response);
+        } finally {
+            cerere.salveaza();
+        }
+    }
+
+    private void curata() {
+        try {
+            store.curataExpirate();
+        } catch (RuntimeException ex) {
+            ex.printStackTrace();
+        }
+    }
+
+    private String idNou() {
+        byte[] octeti = new byte[32];
+        aleator.nextBytes(octeti);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(octeti);
+    }
+
+    private final class Cerere extends HttpServletRequestWrapper {
+        private final HttpServletResponse raspuns;
+        private String idCerut;
+        private boolean citita;
+        private Sesiune sesiune;
+
+        Cerere(HttpServletRequest request, HttpServletResponse raspuns) {
+            super(request);
+            this.raspuns = raspuns;
+        }
+
+        @Override
+        public HttpSession getSession() {
+            return getSession(true);
+        }
+
+        @Override
+        public HttpSession getSession(boolean creeaza) {
+            if (sesiune != null && !sesiune.invalidata) return sesiune;
+            if (!citita) {
+                citita = true;
+                sesiune = citeste();
+                if (sesiune != null) return sesiune;
+            }
+            if (!creeaza) return null;
+            long acum = System.currentTimeMillis();
+            sesiune = new Sesiune(this, idNou(), acum, acum, new LinkedHashMap<>(), true);
+            return sesiune;
+        }
+
+        @Override
+        public String changeSessionId() {
+            Sesiune s = (Sesiune) getSession(false);
+            if (s == null) throw new IllegalStateException("Cererea nu are sesiune.");
+            if (!s.noua) store.sterge(s.id);
+            s.id = idNou();
+            s.noua = true;
+            s.modificata = false;
+            s.modifica();
+            return s.id;
+        }
+
+        @Override
+        public String getRequestedSessionId() {
+            citesteCookie();
+            return idCerut;
+        }
+
+        @Override
+        public boolean isRequestedSessionIdValid() {
+            HttpSession s = getSession(false);
+            return s != null && s.getId().equals(getRequestedSessionId());
+        }
+
+        @Override
+        public boolean isRequestedSessionIdFromCookie() {
+            return getRequestedSessionId() != null;
+        }
+
+        @Override
+        public boolean isRequestedSessionIdFromURL() {
+            return false;
+        }
+
+        private void citesteCookie() {
+            if (idCerut != null || getCookies() == null) return;
+            for (Cookie c : getCookies()) {
+                if (numeCookie.equals(c.getName()) && ID_VALID.matcher(c.getValue()).matches()) idCerut = c.getValue();
+            }
+        }
+
+        private Sesiune citeste() {
+            citesteCookie();
+            if (idCerut == null) return null;
+            SessionStore.Salvata salvata = store.citeste(idCerut);
+            if (salvata == null) return null;
+            SessionCodec.Date date;
+            try {
+                date = SessionCodec.decodifica(salvata.date());
+            } catch (IllegalStateException ex) {
+                // Format vechi sau fisier corupt: utilizatorul se autentifica din nou
+                ex.printStackTrace();
+                store.sterge(idCerut);
+                return null;
+            }
+            return new Sesiune(this, idCerut, date.creata(), salvata.ultimulAcces(), date.atribute(), false);
+        }
+
+        void trimiteCookie(String valoare, Duration durata) {
+            if (raspuns.isCommitted()) return;
+            String cale = getContextPath().isEmpty() ? "/" : getContextPath();
+            ResponseCookie cookie = ResponseCookie.from(numeCookie, valoare).path(cale).httpOnly(true)
+                    .secure(isSecure()).sameSite("Lax").maxAge(durata).build();
+            raspuns.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+        }
+
+        void salveaza() {
+            Sesiune s = sesiune;
+            if (s == null || s.invalidata) return;
+            if (s.modificata) {
+                store.scrie(s.id, SessionCodec.codifica(s.creata, s.atribute));
+                scrieri.increment();
+            } else if (!s.noua && System.currentTimeMillis() - s.ultimulAcces >= intervalAtingereMs) {
+                store.atinge(s.id);
+                atingeri.increment();
+            }
+        }
+    }
+
+    private final class Sesiune implements HttpSession {
+        private final Cerere cerere;
+        private final long creata;
+        private final long ultimulAcces;
+        private final Map<String, Object> atribute;
+        private String id;
+        private boolean noua;
+        private boolean modificata;
+        private boolean invalidata;
+        private int maxInactiv;
+
+        Sesiune(Cerere cerere, String id, long creata, long ultimulAcces, Map<String, Object> atribute, boolean noua) {
+            this.cerere = cerere;
+            this.id = id;
+            this.creata = creata;
+            this.ultimulAcces = ultimulAcces;
+            this.atribute = atribute;
+            this.noua = noua;
+            this.maxInactiv = (int) (inactivitateMs / 1000);
+        }
+
+        void modifica() {
+            if (modificata) return;
+            modificata = true;
+            // Pana acum sesiunea noua era goala si nu avea cookie
+            if (noua) cerere.trimiteCookie(id, Duration.ofSeconds(-1));
+        }
+
+        private void verificaValida() {
+            if (invalidata) throw new IllegalStateException("Sesiunea a fost invalidata.");
+        }
+
+        @Override
+        public long getCreationTime() {
+            verificaValida();
+            return creata;
+        }
+
+        @Override
+        public String getId() {
+            return id;
+        }
+
+        @Override
+        public long getLastAccessedTime() {
+            verificaValida();
+            return ultimulAcces;
+        }
+
+        @Override
+        public ServletContext getServletContext() {
+            return cerere.getServletContext();
+        }
+
+        // Expirarea este cea a depozitului (server.servlet.session.timeout); valoarea nu se salveaza
+        @Override
+        public void setMaxInactiveInterval(int interval) {
+            maxInactiv = interval;
+        }
+
+        @Override
+        public int getMaxInactiveInterval() {
+            return maxInactiv;
+        }
+
+        @Override
+        public Object getAttribute(String nume) {
+            verificaValida();
+            return atribute.get(nume);
+        }
+
+        @Override
+        public Enumeration<String> getAttributeNames() {
+            verificaValida();
+            return Collections.enumeration(new ArrayList<>(atribute.keySet()));
+        }
+
+        @Override
+        public void setAttribute(String nume, Object valoare) {
+            verificaValida();
+            if (valoare == null) {
+                removeAttribute(nume);
+                return;
+            }
+            if (!SessionCodec.suportat(valoare)) {
+                throw new IllegalArgumentException("Atributul de sesiune " + nume + " (" + valoare.getClass().getName() + ") nu poate fi salvat.");
+            }
+            atribute.put(nume, valoare);
+            modifica();
+        }
+
+        @Override
+        public void removeAttribute(String nume) {
+            verificaValida();
+            if (atribute.remove(nume) != null) modifica();
+        }
+
+        @Override
+        public void invalidate() {
+            verificaValida();
+            invalidata = true;
+            atribute.clear();
+            if (!noua) {
+                store.sterge(id);
+                cerere.trimiteCookie("", Duration.ZERO);
+            }
+        }
+
+        @Override
+        public boolean isNew() {
+            verificaValida();
+            return noua;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/** Clasa pentru pastrarea sesiunilor in fisiere, comune mai multor instante
+ * @author Sova Ioan-Rares
+ * @version 17 Octombrie 2026
+ */
+package aplicatie_standup.app_standup.session;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+
+/**
+ * Un fisier per sesiune (ID.ses) intr-un director pe care il pot folosi mai multe instante
+ * ale aplicatiei de pe aceeasi masina (sau de pe un volum comun), fara sesiuni lipicioase.
+ * Scrierea merge intr-un fisier temporar mutat atomic peste cel vechi, deci o instanta nu
+ * citeste niciodata o sesiune pe jumatate scrisa. Ultimul acces este data modificarii
+ * fisierului, asa ca atinge() nu rescrie continutul.
+ */
+public class FileSessionStore implements SessionStore {
+
+    private static final String EXTENSIE = ".ses";
+
+    private final Path director;
+    private final long inactivitateMs;
+
+    public FileSessionStore(Path director, long inactivitateMs) {
+        this.director = director;
+        this.inactivitateMs = inactivitateMs;
+        try {
+            Files.createDirectories(director);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Nu pot crea directorul de sesiuni " + director, ex);
+        }
+    }
+
+    @Override
+    public Salvata citeste(String id) {
+        Path fisier = fisier(id);
+        try {
+            long ultimulAcces = Files.getLastModifiedTime(fisier).toMillis();
+            if (ultimulAcces + inactivitateMs <= System.currentTimeMillis()) {
+                Files.deleteIfExists(fisier);
+                return null;
+            }
+            return new Salvata(Files.readAllBytes(fisier), ultimulAcces);
+        } catch (NoSuchFileException ex) {
+            return null;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Nu pot citi sesiunea " + id, ex);
+        }
+    }
+
+    @Override
+    public void scrie(String id, byte[] date) {
+        try {
+            Path temporar = Files.createTempFile(director, id, ".tmp");
+            try {
+                Files.write(temporar, date);
+                Files.move(temporar, fisier(id), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temporar);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Nu pot scrie sesiunea " + id, ex);
+        }
+    }
+
+    @Override
+    public void atinge(String id) {
+        try {
+            Files.setLastModifiedTime(fisier(id), FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (NoSuchFileException ex) {
+            // Sesiunea a fost stearsa intre timp (logout pe alta instanta)
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Nu pot actualiza sesiunea " + id, ex);
+        }
+    }
+
+    @Override
+    public void sterge(String id) {
+        try {
+            Files.deleteIfExists(fisier(id));
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Nu pot sterge sesiunea " + id, ex);
+        }
+    }
+
+    @Override
+    public int curataExpirate() {
+        long limita = System.currentTimeMillis() - inactivitateMs;
+        int sterse = 0;
+        try (DirectoryStream<Path> fisiere = Files.newDirectoryStream(director, "*" + EXTENSIE)) {
+            for (Path fisier : fisiere) {
+                try {
+                    if (Files.getLastModifiedTime(fisier).toMillis() <= limita && Files.deleteIfExists(fisier)) sterse++;
+                } catch (NoSuchFileException ex) {
+                    // Sters de alta instanta
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Nu pot curata directorul de sesiuni " + director, ex);
+        }
+        return sterse;
+    }
+
+    // ID-urile sunt validate de ExternalSessionFilter (doar [A-Za-z0-9_-]), deci nu pot iesi din director
+    private Path fisier(String id) {
+        return director.resolve(id + EXTENSIE);
+    }
+}
@@ -0,0 +1,67 @@
+/** Clasa pentru pastrarea sesiunilor in memoria procesului
+ * @author Sova Ioan-Rares
+ * @version 17 Octombrie 2026
+ */
+package aplicatie_standup.app_standup.session;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Depozitul implicit: sesiunile stau in memoria unei singure instante. Se pastreaza tot datele
+ * serializate, ca o cerere sa nu poata modifica obiectele vazute de alta cerere concurenta.
+ */
+public class MemorySessionStore implements SessionStore {
+
+    private static final class Intrare {
+        final byte[] date;
+        volatile long ultimulAcces;
+
+        Intrare(byte[] date, long ultimulAcces) {
+            this.date = date;
+            this.ultimulAcces = ultimulAcces;
+        }
+    }
+
+    private final Map<String, Intrare> sesiuni = new ConcurrentHashMap<>();
+    private final long inactivitateMs;
+
+    public MemorySessionStore(long inactivitateMs) {
+        this.inactivitateMs = inactivitateMs;
+    }
+
+    @Override
+    public Salvata citeste(String id) {
+        Intrare intrare = sesiuni.get(id);
+        if (intrare == null) return null;
+        if (intrare.ultimulAcces + inactivitateMs <= System.currentTimeMillis()) {
+            sesiuni.remove(id, intrare);
+            return null;
+        }
+        return new Salvata(intrare.date, intrare.ultimulAcces);
+    }
+
+    @Override
+    public void scrie(String id, byte[] date) {
+        sesiuni.put(id, new Intrare(date, System.currentTimeMillis()));
+    }
+
+    @Override
+    public void atinge(String id) {
+        Intrare intrare = sesiuni.get(id);
+        if (intrare != null) intrare.ultimulAcces = System.currentTimeMillis();
+    }
+
+    @Override
+    public void sterge(String id) {
+        sesiuni.remove(id);
+    }
+
+    @Override
+    public int curataExpirate() {
+        long limita = System.currentTimeMillis() - inactivitateMs;
+        int inainte = sesiuni.size();
+        sesiuni.values().removeIf(intrare -> intrare.ultimulAcces <= limita);
+        return inainte - sesiuni.size();
+    }
+}
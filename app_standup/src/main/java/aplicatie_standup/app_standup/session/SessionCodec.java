@@ -0,0 +1,121 @@
+/** Clasa pentru serializarea binara a atributelor de sesiune
+ * @author Sova Ioan-Rares
+ * @version 17 Octombrie 2026
+ */
+package aplicatie_standup.app_standup.session;
+
+import aplicatie_standup.app_standup.model.Session;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Format: versiune, momentul crearii, numarul de atribute, apoi pentru fiecare atribut
+ * numele, un octet de tip si valoarea. Session (utilizatorul logat, prezent in aproape
+ * fiecare sesiune) si String-urile au forma lor compacta, cateva zeci de octeti; orice alt
+ * atribut Serializable (de ex. mesajele flash ale redirect-urilor) trece prin serializarea Java.
+ */
+final class SessionCodec {
+
+    private static final byte VERSIUNE = 1;
+    private static final byte TIP_SERIALIZAT = 0;
+    private static final byte TIP_SESSION = 1;
+    private static final byte TIP_STRING = 2;
+    // Depozitul de fisiere poate fi comun; la citire acceptam doar clase din JDK, Spring si aplicatie
+    private static final ObjectInputFilter CLASE_PERMISE =
+            ObjectInputFilter.Config.createFilter("java.**;org.springframework.**;aplicatie_standup.**;!*");
+
+    record Date(long creata, Map<String, Object> atribute) {}
+
+    private SessionCodec() {}
+
+    /** Atributele care pot fi salvate; celelalte sunt refuzate la setAttribute. */
+    static boolean suportat(Object valoare) {
+        return valoare instanceof Session || valoare instanceof String || valoare instanceof Serializable;
+    }
+
+    static byte[] codifica(long creata, Map<String, Object> atribute) {
+        ByteArrayOutputStream octeti = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(octeti)) {
+            out.writeByte(VERSIUNE);
+            out.writeLong(creata);
+            out.writeInt(atribute.size());
+            for (Map.Entry<String, Object> atribut : atribute.entrySet()) {
+                out.writeUTF(atribut.getKey());
+                scrieValoare(out, atribut.getValue());
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Sesiunea nu poate fi serializata", ex);
+        }
+        return octeti.toByteArray();
+    }
+
+    static Date decodifica(byte[] date) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(date))) {
+            byte versiune = in.readByte();
+            if (versiune != VERSIUNE) throw new IOException("Versiune necunoscuta a sesiunii: " + versiune);
+            long creata = in.readLong();
+            int numar = in.readInt();
+            Map<String, Object> atribute = new LinkedHashMap<>();
+            for (int i = 0; i < numar; i++) {
+                String nume = in.readUTF();
+                atribute.put(nume, citesteValoare(in));
+            }
+            return new Date(creata, atribute);
+        } catch (IOException | ClassNotFoundException ex) {
+            throw new IllegalStateException("Sesiune salvata invalida: " + ex.getMessage(), ex);
+        }
+    }
+
+    private static void scrieValoare(DataOutputStream out, Object valoare) throws IOException {
+        if (valoare instanceof Session s) {
+            out.writeByte(TIP_SESSION);
+            out.writeUTF(s.username);
+            out.writeUTF(s.role);
+            out.writeInt(s.idSpectator == null ? -1 : s.idSpectator);
+        } else if (valoare instanceof String s) {
+            out.writeByte(TIP_STRING);
+            scrieOcteti(out, s.getBytes(StandardCharsets.UTF_8));
+        } else {
+            out.writeByte(TIP_SERIALIZAT);
+            ByteArrayOutputStream octeti = new ByteArrayOutputStream();
+            try (ObjectOutputStream obiect = new ObjectOutputStream(octeti)) {
+                obiect.writeObject(valoare);
+            }
+            scrieOcteti(out, octeti.toByteArray());
+        }
+    }
+
+    private static Object citesteValoare(DataInputStream in) throws IOException, ClassNotFoundException {
+        byte tip = in.readByte();
+        return switch (tip) {
+            case TIP_SESSION -> {
+                String username = in.readUTF();
+                String rol = in.readUTF();
+                int idSpectator = in.readInt();
+                yield new Session(username, rol, idSpectator < 0 ? null : idSpectator);
+            }
+            case TIP_STRING -> new String(citesteOcteti(in), StandardCharsets.UTF_8);
+            case TIP_SERIALIZAT -> {
+                try (ObjectInputStream obiect = new ObjectInputStream(new ByteArrayInputStream(citesteOcteti(in)))) {
+                    obiect.setObjectInputFilter(CLASE_PERMISE);
+                    yield obiect.readObject();
+                }
+            }
+            default -> throw new IOException("Tip de atribut necunoscut: " + tip);
+        };
+    }
+
+    private static void scrieOcteti(DataOutputStream out, byte[] octeti) throws IOException {
+        out.writeInt(octeti.length);
+        out.write(octeti);
+    }
+
+    private static byte[] citesteOcteti(DataInputStream in) throws IOException {
+        byte[] octeti = new byte[in.readInt()];
+        in.readFully(octeti);
+        return octeti;
+    }
+}
@@ -0,0 +1,28 @@
+/** Interfata pentru locul in care se pastreaza sesiunile HTTP
+ * @author Sova Ioan-Rares
+ * @version 17 Octombrie 2026
+ */
+package aplicatie_standup.app_standup.session;
+
+/**
+ * Depozit de sesiuni pe ID, cu datele deja serializate (SessionCodec). Expirarea se socoteste
+ * de la ultimul acces inregistrat (scrie sau atinge) plus timpul de inactivitate al depozitului.
+ */
+public interface SessionStore {
+
+    /** Datele salvate si momentul ultimului acces (ms). */
+    record Salvata(byte[] date, long ultimulAcces) {}
+
+    /** Sesiunea cu acest ID, sau null daca nu exista ori a expirat. */
+    Salvata citeste(String id);
+
+    void scrie(String id, byte[] date);
+
+    /** Muta ultimul acces la "acum" fara sa rescrie datele. */
+    void atinge(String id);
+
+    void sterge(String id);
+
+    /** Sterge sesiunile expirate; intoarce cate au fost sterse. */
+    int curataExpirate();
+}
@@ -0,0 +1,151 @@
+/** Clasa pentru cererile GET conditionate (ETag / Last-Modified) ale listelor si raportului
+ * @author Sova Ioan-Rares
+ * @version 17 Octombrie 2026
+ */
+package aplicatie_standup.app_standup.view;
+
+import aplicatie_standup.app_standup.model.Session;
+import aplicatie_standup.app_standup.service.DataVersions;
+import aplicatie_standup.app_standup.service.DataVersions.Tabel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.support.RequestContextUtils;
+
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * ETag-ul unei pagini = versiunile tabelelor afisate (DataVersions) + utilizatorul (rolul
+ * schimba formularele din pagina) + intervalul de timp curent. Daca browserul trimite acelasi
+ * ETag in If-None-Match (sau, fara el, un If-Modified-Since cel putin egal cu ultima
+ * modificare), raspunsul este 304 inainte de handler, deci fara nicio interogare.
+ * <p>
+ * Paginile cu mesaje flash (dupa un redirect) si cele cu "error" in model nu primesc ETag,
+ * ca un mesaj sau o eroare sa nu ramana in cache-ul browserului.
+ * Metrici: http.conditionat{rezultat=nemodificat|generat|ocolit}
+ */
+@Component
+public class ConditionalGet implements HandlerInterceptor, WebMvcConfigurer {
+
+    private static final String VALIDATOR = ConditionalGet.class.getName() + ".validator";
+
+    // Tabelele din care se construieste fiecare pagina
+    private static final Map<String, Set<Tabel>> PAGINI = Map.of(
+            "/spectacole", EnumSet.of(Tabel.SPECTACOL, Tabel.BILET, Tabel.LOCATIE, Tabel.ORGANIZATOR),
+            "/artisti", EnumSet.of(Tabel.ARTIST),
+            "/locatii", EnumSet.of(Tabel.LOCATIE, Tabel.SPECTACOL),
+            "/organizatori", EnumSet.of(Tabel.ORGANIZATOR, Tabel.SPECTACOL),
+            "/raport", EnumSet.allOf(Tabel.class));
+
+    private record Validator(String etag, long modificat) {}
+
+    private final DataVersions versiuni;
+    private final long intervalMs;
+    private final Counter nemodificate;
+    private final Counter generate;
+    private final Counter ocolite;
+
+    public ConditionalGet(DataVersions versiuni, MeterRegistry registry,
+                          @Value("${app.http.conditional.max-age-seconds:60}") long maxAgeSecunde) {
+        this.versiuni = versiuni;
+        this.intervalMs = Math.max(1, maxAgeSecunde) * 1000;
+        this.nemodificate = contor(registry, "nemodificat");
+        this.generate = contor(registry, "generat");
+        this.ocolite = contor(registry, "ocolit");
+    }
+
+    private static Counter contor(MeterRegistry registry, String rezultat) {
+        return Counter.builder("http.conditionat").tag("rezultat", rezultat)
+                .description("Cereri GET pentru listele si raportul cu ETag").register(registry);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry interceptors) {
+        interceptors.addInterceptor(this).addPathPatterns(PAGINI.keySet().toArray(String[]::new));
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod())) return true;
+        Set<Tabel> tabele = PAGINI.get(request.getRequestURI().substring(request.getContextPath().length()));
+        HttpSession httpSession = request.getSession(false);
+        if (tabele == null || httpSession == null || !(httpSession.getAttribute("currentSession") instanceof Session ses)) {
+            return true;
+        }
+        if (RequestContextUtils.getInputFlashMap(request) != null) {
+            ocolite.increment();
+            return true;
+        }
+
+        // Versiunile se citesc inaintea datelor: o scriere intre timp schimba ETag-ul la cererea urmatoare
+        long acum = System.currentTimeMillis();
+        long interval = acum / intervalMs;
+        String etag = "W/\"" + versiuni.versiuni(tabele) + "." + Long.toString(interval, 36) + "."
+                + Integer.toHexString(Objects.hash(ses.username, ses.role, ses.idSpectator)) + "\"";
+        // Un alt cont in acelasi browser inseamna o sesiune noua (logout o invalideaza)
+        long modificat = Math.max(versiuni.modificatLa(tabele), Math.max(interval * intervalMs, httpSession.getCreationTime()));
+        Validator validator = new Validator(etag, modificat / 1000 * 1000);
+
+        if (nemodificat(request, validator)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            antete(response, validator);
+            nemodificate.increment();
+            return false;
+        }
+        request.setAttribute(VALIDATOR, validator);
+        return true;
+    }
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler, ModelAndView mav) {
+        if (!(request.getAttribute(VALIDATOR) instanceof Validator validator) || mav == null) return;
+        String view = mav.getViewName();
+        if (view == null || view.startsWith("redirect:") || mav.getModel().containsKey("error")) {
+            ocolite.increment();
+            return;
+        }
+        antete(response, validator);
+        generate.increment();
+    }
+
+    private static boolean nemodificat(HttpServletRequest request, Validator validator) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            // Comparatie slaba: ETag-ul este acelasi si pentru corpul comprimat
+            String cautat = faraSlab(validator.etag());
+            for (String etag : ifNoneMatch.split(",")) {
+                if (faraSlab(etag.trim()).equals(cautat)) return true;
+            }
+            return false;
+        }
+        try {
+            long ifModifiedSince = request.getDateHeader(HttpHeaders.IF_MODIFIED_SINCE);
+            return ifModifiedSince >= 0 && validator.modificat() <= ifModifiedSince;
+        } catch (IllegalArgumentException ex) {
+            return false;
+        }
+    }
+
+    private static String faraSlab(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    private static void antete(HttpServletResponse response, Validator validator) {
+        response.setHeader(HttpHeaders.ETAG, validator.etag());
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, validator.modificat());
+        // Browserul pastreaza pagina, dar o revalideaza la fiecare afisare; proxy-urile nu o pastreaza
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+    }
+}
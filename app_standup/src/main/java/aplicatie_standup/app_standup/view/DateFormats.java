@@ -0,0 +1,37 @@
+/** Clasa pentru formatarea datelor afisate in pagini
+ * @author Sova Ioan-Rares
+ * @version 17 Octombrie 2026
+ */
+package aplicatie_standup.app_standup.view;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Formatele de data/ora folosite in toate paginile. DateTimeFormatter este imutabil,
+ * deci aceleasi instante sunt partajate de toate firele (spre deosebire de SimpleDateFormat).
+ * In sabloane: ${@fmt.data(s.data)}, ${@fmt.dataOra(b.dataCumparare)}, ${@fmt.ora(s.ora)}.
+ */
+@Component("fmt")
+public class DateFormats {
+
+    public static final DateTimeFormatter DATA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    public static final DateTimeFormatter DATA_ORA = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+    public static final DateTimeFormatter ORA = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+    public String data(LocalDate data) {
+        return data != null ? DATA.format(data) : "";
+    }
+
+    public String dataOra(LocalDateTime dataOra) {
+        return dataOra != null ? DATA_ORA.format(dataOra) : "";
+    }
+
+    public String ora(LocalTime ora) {
+        return ora != null ? ORA.format(ora) : "";
+    }
+}
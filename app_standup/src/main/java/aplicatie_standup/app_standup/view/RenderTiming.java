@@ -0,0 +1,76 @@
+/** Clasa pentru masurarea timpului din handler si din randarea sabloanelor
+ * @author Sova Ioan-Rares
+ * @version 17 Octombrie 2026
+ */
+package aplicatie_standup.app_standup.view;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Imparte durata unei cereri (http.server.requests, masurata de Spring Boot) in:
+ * http.handler{handler=Controller.metoda} - codul din controller, inclusiv SQL-ul;
+ * view.render{view=sablon} - randarea Thymeleaf dupa ce handler-ul a intors numele sablonului.
+ * Redirect-urile si raspunsurile fara sablon (API, erori) nu au view.render.
+ */
+@Component
+public class RenderTiming implements HandlerInterceptor, WebMvcConfigurer {
+
+    private static final String INCEPUT = RenderTiming.class.getName() + ".inceput";
+    private static final String RANDARE = RenderTiming.class.getName() + ".randare";
+
+    private final MeterRegistry registry;
+    private final Map<String, Timer> handlere = new ConcurrentHashMap<>();
+    private final Map<String, Timer> sabloane = new ConcurrentHashMap<>();
+
+    public RenderTiming(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry interceptors) {
+        interceptors.addInterceptor(this);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        request.setAttribute(INCEPUT, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler, ModelAndView mav) {
+        long acum = System.nanoTime();
+        if (request.getAttribute(INCEPUT) instanceof Long inceput && handler instanceof HandlerMethod metoda) {
+            String nume = metoda.getBeanType().getSimpleName() + "." + metoda.getMethod().getName();
+            Timer timer = handlere.computeIfAbsent(nume, n -> Timer.builder("http.handler")
+                    .description("Timpul din handler, fara randarea sablonului").tag("handler", n).register(registry));
+            timer.record(acum - inceput, TimeUnit.NANOSECONDS);
+        }
+        String view = mav != null ? mav.getViewName() : null;
+        if (view != null && !view.startsWith("redirect:") && !view.startsWith("forward:")) {
+            request.setAttribute(RANDARE, new Object[]{view, acum});
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (!(request.getAttribute(RANDARE) instanceof Object[] randare)) return;
+        String view = (String) randare[0];
+        Timer timer = sabloane.computeIfAbsent(view, v -> Timer.builder("view.render")
+                .description("Randarea sablonului Thymeleaf").tag("view", v).register(registry));
+        timer.record(System.nanoTime() - (Long) randare[1], TimeUnit.NANOSECONDS);
+    }
+}
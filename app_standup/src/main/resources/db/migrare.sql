@@ -0,0 +1,28 @@
+-- Modificari de schema pentru baza restaurata din SpectacoleDeStandUp.bak (SQL Server).
+-- Rulat la fiecare pornire (spring.sql.init); fiecare pas verifica intai daca a fost deja aplicat.
+
+-- Inregistrarea (RegistrationService) se bazeaza pe unicitatea din baza: doua cereri simultane cu acelasi
+-- username / email / telefon trebuie sa fie respinse de constrangere. Daca baza are deja duplicate, pasul
+-- esueaza si aplicatia nu porneste pana cand acestea nu sunt rezolvate manual.
+IF NOT EXISTS (SELECT 1 FROM sys.key_constraints WHERE name = 'UQ_Utilizator_Username')
+    ALTER TABLE Utilizator ADD CONSTRAINT UQ_Utilizator_Username UNIQUE (Username);
+
+-- Email-ul si telefonul pot lipsi; indexul filtrat permite mai multe valori NULL
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'UX_Spectator_Email' AND object_id = OBJECT_ID('Spectator'))
+    CREATE UNIQUE INDEX UX_Spectator_Email ON Spectator (Email_Spectator) WHERE Email_Spectator IS NOT NULL;
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'UX_Spectator_Telefon' AND object_id = OBJECT_ID('Spectator'))
+    CREATE UNIQUE INDEX UX_Spectator_Telefon ON Spectator (Telefon_Spectator) WHERE Telefon_Spectator IS NOT NULL;
+
+-- Reluarea rand cu rand a unui batch de bilete (BiletBatchWriter) trateaza cheia duplicata ca bilet deja
+-- scris: un commit aplicat pe server, dar neconfirmat aplicatiei, nu trebuie sa produca a doua oara acelasi bilet
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE name = 'UX_Bilet_Cod' AND object_id = OBJECT_ID('Bilet'))
+    CREATE UNIQUE INDEX UX_Bilet_Cod ON Bilet (Cod_Bilet);
+
+-- Scanarile de la intrare (CheckInService); se sterg impreuna cu biletele spectacolului
+IF OBJECT_ID('Scanare_Bilet', 'U') IS NULL
+    CREATE TABLE Scanare_Bilet (
+        Cod_Bilet NVARCHAR(20) PRIMARY KEY,
+        ID_Spectacol INT NOT NULL,
+        Data_Scanare DATETIME NOT NULL
+    );
@@ -0,0 +1,123 @@
+package aplicatie_standup.app_standup;
+
+import aplicatie_standup.app_standup.model.Session;
+import aplicatie_standup.app_standup.service.SalesAggregates;
+import aplicatie_standup.app_standup.service.SearchIndex;
+import aplicatie_standup.app_standup.service.SpectacolCatalog;
+import aplicatie_standup.app_standup.session.ExternalSessionFilter;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.Map;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ApiTests {
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private ExternalSessionFilter sesiuni;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Autowired
+	private SearchIndex searchIndex;
+
+	@Autowired
+	private SpectacolCatalog catalog;
+
+	@Autowired
+	private SalesAggregates agregate;
+
+	private Cookie admin;
+	private int idSpectator;
+
+	@BeforeAll
+	void date() throws Exception {
+		admin = sesiune(new Session("admin", "admin", null));
+
+		jdbc.update("INSERT INTO Locatie (Nume_Locatie, Adresa, Oras, Capacitate) VALUES ('Sala Api', 'Str. Api 1', 'Cluj', 100)");
+		int sala = jdbc.queryForObject("SELECT MAX(ID_Locatie) FROM Locatie", Integer.class);
+		for (int i = 1; i <= 12; i++) {
+			jdbc.update("INSERT INTO Spectacol (Titlu, Data_Spectacol, Ora, Pret_Bilet, ID_Locatie) VALUES (?, ?, '19:30:00', ?, ?)",
+					"Apisugestie " + i, "2031-02-" + String.format("%02d", i), 10 + i, sala);
+		}
+		jdbc.update("INSERT INTO Spectator (Nume_Spectator, Email_Spectator, Telefon_Spectator) VALUES ('Spectator Api', 'api@test.ro', 'api-telefon')");
+		idSpectator = jdbc.queryForObject("SELECT MAX(ID_Spectator) FROM Spectator", Integer.class);
+		int primul = jdbc.queryForObject("SELECT MIN(ID_Spectacol) FROM Spectacol WHERE Titlu LIKE 'Apisugestie %'", Integer.class);
+		jdbc.update("INSERT INTO Bilet (ID_Spectacol, ID_Spectator, Data_Cumparare, Cod_Bilet) VALUES (?, ?, '2031-01-01 10:00:00', 'API-1')", primul, idSpectator);
+		searchIndex.construieste();
+		catalog.invalideaza();
+		agregate.invalideaza();
+	}
+
+	@Test
+	void spectacoleCaJsonCuLimitSiSortare() throws Exception {
+		json(get("/api/spectacole").param("q", "apisug").param("limit", "5").param("sortBy", "PRET").param("sortDir", "DESC").cookie(admin))
+				.andExpect(jsonPath("$", hasSize(5)))
+				.andExpect(jsonPath("$[0].titlu").value("Apisugestie 12"))
+				.andExpect(jsonPath("$[0].data").value("2031-02-12"))
+				.andExpect(jsonPath("$[0].locatie").value("Sala Api"))
+				.andExpect(jsonPath("$[4].titlu").value("Apisugestie 8"));
+	}
+
+	@Test
+	void sortByNecunoscutFolosesteColoanaImplicita() throws Exception {
+		json(get("/api/spectacole").param("q", "apisugestie").param("limit", "100").param("sortBy", "Titlu; DROP TABLE Bilet").cookie(admin))
+				.andExpect(jsonPath("$", hasSize(12)))
+				.andExpect(jsonPath("$[0].titlu").value("Apisugestie 1"));
+	}
+
+	@Test
+	void faraRezultateIntoarceListaGoala() throws Exception {
+		json(get("/api/spectacole").param("q", "apisugestie inexistent").cookie(admin))
+				.andExpect(content().json("[]"));
+	}
+
+	@Test
+	void bileteleSpectatoruluiLogat() throws Exception {
+		Cookie spectator = sesiune(new Session("api", "user", idSpectator));
+		json(get("/api/bilete").cookie(spectator))
+				.andExpect(jsonPath("$", hasSize(1)))
+				.andExpect(jsonPath("$[0].cod").value("API-1"));
+	}
+
+	@Test
+	void faraSesiuneIntoarce401() throws Exception {
+		MvcResult pornit = mvc.perform(get("/api/spectacole")).andExpect(request().asyncStarted()).andReturn();
+		mvc.perform(asyncDispatch(pornit))
+				.andExpect(status().isUnauthorized())
+				.andExpect(jsonPath("$.error").value("Neautentificat."));
+	}
+
+	// Raspunsul este scris asincron (StreamingResponseBody), deci trebuie asteptat si redistribuit
+	private ResultActions json(MockHttpServletRequestBuilder cerere) throws Exception {
+		MvcResult pornit = mvc.perform(cerere).andExpect(request().asyncStarted()).andReturn();
+		return mvc.perform(asyncDispatch(pornit))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith("application/json"));
+	}
+
+	private Cookie sesiune(Session ses) {
+		return new Cookie(sesiuni.numeCookie(), sesiuni.creeaza(Map.of("currentSession", ses)));
+	}
+}
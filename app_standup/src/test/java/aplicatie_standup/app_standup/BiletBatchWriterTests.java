@@ -0,0 +1,102 @@
+package aplicatie_standup.app_standup;
+
+import aplicatie_standup.app_standup.service.BiletBatchWriter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class BiletBatchWriterTests {
+
+	@Autowired
+	private BiletBatchWriter writer;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Autowired
+	private MeterRegistry registry;
+
+	@Autowired
+	private TestDate date;
+
+	@Test
+	void grupeazaScrierileConcurente() throws Exception {
+		int idSpectacol = date.spectacol("Batch", 0);
+		int idSpectator = date.spectator("Batch");
+		DistributionSummary dimensiune = registry.get("bilet.batch.size").summary();
+		long batchuriInainte = dimensiune.count();
+		double randuriInainte = dimensiune.totalAmount();
+
+		int cereri = 2000;
+		ExecutorService pool = Executors.newFixedThreadPool(100);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> rezultate = new ArrayList<>();
+		for (int i = 0; i < cereri; i++) {
+			String cod = "B" + i;
+			rezultate.add(pool.submit(() -> {
+				start.await();
+				writer.scrie(idSpectacol, idSpectator, cod);
+				return null;
+			}));
+		}
+		start.countDown();
+		for (Future<?> f : rezultate) f.get(60, TimeUnit.SECONDS);
+		pool.shutdown();
+
+		long batchuri = dimensiune.count() - batchuriInainte;
+
+		assertEquals(cereri, jdbc.queryForObject("SELECT COUNT(*) FROM Bilet WHERE ID_Spectacol = ?", Integer.class, idSpectacol));
+		assertEquals(cereri, dimensiune.totalAmount() - randuriInainte);
+		assertTrue(batchuri < cereri, "scrierile concurente trebuie grupate");
+	}
+
+	@Test
+	void unRandInvalidNuAfecteazaRestulBatchului() throws Exception {
+		int idSpectacol = date.spectacol("Mixt", 0);
+		int idSpectator = date.spectator("Mixt");
+
+		ExecutorService pool = Executors.newFixedThreadPool(3);
+		Future<?> bun1 = pool.submit(() -> { writer.scrie(idSpectacol, idSpectator, "OK1"); return null; });
+		Future<?> invalid = pool.submit(() -> { writer.scrie(idSpectacol, -1, "RAU"); return null; });
+		Future<?> bun2 = pool.submit(() -> { writer.scrie(idSpectacol, idSpectator, "OK2"); return null; });
+
+		bun1.get(10, TimeUnit.SECONDS);
+		bun2.get(10, TimeUnit.SECONDS);
+		assertThrows(Exception.class, () -> invalid.get(10, TimeUnit.SECONDS));
+		pool.shutdown();
+		assertEquals(2, jdbc.queryForObject("SELECT COUNT(*) FROM Bilet WHERE ID_Spectacol = ?", Integer.class, idSpectacol));
+	}
+
+	@Test
+	void reluareaSocotesteScrisBiletulDejaInBaza() throws Exception {
+		int idSpectacol = date.spectacol("Reluare", 0);
+		int idSpectator = date.spectator("Reluare");
+		// Ca dupa un commit aplicat pe server, dar neconfirmat aplicatiei
+		jdbc.update("INSERT INTO Bilet (ID_Spectacol, ID_Spectator, Data_Cumparare, Cod_Bilet) VALUES (?, ?, CURRENT_TIMESTAMP, 'DEJA1')",
+				idSpectacol, idSpectator);
+
+		ExecutorService pool = Executors.newFixedThreadPool(2);
+		Future<?> deja = pool.submit(() -> { writer.scrie(idSpectacol, idSpectator, "DEJA1"); return null; });
+		Future<?> nou = pool.submit(() -> { writer.scrie(idSpectacol, idSpectator, "NOU1"); return null; });
+		deja.get(10, TimeUnit.SECONDS);
+		nou.get(10, TimeUnit.SECONDS);
+		pool.shutdown();
+
+		assertEquals(1, jdbc.queryForObject("SELECT COUNT(*) FROM Bilet WHERE Cod_Bilet = 'DEJA1'", Integer.class));
+		assertEquals(2, jdbc.queryForObject("SELECT COUNT(*) FROM Bilet WHERE ID_Spectacol = ?", Integer.class, idSpectacol));
+	}
+}
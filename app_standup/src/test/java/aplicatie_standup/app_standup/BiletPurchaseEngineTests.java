@@ -0,0 +1,87 @@
+package aplicatie_standup.app_standup;
+
+import aplicatie_standup.app_standup.service.BiletPurchaseEngine;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class BiletPurchaseEngineTests {
+
+	@Autowired
+	private BiletPurchaseEngine engine;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Autowired
+	private TestDate date;
+
+	@Test
+	void nuDepasesteCapacitateaSubConcurenta() throws Exception {
+		int capacitate = 150;
+		int cumparatori = 3000;
+		int idSpectacol = date.spectacol("Show", capacitate);
+		int idSpectator = date.spectator("stres");
+
+		ExecutorService pool = Executors.newFixedThreadPool(64);
+		CountDownLatch start = new CountDownLatch(1);
+		AtomicInteger reusite = new AtomicInteger();
+		AtomicInteger refuzate = new AtomicInteger();
+		List<Future<?>> rezultate = new ArrayList<>();
+		for (int i = 0; i < cumparatori; i++) {
+			rezultate.add(pool.submit(() -> {
+				start.await();
+				try {
+					engine.cumpara(idSpectacol, idSpectator);
+					reusite.incrementAndGet();
+				} catch (RuntimeException ex) {
+					refuzate.incrementAndGet();
+				}
+				return null;
+			}));
+		}
+		start.countDown();
+		for (Future<?> f : rezultate) f.get(60, TimeUnit.SECONDS);
+		pool.shutdown();
+
+		assertEquals(capacitate, reusite.get());
+		assertEquals(cumparatori - capacitate, refuzate.get());
+		assertEquals(capacitate, jdbc.queryForObject("SELECT COUNT(*) FROM Bilet WHERE ID_Spectacol = ?", Integer.class, idSpectacol));
+		assertEquals(0, engine.locuriRamase(idSpectacol));
+	}
+
+	@Test
+	void elibereazaLoculDacaInsertEsueaza() throws Exception {
+		int idSpectacol = date.spectacol("Show", 5);
+
+		// Spectator inexistent -> cheia straina face INSERT-ul sa esueze
+		assertThrows(Exception.class, () -> engine.cumpara(idSpectacol, -1));
+		assertEquals(5, engine.locuriRamase(idSpectacol));
+	}
+
+	@Test
+	void numaraBileteleVanduteInainte() throws Exception {
+		int idSpectacol = date.spectacol("Show", 3);
+		int idSpectator = date.spectator("vechi");
+		jdbc.update("INSERT INTO Bilet (ID_Spectacol, ID_Spectator, Data_Cumparare, Cod_Bilet) VALUES (?, ?, CURRENT_TIMESTAMP, 'VECHI001')",
+				idSpectacol, idSpectator);
+
+		engine.cumpara(idSpectacol, idSpectator);
+		engine.cumpara(idSpectacol, idSpectator);
+		assertThrows(RuntimeException.class, () -> engine.cumpara(idSpectacol, idSpectator));
+	}
+
+}
@@ -0,0 +1,66 @@
+package aplicatie_standup.app_standup;
+
+import aplicatie_standup.app_standup.service.BiletBatchWriter;
+import aplicatie_standup.app_standup.service.BiletPurchaseEngine;
+import aplicatie_standup.app_standup.service.OccupancyTracker;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Firul de scriere ramane blocat la obtinerea conexiunii, mai mult decat asteapta cumpararea
+@SpringBootTest(properties = {"app.db.max-concurrent=2", "app.db.acquire-timeout-ms=1500", "app.bilet.batch.timeout-ms=100"})
+class BiletRezultatNecunoscutTests {
+
+	@Autowired
+	private BiletPurchaseEngine engine;
+
+	@Autowired
+	private OccupancyTracker ocupare;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Autowired
+	private MeterRegistry registry;
+
+	@Autowired
+	private TestDate date;
+
+	@Test
+	void reconciliereaStabilesteLoculDupaUnCommitNeconfirmat() throws Exception {
+		int idSpectacol = date.spectacol("Necunoscut", 5);
+		int idSpectator = date.spectator("necunoscut");
+		assertEquals(5, ocupare.ramase(idSpectacol));
+
+		List<Connection> ocupate = new ArrayList<>();
+		try {
+			for (int i = 0; i < 2; i++) ocupate.add(dataSource.getConnection());
+			assertThrows(BiletBatchWriter.RezultatNecunoscutException.class, () -> engine.cumpara(idSpectacol, idSpectator));
+			assertEquals(4, ocupare.ramase(idSpectacol));
+
+			// Batch-ul esueaza abia cand firul de scriere renunta la conexiune
+			long termen = System.currentTimeMillis() + 5000;
+			while (registry.get("db.limiter.waiting").gauge().value() > 0 && System.currentTimeMillis() < termen) Thread.sleep(20);
+			assertEquals(0, registry.get("db.limiter.waiting").gauge().value());
+		} finally {
+			for (Connection c : ocupate) c.close();
+		}
+
+		assertEquals(0, jdbc.queryForObject("SELECT COUNT(*) FROM Bilet WHERE ID_Spectacol = ?", Integer.class, idSpectacol));
+		assertEquals(4, ocupare.ramase(idSpectacol));
+		ocupare.reconciliaza();
+		assertEquals(5, ocupare.ramase(idSpectacol));
+	}
+}
@@ -0,0 +1,297 @@
+package aplicatie_standup.app_standup;
+
+import aplicatie_standup.app_standup.model.Session;
+import aplicatie_standup.app_standup.service.BiletPurchaseEngine;
+import aplicatie_standup.app_standup.service.CheckInService;
+import aplicatie_standup.app_standup.service.CheckInService.Rezultat;
+import aplicatie_standup.app_standup.service.CodBiletGenerator;
+import aplicatie_standup.app_standup.service.CodBiletIndex;
+import aplicatie_standup.app_standup.service.OccupancyTracker;
+import aplicatie_standup.app_standup.session.ExternalSessionFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CheckInTests {
+
+	@Autowired
+	private BiletPurchaseEngine purchaseEngine;
+
+	@Autowired
+	private CodBiletIndex index;
+
+	@Autowired
+	private CheckInService checkIn;
+
+	@Autowired
+	private OccupancyTracker ocupare;
+
+	@Autowired
+	private ExternalSessionFilter sesiuni;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Autowired
+	private MockMvc mvc;
+
+	@TempDir
+	Path director;
+
+	private int idSpectator;
+
+	@BeforeAll
+	void date() {
+		jdbc.update("INSERT INTO Locatie (Nume_Locatie, Adresa, Oras, Capacitate) VALUES ('Sala Intrare', 'Str. 5', 'Sibiu', 1000)");
+		jdbc.update("INSERT INTO Spectator (Nume_Spectator, Email_Spectator, Telefon_Spectator) VALUES ('Ana Intrare', 'ana.intrare@gmail.com', 'chk-01')");
+		idSpectator = jdbc.queryForObject("SELECT MAX(ID_Spectator) FROM Spectator", Integer.class);
+	}
+
+	@Test
+	void fiecareBiletIntraOSinguraData() throws Exception {
+		int id = spectacol();
+		List<String> coduri = bilete(id, 20);
+		CheckInService serviciu = serviciuNou();
+
+		assertEquals(Rezultat.INCHIS, serviciu.scaneaza(id, coduri.get(0)));
+		assertEquals(22, serviciu.deschide(id).bilete());
+		for (String cod : coduri) assertEquals(Rezultat.VALID, serviciu.scaneaza(id, cod), cod);
+		for (String cod : coduri) assertEquals(Rezultat.FOLOSIT, serviciu.scaneaza(id, cod), cod);
+		// Acelasi cod tastat altfel
+		String cod = coduri.get(0);
+		assertEquals(Rezultat.FOLOSIT, serviciu.scaneaza(id, cod.substring(0, 6).toLowerCase() + "-" + cod.substring(6)));
+		assertEquals(22, serviciu.stare(id).scanate());
+
+		String strain = new CodBiletGenerator("00112233445566778899aabbccddeeff", 9, new SimpleMeterRegistry()).genereaza();
+		assertEquals(Rezultat.NECUNOSCUT, serviciu.scaneaza(id, strain));
+		String gresit = cod.substring(0, 12) + (cod.charAt(12) == '0' ? '1' : '0');
+		assertEquals(Rezultat.CONTROL, serviciu.scaneaza(id, gresit));
+		assertEquals(Rezultat.INCHIS, serviciu.scaneaza(id + 1000, cod));
+	}
+
+	@Test
+	void douaUsiNuPrimescAcelasiBilet() throws Exception {
+		int id = spectacol();
+		List<String> coduri = bilete(id, 200);
+		CheckInService serviciu = serviciuNou();
+		serviciu.deschide(id);
+
+		int usi = 4;
+		try (ExecutorService executor = Executors.newFixedThreadPool(usi)) {
+			List<Future<Integer>> rezultate = new ArrayList<>();
+			for (int u = 0; u < usi; u++) {
+				rezultate.add(executor.submit(() -> {
+					int valide = 0;
+					for (String cod : coduri) if (serviciu.scaneaza(id, cod) == Rezultat.VALID) valide++;
+					return valide;
+				}));
+			}
+			int total = 0;
+			for (Future<Integer> r : rezultate) total += r.get();
+			assertEquals(coduri.size(), total);
+		}
+		assertEquals(coduri.size(), serviciu.persista());
+		assertEquals(coduri.size(), jdbc.queryForObject("SELECT COUNT(*) FROM Scanare_Bilet WHERE ID_Spectacol = ?", Integer.class, id));
+	}
+
+	@Test
+	void scanarileRamanDupaRepornire() throws Exception {
+		int id = spectacol();
+		List<String> coduri = bilete(id, 10);
+		CheckInService serviciu = serviciuNou();
+		serviciu.deschide(id);
+		for (String cod : coduri.subList(0, 5)) assertEquals(Rezultat.VALID, serviciu.scaneaza(id, cod));
+		// Vandut dupa deschidere: gasit prin CodBiletIndex
+		String tarziu = purchaseEngine.cumpara(id, idSpectator);
+		assertEquals(Rezultat.VALID, serviciu.scaneaza(id, tarziu));
+		assertEquals(6, serviciu.persista());
+
+		CheckInService repornit = serviciuNou();
+		repornit.laPornire();
+		assertEquals(6, repornit.stare(id).scanate());
+		assertEquals(Rezultat.FOLOSIT, repornit.scaneaza(id, coduri.get(0)));
+		assertEquals(Rezultat.FOLOSIT, repornit.scaneaza(id, tarziu));
+		assertEquals(Rezultat.VALID, repornit.scaneaza(id, coduri.get(5)));
+
+		// Fara randurile din baza, bitmap-ul din fisier este suficient
+		repornit.persista();
+		jdbc.update("DELETE FROM Scanare_Bilet WHERE ID_Spectacol = ?", id);
+		CheckInService faraBaza = serviciuNou();
+		faraBaza.laPornire();
+		assertEquals(Rezultat.FOLOSIT, faraBaza.scaneaza(id, coduri.get(5)));
+		// Si biletul vandut dupa deschidere, din fisierul scanarilor tarzii
+		assertEquals(Rezultat.FOLOSIT, faraBaza.scaneaza(id, tarziu));
+		assertEquals(Rezultat.VALID, faraBaza.scaneaza(id, "Z" + id + "W1"));
+		assertEquals(Rezultat.VALID, faraBaza.scaneaza(id, coduri.get(6)));
+
+		assertTrue(faraBaza.inchide(id));
+		CheckInService dupaInchidere = serviciuNou();
+		dupaInchidere.laPornire();
+		assertNull(dupaInchidere.stare(id));
+	}
+
+	@Test
+	void apiDeScanare() throws Exception {
+		int id = spectacol();
+		List<String> coduri = bilete(id, 3);
+		Cookie admin = sesiune(new Session("admin", "admin", null));
+
+		mvc.perform(post("/api/checkin/" + id).cookie(sesiune(new Session("ana", "user", idSpectator))))
+				.andExpect(status().isForbidden());
+		mvc.perform(post("/api/checkin/" + id).cookie(admin))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.bilete").value(5));
+		mvc.perform(post("/api/checkin/" + id + "/scan").param("cod", coduri.get(0)).cookie(admin))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.rezultat").value("valid"));
+		mvc.perform(post("/api/checkin/" + id + "/scan").param("cod", coduri.get(0)).cookie(admin))
+				.andExpect(status().isConflict())
+				.andExpect(jsonPath("$.rezultat").value("folosit"));
+		mvc.perform(post("/api/checkin/" + id + "/scanari").cookie(admin).contentType(MediaType.TEXT_PLAIN)
+						.content(coduri.get(1) + "\n" + coduri.get(2) + "\n\n" + coduri.get(1) + "\n"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$[0].rezultat").value("valid"))
+				.andExpect(jsonPath("$[1].rezultat").value("valid"))
+				.andExpect(jsonPath("$[2].rezultat").value("folosit"));
+		mvc.perform(get("/api/checkin/" + id).cookie(admin))
+				.andExpect(jsonPath("$.scanate").value(3));
+
+		mvc.perform(delete("/api/checkin/" + id).cookie(admin)).andExpect(status().isNoContent());
+		assertEquals(3, jdbc.queryForObject("SELECT COUNT(*) FROM Scanare_Bilet WHERE ID_Spectacol = ?", Integer.class, id));
+		mvc.perform(post("/api/checkin/" + id + "/scan").param("cod", coduri.get(2)).cookie(admin))
+				.andExpect(status().isConflict())
+				.andExpect(jsonPath("$.rezultat").value("inchis"));
+	}
+
+	@Test
+	void stergereaSpectacoluluiInchideCheckInulSiStergeScanarile() throws Exception {
+		int id = spectacol();
+		List<String> coduri = bilete(id, 3);
+		Cookie admin = sesiune(new Session("admin", "admin", null));
+		mvc.perform(post("/api/checkin/" + id).cookie(admin)).andExpect(status().isOk());
+		mvc.perform(post("/api/checkin/" + id + "/scan").param("cod", coduri.get(0)).cookie(admin)).andExpect(status().isOk());
+
+		mvc.perform(post("/spectacol/delete").param("id", String.valueOf(id)).cookie(admin))
+				.andExpect(flash().attribute("success", "Șters!"));
+		assertNull(checkIn.stare(id));
+		// Scanarea din coada s-a scris la inchidere, inainte de stergere, deci nu ramane in urma
+		checkIn.persista();
+		assertEquals(0, jdbc.queryForObject("SELECT COUNT(*) FROM Scanare_Bilet WHERE ID_Spectacol = ?", Integer.class, id));
+		assertEquals(0, jdbc.queryForObject("SELECT COUNT(*) FROM Bilet WHERE ID_Spectacol = ?", Integer.class, id));
+	}
+
+	@Test
+	void randurileScriseInainteDeUnEsecSuntNumarate() throws Exception {
+		int id = spectacol();
+		List<String> coduri = bilete(id, 5);
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		CheckInService serviciu = new CheckInService(bazaCareCade(3), index, registry, director.toString(), 50, 500);
+		serviciu.deschide(id);
+		for (String cod : coduri) assertEquals(Rezultat.VALID, serviciu.scaneaza(id, cod));
+
+		// Batch-ul este respins si reluat rand cu rand; la al patrulea rand baza nu mai raspunde
+		assertEquals(3, serviciu.persista());
+		assertEquals(3, registry.get("checkin.scrise").counter().count());
+		assertEquals(3, jdbc.queryForObject("SELECT COUNT(*) FROM Scanare_Bilet WHERE ID_Spectacol = ?", Integer.class, id));
+
+		assertEquals(coduri.size() - 3, serviciu.persista());
+		assertEquals(coduri.size(), registry.get("checkin.scrise").counter().count());
+		assertEquals(coduri.size(), jdbc.queryForObject("SELECT COUNT(*) FROM Scanare_Bilet WHERE ID_Spectacol = ?", Integer.class, id));
+	}
+
+	private int spectacol() throws Exception {
+		jdbc.update("INSERT INTO Spectacol (Titlu, Data_Spectacol, Ora, Pret_Bilet, ID_Locatie) " +
+				"SELECT 'Show Intrare', '2031-05-01', '20:00:00', 30, MAX(ID_Locatie) FROM Locatie");
+		int id = jdbc.queryForObject("SELECT MAX(ID_Spectacol) FROM Spectacol", Integer.class);
+		ocupare.reconciliaza();
+		return id;
+	}
+
+	// n bilete noi, plus doua cu coduri vechi (unul care incape intr-un long si unul care nu)
+	private List<String> bilete(int idSpectacol, int n) throws Exception {
+		List<String> coduri = new ArrayList<>();
+		for (int i = 0; i < n; i++) coduri.add(purchaseEngine.cumpara(idSpectacol, idSpectator));
+		for (String vechi : List.of("Z" + idSpectacol + "W1", "VECHI_" + idSpectacol)) {
+			jdbc.update("INSERT INTO Bilet (ID_Spectacol, ID_Spectator, Data_Cumparare, Cod_Bilet) VALUES (?, ?, CURRENT_TIMESTAMP, ?)",
+					idSpectacol, idSpectator, vechi);
+			coduri.add(vechi);
+		}
+		return coduri;
+	}
+
+	// Fara firul de scriere (nu trece prin Spring): testele apeleaza persista() cand vor
+	private CheckInService serviciuNou() {
+		return new CheckInService(dataSource, index, new SimpleMeterRegistry(), director.toString(), 50, 500);
+	}
+
+	// Baza in care executeBatch este respins, iar executeUpdate reuseste de "reusite" ori si apoi pierde legatura o data
+	private DataSource bazaCareCade(int reusite) {
+		AtomicInteger randuri = new AtomicInteger();
+		return proxy(DataSource.class, dataSource, (m, ds) -> !m.getName().equals("getConnection") ? ds.call()
+				: proxy(Connection.class, (Connection) ds.call(), (mc, conn) -> !mc.getName().equals("prepareStatement") ? conn.call()
+				: proxy(PreparedStatement.class, (PreparedStatement) conn.call(), (mp, ps) -> switch (mp.getName()) {
+					case "executeBatch" -> throw new SQLException("Batch respins", "40001");
+					case "executeUpdate" -> {
+						if (randuri.getAndIncrement() == reusite) throw new SQLException("Legatura pierduta", "08S01");
+						yield ps.call();
+					}
+					default -> ps.call();
+				})));
+	}
+
+	private interface Apel {
+		Object intercepteaza(Method metoda, Callable<Object> original) throws Exception;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T proxy(Class<T> tip, T tinta, Apel apel) {
+		return (T) Proxy.newProxyInstance(tip.getClassLoader(), new Class<?>[]{tip}, (p, metoda, argumente) ->
+				apel.intercepteaza(metoda, () -> {
+					try {
+						return metoda.invoke(tinta, argumente);
+					} catch (InvocationTargetException ex) {
+						throw (Exception) ex.getCause();
+					}
+				}));
+	}
+
+	private Cookie sesiune(Session ses) {
+		return new Cookie(sesiuni.numeCookie(), sesiuni.creeaza(Map.of("currentSession", ses)));
+	}
+}
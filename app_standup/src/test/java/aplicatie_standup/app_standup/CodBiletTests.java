@@ -0,0 +1,252 @@
+package aplicatie_standup.app_standup;
+
+import aplicatie_standup.app_standup.model.Session;
+import aplicatie_standup.app_standup.service.BiletPurchaseEngine;
+import aplicatie_standup.app_standup.service.CodBiletGenerator;
+import aplicatie_standup.app_standup.service.CodBiletIndex;
+import aplicatie_standup.app_standup.service.OccupancyTracker;
+import aplicatie_standup.app_standup.session.ExternalSessionFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CodBiletTests {
+
+	private static final String CHEIE = "00112233445566778899aabbccddeeff";
+
+	@Autowired
+	private BiletPurchaseEngine purchaseEngine;
+
+	@Autowired
+	private CodBiletIndex index;
+
+	@Autowired
+	private OccupancyTracker ocupare;
+
+	@Autowired
+	private ExternalSessionFilter sesiuni;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Autowired
+	private MockMvc mvc;
+
+	private int idSpectacol;
+	private int idSpectator;
+
+	@BeforeAll
+	void date() throws Exception {
+		jdbc.update("INSERT INTO Locatie (Nume_Locatie, Adresa, Oras, Capacitate) VALUES ('Sala Cod', 'Str. 4', 'Brasov', 100)");
+		jdbc.update("INSERT INTO Spectacol (Titlu, Data_Spectacol, Ora, Pret_Bilet, ID_Locatie) " +
+				"SELECT 'Show Cod', '2031-04-01', '20:00:00', 50, MAX(ID_Locatie) FROM Locatie");
+		idSpectacol = jdbc.queryForObject("SELECT MAX(ID_Spectacol) FROM Spectacol", Integer.class);
+		jdbc.update("INSERT INTO Spectator (Nume_Spectator, Email_Spectator, Telefon_Spectator) VALUES ('Ana Cod', 'ana.cod@gmail.com', 'cod-01')");
+		idSpectator = jdbc.queryForObject("SELECT MAX(ID_Spectator) FROM Spectator", Integer.class);
+		ocupare.reconciliaza();
+	}
+
+	@Test
+	void codurileSuntUniceInDouazeciDeMilioane() throws Exception {
+		CodBiletGenerator generator = new CodBiletGenerator(CHEIE, 3, new SimpleMeterRegistry());
+		int fire = 4, perFir = 5_000_000;
+		long[] valori = new long[fire * perFir];
+		try (ExecutorService executor = Executors.newFixedThreadPool(fire)) {
+			List<Future<?>> rezultate = new ArrayList<>();
+			for (int f = 0; f < fire; f++) {
+				int inceput = f * perFir;
+				rezultate.add(executor.submit(() -> {
+					for (int i = 0; i < perFir; i++) valori[inceput + i] = CodBiletGenerator.valoare(generator.genereaza());
+				}));
+			}
+			for (Future<?> r : rezultate) r.get();
+		}
+		Arrays.parallelSort(valori);
+		assertTrue(valori[0] >= 0, "cod cu caracter de control gresit");
+		for (int i = 1; i < valori.length; i++) {
+			assertNotEquals(valori[i - 1], valori[i], "cod duplicat");
+		}
+		assertEquals(3, generator.nod(valori[valori.length / 2]));
+	}
+
+	@Test
+	void caracterulDeControlPrindeGreselileDeTastare() {
+		CodBiletGenerator generator = new CodBiletGenerator(CHEIE, 0, new SimpleMeterRegistry());
+		String alfabet = "0123456789ABCDEFGHJKMNPQRSTVWXYZ";
+		for (int n = 0; n < 200; n++) {
+			String cod = generator.genereaza();
+			assertEquals(CodBiletGenerator.LUNGIME, cod.length());
+			assertTrue(CodBiletGenerator.valoare(cod) >= 0, cod);
+			char[] c = cod.toCharArray();
+			for (int i = 0; i < CodBiletGenerator.LUNGIME - 1; i++) {
+				// Orice alt caracter pe o pozitie
+				for (char inlocuit : alfabet.toCharArray()) {
+					if (inlocuit == c[i]) continue;
+					char[] gresit = c.clone();
+					gresit[i] = inlocuit;
+					assertEquals(-1, CodBiletGenerator.valoare(new String(gresit)), new String(gresit));
+				}
+				// Doua caractere vecine inversate
+				if (i + 1 < CodBiletGenerator.LUNGIME - 1 && c[i] != c[i + 1]) {
+					char[] inversat = c.clone();
+					inversat[i] = c[i + 1];
+					inversat[i + 1] = c[i];
+					assertEquals(-1, CodBiletGenerator.valoare(new String(inversat)), new String(inversat));
+				}
+			}
+		}
+	}
+
+	@Test
+	void codulSeCitesteSiScrisAltfel() {
+		CodBiletGenerator generator = new CodBiletGenerator(CHEIE, 0, new SimpleMeterRegistry());
+		String cod = generator.genereaza();
+		long valoare = CodBiletGenerator.valoare(cod);
+		String citit = (cod.substring(0, 4) + "-" + cod.substring(4, 8) + "-" + cod.substring(8)).toLowerCase()
+				.replace('0', 'o').replace('1', 'l');
+		assertEquals(valoare, CodBiletGenerator.valoare(citit));
+		assertEquals(cod, CodBiletGenerator.codifica(valoare));
+	}
+
+	@Test
+	void altaCheieDaAlteCoduri() {
+		CodBiletGenerator a = new CodBiletGenerator(CHEIE, 0, new SimpleMeterRegistry());
+		CodBiletGenerator b = new CodBiletGenerator("ffeeddccbbaa99887766554433221100", 0, new SimpleMeterRegistry());
+		String cod = a.genereaza();
+		// Aceeasi secventa, alt cod; fara cheie, valoarea nu se poate inversa
+		assertNotEquals(cod, b.genereaza());
+		assertEquals(a.secventa(CodBiletGenerator.valoare(cod)) + 1, a.secventa(CodBiletGenerator.valoare(a.genereaza())));
+	}
+
+	@Test
+	void generatorulContinuaDupaCodurileDinBaza() {
+		CodBiletGenerator generator = new CodBiletGenerator(CHEIE, 0, new SimpleMeterRegistry());
+		long inainte = generator.secventa(CodBiletGenerator.valoare(generator.genereaza()));
+		// O rulare anterioara care a ajuns mai departe (de ex. cu ceasul dat inapoi)
+		generator.continuaDupa(inainte + 5_000_000);
+		// Banda firului isi termina blocul inceput, apoi trece dupa secventa data
+		long dupa = 0;
+		for (int i = 0; i < 2_000; i++) {
+			dupa = generator.secventa(CodBiletGenerator.valoare(generator.genereaza()));
+		}
+		assertTrue(dupa > inainte + 5_000_000, dupa + " <= " + (inainte + 5_000_000));
+	}
+
+	@Test
+	void coduriDateCuAltaCheieNuMutaGeneratorul() {
+		CodBiletGenerator vechi = new CodBiletGenerator("ffeeddccbbaa99887766554433221100", 0, new SimpleMeterRegistry());
+		CodBiletGenerator generator = new CodBiletGenerator(CHEIE, 0, new SimpleMeterRegistry());
+		long inainte = generator.secventa(CodBiletGenerator.valoare(generator.genereaza()));
+		// Ca la CodBiletIndex.incarca dupa schimbarea cheii: codurile vechi se inverseaza la secvente oarecare
+		for (int i = 0; i < 1_000; i++) {
+			long v = CodBiletGenerator.valoare(vechi.genereaza());
+			if (generator.nod(v) == 0) generator.continuaDupa(generator.secventa(v));
+		}
+		generator.continuaDupa((1L << 55) - 10);
+		long dupa = generator.secventa(CodBiletGenerator.valoare(generator.genereaza()));
+		assertTrue(dupa - inainte < 1L << 24, inainte + " -> " + dupa);
+
+		assertThrows(IllegalArgumentException.class, () -> new CodBiletGenerator("", 0, new SimpleMeterRegistry()));
+	}
+
+	@Test
+	void biletulCumparatSeGasesteDupaCod() throws Exception {
+		String cod = purchaseEngine.cumpara(idSpectacol, idSpectator);
+		assertEquals(CodBiletGenerator.LUNGIME, cod.length());
+		assertEquals(cod, jdbc.queryForObject("SELECT Cod_Bilet FROM Bilet WHERE Cod_Bilet = ?", String.class, cod));
+		assertEquals(new CodBiletIndex.Intrare(idSpectacol, idSpectator), index.cauta(cod));
+		assertEquals(new CodBiletIndex.Intrare(idSpectacol, idSpectator), index.cauta(cod.toLowerCase()));
+
+		raspuns(get("/api/bilete/cod/" + cod).cookie(sesiune(new Session("ana", "user", idSpectator))))
+				.andExpect(status().isOk())
+				.andExpect(content().string(containsString("\"idSpectacol\":" + idSpectacol)));
+		// Alt spectator nu afla nimic despre bilet
+		raspuns(get("/api/bilete/cod/" + cod).cookie(sesiune(new Session("altul", "user", idSpectator + 1000))))
+				.andExpect(status().isNotFound());
+		String gresit = cod.substring(0, 12) + (cod.charAt(12) == '0' ? '1' : '0');
+		raspuns(get("/api/bilete/cod/" + gresit).cookie(sesiune(new Session("admin", "admin", null))))
+				.andExpect(status().isNotFound())
+				.andExpect(content().string(containsString("control")));
+	}
+
+	@Test
+	void coduriVechiSiStergereaSpectacolului() throws Exception {
+		jdbc.update("INSERT INTO Bilet (ID_Spectacol, ID_Spectator, Data_Cumparare, Cod_Bilet) VALUES (?, ?, CURRENT_TIMESTAMP, 'A1B2C3D4')",
+				idSpectacol, idSpectator);
+		jdbc.update("INSERT INTO Bilet (ID_Spectacol, ID_Spectator, Data_Cumparare, Cod_Bilet) VALUES (?, ?, CURRENT_TIMESTAMP, 'VECHI_U1')",
+				idSpectacol, idSpectator);
+		index.incarca();
+		assertEquals(new CodBiletIndex.Intrare(idSpectacol, idSpectator), index.cauta("A1B2C3D4"));
+		assertEquals(new CodBiletIndex.Intrare(idSpectacol, idSpectator), index.cauta("VECHI_U1"));
+		assertNull(index.cauta("A1B2C3D5"));
+
+		index.stergeSpectacol(idSpectacol);
+		assertNull(index.cauta("A1B2C3D4"));
+		assertNull(index.cauta("VECHI_U1"));
+		index.incarca();
+	}
+
+	@Test
+	void cautarileMergInTimpCeIndexulCreste() throws Exception {
+		CodBiletGenerator generator = new CodBiletGenerator(CHEIE, 7, new SimpleMeterRegistry());
+		String primul = generator.genereaza();
+		index.adauga(primul, 999_001, 1);
+		try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+			Future<?> scriere = executor.submit(() -> {
+				// Tabela se dubleaza de cateva ori
+				for (int i = 0; i < 50_000; i++) index.adauga(generator.genereaza(), 999_002, i);
+			});
+			Future<Integer> citiri = executor.submit(() -> {
+				int gasite = 0;
+				while (!scriere.isDone()) {
+					assertEquals(999_001, index.cauta(primul).idSpectacol());
+					gasite++;
+				}
+				return gasite;
+			});
+			scriere.get();
+			assertTrue(citiri.get() > 0);
+		}
+		index.stergeSpectacol(999_001);
+		index.stergeSpectacol(999_002);
+	}
+
+	// Raspunsul este scris asincron (StreamingResponseBody)
+	private ResultActions raspuns(MockHttpServletRequestBuilder cerere) throws Exception {
+		MvcResult pornit = mvc.perform(cerere).andExpect(request().asyncStarted()).andReturn();
+		return mvc.perform(asyncDispatch(pornit));
+	}
+
+	private Cookie sesiune(Session ses) {
+		return new Cookie(sesiuni.numeCookie(), sesiuni.creeaza(Map.of("currentSession", ses)));
+	}
+}
@@ -0,0 +1,169 @@
+package aplicatie_standup.app_standup;
+
+import aplicatie_standup.app_standup.model.Session;
+import aplicatie_standup.app_standup.service.OccupancyTracker;
+import aplicatie_standup.app_standup.session.ExternalSessionFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ConditionalGetTests {
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private ExternalSessionFilter sesiuni;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Autowired
+	private OccupancyTracker ocupare;
+
+	@Autowired
+	private MeterRegistry registry;
+
+	@LocalServerPort
+	private int port;
+
+	private int idSpectacol;
+	private int idSpectator;
+
+	@BeforeAll
+	void date() throws Exception {
+		jdbc.update("INSERT INTO Locatie (Nume_Locatie, Adresa, Oras, Capacitate) VALUES ('Sala Etag', 'Str. 9', 'Arad', 100)");
+		jdbc.update("INSERT INTO Spectacol (Titlu, Data_Spectacol, Ora, Pret_Bilet, ID_Locatie) " +
+				"SELECT 'Show Etag', '2031-03-01', '20:00:00', 40, MAX(ID_Locatie) FROM Locatie");
+		idSpectacol = jdbc.queryForObject("SELECT MAX(ID_Spectacol) FROM Spectacol", Integer.class);
+		jdbc.update("INSERT INTO Spectator (Nume_Spectator, Email_Spectator, Telefon_Spectator) VALUES ('Ana Etag', 'ana.etag@gmail.com', 'etag-01')");
+		idSpectator = jdbc.queryForObject("SELECT MAX(ID_Spectator) FROM Spectator", Integer.class);
+		ocupare.reconciliaza();
+	}
+
+	@Test
+	void paginaNemodificataPrimeste304FaraSql() throws Exception {
+		Cookie admin = sesiune(new Session("admin", "admin", null));
+		String etag = mvc.perform(get("/artisti").cookie(admin))
+				.andExpect(status().isOk())
+				.andExpect(header().string("Cache-Control", "private, no-cache"))
+				.andExpect(header().exists("Last-Modified"))
+				.andReturn().getResponse().getHeader("ETag");
+		assertNotNull(etag);
+		assertTrue(etag.startsWith("W/"), etag);
+
+		double selecturi = registry.get("sql.pregatiri").tag("nume", "select artist").counter().count();
+		mvc.perform(get("/artisti").cookie(admin).header("If-None-Match", etag))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string("ETag", etag))
+				.andExpect(content().string(""));
+		assertEquals(selecturi, registry.get("sql.pregatiri").tag("nume", "select artist").counter().count());
+	}
+
+	@Test
+	void modificareaTabeluluiSchimbaEtagul() throws Exception {
+		Cookie admin = sesiune(new Session("admin", "admin", null));
+		String etag = mvc.perform(get("/artisti").cookie(admin)).andReturn().getResponse().getHeader("ETag");
+
+		mvc.perform(post("/artist/add").cookie(admin).param("nume", "Etag").param("prenume", "Nou")
+				.param("nationalitate", "Romana").param("varsta", "30").param("experienta", "2"));
+
+		mvc.perform(get("/artisti").cookie(admin).header("If-None-Match", etag))
+				.andExpect(status().isOk())
+				.andExpect(content().string(org.hamcrest.Matchers.containsString("Etag")))
+				.andExpect(header().string("ETag", org.hamcrest.Matchers.not(etag)));
+	}
+
+	@Test
+	void cumparareaSchimbaListaDeSpectacole() throws Exception {
+		Cookie user = sesiune(new Session("ana", "user", idSpectator));
+		String etag = mvc.perform(get("/spectacole").cookie(user)).andReturn().getResponse().getHeader("ETag");
+		mvc.perform(get("/spectacole").cookie(user).header("If-None-Match", etag)).andExpect(status().isNotModified());
+
+		mvc.perform(post("/bilet/buy").param("id_spectacol", String.valueOf(idSpectacol)).cookie(user));
+
+		// Coloana Locuri s-a schimbat
+		mvc.perform(get("/spectacole").cookie(user).header("If-None-Match", etag)).andExpect(status().isOk());
+	}
+
+	@Test
+	void rezervareaEliberataNuSchimbaEtagul() throws Exception {
+		Cookie user = sesiune(new Session("ana", "user", idSpectator));
+		String etag = mvc.perform(get("/spectacole").cookie(user)).andReturn().getResponse().getHeader("ETag");
+
+		// O cumparare al carei bilet nu a ajuns in baza
+		assertTrue(ocupare.rezerva(idSpectacol));
+		ocupare.elibereaza(idSpectacol);
+
+		mvc.perform(get("/spectacole").cookie(user).header("If-None-Match", etag)).andExpect(status().isNotModified());
+	}
+
+	@Test
+	void fiecareUtilizatorAreEtagulLui() throws Exception {
+		String admin = mvc.perform(get("/locatii").cookie(sesiune(new Session("admin", "admin", null))))
+				.andReturn().getResponse().getHeader("ETag");
+		mvc.perform(get("/locatii").cookie(sesiune(new Session("ana", "user", idSpectator))).header("If-None-Match", admin))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void paginaCuMesajFlashNuPrimesteEtag() throws Exception {
+		Cookie admin = sesiune(new Session("admin", "admin", null));
+		mvc.perform(post("/organizator/add").cookie(admin).param("nume", "Org Etag")
+				.param("email", "org.etag@gmail.com").param("telefon", "0733333333"))
+				.andExpect(redirectedUrl("/organizatori"));
+		// Pagina la care duce redirect-ul arata mesajul o singura data
+		mvc.perform(get("/organizatori").cookie(admin))
+				.andExpect(status().isOk())
+				.andExpect(content().string(org.hamcrest.Matchers.containsString("Adăugat!")))
+				.andExpect(header().doesNotExist("ETag"));
+		mvc.perform(get("/organizatori").cookie(admin))
+				.andExpect(header().exists("ETag"));
+	}
+
+	@Test
+	void paginileMariSuntComprimate() throws Exception {
+		String cookie = sesiuni.numeCookie() + "=" + sesiuni.creeaza(Map.of("currentSession", new Session("admin", "admin", null)));
+		HttpClient http = HttpClient.newHttpClient();
+		HttpRequest.Builder cerere = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/raport")).header("Cookie", cookie);
+
+		HttpResponse<byte[]> necomprimat = http.send(cerere.build(), HttpResponse.BodyHandlers.ofByteArray());
+		HttpResponse<byte[]> comprimat = http.send(cerere.header("Accept-Encoding", "gzip").build(), HttpResponse.BodyHandlers.ofByteArray());
+
+		assertEquals(200, comprimat.statusCode());
+		assertEquals("gzip", comprimat.headers().firstValue("Content-Encoding").orElse(null));
+		assertTrue(comprimat.body().length < necomprimat.body().length / 2,
+				comprimat.body().length + " / " + necomprimat.body().length);
+		String html = new String(new GZIPInputStream(new ByteArrayInputStream(comprimat.body())).readAllBytes(), StandardCharsets.UTF_8);
+		assertTrue(html.contains("</html>"));
+	}
+
+	private Cookie sesiune(Session ses) {
+		return new Cookie(sesiuni.numeCookie(), sesiuni.creeaza(Map.of("currentSession", ses)));
+	}
+}
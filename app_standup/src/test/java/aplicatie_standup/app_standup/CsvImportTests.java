@@ -0,0 +1,142 @@
+package aplicatie_standup.app_standup;
+
+import aplicatie_standup.app_standup.model.Session;
+import aplicatie_standup.app_standup.service.SearchIndex;
+import aplicatie_standup.app_standup.session.ExternalSessionFilter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class CsvImportTests {
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private ExternalSessionFilter sesiuni;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Autowired
+	private SearchIndex searchIndex;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	void importa100kArtisti() throws Exception {
+		int randuri = 100_000;
+		StringBuilder csv = new StringBuilder("nume,prenume,nationalitate,varsta,experienta\n");
+		for (int i = 0; i < randuri; i++) csv.append("ImportMasa").append(i).append(",Ion,Romana,").append(20 + i % 50).append(",").append(i % 20).append('\n');
+
+		// Scris pe langa aplicatie: o reconstruire completa a indexului l-ar gasi
+		jdbc.update("INSERT INTO Artist (Nume_Artist, Prenume_Artist, Nationalitate, Varsta, Experienta_Ani) VALUES ('NeindexatDirect', 'Ion', 'Romana', 30, 1)");
+		JsonNode raport = importa("artist", csv.toString());
+
+		assertEquals(randuri, raport.get("importate").asInt());
+		assertEquals(0, raport.get("respinse").asInt());
+		assertEquals(randuri, jdbc.queryForObject("SELECT COUNT(*) FROM Artist WHERE Nume_Artist LIKE 'ImportMasa%'", Integer.class));
+		// Randurile importate au intrat in indexul de cautare, fara ca tabelul sa fie recitit
+		assertEquals(1, searchIndex.cauta(SearchIndex.Entitate.ARTIST, "ImportMasa99999").length);
+		assertEquals(0, searchIndex.cauta(SearchIndex.Entitate.ARTIST, "NeindexatDirect").length);
+	}
+
+	@Test
+	void randurileGresiteAparInRaportCuLinia() throws Exception {
+		String csv = """
+				nume;email;telefon
+				Org Import 1;org.import1@gmail.com;0733000001
+				Org Import 2;org.import2@yahoo.com;0733000002
+				"Org; Import 3";org.import3@gmail.com;07330
+				Org Import 4;org.import4@gmail.com
+				"Org ""Import"" 5";org.import5@gmail.com;0733000005
+				""";
+		JsonNode raport = importa("organizator", csv);
+
+		assertEquals(2, raport.get("importate").asInt());
+		assertEquals(3, raport.get("respinse").asInt());
+		assertEquals("Linia 3: Email-ul trebuie să fie de tip @gmail.com!", raport.get("erori").get(0).asText());
+		assertEquals("Linia 4: Telefonul trebuie să aibă exact 10 cifre!", raport.get("erori").get(1).asText());
+		assertTrue(raport.get("erori").get(2).asText().startsWith("Linia 5: are 2 coloane"));
+		assertEquals(1, jdbc.queryForObject("SELECT COUNT(*) FROM Organizator WHERE Nume_Organizator = 'Org \"Import\" 5'", Integer.class));
+	}
+
+	@Test
+	void lotulRespinsDeBazaSeReiaRandCuRand() throws Exception {
+		jdbc.update("INSERT INTO Locatie (Nume_Locatie, Adresa, Oras, Capacitate) VALUES ('Sala Import', 'Str. 4', 'Brasov', 100)");
+		jdbc.update("INSERT INTO Organizator (Nume_Organizator, Email_Organizator, Telefon_Organizator) VALUES ('Org Sala Import', 'org.sala.import@gmail.com', '0744000000')");
+		int idLoc = jdbc.queryForObject("SELECT MAX(ID_Locatie) FROM Locatie", Integer.class);
+		int idOrg = jdbc.queryForObject("SELECT MAX(ID_Organizator) FROM Organizator", Integer.class);
+
+		String csv = "titlu,data,ora,pret,idloc,idorg\n" +
+				"Import A,2032-01-10,20:00,50," + idLoc + "," + idOrg + "\n" +
+				"Import B,2032-01-11,20:00,50,999999," + idOrg + "\n" +
+				"Import C,2032-13-40,20:00,50," + idLoc + "," + idOrg + "\n" +
+				"Import D,2032-01-12,21:30:00,55.5," + idLoc + "," + idOrg + "\n";
+		JsonNode raport = importa("spectacol", csv);
+
+		assertEquals(2, raport.get("importate").asInt());
+		assertEquals(2, raport.get("respinse").asInt());
+		assertEquals("Linia 4: Formatul datei este incorect! (Trebuie: YYYY-MM-DD)", raport.get("erori").get(0).asText());
+		assertTrue(raport.get("erori").get(1).asText().startsWith("Linia 3: "));
+		assertEquals(2, jdbc.queryForObject("SELECT COUNT(*) FROM Spectacol WHERE Titlu IN ('Import A', 'Import D')", Integer.class));
+	}
+
+	@Test
+	void formularulDinPaginaSiErorileDeFisier() throws Exception {
+		Cookie admin = sesiune(new Session("admin", "admin", null));
+		MockMultipartFile fisier = new MockMultipartFile("fisier", "locatii.csv", "text/csv",
+				"\uFEFFnume,adresa,oras,capacitate\nSala CSV,Str. 5,Oradea,250\nSala CSV 2,Str. 6,Oradea2,10\n".getBytes(StandardCharsets.UTF_8));
+		mvc.perform(multipart("/import/locatie").file(fisier).cookie(admin))
+				.andExpect(redirectedUrl("/locatii"))
+				.andExpect(flash().attribute("success", containsString("Importate: 1 rânduri")))
+				.andExpect(flash().attribute("error", containsString("Linia 3: Orașul nu poate conține cifre!")));
+
+		trimite(post("/api/import/locatie").cookie(admin).contentType("text/csv").content("nume,capacitate,etaj\nX,1,2\n"))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.error", containsString("etaj")));
+		trimite(post("/api/import/locatie").cookie(sesiune(new Session("ana", "user", 1))).contentType("text/csv").content("nume\nX\n"))
+				.andExpect(status().isForbidden());
+	}
+
+	private JsonNode importa(String tip, String csv) throws Exception {
+		Cookie admin = sesiune(new Session("admin", "admin", null));
+		String raspuns = trimite(post("/api/import/" + tip).cookie(admin).contentType("text/csv").content(csv.getBytes(StandardCharsets.UTF_8)))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+		return objectMapper.readTree(raspuns);
+	}
+
+	// Raspunsul JSON este un StreamingResponseBody, scris asincron
+	private ResultActions trimite(MockHttpServletRequestBuilder cerere) throws Exception {
+		MvcResult pornit = mvc.perform(cerere).andExpect(request().asyncStarted()).andReturn();
+		return mvc.perform(asyncDispatch(pornit));
+	}
+
+	private Cookie sesiune(Session ses) {
+		return new Cookie(sesiuni.numeCookie(), sesiuni.creeaza(Map.of("currentSession", ses)));
+	}
+}
@@ -0,0 +1,91 @@
+package aplicatie_standup.app_standup;
+
+import aplicatie_standup.app_standup.db.Pagina;
+import aplicatie_standup.app_standup.model.SpectacolRow;
+import aplicatie_standup.app_standup.service.SearchIndex;
+import aplicatie_standup.app_standup.service.SpectacolCatalog;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "app.pagination.page-size=3")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class KeysetPaginationTests {
+
+	@Autowired
+	private SpectacolCatalog catalog;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Autowired
+	private SearchIndex searchIndex;
+
+	@BeforeAll
+	void date() throws Exception {
+		jdbc.update("INSERT INTO Locatie (Nume_Locatie, Capacitate) VALUES ('Alfa', 100)");
+		int alfa = jdbc.queryForObject("SELECT MAX(ID_Locatie) FROM Locatie", Integer.class);
+		jdbc.update("INSERT INTO Locatie (Nume_Locatie, Capacitate) VALUES ('Beta', 100)");
+		int beta = jdbc.queryForObject("SELECT MAX(ID_Locatie) FROM Locatie", Integer.class);
+
+		// Valori duplicate si NULL (spectacole fara locatie) pe coloana de sortare
+		Integer[] locatii = {beta, alfa, null, beta, alfa, null, beta, alfa, beta, null, alfa};
+		for (int i = 0; i < locatii.length; i++) {
+			jdbc.update("INSERT INTO Spectacol (Titlu, Data_Spectacol, Ora, Pret_Bilet, ID_Locatie) VALUES (?, ?, '20:00:00', ?, ?)",
+					"Paginare " + i, "2026-0" + (1 + i % 3) + "-15", 10 + i % 4, locatii[i]);
+		}
+		searchIndex.construieste();
+		catalog.invalideaza();
+	}
+
+	@Test
+	void paginileAcoperaTotFaraDubluri() throws Exception {
+		for (String sortBy : List.of("LOCATIE", "DATA", "PRET", "TITLU", "ID")) {
+			for (String sortDir : List.of("ASC", "DESC")) {
+				List<Integer> complet = ordineCompleta(sortBy, sortDir);
+				assertEquals(11, complet.size());
+
+				// Inainte, pagina cu pagina
+				List<Integer> inainte = new ArrayList<>();
+				Pagina<SpectacolRow> pagina = catalog.cauta("Paginare", sortBy, sortDir, null, null);
+				inainte.addAll(ids(pagina.randuri()));
+				while (pagina.cursorUrmator() != null) {
+					pagina = catalog.cauta("Paginare", sortBy, sortDir, pagina.cursorUrmator(), null);
+					assertNotNull(pagina.cursorAnterior());
+					inainte.addAll(ids(pagina.randuri()));
+				}
+				assertEquals(complet, inainte, sortBy + " " + sortDir);
+
+				// Inapoi de la ultima pagina pana la prima
+				List<Integer> inapoi = new ArrayList<>(ids(pagina.randuri()));
+				while (pagina.cursorAnterior() != null) {
+					pagina = catalog.cauta("Paginare", sortBy, sortDir, null, pagina.cursorAnterior());
+					inapoi.addAll(0, ids(pagina.randuri()));
+				}
+				assertEquals(complet, inapoi, sortBy + " " + sortDir);
+				assertNull(pagina.cursorAnterior());
+			}
+		}
+	}
+
+	// Ordinea de referinta, citita direct cu ORDER BY coloana, ID
+	private List<Integer> ordineCompleta(String sortBy, String sortDir) {
+		String coloana = Map.of("LOCATIE", "l.Nume_Locatie", "DATA", "s.Data_Spectacol", "PRET", "s.Pret_Bilet",
+				"TITLU", "s.Titlu", "ID", "s.ID_Spectacol").get(sortBy);
+		return jdbc.queryForList("SELECT s.ID_Spectacol FROM Spectacol s LEFT JOIN Locatie l ON s.ID_Locatie = l.ID_Locatie " +
+				"WHERE s.Titlu LIKE 'Paginare%' ORDER BY " + coloana + " " + sortDir + ", s.ID_Spectacol " + sortDir, Integer.class);
+	}
+
+	private static List<Integer> ids(List<SpectacolRow> randuri) {
+		return randuri.stream().map(SpectacolRow::id).toList();
+	}
+}
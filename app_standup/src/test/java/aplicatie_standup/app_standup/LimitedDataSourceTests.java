@@ -0,0 +1,68 @@
+package aplicatie_standup.app_standup;
+
+import aplicatie_standup.app_standup.db.LimitedDataSource;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LimitedDataSourceTests {
+
+	private static LimitedDataSource limitat(int max, long timeoutMs) {
+		JdbcDataSource h2 = new JdbcDataSource();
+		h2.setURL("jdbc:h2:mem:limitator;DB_CLOSE_DELAY=-1");
+		return new LimitedDataSource(h2, max, timeoutMs);
+	}
+
+	@Test
+	void refuzaPesteLimitaSiElibereazaLaInchidere() throws Exception {
+		LimitedDataSource ds = limitat(2, 100);
+		Connection a = ds.getConnection();
+		Connection b = ds.getConnection();
+		assertEquals(2, ds.inLucru());
+		assertThrows(SQLTransientConnectionException.class, ds::getConnection);
+
+		a.close();
+		a.close(); // al doilea close nu elibereaza inca o permisiune
+		assertEquals(1, ds.inLucru());
+		try (Connection c = ds.getConnection()) {
+			assertTrue(c.isValid(1));
+			assertEquals(2, ds.inLucru());
+			assertThrows(SQLTransientConnectionException.class, ds::getConnection);
+		}
+		b.close();
+		assertEquals(0, ds.inLucru());
+	}
+
+	@Test
+	void fireleVirtualeNuDepasescLimita() throws Exception {
+		LimitedDataSource ds = limitat(4, 10_000);
+		AtomicInteger maxVazut = new AtomicInteger();
+		List<Future<?>> rezultate = new ArrayList<>();
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int i = 0; i < 200; i++) {
+				rezultate.add(executor.submit(() -> {
+					try (Connection c = ds.getConnection()) {
+						maxVazut.accumulateAndGet(ds.inLucru(), Math::max);
+						Thread.sleep(2);
+						c.createStatement().execute("SELECT 1");
+					}
+					return null;
+				}));
+			}
+			for (Future<?> r : rezultate) r.get();
+		}
+		assertTrue(maxVazut.get() <= 4, "max " + maxVazut.get());
+		assertEquals(0, ds.inLucru());
+		assertEquals(0, ds.inAsteptare());
+	}
+}
@@ -0,0 +1,95 @@
+package aplicatie_standup.app_standup;
+
+import aplicatie_standup.app_standup.service.LoginService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class LoginTests {
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Autowired
+	private MeterRegistry registry;
+
+	@Autowired
+	private LoginService loginService;
+
+	@Test
+	void parolaInClarEsteRescrisaCuHash() throws Exception {
+		jdbc.update("INSERT INTO Utilizator (Username, Parola, Rol) VALUES ('login-vechi', 'secret1', 'admin')");
+
+		login("login-vechi", "secret1", "10.0.0.1").andExpect(redirectedUrl("/spectacole"));
+		String parola = jdbc.queryForObject("SELECT Parola FROM Utilizator WHERE Username = 'login-vechi'", String.class);
+		assertTrue(parola.startsWith("$2a$10$"), parola);
+
+		login("login-vechi", "secret1", "10.0.0.1").andExpect(redirectedUrl("/spectacole"));
+		login("login-vechi", "secret2", "10.0.0.1").andExpect(content().string(containsString("incorecte")));
+	}
+
+	@Test
+	void esecurileRepetateBlocheazaUtilizatorul() throws Exception {
+		jdbc.update("INSERT INTO Utilizator (Username, Parola, Rol) VALUES ('login-blocat', 'secret1', 'admin')");
+		for (int i = 0; i < 5; i++) {
+			login("login-blocat", "gresit" + i, "10.0.0.2").andExpect(content().string(containsString("incorecte")));
+		}
+		double blocateInainte = registry.get("login.incercari").tag("rezultat", "blocat").counter().count();
+
+		// Blocat pe username, indiferent de IP si chiar cu parola corecta
+		login("login-blocat", "secret1", "10.0.0.3").andExpect(content().string(containsString("Prea multe")));
+		assertEquals(blocateInainte + 1, registry.get("login.incercari").tag("rezultat", "blocat").counter().count());
+	}
+
+	@Test
+	void inregistrareaInvalideazaCacheul() throws Exception {
+		login("login-nou", "secret1", "10.0.0.4").andExpect(content().string(containsString("incorecte")));
+
+		mvc.perform(post("/register")
+						.param("regUsername", "login-nou").param("regPassword", "secret1")
+						.param("regNume", "Spectator Login").param("regEmail", "login.nou@gmail.com")
+						.param("regTelefon", "0700000015"))
+				.andExpect(content().string(containsString("Cont creat")));
+		String parola = jdbc.queryForObject("SELECT Parola FROM Utilizator WHERE Username = 'login-nou'", String.class);
+		assertTrue(parola.startsWith("$2a$"), parola);
+
+		login("login-nou", "secret1", "10.0.0.4").andExpect(redirectedUrl("/spectacole"));
+	}
+
+	@Test
+	void cacheulNuTineSeamaDeMajusculeDupaRescriere() throws Exception {
+		jdbc.update("INSERT INTO Utilizator (Username, Parola, Rol) VALUES ('Login-Mixt', 'secret1', 'admin')");
+		login("LOGIN-MIXT", "gresit", "10.0.0.5").andExpect(content().string(containsString("incorecte")));
+		// Rescrierea cu hash invalideaza contul, oricum ar fi scris username-ul
+		login("login-mixt", "secret1", "10.0.0.5").andExpect(redirectedUrl("/spectacole"));
+
+		jdbc.update("UPDATE Utilizator SET Parola = ? WHERE Username = 'Login-Mixt'", loginService.hash("secret2"));
+		loginService.invalideaza("Login-Mixt");
+
+		login("LOGIN-MIXT", "secret1", "10.0.0.5").andExpect(content().string(containsString("incorecte")));
+		login("LOGIN-MIXT", "secret2", "10.0.0.5").andExpect(redirectedUrl("/spectacole"));
+	}
+
+	private ResultActions login(String username, String parola, String ip) throws Exception {
+		return mvc.perform(post("/login").param("username", username).param("password", parola)
+				.with(cerere -> {
+					cerere.setRemoteAddr(ip);
+					return cerere;
+				}));
+	}
+}
@@ -0,0 +1,95 @@
+package aplicatie_standup.app_standup;
+
+import aplicatie_standup.app_standup.db.InstrumentedDataSource;
+import aplicatie_standup.app_standup.db.SqlMetrics;
+import aplicatie_standup.app_standup.model.Session;
+import aplicatie_standup.app_standup.session.ExternalSessionFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.Cookie;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "management.endpoints.web.exposure.include=prometheus")
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ExtendWith(OutputCaptureExtension.class)
+class MetricsTests {
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private ExternalSessionFilter sesiuni;
+
+	@Test
+	void prometheusArataSqlHandlerSiRandare() throws Exception {
+		Cookie admin = sesiune(new Session("admin", "admin", null));
+		mvc.perform(get("/bilete").cookie(admin)).andExpect(status().isOk());
+
+		mvc.perform(get("/actuator/prometheus"))
+				.andExpect(status().isOk())
+				.andExpect(content().string(containsString("sql_executare_seconds_count{nume=\"sqlRecent\"")))
+				.andExpect(content().string(containsString("sql_randuri_count{nume=\"select bilet\"")))
+				.andExpect(content().string(containsString("db_conexiune_seconds_count")))
+				.andExpect(content().string(containsString("http_handler_seconds_count{handler=\"SpectacoleController.bilete\"")))
+				.andExpect(content().string(containsString("view_render_seconds_count{view=\"bilete\"")));
+	}
+
+	@Test
+	void numeleInterogarilor() {
+		assertEquals("complexa1", SqlMetrics.nume("/* complexa1 */ SELECT T.Titlu FROM (SELECT ...) AS T"));
+		assertEquals("select bilet", SqlMetrics.nume("SELECT TOP 51 b.ID_Bilet FROM Bilet b LEFT JOIN Spectacol s ON 1 = 1"));
+		assertEquals("insert bilet", SqlMetrics.nume("INSERT INTO Bilet (ID_Spectacol) VALUES (?)"));
+		assertEquals("update spectacol", SqlMetrics.nume("UPDATE Spectacol SET Titlu=? WHERE ID_Spectacol=?"));
+		assertEquals("delete artist", SqlMetrics.nume("DELETE FROM Artist WHERE ID_Artist=?"));
+	}
+
+	@Test
+	void interogarileLenteAjungInLog(CapturedOutput output) throws Exception {
+		JdbcDataSource h2 = new JdbcDataSource();
+		h2.setURL("jdbc:h2:mem:metrici;DB_CLOSE_DELAY=-1");
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		InstrumentedDataSource ds = new InstrumentedDataSource(h2);
+		ds.activeaza(new SqlMetrics(registry, 0));
+
+		try (Connection conn = ds.getConnection(); Statement st = conn.createStatement()) {
+			st.execute("CREATE TABLE IF NOT EXISTS Numere (N INT)");
+			st.executeUpdate("INSERT INTO Numere SELECT X FROM SYSTEM_RANGE(1, 5)");
+			try (PreparedStatement ps = conn.prepareStatement("/* numere */ SELECT N FROM Numere WHERE N > ?")) {
+				ps.setInt(1, 2);
+				try (ResultSet rs = ps.executeQuery()) {
+					while (rs.next()) rs.getInt(1);
+				}
+			}
+		}
+
+		assertEquals(1, registry.get("sql.executare").tag("nume", "numere").timer().count());
+		assertEquals(3.0, registry.get("sql.randuri").tag("nume", "numere").summary().totalAmount());
+		assertEquals(5.0, registry.get("sql.randuri").tag("nume", "insert numere").summary().totalAmount());
+		assertTrue(output.getOut().contains("SQL lent [numere]"), output.getOut());
+	}
+
+	private Cookie sesiune(Session ses) {
+		return new Cookie(sesiuni.numeCookie(), sesiuni.creeaza(Map.of("currentSession", ses)));
+	}
+}
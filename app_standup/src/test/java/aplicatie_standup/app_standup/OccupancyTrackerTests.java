@@ -0,0 +1,113 @@
+package aplicatie_standup.app_standup;
+
+import aplicatie_standup.app_standup.model.Session;
+import aplicatie_standup.app_standup.service.BiletPurchaseEngine;
+import aplicatie_standup.app_standup.service.OccupancyTracker;
+import aplicatie_standup.app_standup.service.SearchIndex;
+import aplicatie_standup.app_standup.service.SpectacolCatalog;
+import aplicatie_standup.app_standup.session.ExternalSessionFilter;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class OccupancyTrackerTests {
+
+	@Autowired
+	private OccupancyTracker ocupare;
+
+	@Autowired
+	private BiletPurchaseEngine engine;
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private ExternalSessionFilter sesiuni;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Autowired
+	private SearchIndex searchIndex;
+
+	@Autowired
+	private SpectacolCatalog catalog;
+
+	@Autowired
+	private TestDate date;
+
+	@Test
+	void reconciliereaCorecteazaBileteleScrisePeAltaCale() throws Exception {
+		int idSpectacol = date.spectacol("Ocupare Deriva", 10);
+		int idSpectator = date.spectator("deriva");
+		engine.cumpara(idSpectacol, idSpectator);
+		assertEquals(9, ocupare.ramase(idSpectacol));
+
+		// Bilete adaugate si sterse direct in baza: contorul din memorie nu le vede
+		for (int i = 0; i < 3; i++) {
+			jdbc.update("INSERT INTO Bilet (ID_Spectacol, ID_Spectator, Data_Cumparare, Cod_Bilet) VALUES (?, ?, CURRENT_TIMESTAMP, ?)",
+					idSpectacol, idSpectator, "DERIVA0" + i);
+		}
+		assertEquals(9, ocupare.ramase(idSpectacol));
+
+		assertTrue(ocupare.reconciliaza() >= 1);
+		assertEquals(6, ocupare.ramase(idSpectacol));
+		ocupare.reconciliaza();
+		assertEquals(6, ocupare.ramase(idSpectacol));
+
+		jdbc.update("DELETE FROM Bilet WHERE ID_Spectacol = ? AND Cod_Bilet LIKE 'DERIVA%'", idSpectacol);
+		ocupare.reconciliaza();
+		assertEquals(9, ocupare.ramase(idSpectacol));
+	}
+
+	@Test
+	void listaArataLocurileRamaseSiStergereaScoateSpectacolul() throws Exception {
+		int idSpectacol = date.spectacol("Ocupare Lista", 2);
+		int idSpectator = date.spectator("lista");
+		searchIndex.construieste();
+		catalog.invalideaza();
+		ocupare.reconciliaza();
+
+		Cookie admin = sesiune(new Session("admin", "admin", null));
+		mvc.perform(get("/spectacole").param("q", "Ocupare Lista").cookie(admin))
+				.andExpect(content().string(containsString("<td>2</td>")));
+
+		engine.cumpara(idSpectacol, idSpectator);
+		engine.cumpara(idSpectacol, idSpectator);
+		catalog.invalideaza();
+		mvc.perform(get("/spectacole").param("q", "Ocupare Lista").cookie(admin))
+				.andExpect(content().string(containsString("Epuizat")));
+
+		mvc.perform(post("/spectacol/delete").param("id", String.valueOf(idSpectacol)).cookie(admin));
+		assertEquals(Map.of(), ocupare.ramase(List.of(idSpectacol)));
+		assertThrows(RuntimeException.class, () -> ocupare.ramase(idSpectacol));
+	}
+
+	@Test
+	void gradulDeOcupareVineDinContoare() throws Exception {
+		int idSpectacol = date.spectacol("Ocupare Raport", 4);
+		engine.cumpara(idSpectacol, date.spectator("raport"));
+
+		assertTrue(ocupare.gradOcupare().stream()
+				.anyMatch(g -> g.nume().equals("Sala Ocupare Raport") && g.procent().equals(String.format("%.2f %%", 25.0))));
+	}
+
+	private Cookie sesiune(Session ses) {
+		return new Cookie(sesiuni.numeCookie(), sesiuni.creeaza(Map.of("currentSession", ses)));
+	}
+}
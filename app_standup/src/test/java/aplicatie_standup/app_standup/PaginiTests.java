@@ -0,0 +1,85 @@
+package aplicatie_standup.app_standup;
+
+import aplicatie_standup.app_standup.model.Session;
+import aplicatie_standup.app_standup.service.SearchIndex;
+import aplicatie_standup.app_standup.session.ExternalSessionFilter;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PaginiTests {
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private ExternalSessionFilter sesiuni;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Autowired
+	private SearchIndex searchIndex;
+
+	private int idSpectator;
+
+	@BeforeAll
+	void date() throws Exception {
+		jdbc.update("INSERT INTO Locatie (Nume_Locatie, Adresa, Oras, Capacitate) VALUES ('Sala Pagini', 'Str. Lunga 2', 'Iasi', 300)");
+		jdbc.update("INSERT INTO Organizator (Nume_Organizator, Email_Organizator, Telefon_Organizator) VALUES ('Org Pagini', 'org.pagini@gmail.com', '0711111111')");
+		jdbc.update("INSERT INTO Artist (Nume_Artist, Prenume_Artist, Nationalitate, Varsta, Experienta_Ani) VALUES ('Popescu', 'Ion', 'Romana', 30, 5)");
+		jdbc.update("INSERT INTO Spectacol (Titlu, Data_Spectacol, Ora, Pret_Bilet, ID_Locatie, ID_Organizator) " +
+				"SELECT 'Show Pagini', '2030-05-01', '19:30:00', 75.50, MAX(l.ID_Locatie), MAX(o.ID_Organizator) FROM Locatie l, Organizator o");
+		jdbc.update("INSERT INTO Spectator (Nume_Spectator, Email_Spectator, Telefon_Spectator) VALUES ('Spectator Pagini', 'sp.pagini@gmail.com', '0722222222')");
+		idSpectator = jdbc.queryForObject("SELECT MAX(ID_Spectator) FROM Spectator", Integer.class);
+		jdbc.update("INSERT INTO Bilet (ID_Spectacol, ID_Spectator, Data_Cumparare, Cod_Bilet) " +
+				"SELECT MAX(ID_Spectacol), ?, CURRENT_TIMESTAMP, 'PAGINI01' FROM Spectacol", idSpectator);
+		// Datele sunt scrise direct in baza, nu prin endpoint-uri
+		searchIndex.construieste();
+	}
+
+	@Test
+	void paginileSeRandeazaPentruAdmin() throws Exception {
+		Cookie admin = sesiune(new Session("admin", "admin", null));
+		for (String pagina : new String[]{"/spectacole", "/bilete", "/artisti", "/locatii", "/organizatori", "/raport"}) {
+			mvc.perform(get(pagina).cookie(admin)).andExpect(status().isOk());
+		}
+		mvc.perform(get("/spectacole").param("q", "Pagini").cookie(admin))
+				.andExpect(status().isOk())
+				.andExpect(content().string(org.hamcrest.Matchers.containsString("Show Pagini")))
+				.andExpect(content().string(org.hamcrest.Matchers.containsString("01/05/2030")))
+				.andExpect(content().string(org.hamcrest.Matchers.containsString("19:30:00")));
+	}
+
+	@Test
+	void paginileSeRandeazaPentruSpectator() throws Exception {
+		Cookie user = sesiune(new Session("user", "user", idSpectator));
+		mvc.perform(get("/spectacole").cookie(user)).andExpect(status().isOk());
+		mvc.perform(get("/bilete").cookie(user))
+				.andExpect(status().isOk())
+				.andExpect(content().string(org.hamcrest.Matchers.containsString("PAGINI01")));
+	}
+
+	@Test
+	void faraSesiuneRedirectLaLogin() throws Exception {
+		mvc.perform(get("/spectacole")).andExpect(redirectedUrl("/"));
+	}
+
+	private Cookie sesiune(Session ses) {
+		return new Cookie(sesiuni.numeCookie(), sesiuni.creeaza(Map.of("currentSession", ses)));
+	}
+}
@@ -0,0 +1,148 @@
+package aplicatie_standup.app_standup;
+
+import aplicatie_standup.app_standup.model.VanzareRow;
+import aplicatie_standup.app_standup.repository.SpectacolRepository;
+import aplicatie_standup.app_standup.service.BiletPurchaseEngine;
+import aplicatie_standup.app_standup.service.ReportQueries;
+import aplicatie_standup.app_standup.service.SalesAggregates;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class RaportAggregatesTests {
+
+	private static final LocalDate START = LocalDate.of(2024, 1, 1);
+	private static final LocalDate END = LocalDate.of(2030, 12, 31);
+	// Cod_Bilet este unic
+	private static final AtomicInteger BILETE = new AtomicInteger();
+
+	@Autowired
+	private SalesAggregates agregate;
+
+	@Autowired
+	private ReportQueries sql;
+
+	@Autowired
+	private BiletPurchaseEngine engine;
+
+	@Autowired
+	private SpectacolRepository spectacoleRepo;
+
+	@Autowired
+	private MeterRegistry registry;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Test
+	void agregateleDauAcelasiRaportCaSql() throws Exception {
+		Random random = new Random(42);
+		// Ca la pornire: alte teste au scris direct in baza
+		agregate.invalideaza();
+
+		// Locatii: cu capacitate, capacitate 0, fara capacitate, fara spectacole
+		Integer[] locatii = {
+				id("INSERT INTO Locatie (Nume_Locatie, Capacitate) VALUES ('Raport Mare', 100000)", "Locatie"),
+				id("INSERT INTO Locatie (Nume_Locatie, Capacitate) VALUES ('Raport Zero', 0)", "Locatie"),
+				id("INSERT INTO Locatie (Nume_Locatie) VALUES ('Raport Null')", "Locatie"),
+				null};
+		id("INSERT INTO Locatie (Nume_Locatie, Capacitate) VALUES ('Raport Goala', 500)", "Locatie");
+
+		// Doi organizatori cu acelasi nume (COMPLEXA 2 grupeaza dupa nume), unul fara spectacole
+		Integer[] organizatori = {
+				id("INSERT INTO Organizator (Nume_Organizator) VALUES ('Raport Org A')", "Organizator"),
+				id("INSERT INTO Organizator (Nume_Organizator) VALUES ('Raport Org A')", "Organizator"),
+				id("INSERT INTO Organizator (Nume_Organizator) VALUES ('Raport Org B')", "Organizator"),
+				null};
+		id("INSERT INTO Organizator (Nume_Organizator) VALUES ('Raport Org Fara')", "Organizator");
+
+		String[] preturi = {"50.00", "75.50", "0.00", null, "120.25"};
+		List<Integer> spectacole = new ArrayList<>();
+		for (int i = 0; i < 30; i++) {
+			String pret = preturi[random.nextInt(preturi.length)];
+			jdbc.update("INSERT INTO Spectacol (Titlu, Data_Spectacol, Ora, Pret_Bilet, ID_Locatie, ID_Organizator) VALUES (?, ?, '20:00:00', ?, ?, ?)",
+					"Raport " + (i % 20), LocalDate.of(2023 + random.nextInt(9), 1 + random.nextInt(12), 1 + random.nextInt(28)),
+					pret == null ? null : new BigDecimal(pret),
+					locatii[random.nextInt(locatii.length)], organizatori[random.nextInt(organizatori.length)]);
+			spectacole.add(jdbc.queryForObject("SELECT MAX(ID_Spectacol) FROM Spectacol", Integer.class));
+		}
+
+		List<Integer> spectatori = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			jdbc.update("INSERT INTO Spectator (Nume_Spectator, Email_Spectator, Telefon_Spectator) VALUES (?, ?, ?)",
+					"Raport Spectator " + i, "raport" + i + "@gmail.com", "07990000" + (10 + i));
+			spectatori.add(jdbc.queryForObject("SELECT MAX(ID_Spectator) FROM Spectator", Integer.class));
+		}
+		int fidel = spectatori.get(0);
+		Integer maxim = jdbc.queryForObject("SELECT MAX(Cnt) FROM (SELECT COUNT(*) AS Cnt FROM Bilet GROUP BY ID_Spectator) T", Integer.class);
+
+		// Bilete existente inainte de prima citire a agregatelor
+		for (int i = 0; i < 300; i++) {
+			bilet(spectacole.get(random.nextInt(spectacole.size())), spectatori.get(1 + random.nextInt(spectatori.size() - 1)));
+		}
+		for (int i = 0; i < (maxim == null ? 0 : maxim) + 40; i++) bilet(spectacole.get(random.nextInt(spectacole.size())), fidel);
+		compara();
+
+		// Bilete cumparate dupa constructie -> actualizare incrementala
+		for (int i = 0; i < 200; i++) {
+			int spectator = i % 4 == 0 ? fidel : spectatori.get(1 + random.nextInt(spectatori.size() - 1));
+			engine.cumpara(spectacole.get(random.nextInt(spectacole.size())), spectator);
+		}
+		compara();
+
+		// Editari si stergeri -> aplicate incremental, fara o noua citire completa
+		double reconstruiri = registry.get("raport.agregate.reconstruiri").tag("rezultat", "exact").counter().count();
+		jdbc.update("UPDATE Spectacol SET Pret_Bilet = 99.99, ID_Organizator = ? WHERE ID_Spectacol = ?", organizatori[2], spectacole.get(0));
+		jdbc.update("UPDATE Spectacol SET ID_Locatie = ?, ID_Organizator = NULL WHERE ID_Spectacol = ?", locatii[0], spectacole.get(1));
+		agregate.spectacoleSalvate(List.of(spectacole.get(0), spectacole.get(1)));
+		jdbc.update("UPDATE Locatie SET Capacitate = 250 WHERE ID_Locatie = ?", locatii[0]);
+		agregate.locatiiSalvate(List.of(locatii[0]));
+		jdbc.update("UPDATE Organizator SET Nume_Organizator = 'Raport Org C' WHERE ID_Organizator = ?", organizatori[1]);
+		agregate.organizatoriSalvati(List.of(organizatori[1]));
+		agregate.spectacolSters(spectacole.get(2), () -> spectacoleRepo.sterge(spectacole.get(2)));
+		engine.cumpara(spectacole.get(0), fidel);
+		compara();
+		assertEquals(reconstruiri, registry.get("raport.agregate.reconstruiri").tag("rezultat", "exact").counter().count());
+	}
+
+	private void compara() throws Exception {
+		for (LocalDate[] perioada : new LocalDate[][]{{START, END}, {LocalDate.of(2026, 1, 1), LocalDate.of(2026, 6, 30)}}) {
+			List<VanzareRow> asteptat = sql.vanzari(perioada[0], perioada[1]);
+			List<VanzareRow> obtinut = agregate.vanzari(perioada[0], perioada[1]);
+			assertFalse(asteptat.isEmpty());
+			// Ordinea dupa Total este aceeasi; la egalitate SQL nu garanteaza ordinea
+			assertEquals(asteptat.stream().map(VanzareRow::total).toList(), obtinut.stream().map(VanzareRow::total).toList());
+			assertEquals(sortat(asteptat), sortat(obtinut));
+		}
+		assertEquals(sql.topOrganizatori(), agregate.topOrganizatori());
+		assertEquals(sql.fidel(), agregate.fidel());
+		assertEquals(sortat(sql.gradOcupare()), sortat(agregate.gradOcupare()));
+	}
+
+	private void bilet(int idSpectacol, int idSpectator) {
+		jdbc.update("INSERT INTO Bilet (ID_Spectacol, ID_Spectator, Data_Cumparare, Cod_Bilet) VALUES (?, ?, CURRENT_TIMESTAMP, ?)",
+				idSpectacol, idSpectator, "RAPORT" + BILETE.incrementAndGet());
+	}
+
+	private Integer id(String insert, String tabel) {
+		jdbc.update(insert);
+		return jdbc.queryForObject("SELECT MAX(ID_" + tabel + ") FROM " + tabel, Integer.class);
+	}
+
+	private static <T> List<T> sortat(List<T> randuri) {
+		return randuri.stream().sorted(Comparator.comparing(Object::toString)).toList();
+	}
+}
@@ -0,0 +1,89 @@
+package aplicatie_standup.app_standup;
+
+import aplicatie_standup.app_standup.service.RegistrationService;
+import aplicatie_standup.app_standup.service.RegistrationService.Rezultat;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class RegistrationTests {
+
+	private static final int FIRE = 12;
+
+	@Autowired
+	private RegistrationService registrationService;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Test
+	void acelasiUsernameSimultanCreeazaUnSingurCont() throws Exception {
+		Map<Rezultat, Long> rezultate = simultan(i -> () -> registrationService.inregistreaza(
+				"reg-acelasi", "secret1", "Spectator " + i, "reg.acelasi" + i + "@gmail.com", String.format("07160000%02d", i)));
+
+		assertEquals(Map.of(Rezultat.CREAT, 1L, Rezultat.USERNAME_FOLOSIT, (long) FIRE - 1), rezultate);
+		assertEquals(1, jdbc.queryForObject("SELECT COUNT(*) FROM Utilizator WHERE Username = 'reg-acelasi'", Integer.class));
+		// Spectatorii inregistrarilor pierdute au fost anulati odata cu tranzactia
+		assertEquals(1, jdbc.queryForObject("SELECT COUNT(*) FROM Spectator WHERE Email_Spectator LIKE 'reg.acelasi%'", Integer.class));
+		assertEquals(0, orfani());
+	}
+
+	@Test
+	void acelasiEmailSimultanCreeazaUnSingurCont() throws Exception {
+		Map<Rezultat, Long> rezultate = simultan(i -> () -> registrationService.inregistreaza(
+				"reg-email" + i, "secret1", "Spectator " + i, "reg.email@gmail.com", String.format("07170000%02d", i)));
+
+		assertEquals(Map.of(Rezultat.CREAT, 1L, Rezultat.CONTACT_FOLOSIT, (long) FIRE - 1), rezultate);
+		assertEquals(1, jdbc.queryForObject("SELECT COUNT(*) FROM Utilizator WHERE Username LIKE 'reg-email%'", Integer.class));
+		assertEquals(0, orfani());
+	}
+
+	@Test
+	void duplicatulEsteRespinsDupaInregistrare() throws Exception {
+		assertEquals(Rezultat.CREAT, registrationService.inregistreaza("reg-unic", "secret1", "Unic", "reg.unic@gmail.com", "0718000001"));
+		assertEquals(Rezultat.USERNAME_FOLOSIT, registrationService.inregistreaza("reg-unic", "secret1", "Unic", "reg.alt@gmail.com", "0718000002"));
+		assertEquals(Rezultat.CONTACT_FOLOSIT, registrationService.inregistreaza("reg-alt", "secret1", "Alt", "reg.alt@gmail.com", "0718000001"));
+
+		// Randuri scrise direct in baza, pe langa filtru: constrangerea le respinge oricum
+		jdbc.update("INSERT INTO Spectator (Nume_Spectator, Email_Spectator, Telefon_Spectator) VALUES ('Direct', 'direct.reg@gmail.com', '0718000003')");
+		assertEquals(Rezultat.CONTACT_FOLOSIT, registrationService.inregistreaza("reg-direct", "secret1", "Direct", "direct.reg@gmail.com", "0718000004"));
+		assertEquals(0, jdbc.queryForObject("SELECT COUNT(*) FROM Utilizator WHERE Username = 'reg-direct'", Integer.class));
+	}
+
+	private int orfani() {
+		return jdbc.queryForObject("SELECT COUNT(*) FROM Spectator s WHERE s.Email_Spectator LIKE 'reg.%' " +
+				"AND NOT EXISTS (SELECT 1 FROM Utilizator u WHERE u.ID_Spectator = s.ID_Spectator)", Integer.class);
+	}
+
+	private Map<Rezultat, Long> simultan(IntFunction<Callable<Rezultat>> inregistrare) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(FIRE);
+		CountDownLatch start = new CountDownLatch(1);
+		try {
+			List<Future<Rezultat>> rezultate = new ArrayList<>();
+			for (int i = 0; i < FIRE; i++) {
+				Callable<Rezultat> c = inregistrare.apply(i);
+				rezultate.add(executor.submit(() -> {
+					start.await();
+					return c.call();
+				}));
+			}
+			start.countDown();
+			List<Rezultat> lista = new ArrayList<>();
+			for (Future<Rezultat> f : rezultate) lista.add(f.get(60, TimeUnit.SECONDS));
+			return lista.stream().collect(Collectors.groupingBy(r -> r, Collectors.counting()));
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
@@ -0,0 +1,103 @@
+package aplicatie_standup.app_standup;
+
+import aplicatie_standup.app_standup.model.GradOcupareRow;
+import aplicatie_standup.app_standup.model.VanzareRow;
+import aplicatie_standup.app_standup.model.VenitOrganizatorRow;
+import aplicatie_standup.app_standup.service.ReportQueries;
+import aplicatie_standup.app_standup.service.ReportService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportServiceTests {
+
+	private static final LocalDate ZI = LocalDate.of(2026, 1, 1);
+
+	@Test
+	void sectiunileRuleazaInParalel() throws Exception {
+		ReportService service = new ReportService(null, null, new SurseLente(200, 200), new SimpleMeterRegistry(), false, 5000, 10, false);
+
+		long t0 = System.nanoTime();
+		ReportService.Raport raport = service.genereaza(ZI, ZI);
+		long durataMs = (System.nanoTime() - t0) / 1_000_000;
+
+		// Secvential ar dura 5 x 200 ms
+		assertTrue(durataMs < 800, "durata " + durataMs + " ms");
+		assertTrue(raport.indisponibile().isEmpty());
+		assertEquals(5, raport.durateMs().size());
+		assertEquals("Fidel (3 bilete)", raport.fidel());
+		assertEquals(1, raport.vanzari().size());
+	}
+
+	@Test
+	void sectiuneaLentaLipsesteDarRestulSeAfiseaza() throws Exception {
+		// Vanzarile dureaza 5 s, termenul este 300 ms
+		ReportService service = new ReportService(null, null, new SurseLente(5000, 10), new SimpleMeterRegistry(), false, 300, 10, true);
+
+		long t0 = System.nanoTime();
+		ReportService.Raport raport = service.genereaza(ZI, ZI);
+		long durataMs = (System.nanoTime() - t0) / 1_000_000;
+
+		assertTrue(durataMs < 2000, "durata " + durataMs + " ms");
+		assertEquals(1, raport.indisponibile().size());
+		assertTrue(raport.indisponibile().get(0).contains("timp depășit"));
+		assertTrue(raport.vanzari().isEmpty());
+		assertFalse(raport.durateMs().containsKey(raport.indisponibile().get(0).split(" \\(")[0]));
+		assertEquals(1, raport.topOrganizatori().size());
+		assertEquals("Fidel (3 bilete)", raport.fidel());
+	}
+
+	/** Interogari simulate: vanzarile dureaza msVanzari, restul msRest. */
+	private static final class SurseLente extends ReportQueries {
+		private final long msVanzari, msRest;
+
+		SurseLente(long msVanzari, long msRest) {
+			super(null);
+			this.msVanzari = msVanzari;
+			this.msRest = msRest;
+		}
+
+		@Override
+		public List<VanzareRow> vanzari(LocalDate start, LocalDate end) {
+			dormi(msVanzari);
+			return List.of(new VanzareRow("Show", 3, new BigDecimal("30.00")));
+		}
+
+		@Override
+		public List<VenitOrganizatorRow> topOrganizatori() {
+			dormi(msRest);
+			return List.of(new VenitOrganizatorRow("Org", new BigDecimal("30.00")));
+		}
+
+		@Override
+		public String fidel() {
+			dormi(msRest);
+			return "Fidel (3 bilete)";
+		}
+
+		@Override
+		public List<GradOcupareRow> gradOcupare() {
+			dormi(msRest);
+			return List.of(new GradOcupareRow("Sala", "1.00 %"));
+		}
+
+		@Override
+		public List<String> listaControl() {
+			dormi(msRest);
+			return List.of("Show (în Sala)");
+		}
+
+		private static void dormi(long ms) {
+			try {
+				Thread.sleep(ms);
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+}
@@ -0,0 +1,95 @@
+package aplicatie_standup.app_standup;
+
+import aplicatie_standup.app_standup.db.Pagina;
+import aplicatie_standup.app_standup.db.Variante;
+import aplicatie_standup.app_standup.model.ArtistRow;
+import aplicatie_standup.app_standup.model.BiletRow;
+import aplicatie_standup.app_standup.repository.ArtistRepository;
+import aplicatie_standup.app_standup.repository.BiletRepository;
+import aplicatie_standup.app_standup.service.SearchIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RepositoryTests {
+
+	@Autowired
+	private ArtistRepository artisti;
+
+	@Autowired
+	private BiletRepository bilete;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Autowired
+	private SearchIndex searchIndex;
+
+	@Autowired
+	private MeterRegistry registry;
+
+	@BeforeAll
+	void date() throws Exception {
+		for (String nume : List.of("Qzxa1", "Qzxa2", "Qzxa3", "Qzxb1", "Qzxb2", "Qzxb3", "Qzxb4")) {
+			jdbc.update("INSERT INTO Artist (Nume_Artist, Prenume_Artist, Nationalitate, Varsta, Experienta_Ani) VALUES (?, 'Test', 'Romana', 30, 3)", nume);
+		}
+		searchIndex.construieste();
+	}
+
+	@Test
+	void cautarileSiSortarileRefolosescAcelasiText() throws Exception {
+		// Prima rulare a fiecarei forme de cerere poate aduce un text nou...
+		cereri();
+		double texte = texte();
+		double pregatiri = registry.get("sql.pregatiri").tag("nume", "select artist").counter().count();
+
+		// ...a doua, cu alte valori (3 si 4 ID-uri -> acelasi IN cu 4 parametri, alt TOP), nu
+		assertEquals(4, artisti.pagina("qzxb", "NUME", "ASC", null, null).randuri().size());
+		assertEquals(1, artisti.pagina("qzxb3", "VARSTA", "DESC", null, null).randuri().size());
+		List<ArtistRow> primele = new ArrayList<>();
+		artisti.parcurge("", "NUME", "ASC", 7, null, primele::add);
+		assertEquals(7, primele.size());
+
+		assertEquals(texte, texte());
+		assertEquals(pregatiri + 3, registry.get("sql.pregatiri").tag("nume", "select artist").counter().count());
+	}
+
+	@Test
+	void variantelePentruFiecareLista() {
+		// 6 coloane x 2 ordini x 3 cursoare x (fara filtru, LIKE, IN cu 8, 64, 512, 1000 parametri)
+		assertEquals(6 * 2 * 3 * (2 + 4), registry.get("sql.variante").tag("lista", "artist").gauge().value());
+		// Biletele nu se cauta, dar pot fi restranse la un spectator
+		assertEquals(5 * 2 * 3 * 2, registry.get("sql.variante").tag("lista", "bilet").gauge().value());
+		assertEquals(8, Variante.parametriIn(1, 1000));
+		assertEquals(64, Variante.parametriIn(9, 1000));
+		assertEquals(1000, Variante.parametriIn(513, 1000));
+		assertEquals(5, Variante.parametriIn(2, 5));
+	}
+
+	@Test
+	void bileteleUnuiSpectatorInexistentSuntGoale() throws Exception {
+		Pagina<BiletRow> pagina = bilete.pagina("", "DATA", "DESC", null, null, 0);
+		assertTrue(pagina.randuri().isEmpty());
+	}
+
+	private void cereri() throws Exception {
+		assertEquals(3, artisti.pagina("qzxa", "NUME", "ASC", null, null).randuri().size());
+		artisti.pagina("qzxa1", "VARSTA", "DESC", null, null);
+		artisti.parcurge("", "NUME", "ASC", 3, null, rand -> {});
+	}
+
+	private double texte() {
+		return registry.get("sql.texte").gauge().value();
+	}
+}
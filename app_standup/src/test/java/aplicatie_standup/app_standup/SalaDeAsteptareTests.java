@@ -0,0 +1,162 @@
+package aplicatie_standup.app_standup;
+
+import aplicatie_standup.app_standup.model.Session;
+import aplicatie_standup.app_standup.service.OccupancyTracker;
+import aplicatie_standup.app_standup.service.SalaDeAsteptare;
+import aplicatie_standup.app_standup.service.SalaDeAsteptare.Loc;
+import aplicatie_standup.app_standup.service.SalaDeAsteptare.Stare;
+import aplicatie_standup.app_standup.session.ExternalSessionFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// O singura cumparare directa, apoi coada (un jeton la 100 de secunde)
+@SpringBootTest(properties = {"app.coada.burst=1", "app.coada.rate-per-second=0.01"})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SalaDeAsteptareTests {
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private ExternalSessionFilter sesiuni;
+
+	@Autowired
+	private OccupancyTracker ocupare;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	private int idSpectacol;
+	private int primul;
+	private int alDoilea;
+
+	@BeforeAll
+	void date() throws Exception {
+		jdbc.update("INSERT INTO Locatie (Nume_Locatie, Adresa, Oras, Capacitate) VALUES ('Sala Coada', 'Str. 6', 'Iasi', 100)");
+		jdbc.update("INSERT INTO Spectacol (Titlu, Data_Spectacol, Ora, Pret_Bilet, ID_Locatie) " +
+				"SELECT 'Show Coada', '2031-06-01', '20:00:00', 60, MAX(ID_Locatie) FROM Locatie");
+		idSpectacol = jdbc.queryForObject("SELECT MAX(ID_Spectacol) FROM Spectacol", Integer.class);
+		jdbc.update("INSERT INTO Spectator (Nume_Spectator, Email_Spectator, Telefon_Spectator) VALUES ('Ana Coada', 'ana.coada@gmail.com', 'coada-01')");
+		primul = jdbc.queryForObject("SELECT MAX(ID_Spectator) FROM Spectator", Integer.class);
+		jdbc.update("INSERT INTO Spectator (Nume_Spectator, Email_Spectator, Telefon_Spectator) VALUES ('Ion Coada', 'ion.coada@gmail.com', 'coada-02')");
+		alDoilea = jdbc.queryForObject("SELECT MAX(ID_Spectator) FROM Spectator", Integer.class);
+		ocupare.reconciliaza();
+	}
+
+	@Test
+	void cumparareaAsteaptaInCoadaCandNuMaiSuntJetoane() throws Exception {
+		Cookie ana = sesiune(new Session("ana", "user", primul));
+		Cookie ion = sesiune(new Session("ion", "user", alDoilea));
+
+		mvc.perform(post("/bilet/buy").param("id_spectacol", String.valueOf(idSpectacol)).cookie(ana))
+				.andExpect(redirectedUrl("/bilete"));
+		mvc.perform(post("/bilet/buy").param("id_spectacol", String.valueOf(idSpectacol)).cookie(ion))
+				.andExpect(redirectedUrl("/coada?id_spectacol=" + idSpectacol));
+		assertEquals(1, jdbc.queryForObject("SELECT COUNT(*) FROM Bilet WHERE ID_Spectacol = ?", Integer.class, idSpectacol));
+
+		mvc.perform(get("/coada").param("id_spectacol", String.valueOf(idSpectacol)).cookie(ion))
+				.andExpect(status().isOk())
+				.andExpect(content().string(containsString("pe locul <b id=\"pozitie\">1</b>")))
+				.andExpect(content().string(containsString("http-equiv=\"refresh\"")));
+		// Cine nu este in coada este trimis inapoi la lista
+		mvc.perform(get("/coada").param("id_spectacol", String.valueOf(idSpectacol)).cookie(ana))
+				.andExpect(redirectedUrl("/spectacole"));
+	}
+
+	@Test
+	void coadaEsteFifoSiRefuzaPesteLimita() throws Exception {
+		// Un jeton la 0,5 s: nimeni nu este admis intre primele cereri
+		SalaDeAsteptare sala = new SalaDeAsteptare(id -> true, new SimpleMeterRegistry(), true, 2, 1, 2, 30, 120);
+		assertEquals(Stare.ADMIS, sala.intra(1, 100).stare());
+		assertEquals(new Loc(Stare.ASTEAPTA, 1, 1), sala.intra(1, 101));
+		assertEquals(2, sala.intra(1, 102).pozitie());
+		assertEquals(Stare.RESPINS, sala.intra(1, 103).stare());
+		// Alt spectacol are coada lui
+		assertEquals(Stare.ADMIS, sala.intra(2, 103).stare());
+		// Un spectator isi pastreaza locul
+		assertEquals(2, sala.intra(1, 102).pozitie());
+
+		Thread.sleep(600);
+		assertEquals(Stare.ADMIS, sala.stare(1, 101).stare());
+		Loc doi = sala.stare(1, 102);
+		assertTrue(doi.stare() == Stare.ADMIS || doi.pozitie() == 1, doi.toString());
+
+		// Dreptul de cumparare se consuma o singura data
+		assertEquals(Stare.ADMIS, sala.intra(1, 101).stare());
+		sala.foloseste(1, 101);
+		assertNull(sala.stare(1, 101));
+	}
+
+	@Test
+	void cineParasestePaginaIsiPierdeLocul() throws Exception {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		// Urmatorul jeton dupa 2 s, abandon dupa 1 s
+		SalaDeAsteptare sala = new SalaDeAsteptare(id -> true, registry, true, 0.5, 1, 100, 1, 120);
+		sala.intra(1, 100);
+		sala.intra(1, 101);
+		assertEquals(2, sala.intra(1, 102).pozitie());
+		// 101 nu mai reimprospateaza pagina, 102 da si urca pe locul lui inainte sa fie admis
+		boolean primul = false;
+		for (int i = 0; i < 24; i++) {
+			Thread.sleep(100);
+			Loc loc = sala.stare(1, 102);
+			if (loc.stare() == Stare.ASTEAPTA && loc.pozitie() == 1) primul = true;
+		}
+		assertTrue(primul);
+		assertEquals(Stare.ADMIS, sala.stare(1, 102).stare());
+		assertNull(sala.stare(1, 101));
+		assertEquals(1, registry.get("coada.abandonate").counter().count());
+		assertEquals(1, registry.get("coada.admise").tag("mod", "direct").counter().count());
+		assertEquals(1, registry.get("coada.asteptare").timer().count());
+	}
+
+	@Test
+	void doarSpectacoleleExistenteAuCoada() throws Exception {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		// Jetoanele se refac in 0,1 s
+		SalaDeAsteptare sala = new SalaDeAsteptare(id -> id == 1, registry, true, 10, 1, 100, 30, 120);
+		for (int i = 0; i < 100; i++) assertEquals(Stare.ADMIS, sala.intra(1000 + i, 1).stare());
+		assertEquals(0, registry.get("coada.spectacole").gauge().value());
+
+		sala.intra(1, 100);
+		assertEquals(Stare.ASTEAPTA, sala.intra(1, 101).stare());
+		assertEquals(1, registry.get("coada.spectacole").gauge().value());
+		// Cat timp cineva asteapta sau are drept de cumparare, coada ramane
+		sala.curata();
+		assertEquals(1, registry.get("coada.spectacole").gauge().value());
+		Thread.sleep(150);
+		assertEquals(Stare.ADMIS, sala.stare(1, 101).stare());
+		sala.foloseste(1, 101);
+		Thread.sleep(150);
+		sala.curata();
+		assertEquals(0, registry.get("coada.spectacole").gauge().value());
+
+		// Stergerea spectacolului scoate coada cu tot cu cei care asteptau
+		sala.intra(1, 200);
+		sala.intra(1, 201);
+		sala.sterge(1);
+		assertNull(sala.stare(1, 201));
+		assertEquals(0, registry.get("coada.spectacole").gauge().value());
+	}
+
+	private Cookie sesiune(Session ses) {
+		return new Cookie(sesiuni.numeCookie(), sesiuni.creeaza(Map.of("currentSession", ses)));
+	}
+}
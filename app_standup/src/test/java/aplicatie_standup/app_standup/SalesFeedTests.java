@@ -0,0 +1,139 @@
+package aplicatie_standup.app_standup;
+
+import aplicatie_standup.app_standup.model.BiletRecentRow;
+import aplicatie_standup.app_standup.model.Session;
+import aplicatie_standup.app_standup.service.SalesFeed;
+import aplicatie_standup.app_standup.session.ExternalSessionFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.Map;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SalesFeedTests {
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private SalesFeed feed;
+
+	@Autowired
+	private ExternalSessionFilter sesiuni;
+
+	@Autowired
+	private MeterRegistry registry;
+
+	@Autowired
+	private TestDate date;
+
+	private int idSpectacol;
+	private int idSpectator;
+
+	@BeforeAll
+	void date() {
+		idSpectacol = date.spectacol("Show Live", 0);
+		idSpectator = date.spectator("Ana Live");
+	}
+
+	@Test
+	void adminulPrimesteBiletulCumparat() throws Exception {
+		Cookie admin = sesiune(new Session("admin", "admin", null));
+		MvcResult live = mvc.perform(get("/api/bilete/live").cookie(admin))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		mvc.perform(post("/bilet/buy").param("id_spectacol", String.valueOf(idSpectacol))
+				.cookie(sesiune(new Session("ana", "user", idSpectator))));
+
+		String primit = asteapta(live.getResponse(), c -> c.contains("event:bilet"));
+		assertTrue(primit.contains("\"titlu\":\"Show Live\""), primit);
+		assertTrue(primit.contains("\"spectator\":\"Ana Live\""), primit);
+
+		// Cardul din /bilete vine din acelasi istoric
+		BiletRecentRow ultimul = feed.recente(1).get(0);
+		assertEquals("Show Live -> Ana Live", ultimul.info());
+		assertTrue(primit.contains(ultimul.cod()));
+	}
+
+	@Test
+	void reconectareaReiaVanzarilePierdute() throws Exception {
+		feed.publica(idSpectacol, idSpectator, "RELUAT01");
+		feed.publica(idSpectacol, idSpectator, "RELUAT02");
+		String idPrimul = asteaptaId("RELUAT01");
+
+		Cookie admin = sesiune(new Session("admin", "admin", null));
+		MvcResult live = mvc.perform(get("/api/bilete/live").cookie(admin).header("Last-Event-ID", idPrimul))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		String primit = asteapta(live.getResponse(), c -> c.contains("RELUAT02"));
+		assertFalse(primit.contains("RELUAT01"), primit);
+	}
+
+	@Test
+	void clientulCareNuTinePasulEsteDeconectat() throws Exception {
+		Cookie admin = sesiune(new Session("admin", "admin", null));
+		MvcResult live = mvc.perform(get("/api/bilete/live").cookie(admin))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		double inainte = registry.get("feed.deconectati").tag("motiv", "lent").counter().count();
+		// Publicarea nu asteapta clientul: coada lui se umple si este inchisa
+		for (int i = 0; i < 20_000; i++) feed.publica(idSpectacol, idSpectator, "VAL" + i);
+		assertTrue(registry.get("feed.deconectati").tag("motiv", "lent").counter().count() > inainte);
+		live.getAsyncResult(5000);
+	}
+
+	@Test
+	void doarAdminulSePoateAbona() throws Exception {
+		mvc.perform(get("/api/bilete/live")).andExpect(status().isUnauthorized());
+		mvc.perform(get("/api/bilete/live").cookie(sesiune(new Session("ana", "user", idSpectator))))
+				.andExpect(status().isForbidden());
+	}
+
+	private String asteaptaId(String cod) throws Exception {
+		Cookie admin = sesiune(new Session("admin", "admin", null));
+		MvcResult live = mvc.perform(get("/api/bilete/live").cookie(admin).header("Last-Event-ID", "0"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		String primit = asteapta(live.getResponse(), c -> c.contains(cod));
+		for (String eveniment : primit.split("\n\n")) {
+			if (eveniment.contains(cod)) {
+				return eveniment.lines().filter(l -> l.startsWith("id:")).findFirst().orElseThrow().substring(3);
+			}
+		}
+		throw new AssertionError(primit);
+	}
+
+	private static String asteapta(MockHttpServletResponse raspuns, Predicate<String> conditie) throws Exception {
+		long termen = System.currentTimeMillis() + 5000;
+		String continut = raspuns.getContentAsString();
+		while (!conditie.test(continut) && System.currentTimeMillis() < termen) {
+			Thread.sleep(10);
+			continut = raspuns.getContentAsString();
+		}
+		return continut;
+	}
+
+	private Cookie sesiune(Session ses) {
+		return new Cookie(sesiuni.numeCookie(), sesiuni.creeaza(Map.of("currentSession", ses)));
+	}
+}
@@ -0,0 +1,120 @@
+package aplicatie_standup.app_standup;
+
+import aplicatie_standup.app_standup.model.Session;
+import aplicatie_standup.app_standup.service.SearchIndex;
+import aplicatie_standup.app_standup.service.SearchIndex.Entitate;
+import aplicatie_standup.app_standup.session.ExternalSessionFilter;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SearchIndexTests {
+
+	@Autowired
+	private SearchIndex searchIndex;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private ExternalSessionFilter sesiuni;
+
+	private int salaMare, salaMica, showMare, showMica;
+
+	@BeforeAll
+	void date() throws Exception {
+		jdbc.update("INSERT INTO Locatie (Nume_Locatie, Adresa, Oras, Capacitate) VALUES ('Locația Științei Mare', 'Bd. Ștefan cel Mare 1', 'Iași', 200)");
+		salaMare = jdbc.queryForObject("SELECT MAX(ID_Locatie) FROM Locatie", Integer.class);
+		jdbc.update("INSERT INTO Locatie (Nume_Locatie, Adresa, Oras, Capacitate) VALUES ('Locația Științei Mică', 'Str. Mică 2', 'Iași', 50)");
+		salaMica = jdbc.queryForObject("SELECT MAX(ID_Locatie) FROM Locatie", Integer.class);
+		jdbc.update("INSERT INTO Spectacol (Titlu, Data_Spectacol, Ora, Pret_Bilet, ID_Locatie) VALUES ('Indexat Seara', '2030-01-01', '20:00:00', 10, ?)", salaMare);
+		showMare = jdbc.queryForObject("SELECT MAX(ID_Spectacol) FROM Spectacol", Integer.class);
+		jdbc.update("INSERT INTO Spectacol (Titlu, Data_Spectacol, Ora, Pret_Bilet, ID_Locatie) VALUES ('Indexat Seara', '2030-01-02', '20:00:00', 10, ?)", salaMica);
+		showMica = jdbc.queryForObject("SELECT MAX(ID_Spectacol) FROM Spectacol", Integer.class);
+		searchIndex.construieste();
+	}
+
+	@Test
+	void ignoraDiacriticeleSiMajusculele() {
+		assertEquals(List.of(salaMare, salaMica), ids(Entitate.LOCATIE, "locatia stiintei"));
+		assertEquals(List.of(salaMare, salaMica), ids(Entitate.LOCATIE, "LOCAȚIA ŞTIINŢEI")); // ş/ţ cu sedila
+		assertEquals(List.of(salaMare), ids(Entitate.LOCATIE, "stefan"));
+	}
+
+	@Test
+	void toateCuvinteleTrebuieSaSePotriveascaCaPrefix() {
+		assertEquals(List.of(showMare, showMica), ids(Entitate.SPECTACOL, "index sea"));
+		// Spectacolele se cauta si dupa numele locatiei
+		assertEquals(List.of(showMare), ids(Entitate.SPECTACOL, "indexat mare"));
+		assertEquals(List.of(), ids(Entitate.SPECTACOL, "indexat inexistent"));
+		// Fara cuvinte -> apelantul foloseste LIKE
+		assertNull(searchIndex.cauta(Entitate.SPECTACOL, "%%"));
+	}
+
+	@Test
+	void endpointurileActualizeazaIndexul() throws Exception {
+		Cookie admin = sesiune(new Session("admin", "admin", null));
+
+		mvc.perform(post("/artist/add").cookie(admin)
+				.param("nume", "Zăvoianu").param("prenume", "Întâiul").param("nationalitate", "Romana").param("varsta", "30").param("experienta", "3"));
+		int idArtist = jdbc.queryForObject("SELECT MAX(ID_Artist) FROM Artist", Integer.class);
+		assertEquals(List.of(idArtist), ids(Entitate.ARTIST, "zavoianu intai"));
+		mvc.perform(get("/artisti").param("q", "zavo").cookie(admin)).andExpect(content().string(containsString("Zăvoianu")));
+
+		mvc.perform(post("/artist/edit").cookie(admin).param("id", String.valueOf(idArtist))
+				.param("nume", "Zamfirescu").param("prenume", "Întâiul").param("nationalitate", "Romana").param("varsta", "30").param("experienta", "3"));
+		assertEquals(List.of(), ids(Entitate.ARTIST, "zavoianu"));
+		assertEquals(List.of(idArtist), ids(Entitate.ARTIST, "zamfir"));
+
+		mvc.perform(post("/artist/delete").cookie(admin).param("id", String.valueOf(idArtist)));
+		assertEquals(List.of(), ids(Entitate.ARTIST, "zamfir"));
+
+		// Redenumirea locatiei reindexeaza si spectacolele ei
+		mvc.perform(post("/locatie/add").cookie(admin)
+				.param("nume", "Sala Veche").param("adresa", "Str. Veche 3").param("oras", "Iasi").param("capacitate", "50"));
+		int idLocatie = jdbc.queryForObject("SELECT MAX(ID_Locatie) FROM Locatie", Integer.class);
+		assertEquals(List.of(idLocatie), ids(Entitate.LOCATIE, "sala veche"));
+		jdbc.update("INSERT INTO Spectacol (Titlu, Data_Spectacol, Ora, Pret_Bilet, ID_Locatie) VALUES ('Reindexat', '2030-01-03', '20:00:00', 10, ?)", idLocatie);
+		int idShow = jdbc.queryForObject("SELECT MAX(ID_Spectacol) FROM Spectacol", Integer.class);
+		searchIndex.actualizeaza(Entitate.SPECTACOL, idShow);
+
+		mvc.perform(post("/locatie/edit").cookie(admin).param("id", String.valueOf(idLocatie))
+				.param("nume", "Arena Nouă").param("adresa", "Str. Veche 3").param("oras", "Iasi").param("capacitate", "50"));
+		assertEquals(List.of(idShow), ids(Entitate.SPECTACOL, "reindexat arena"));
+		assertEquals(List.of(), ids(Entitate.SPECTACOL, "reindexat veche"));
+		mvc.perform(get("/spectacole").param("q", "arena noua").cookie(admin))
+				.andExpect(content().string(containsString("Reindexat")))
+				.andExpect(content().string(not(containsString("Indexat Seara"))));
+	}
+
+	private List<Integer> ids(Entitate entitate, String q) {
+		return Arrays.stream(searchIndex.cauta(entitate, q)).boxed().toList();
+	}
+
+	private Cookie sesiune(Session ses) {
+		return new Cookie(sesiuni.numeCookie(), sesiuni.creeaza(Map.of("currentSession", ses)));
+	}
+}
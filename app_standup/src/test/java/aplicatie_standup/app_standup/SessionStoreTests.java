@@ -0,0 +1,108 @@
+package aplicatie_standup.app_standup;
+
+import aplicatie_standup.app_standup.model.Session;
+import aplicatie_standup.app_standup.session.ExternalSessionFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.Filter;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionStoreTests {
+
+	@TempDir
+	Path director;
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final List<ExternalSessionFilter> filtre = new ArrayList<>();
+
+	@AfterEach
+	void opreste() {
+		filtre.forEach(ExternalSessionFilter::opreste);
+	}
+
+	@Test
+	void douaInstanteFolosescAceeasiSesiune() throws Exception {
+		ExternalSessionFilter nodA = filtru("file");
+		ExternalSessionFilter nodB = filtru("file");
+
+		MockHttpServletResponse login = cerere(nodA, null, s -> s.setAttribute("currentSession", new Session("ana", "user", 7)));
+		Cookie cookie = login.getCookie("SESIUNE");
+		assertNotNull(cookie);
+		assertTrue(login.getHeader("Set-Cookie").contains("HttpOnly"));
+
+		Session[] vazuta = new Session[1];
+		cerere(nodB, cookie, s -> vazuta[0] = (Session) s.getAttribute("currentSession"));
+		assertEquals("ana", vazuta[0].username);
+		assertEquals("user", vazuta[0].role);
+		assertEquals(7, vazuta[0].idSpectator);
+
+		// Logout pe B: sesiunea dispare si pentru A
+		MockHttpServletResponse logout = cerere(nodB, cookie, HttpSession::invalidate);
+		assertEquals(0, logout.getCookie("SESIUNE").getMaxAge());
+		cerere(nodA, cookie, s -> assertNull(s.getAttribute("currentSession")));
+	}
+
+	@Test
+	void sesiuneaSeScrieDoarCandSeModifica() throws Exception {
+		ExternalSessionFilter filtru = filtru("memory");
+
+		// Sesiune creata dar ramasa goala: nici cookie, nici scriere
+		MockHttpServletResponse anonim = cerere(filtru, null, s -> s.getAttribute("currentSession"));
+		assertNull(anonim.getCookie("SESIUNE"));
+		assertEquals(0, scrieri());
+
+		Cookie cookie = cerere(filtru, null, s -> s.setAttribute("currentSession", new Session("admin", "admin", null))).getCookie("SESIUNE");
+		assertEquals(1, scrieri());
+		for (int i = 0; i < 5; i++) {
+			MockHttpServletResponse citire = cerere(filtru, cookie, s -> assertNull(((Session) s.getAttribute("currentSession")).idSpectator));
+			assertNull(citire.getCookie("SESIUNE"));
+		}
+		assertEquals(1, scrieri());
+
+		cerere(filtru, cookie, s -> s.setAttribute("mesaj", "Salvat"));
+		assertEquals(2, scrieri());
+	}
+
+	@Test
+	void cookieNecunoscutSauInvalidNuDaSesiune() throws Exception {
+		ExternalSessionFilter filtru = filtru("file");
+		cerere(filtru, new Cookie("SESIUNE", "../../etc/passwd"), s -> assertTrue(s.isNew()));
+		cerere(filtru, new Cookie("SESIUNE", "A".repeat(43)), s -> assertTrue(s.isNew()));
+	}
+
+	private ExternalSessionFilter filtru(String tip) {
+		ExternalSessionFilter filtru = new ExternalSessionFilter(registry, tip, director.toString(), "SESIUNE",
+				Duration.ofMinutes(30), 60, 60);
+		filtre.add(filtru);
+		return filtru;
+	}
+
+	private double scrieri() {
+		return registry.get("sesiune.scrieri").counter().count();
+	}
+
+	private static MockHttpServletResponse cerere(ExternalSessionFilter filtru, Cookie cookie, Consumer<HttpSession> actiune) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/spectacole");
+		if (cookie != null) request.setCookies(cookie);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		Filter controller = (req, res, chain) -> actiune.accept(((HttpServletRequest) req).getSession());
+		new MockFilterChain(new HttpServlet() {}, filtru, controller).doFilter(request, response);
+		return response;
+	}
+}
@@ -0,0 +1,47 @@
+package aplicatie_standup.app_standup;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Randurile de care au nevoie testele de cumparare, inserate direct in baza (bean gasit de scanarea din teste)
+@Component
+class TestDate {
+
+	// Email-ul si telefonul sunt unice in baza, iar baza H2 este comuna tuturor testelor
+	private static final AtomicInteger SECVENTA = new AtomicInteger();
+
+	private final JdbcTemplate jdbc;
+
+	TestDate(JdbcTemplate jdbc) {
+		this.jdbc = jdbc;
+	}
+
+	/** Spectacol intr-o locatie noua "Sala <titlu>"; capacitatea 0 inseamna fara limita. */
+	int spectacol(String titlu, int capacitate) {
+		int idLocatie = insert("INSERT INTO Locatie (Nume_Locatie, Adresa, Oras, Capacitate) VALUES (?, 'Str. 1', 'Cluj', ?)",
+				"Sala " + titlu, capacitate);
+		return insert("INSERT INTO Spectacol (Titlu, Data_Spectacol, Ora, Pret_Bilet, ID_Locatie) VALUES (?, '2031-03-01', '20:00:00', 40, ?)",
+				titlu, idLocatie);
+	}
+
+	int spectator(String nume) {
+		int n = SECVENTA.incrementAndGet();
+		return insert("INSERT INTO Spectator (Nume_Spectator, Email_Spectator, Telefon_Spectator) VALUES (?, ?, ?)",
+				nume, "test." + n + "@gmail.com", "test-" + n);
+	}
+
+	private int insert(String sql, Object... valori) {
+		GeneratedKeyHolder keys = new GeneratedKeyHolder();
+		jdbc.update(con -> {
+			PreparedStatement ps = con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+			for (int i = 0; i < valori.length; i++) ps.setObject(i + 1, valori[i]);
+			return ps;
+		}, keys);
+		return keys.getKey().intValue();
+	}
+}
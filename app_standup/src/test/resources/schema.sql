@@ -0,0 +1,65 @@
+-- Schema minimala a bazei SpectacoleDeStandUp, folosita de teste pe H2
+CREATE TABLE IF NOT EXISTS Locatie (
+    ID_Locatie INT IDENTITY PRIMARY KEY,
+    Nume_Locatie NVARCHAR(100) NOT NULL,
+    Adresa NVARCHAR(200),
+    Oras NVARCHAR(100),
+    Capacitate INT
+);
+
+CREATE TABLE IF NOT EXISTS Organizator (
+    ID_Organizator INT IDENTITY PRIMARY KEY,
+    Nume_Organizator NVARCHAR(100) NOT NULL,
+    Email_Organizator NVARCHAR(100),
+    Telefon_Organizator NVARCHAR(20)
+);
+
+CREATE TABLE IF NOT EXISTS Spectacol (
+    ID_Spectacol INT IDENTITY PRIMARY KEY,
+    Titlu NVARCHAR(200) NOT NULL,
+    Data_Spectacol DATE NOT NULL,
+    Ora TIME,
+    Pret_Bilet DECIMAL(10, 2),
+    ID_Locatie INT REFERENCES Locatie(ID_Locatie),
+    ID_Organizator INT REFERENCES Organizator(ID_Organizator)
+);
+
+CREATE TABLE IF NOT EXISTS Artist (
+    ID_Artist INT IDENTITY PRIMARY KEY,
+    Nume_Artist NVARCHAR(100) NOT NULL,
+    Prenume_Artist NVARCHAR(100),
+    Nationalitate NVARCHAR(100),
+    Varsta INT,
+    Experienta_Ani INT
+);
+
+CREATE TABLE IF NOT EXISTS Spectator (
+    ID_Spectator INT IDENTITY PRIMARY KEY,
+    Nume_Spectator NVARCHAR(100) NOT NULL,
+    Email_Spectator NVARCHAR(100) UNIQUE,
+    Telefon_Spectator NVARCHAR(20) UNIQUE
+);
+
+CREATE TABLE IF NOT EXISTS Utilizator (
+    ID_Utilizator INT IDENTITY PRIMARY KEY,
+    -- Fara majuscule la comparare, ca in colatia implicita SQL Server
+    Username VARCHAR_IGNORECASE(50) NOT NULL UNIQUE,
+    Parola NVARCHAR(100) NOT NULL,
+    Rol NVARCHAR(20) NOT NULL,
+    ID_Spectator INT REFERENCES Spectator(ID_Spectator)
+);
+
+CREATE TABLE IF NOT EXISTS Bilet (
+    ID_Bilet INT IDENTITY PRIMARY KEY,
+    ID_Spectacol INT NOT NULL REFERENCES Spectacol(ID_Spectacol),
+    ID_Spectator INT NOT NULL REFERENCES Spectator(ID_Spectator),
+    Data_Cumparare DATETIME NOT NULL,
+    Cod_Bilet NVARCHAR(20) NOT NULL UNIQUE
+);
+
+-- Biletele validate la intrare (check-in); un bilet se scaneaza o singura data
+CREATE TABLE IF NOT EXISTS Scanare_Bilet (
+    Cod_Bilet NVARCHAR(20) PRIMARY KEY,
+    ID_Spectacol INT NOT NULL,
+    Data_Scanare DATETIME NOT NULL
+);
@@ -0,0 +1,91 @@
+package aplicatie_standup.app_standup.bench;
+
+import aplicatie_standup.app_standup.SpectacoleApplication;
+import aplicatie_standup.app_standup.service.CodBiletIndex;
+import aplicatie_standup.app_standup.service.SalesAggregates;
+import aplicatie_standup.app_standup.service.SearchIndex;
+import aplicatie_standup.app_standup.service.SpectacolCatalog;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Porneste aplicatia pe H2 in memorie (modul MSSQLServer), pe un port liber, cu setul de date
+ * sintetic incarcat. Fiecare pornire primeste propria baza, deci se pot porni mai multe pe rand
+ * in acelasi proces. Argumentele suplimentare (--cheie=valoare) au prioritate fata de
+ * application.properties din aplicatie.
+ */
+final class AplicatieBench implements AutoCloseable {
+
+	private static final AtomicInteger BAZE = new AtomicInteger();
+
+	private final ConfigurableApplicationContext ctx;
+
+	private AplicatieBench(ConfigurableApplicationContext ctx) {
+		this.ctx = ctx;
+	}
+
+	/** O cheie pentru codurile de bilet (aplicatia nu are una implicita), alta la fiecare rulare. */
+	static String cheieAleatoare() {
+		byte[] octeti = new byte[16];
+		new SecureRandom().nextBytes(octeti);
+		return HexFormat.of().formatHex(octeti);
+	}
+
+	static AplicatieBench porneste(DateSintetice.Marime marime, BeanPostProcessor extra, String... argumente) throws Exception {
+		List<String> args = new ArrayList<>(List.of(
+				"--spring.datasource.url=jdbc:h2:mem:bench" + BAZE.incrementAndGet() + ";MODE=MSSQLServer;DB_CLOSE_DELAY=-1",
+				"--spring.datasource.username=sa",
+				"--spring.datasource.password=",
+				"--spring.datasource.driver-class-name=org.h2.Driver",
+				"--spring.sql.init.mode=always",
+				"--spring.sql.init.schema-locations=classpath:bench/schema.sql",
+				"--server.port=0",
+				"--logging.level.root=WARN",
+				"--app.bilet.cod.cheie=" + cheieAleatoare()));
+		args.addAll(Arrays.asList(argumente));
+
+		SpringApplicationBuilder builder = new SpringApplicationBuilder(SpectacoleApplication.class);
+		if (extra != null) builder.initializers(c -> c.getBeanFactory().addBeanPostProcessor(extra));
+		ConfigurableApplicationContext ctx = builder.run(args.toArray(String[]::new));
+
+		long t0 = System.nanoTime();
+		DateSintetice.genereaza(new JdbcTemplate(ctx.getBean(DataSource.class)), marime);
+		// Datele au fost scrise pe langa aplicatie; indexul si cache-urile se reconstruiesc
+		ctx.getBean(SearchIndex.class).construieste();
+		ctx.getBean(SpectacolCatalog.class).invalideaza();
+		ctx.getBean(SalesAggregates.class).invalideaza();
+		ctx.getBean(CodBiletIndex.class).incarca();
+		System.out.printf("Date generate in %d ms: %s%n", (System.nanoTime() - t0) / 1_000_000, marime);
+		return new AplicatieBench(ctx);
+	}
+
+	String adresa() {
+		return "http://localhost:" + ((WebServerApplicationContext) ctx).getWebServer().getPort();
+	}
+
+	/** Un serviciu al aplicatiei, pentru masuratori fara HTTP. */
+	<T> T bean(Class<T> tip) {
+		return ctx.getBean(tip);
+	}
+
+	/** Acces direct la baza aplicatiei (de ex. pentru a da unui cont rolul admin). */
+	JdbcTemplate jdbc() {
+		return new JdbcTemplate(ctx.getBean(DataSource.class));
+	}
+
+		@Override
+	public void close() {
+		ctx.close();
+	}
+}
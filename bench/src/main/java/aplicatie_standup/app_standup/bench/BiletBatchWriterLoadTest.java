@@ -0,0 +1,67 @@
+package aplicatie_standup.app_standup.bench;
+
+import aplicatie_standup.app_standup.service.BiletBatchWriter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Bilete scrise pe secunda prin BiletBatchWriter, cu scrierea grupata pornita si oprita
+ * (app.bilet.batch.enabled=false: un INSERT cu autocommit per bilet). Scrierile pornesc
+ * toate deodata din clienti fire, ca la deschiderea vanzarii unui spectacol.
+ * <p>
+ * Rulare (din radacina, dupa mvn install -DskipTests):
+ *         mvn -f bench exec:exec -Dexec.args="-cp %classpath aplicatie_standup.app_standup.bench.BiletBatchWriterLoadTest"
+ * Parametri (-D): bilete=20000, clienti=100
+ */
+public class BiletBatchWriterLoadTest {
+
+	private static final int BILETE = Integer.getInteger("bilete", 20_000);
+	private static final int CLIENTI = Integer.getInteger("clienti", 100);
+
+	public static void main(String[] args) throws Exception {
+		System.out.printf("%d bilete, %d clienti%n", BILETE, CLIENTI);
+		System.out.printf("%n%-10s %12s %10s%n", "batch", "bilete/s", "batch-uri");
+		for (boolean activ : new boolean[] {true, false}) {
+			try (AplicatieBench aplicatie = AplicatieBench.porneste(new DateSintetice.Marime(5, 5, 10, 100, 0, 0), null,
+					"--app.bilet.batch.enabled=" + activ)) {
+				BiletBatchWriter writer = aplicatie.bean(BiletBatchWriter.class);
+				scrie(writer, "I", BILETE / 5); // incalzire (JIT)
+				double batchuriInainte = batchuri(aplicatie);
+				long t0 = System.nanoTime();
+				scrie(writer, "M", BILETE);
+				double secunde = (System.nanoTime() - t0) / 1e9;
+				System.out.printf("%-10s %12.0f %10.0f%n", activ ? "pornit" : "oprit", BILETE / secunde,
+						batchuri(aplicatie) - batchuriInainte);
+			}
+		}
+	}
+
+	private static void scrie(BiletBatchWriter writer, String prefix, int bilete) throws Exception {
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> rezultate = new ArrayList<>();
+		try (ExecutorService pool = Executors.newFixedThreadPool(CLIENTI)) {
+			for (int i = 0; i < bilete; i++) {
+				String cod = prefix + i;
+				int idSpectacol = 1 + i % 10;
+				rezultate.add(pool.submit(() -> {
+					start.await();
+					writer.scrie(idSpectacol, 1, cod);
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> r : rezultate) r.get();
+		}
+	}
+
+	// Fara scriere grupata nu exista batch-uri (metrica ramane 0)
+	private static double batchuri(AplicatieBench aplicatie) {
+		return aplicatie.bean(MeterRegistry.class).get("bilet.batch.size").summary().count();
+	}
+}
@@ -0,0 +1,155 @@
+package aplicatie_standup.app_standup.bench;
+
+import aplicatie_standup.app_standup.service.CheckInService;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Scanari pe secunda la intrare pentru un spectacol cu sala mare (bileteSala coduri), in trei
+ * moduri: direct prin CheckInService (fara HTTP, limita structurii din memorie), o cerere HTTP
+ * per scanare (/api/checkin/{id}/scan) si cereri cu lot coduri (/scanari). Inainte de fiecare mod
+ * check-in-ul se redeschide, deci prima trecere prin coduri da "valid", urmatoarele "folosit"
+ * (acelasi drum prin cod). Scanarile valide sunt scrise in Scanare_Bilet in fundal.
+ * <p>
+ * Rulare (din radacina, dupa mvn install -DskipTests):
+ *         mvn -f bench exec:exec -Dexec.args="-cp %classpath aplicatie_standup.app_standup.bench.CheckInLoadTest"
+ * Parametri (-D): clienti=64, secunde=10, lot=100, bileteSala=50000
+ *                 si marimile setului de date (vezi DateSintetice.Marime)
+ */
+public class CheckInLoadTest {
+
+	private static final int CLIENTI = Integer.getInteger("clienti", 64);
+	private static final int SECUNDE = Integer.getInteger("secunde", 10);
+	private static final int LOT = Integer.getInteger("lot", 100);
+	private static final int BILETE_SALA = Integer.getInteger("bileteSala", 50_000);
+	private static final int ID_SPECTACOL = 1;
+
+	public static void main(String[] args) throws Exception {
+		try (AplicatieBench aplicatie = AplicatieBench.porneste(DateSintetice.Marime.dinProprietati(), null);
+			 ExecutorService clienti = Executors.newVirtualThreadPerTaskExecutor()) {
+			aplicatie.jdbc().update("UPDATE Utilizator SET Rol = 'admin' WHERE Username = 'bench1'");
+			aplicatie.jdbc().update("INSERT INTO Bilet (ID_Spectacol, ID_Spectator, Data_Cumparare, Cod_Bilet) " +
+					"SELECT ?, 1, CURRENT_TIMESTAMP, CONCAT('SALA', X) FROM SYSTEM_RANGE(1, ?)", ID_SPECTACOL, BILETE_SALA);
+			List<String> coduri = aplicatie.jdbc().queryForList("SELECT Cod_Bilet FROM Bilet WHERE ID_Spectacol = ?",
+					String.class, ID_SPECTACOL);
+			CheckInService checkIn = aplicatie.bean(CheckInService.class);
+
+			String baza = aplicatie.adresa();
+			HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).executor(clienti)
+					.connectTimeout(Duration.ofSeconds(5)).build();
+			HttpResponse<Void> login = http.send(HttpRequest.newBuilder(URI.create(baza + "/login"))
+					.header("Content-Type", "application/x-www-form-urlencoded")
+					.POST(HttpRequest.BodyPublishers.ofString("username=bench1&password=" + DateSintetice.PAROLA)).build(),
+					HttpResponse.BodyHandlers.discarding());
+			String cookie = login.headers().firstValue("Set-Cookie").orElseThrow().split(";", 2)[0];
+
+			System.out.printf("%d coduri pentru spectacolul %d, %d clienti, %d s%n", coduri.size(), ID_SPECTACOL, CLIENTI, SECUNDE);
+			System.out.printf("%n%-12s %12s %10s %10s %8s%n", "mod", "scanari/s", "p50 ms", "p99 ms", "erori");
+
+			AtomicInteger urmatorul = new AtomicInteger();
+			int fire = Runtime.getRuntime().availableProcessors();
+			redeschide(checkIn);
+			System.out.printf("%-12s %12.0f%n", "memorie", inMemorie(clienti, fire, checkIn, coduri) / (double) SECUNDE);
+
+			redeschide(checkIn);
+			raporteaza("http", 1, ruleaza(clienti, () -> {
+				String cod = coduri.get(urmatorul.getAndIncrement() % coduri.size());
+				HttpRequest cerere = HttpRequest.newBuilder(URI.create(baza + "/api/checkin/" + ID_SPECTACOL + "/scan?cod="
+						+ URLEncoder.encode(cod, StandardCharsets.UTF_8))).header("Cookie", cookie)
+						.POST(HttpRequest.BodyPublishers.noBody()).timeout(Duration.ofSeconds(30)).build();
+				int status = http.send(cerere, HttpResponse.BodyHandlers.discarding()).statusCode();
+				return status == 200 || status == 409;
+			}));
+
+			redeschide(checkIn);
+			raporteaza("http lot " + LOT, LOT, ruleaza(clienti, () -> {
+				StringBuilder corp = new StringBuilder();
+				for (int i = 0; i < LOT; i++) corp.append(coduri.get(urmatorul.getAndIncrement() % coduri.size())).append('\n');
+				HttpRequest cerere = HttpRequest.newBuilder(URI.create(baza + "/api/checkin/" + ID_SPECTACOL + "/scanari"))
+						.header("Cookie", cookie).header("Content-Type", "text/plain")
+						.POST(HttpRequest.BodyPublishers.ofString(corp.toString())).timeout(Duration.ofSeconds(30)).build();
+				return http.send(cerere, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+			}));
+			checkIn.inchide(ID_SPECTACOL);
+		}
+	}
+
+	private interface Scanare {
+		boolean ruleaza() throws Exception;
+	}
+
+	private static void redeschide(CheckInService checkIn) throws Exception {
+		checkIn.inchide(ID_SPECTACOL);
+		checkIn.deschide(ID_SPECTACOL);
+	}
+
+	// Latentele sunt per cerere HTTP
+	private static void raporteaza(String mod, int coduriPerCerere, Latente l) {
+		System.out.printf("%-12s %12.0f %10.3f %10.3f %8d%n", mod, l.numar() * (double) coduriPerCerere / SECUNDE,
+				l.percentilaMs(0.50), l.percentilaMs(0.99), l.erori());
+	}
+
+	// Fara latente (o scanare dureaza cat citirea ceasului); doar numarul de scanari
+	private static long inMemorie(ExecutorService clienti, int fire, CheckInService checkIn, List<String> coduri) throws Exception {
+		long total = 0;
+		for (int secunde : new int[] {2, SECUNDE}) {
+			long sfarsit = System.nanoTime() + secunde * 1_000_000_000L;
+			List<Future<Long>> rezultate = new ArrayList<>();
+			for (int f = 0; f < fire; f++) {
+				int start = f * 7919;
+				rezultate.add(clienti.submit(() -> {
+					long n = 0;
+					while ((n & 1023) != 0 || System.nanoTime() < sfarsit) {
+						checkIn.scaneaza(ID_SPECTACOL, coduri.get((int) ((start + n) % coduri.size())));
+						n++;
+					}
+					return n;
+				}));
+			}
+			total = 0;
+			for (Future<Long> r : rezultate) total += r.get();
+		}
+		return total;
+	}
+
+	private static Latente ruleaza(ExecutorService clienti, Scanare scanare) throws Exception {
+		incarca(clienti, 5, scanare); // incalzire (JIT)
+		return incarca(clienti, SECUNDE, scanare);
+	}
+
+	private static Latente incarca(ExecutorService clienti, int secunde, Scanare scanare) throws Exception {
+		long sfarsit = System.nanoTime() + secunde * 1_000_000_000L;
+		List<Future<Latente>> rezultate = new ArrayList<>();
+		for (int i = 0; i < CLIENTI; i++) {
+			rezultate.add(clienti.submit(() -> {
+				Latente latente = new Latente();
+				while (System.nanoTime() < sfarsit) {
+					long t0 = System.nanoTime();
+					boolean ok;
+					try {
+						ok = scanare.ruleaza();
+					} catch (Exception ex) {
+						ok = false;
+					}
+					latente.adauga(System.nanoTime() - t0, ok);
+				}
+				return latente;
+			}));
+		}
+		Latente total = new Latente();
+		for (Future<Latente> r : rezultate) total.adauga(r.get());
+		return total;
+	}
+}
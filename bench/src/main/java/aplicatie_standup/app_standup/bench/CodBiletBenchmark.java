@@ -0,0 +1,60 @@
+package aplicatie_standup.app_standup.bench;
+
+import aplicatie_standup.app_standup.service.CodBiletGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coduri de bilet pe secunda: CodBiletGenerator (secventa din benzi + Feistel cu SipHash +
+ * base32 cu control) fata de vechiul UUID.randomUUID() taiat la 8 caractere, plus verificarea
+ * unui cod citit de la client. Se ruleaza cu 1 fir si cu 4 fire, ca sa se vada contentia.
+ * <p>
+ * Rulare (din radacina, dupa mvn install -DskipTests):
+ *         mvn -f bench exec:exec -Dexec.args="-cp %classpath aplicatie_standup.app_standup.bench.CodBiletBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CodBiletBenchmark {
+
+	private CodBiletGenerator generator;
+	private String cod;
+
+	@Setup
+	public void generator() {
+		generator = new CodBiletGenerator(AplicatieBench.cheieAleatoare(), 0, new SimpleMeterRegistry());
+		cod = generator.genereaza();
+	}
+
+	@Benchmark
+	public String genereaza() {
+		return generator.genereaza();
+	}
+
+	@Benchmark
+	public String uuid() {
+		return UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+	}
+
+	@Benchmark
+	public long verifica() {
+		return CodBiletGenerator.valoare(cod);
+	}
+
+	public static void main(String[] args) throws Exception {
+		for (int fire : new int[] {1, 4}) {
+			new Runner(new OptionsBuilder()
+					.include(CodBiletBenchmark.class.getSimpleName())
+					.threads(fire)
+					.build()).run();
+		}
+	}
+}
@@ -0,0 +1,77 @@
+package aplicatie_standup.app_standup.bench;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Octetii trimisi si CPU-ul per cerere pentru listele si raportul, in trei moduri:
+ * identitate (fara Accept-Encoding), gzip (server.compression) si revalidare cu If-None-Match
+ * (304 din view.ConditionalGet, fara SQL si fara randare). Un singur client, cereri una dupa alta.
+ * Octetii sunt ai corpului asa cum vine pe fir (HttpClient nu decomprima). CPU-ul este al
+ * intregului proces (server + client, acelasi client in toate modurile), impartit la cereri.
+ * <p>
+ * Rulare (din radacina, dupa mvn install -DskipTests):
+ *         mvn -f bench exec:exec -Dexec.args="-cp %classpath aplicatie_standup.app_standup.bench.ConditionalGetLoadTest"
+ * Parametri (-D): cereri=500 (per pagina si mod, dupa tot atatea de incalzire)
+ *                 si marimile setului de date (vezi DateSintetice.Marime)
+ */
+public class ConditionalGetLoadTest {
+
+	private static final int CERERI = Integer.getInteger("cereri", 500);
+
+	private static final List<String> PAGINI = List.of("/spectacole", "/artisti", "/locatii", "/organizatori", "/raport");
+
+	private enum Mod { IDENTITATE, GZIP, REVALIDARE }
+
+	public static void main(String[] args) throws Exception {
+		// ETag-ul nu trebuie sa se schimbe in timpul masuratorii
+		try (AplicatieBench aplicatie = AplicatieBench.porneste(DateSintetice.Marime.dinProprietati(), null,
+				"--app.http.conditional.max-age-seconds=3600")) {
+			aplicatie.jdbc().update("UPDATE Utilizator SET Rol = 'admin' WHERE Username = 'bench1'");
+			String baza = aplicatie.adresa();
+			HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+					.connectTimeout(Duration.ofSeconds(5)).build();
+			HttpResponse<Void> login = http.send(HttpRequest.newBuilder(URI.create(baza + "/login"))
+					.header("Content-Type", "application/x-www-form-urlencoded")
+					.POST(HttpRequest.BodyPublishers.ofString("username=bench1&password=" + DateSintetice.PAROLA)).build(),
+					HttpResponse.BodyHandlers.discarding());
+			String cookie = login.headers().firstValue("Set-Cookie").orElseThrow().split(";", 2)[0];
+
+			System.out.printf("%n%-14s %-11s %6s %12s %10s %14s%n", "pagina", "mod", "status", "octeti", "p50 ms", "CPU us/cerere");
+			for (String pagina : PAGINI) {
+				String etag = null;
+				for (Mod mod : Mod.values()) {
+					HttpRequest.Builder b = HttpRequest.newBuilder(URI.create(baza + pagina)).header("Cookie", cookie)
+							.timeout(Duration.ofSeconds(30));
+					if (mod != Mod.IDENTITATE) b.header("Accept-Encoding", "gzip");
+					if (mod == Mod.REVALIDARE) b.header("If-None-Match", etag);
+					HttpRequest cerere = b.build();
+
+					HttpResponse<byte[]> r = null;
+					for (int i = 0; i < CERERI; i++) r = http.send(cerere, HttpResponse.BodyHandlers.ofByteArray());
+					etag = r.headers().firstValue("ETag").orElse(etag);
+
+					Latente latente = new Latente();
+					long cpu0 = cpuNs();
+					for (int i = 0; i < CERERI; i++) {
+						long t0 = System.nanoTime();
+						r = http.send(cerere, HttpResponse.BodyHandlers.ofByteArray());
+						latente.adauga(System.nanoTime() - t0, r.statusCode() == 200 || r.statusCode() == 304);
+					}
+					long cpu = cpuNs() - cpu0;
+					System.out.printf("%-14s %-11s %6d %12d %10.2f %14.0f%n", pagina, mod.name().toLowerCase(), r.statusCode(),
+							r.body().length, latente.percentilaMs(0.50), cpu / 1000.0 / CERERI);
+				}
+			}
+		}
+	}
+
+	private static long cpuNs() {
+		return ((com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean()).getProcessCpuTime();
+	}
+}
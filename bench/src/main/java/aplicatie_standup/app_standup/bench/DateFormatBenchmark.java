@@ -0,0 +1,67 @@
+package aplicatie_standup.app_standup.bench;
+
+import aplicatie_standup.app_standup.view.DateFormats;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Timestamp;
+import java.text.SimpleDateFormat;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costul formatarii datei de cumparare pentru o pagina de bilete: SimpleDateFormat
+ * creat la fiecare cerere (varianta veche din /bilete) fata de DateTimeFormatter-ul
+ * partajat din DateFormats. Rulat cu 4 fire, ca mai multe cereri concurente.
+ * <p>
+ * Rulare (din radacina, dupa mvn install -DskipTests):
+ *         mvn -f bench exec:exec -Dexec.args="-cp %classpath aplicatie_standup.app_standup.bench.DateFormatBenchmark"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class DateFormatBenchmark {
+
+	@Param({"10000"})
+	int randuri;
+
+	private Timestamp[] timestamps;
+	private LocalDateTime[] localDateTimes;
+	private final DateFormats fmt = new DateFormats();
+
+	@Setup
+	public void date() {
+		timestamps = new Timestamp[randuri];
+		localDateTimes = new LocalDateTime[randuri];
+		LocalDateTime start = LocalDateTime.of(2026, 10, 1, 18, 30);
+		for (int i = 0; i < randuri; i++) {
+			localDateTimes[i] = start.plusMinutes(i * 7L);
+			timestamps[i] = Timestamp.valueOf(localDateTimes[i]);
+		}
+	}
+
+	@Benchmark
+	public void simpleDateFormatPeCerere(Blackhole bh) {
+		SimpleDateFormat sdf = new SimpleDateFormat("dd/MM/yyyy HH:mm");
+		for (Timestamp ts : timestamps) bh.consume(sdf.format(ts));
+	}
+
+	@Benchmark
+	public void dateTimeFormatterPartajat(Blackhole bh) {
+		for (LocalDateTime ldt : localDateTimes) bh.consume(fmt.dataOra(ldt));
+	}
+
+	public static void main(String[] args) throws Exception {
+		new Runner(new OptionsBuilder()
+				.include(DateFormatBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class)
+				.build()).run();
+	}
+}
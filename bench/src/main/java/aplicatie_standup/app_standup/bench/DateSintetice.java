@@ -0,0 +1,78 @@
+package aplicatie_standup.app_standup.bench;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Set de date generat direct in baza (INSERT ... SELECT din SYSTEM_RANGE, fara drum prin Java),
+ * ca si milioane de bilete sa se incarce in cateva secunde. Baza trebuie sa fie goala, deci
+ * ID-urile pornesc de la 1. Marimile se citesc din proprietatile sistem (-Dbilete=... etc.).
+ * <p>
+ * Spectacolele sunt intinse pe un an in urma si un an inainte; capacitatea locatiilor este
+ * destul de mare incat cumpararile din generatorul de incarcare sa nu dea de "sold out".
+ */
+public final class DateSintetice {
+
+	public record Marime(int locatii, int organizatori, int spectacole, int spectatori, int bilete, int utilizatori) {
+
+		public static Marime dinProprietati() {
+			return new Marime(Integer.getInteger("locatii", 50), Integer.getInteger("organizatori", 20),
+					Integer.getInteger("spectacole", 2_000), Integer.getInteger("spectatori", 20_000),
+					Integer.getInteger("bilete", 1_000_000), Integer.getInteger("utilizatori", 1_000));
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%d locatii, %d organizatori, %d spectacole, %d spectatori, %d bilete, %d utilizatori",
+					locatii, organizatori, spectacole, spectatori, bilete, utilizatori);
+		}
+	}
+
+	/** Parola conturilor bench1 ... benchN. */
+	public static final String PAROLA = "bench";
+
+	// Acelasi hash (cost implicit al aplicatiei) pentru toate conturile, ca login-ul sa nu treaca prin migrare
+	private static final String HASH_PAROLA = new BCryptPasswordEncoder(10).encode(PAROLA);
+
+	private DateSintetice() {}
+
+	/** Creeaza tabelele din schema testelor aplicatiei (copiata in bench/schema.sql). */
+	public static void creeazaSchema(DataSource dataSource) throws SQLException {
+		try (Connection conn = dataSource.getConnection()) {
+			ScriptUtils.executeSqlScript(conn, new ClassPathResource("bench/schema.sql"));
+		}
+	}
+
+	public static void genereaza(JdbcTemplate jdbc, Marime m) {
+		int capacitate = m.bilete() / Math.max(1, m.spectacole()) * 4 + 100_000;
+		jdbc.update("INSERT INTO Locatie (Nume_Locatie, Adresa, Oras, Capacitate) " +
+				"SELECT CONCAT('Sala ', X), CONCAT('Str. Comediei ', X), CONCAT('Oras', MOD(X, 10)), ? FROM SYSTEM_RANGE(1, ?)",
+				capacitate, m.locatii());
+		jdbc.update("INSERT INTO Organizator (Nume_Organizator, Email_Organizator, Telefon_Organizator) " +
+				"SELECT CONCAT('Organizator ', X), CONCAT('org', X, '@bench.ro'), CONCAT('0730', X) FROM SYSTEM_RANGE(1, ?)",
+				m.organizatori());
+		jdbc.update("INSERT INTO Spectacol (Titlu, Data_Spectacol, Ora, Pret_Bilet, ID_Locatie, ID_Organizator) " +
+				"SELECT CONCAT('Seara de comedie ', X), DATEADD('DAY', MOD(X, 730) - 365, CURRENT_DATE), '20:00:00', " +
+				"30 + MOD(X, 70), MOD(X, ?) + 1, MOD(X, ?) + 1 FROM SYSTEM_RANGE(1, ?)",
+				m.locatii(), m.organizatori(), m.spectacole());
+		jdbc.update("INSERT INTO Spectator (Nume_Spectator, Email_Spectator, Telefon_Spectator) " +
+				"SELECT CONCAT('Spectator ', X), CONCAT('s', X, '@bench.ro'), CONCAT('07', X) FROM SYSTEM_RANGE(1, ?)",
+				m.spectatori());
+		jdbc.update("INSERT INTO Utilizator (Username, Parola, Rol, ID_Spectator) " +
+				"SELECT CONCAT('bench', X), ?, 'user', X FROM SYSTEM_RANGE(1, ?)",
+				HASH_PAROLA, Math.min(m.utilizatori(), m.spectatori()));
+		// In transe, ca tranzactia H2 sa nu tina milioane de randuri nescrise
+		for (int start = 1; start <= m.bilete(); start += 200_000) {
+			jdbc.update("INSERT INTO Bilet (ID_Spectacol, ID_Spectator, Data_Cumparare, Cod_Bilet) " +
+					"SELECT MOD(X, ?) + 1, MOD(X * 7919, ?) + 1, DATEADD('MINUTE', -MOD(X, 525600), CURRENT_TIMESTAMP), CONCAT('G', X) " +
+					"FROM SYSTEM_RANGE(?, ?)",
+					m.spectacole(), m.spectatori(), start, Math.min(m.bilete(), start + 199_999));
+		}
+	}
+}
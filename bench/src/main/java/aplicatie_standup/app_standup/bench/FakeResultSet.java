@@ -0,0 +1,39 @@
+package aplicatie_standup.app_standup.bench;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+
+/**
+ * ResultSet in memorie peste un tablou de randuri, ca benchmark-urile sa masoare
+ * doar maparea, fara driver si retea. Suporta doar accesul pe index folosit de mapper-e.
+ */
+final class FakeResultSet {
+
+	private FakeResultSet() {}
+
+	static ResultSet peste(Object[][] randuri) {
+		int[] curent = {-1};
+		boolean[] nul = {false};
+		return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+				(proxy, metoda, args) -> {
+					String nume = metoda.getName();
+					if (nume.equals("next")) return ++curent[0] < randuri.length;
+					if (nume.equals("beforeFirst")) { curent[0] = -1; return null; }
+					if (nume.equals("wasNull")) return nul[0];
+					if (nume.equals("close")) return null;
+					if (nume.startsWith("get") && args != null && args[0] instanceof Integer coloana) {
+						Object valoare = randuri[curent[0]][coloana - 1];
+						nul[0] = valoare == null;
+						if (nume.equals("getInt")) return valoare == null ? 0 : ((Number) valoare).intValue();
+						// getObject(i, LocalDate.class) etc., conversia pe care o face si driverul JDBC 4.2
+						if (nume.equals("getObject") && args.length == 2 && valoare != null) {
+							if (valoare instanceof java.sql.Date d && args[1] == java.time.LocalDate.class) return d.toLocalDate();
+							if (valoare instanceof java.sql.Time t && args[1] == java.time.LocalTime.class) return t.toLocalTime();
+							if (valoare instanceof java.sql.Timestamp ts && args[1] == java.time.LocalDateTime.class) return ts.toLocalDateTime();
+						}
+						return valoare;
+					}
+					throw new UnsupportedOperationException(nume);
+				});
+	}
+}
@@ -0,0 +1,45 @@
+package aplicatie_standup.app_standup.bench;
+
+import java.util.Arrays;
+
+/** Duratele (ns) masurate de un client pentru un endpoint; clientii le combina la final cu adauga(Latente). */
+final class Latente {
+
+	private long[] durate = new long[1024];
+	private int n;
+	private int erori;
+
+	void adauga(long durataNs, boolean ok) {
+		if (n == durate.length) durate = Arrays.copyOf(durate, n * 2);
+		durate[n++] = durataNs;
+		if (!ok) erori++;
+	}
+
+	/** O eroare descoperita dupa cerere (ex. cumpararea refuzata, vazuta pe pagina urmatoare). */
+	void eroare() {
+		erori++;
+	}
+
+	void adauga(Latente alta) {
+		if (n + alta.n > durate.length) durate = Arrays.copyOf(durate, Math.max(durate.length * 2, n + alta.n));
+		System.arraycopy(alta.durate, 0, durate, n, alta.n);
+		n += alta.n;
+		erori += alta.erori;
+	}
+
+	int numar() {
+		return n;
+	}
+
+	int erori() {
+		return erori;
+	}
+
+	/** Percentila p (0..1) in milisecunde. */
+	double percentilaMs(double p) {
+		if (n == 0) return 0;
+		long[] sortate = Arrays.copyOf(durate, n);
+		Arrays.sort(sortate);
+		return sortate[Math.min(n - 1, (int) Math.ceil(p * n) - 1)] / 1_000_000.0;
+	}
+}
@@ -0,0 +1,167 @@
+package aplicatie_standup.app_standup.bench;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Generator de incarcare pentru fluxul de cumparare: fiecare client se logheaza cu un cont
+ * bench1..benchN, apoi repeta /spectacole (jumatate din cereri cu q) -> POST /bilet/buy ->
+ * /bilete (pagina la care duce redirect-ul si care arata rezultatul cumpararii). La fiecare
+ * flowuriPeSesiune fluxuri clientul se logheaza din nou, ca si /login sa aiba masuratori.
+ * Masuratorile din primele incalzire secunde sunt ignorate.
+ * <p>
+ * Fara -Durl, aplicatia este pornita in acelasi proces pe H2 cu setul de date din DateSintetice.
+ * La final se afiseaza debitul si percentilele per endpoint; cu -DmaxP99Ms / -DmaxErori
+ * procesul iese cu codul 1 daca vreun endpoint depaseste pragul (pentru verificarea dinainte de deploy).
+ * <p>
+ * Rulare (din radacina, dupa mvn install -DskipTests):
+ *         mvn -f bench exec:exec -Dexec.args="-cp %classpath -Dbilete=2000000 aplicatie_standup.app_standup.bench.LoadGenerator"
+ * Parametri (-D): clienti=50, secunde=30, incalzire=5, flowuriPeSesiune=10, url, maxP99Ms, maxErori
+ *                 si marimile setului de date (vezi DateSintetice.Marime)
+ */
+public class LoadGenerator {
+
+	private static final int CLIENTI = Integer.getInteger("clienti", 50);
+	private static final int SECUNDE = Integer.getInteger("secunde", 30);
+	private static final int INCALZIRE = Integer.getInteger("incalzire", 5);
+	private static final int FLOWURI_PE_SESIUNE = Integer.getInteger("flowuriPeSesiune", 10);
+	private static final String URL = System.getProperty("url");
+	private static final Long MAX_P99_MS = Long.getLong("maxP99Ms");
+	private static final Integer MAX_ERORI = Integer.getInteger("maxErori");
+
+	private static final List<String> ENDPOINTURI = List.of("POST /login", "GET /spectacole", "POST /bilet/buy", "GET /bilete");
+
+	public static void main(String[] args) throws Exception {
+		DateSintetice.Marime marime = DateSintetice.Marime.dinProprietati();
+		AplicatieBench aplicatie = URL == null ? AplicatieBench.porneste(marime, null) : null;
+		boolean regresie;
+		try {
+			String baza = URL != null ? URL : aplicatie.adresa();
+			System.out.printf("%d clienti, %d s (+%d s incalzire) pe %s%n", CLIENTI, SECUNDE, INCALZIRE, baza);
+			regresie = raporteaza(incarca(baza, marime));
+		} finally {
+			if (aplicatie != null) aplicatie.close();
+		}
+		if (regresie) System.exit(1);
+	}
+
+	private static Map<String, Latente> incarca(String baza, DateSintetice.Marime marime) throws Exception {
+		long inceputMasurare = System.nanoTime() + INCALZIRE * 1_000_000_000L;
+		long sfarsit = inceputMasurare + SECUNDE * 1_000_000_000L;
+		int conturi = Math.min(marime.utilizatori(), marime.spectatori());
+
+		List<Future<Map<String, Latente>>> rezultate = new ArrayList<>();
+		try (ExecutorService clienti = Executors.newVirtualThreadPerTaskExecutor()) {
+			HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).executor(clienti)
+					.connectTimeout(Duration.ofSeconds(5)).build();
+			for (int i = 0; i < CLIENTI; i++) {
+				String utilizator = "bench" + (i % conturi + 1);
+				rezultate.add(clienti.submit(() -> new Client(http, baza, utilizator, marime.spectacole(), inceputMasurare).ruleaza(sfarsit)));
+			}
+			Map<String, Latente> total = new LinkedHashMap<>();
+			for (String e : ENDPOINTURI) total.put(e, new Latente());
+			for (Future<Map<String, Latente>> r : rezultate) r.get().forEach((e, l) -> total.get(e).adauga(l));
+			return total;
+		}
+	}
+
+	private static boolean raporteaza(Map<String, Latente> total) {
+		boolean regresie = false;
+		System.out.printf("%n%-18s %9s %10s %9s %9s %9s %9s %7s%n", "endpoint", "cereri", "cereri/s", "p50 ms", "p90 ms", "p99 ms", "max ms", "erori");
+		for (Map.Entry<String, Latente> e : total.entrySet()) {
+			Latente l = e.getValue();
+			double p99 = l.percentilaMs(0.99);
+			System.out.printf("%-18s %9d %10.1f %9.1f %9.1f %9.1f %9.1f %7d%n", e.getKey(), l.numar(), l.numar() / (double) SECUNDE,
+					l.percentilaMs(0.50), l.percentilaMs(0.90), p99, l.percentilaMs(1.0), l.erori());
+			if (MAX_P99_MS != null && p99 > MAX_P99_MS) {
+				System.out.printf("REGRESIE: %s p99 %.1f ms > %d ms%n", e.getKey(), p99, MAX_P99_MS);
+				regresie = true;
+			}
+			if (MAX_ERORI != null && l.erori() > MAX_ERORI) {
+				System.out.printf("REGRESIE: %s %d erori > %d%n", e.getKey(), l.erori(), MAX_ERORI);
+				regresie = true;
+			}
+		}
+		return regresie;
+	}
+
+	/** Un utilizator care parcurge fluxul in bucla, pe firul lui virtual. */
+	private static final class Client {
+		private final HttpClient http;
+		private final String baza;
+		private final String utilizator;
+		private final int spectacole;
+		private final long inceputMasurare;
+		private final Map<String, Latente> latente = new LinkedHashMap<>();
+		private String cookie;
+
+		Client(HttpClient http, String baza, String utilizator, int spectacole, long inceputMasurare) {
+			this.http = http;
+			this.baza = baza;
+			this.utilizator = utilizator;
+			this.spectacole = spectacole;
+			this.inceputMasurare = inceputMasurare;
+			for (String e : ENDPOINTURI) latente.put(e, new Latente());
+		}
+
+		Map<String, Latente> ruleaza(long sfarsit) {
+			ThreadLocalRandom random = ThreadLocalRandom.current();
+			for (int flux = 0; System.nanoTime() < sfarsit; flux++) {
+				if (flux % FLOWURI_PE_SESIUNE == 0) {
+					HttpResponse<String> r = trimite("POST /login", formular("/login", "username=" + utilizator + "&password=" + DateSintetice.PAROLA));
+					if (r == null || r.statusCode() != 302) { flux = -1; continue; }
+					cookie = r.headers().firstValue("Set-Cookie").map(c -> c.split(";", 2)[0]).orElse(cookie);
+				}
+				String q = random.nextBoolean() ? "?q=comedie+" + (random.nextInt(spectacole) + 1) : "";
+				trimite("GET /spectacole", get("/spectacole" + q));
+				HttpResponse<String> cumparare = trimite("POST /bilet/buy", formular("/bilet/buy", "id_spectacol=" + (random.nextInt(spectacole) + 1)));
+				HttpResponse<String> bilete = trimite("GET /bilete", get("/bilete"));
+				// Rezultatul cumpararii apare ca mesaj flash pe pagina de dupa redirect
+				if (cumparare != null && bilete != null && !bilete.body().contains("Bilet cumpărat") && System.nanoTime() >= inceputMasurare) {
+					latente.get("POST /bilet/buy").eroare();
+				}
+			}
+			return latente;
+		}
+
+		private HttpRequest get(String cale) {
+			return cerere(cale).GET().build();
+		}
+
+		private HttpRequest formular(String cale, String corp) {
+			return cerere(cale).header("Content-Type", "application/x-www-form-urlencoded")
+					.POST(HttpRequest.BodyPublishers.ofString(corp)).build();
+		}
+
+		private HttpRequest.Builder cerere(String cale) {
+			HttpRequest.Builder b = HttpRequest.newBuilder(URI.create(baza + cale)).timeout(Duration.ofSeconds(30));
+			return cookie == null ? b : b.header("Cookie", cookie);
+		}
+
+		private HttpResponse<String> trimite(String endpoint, HttpRequest cerere) {
+			long t0 = System.nanoTime();
+			HttpResponse<String> raspuns = null;
+			try {
+				raspuns = http.send(cerere, HttpResponse.BodyHandlers.ofString());
+			} catch (Exception ex) {
+				if (ex instanceof InterruptedException) Thread.currentThread().interrupt();
+			}
+			if (t0 >= inceputMasurare) {
+				boolean ok = raspuns != null && raspuns.statusCode() < 400;
+				latente.get(endpoint).adauga(System.nanoTime() - t0, ok);
+			}
+			return raspuns;
+		}
+	}
+}
@@ -0,0 +1,47 @@
+package aplicatie_standup.app_standup.bench;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Durata unei verificari BCrypt (un login reusit) pentru mai multe costuri, ca sa alegem
+ * app.login.bcrypt-cost: fiecare pas in plus dubleaza timpul, deci si efortul unui atac offline.
+ * <p>
+ * Rulare (din radacina, dupa mvn install -DskipTests):
+ *         mvn -f bench exec:exec -Dexec.args="-cp %classpath aplicatie_standup.app_standup.bench.PasswordHashBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class PasswordHashBenchmark {
+
+	@Param({"8", "10", "12"})
+	int cost;
+
+	private BCryptPasswordEncoder encoder;
+	private String hash;
+
+	@Setup
+	public void hash() {
+		encoder = new BCryptPasswordEncoder(cost);
+		hash = encoder.encode(DateSintetice.PAROLA);
+	}
+
+	@Benchmark
+	public boolean verificare() {
+		return encoder.matches(DateSintetice.PAROLA, hash);
+	}
+
+	public static void main(String[] args) throws Exception {
+		new Runner(new OptionsBuilder()
+				.include(PasswordHashBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+}
@@ -0,0 +1,81 @@
+package aplicatie_standup.app_standup.bench;
+
+import aplicatie_standup.app_standup.service.ReportQueries;
+import aplicatie_standup.app_standup.service.ReportSource;
+import aplicatie_standup.app_standup.service.SalesAggregates;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sectiunile din /raport calculate cu interogarile SQL complete (ReportQueries) fata de
+ * agregatele tinute in memorie (SalesAggregates), pe setul de date sintetic in H2.
+ * Agregatele se construiesc o singura data, in @Setup, ca in aplicatie dupa prima cerere.
+ * <p>
+ * Rulare (din radacina, dupa mvn install -DskipTests):
+ *         mvn -f bench exec:exec -Dexec.args="-cp %classpath aplicatie_standup.app_standup.bench.ReportBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReportBenchmark {
+
+	@Param({"200000"})
+	int bilete;
+
+	@Param({"sql", "agregate"})
+	String sursa;
+
+	private ReportSource raport;
+	private final LocalDate start = LocalDate.now().minusDays(90);
+	private final LocalDate end = LocalDate.now();
+
+	@Setup
+	public void date() throws SQLException {
+		JdbcDataSource dataSource = new JdbcDataSource();
+		dataSource.setURL("jdbc:h2:mem:raport_" + sursa + ";MODE=MSSQLServer;DB_CLOSE_DELAY=-1");
+		JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+		jdbc.execute("DROP ALL OBJECTS");
+		DateSintetice.creeazaSchema(dataSource);
+		DateSintetice.genereaza(jdbc, new DateSintetice.Marime(50, 20, 2_000, 20_000, bilete, 0));
+
+		raport = "sql".equals(sursa) ? new ReportQueries(dataSource) : new SalesAggregates(dataSource, new SimpleMeterRegistry());
+		raport.vanzari(start, end);
+	}
+
+	@Benchmark
+	public Object vanzari() throws SQLException {
+		return raport.vanzari(start, end);
+	}
+
+	@Benchmark
+	public Object topOrganizatori() throws SQLException {
+		return raport.topOrganizatori();
+	}
+
+	@Benchmark
+	public Object fidel() throws SQLException {
+		return raport.fidel();
+	}
+
+	@Benchmark
+	public Object gradOcupare() throws SQLException {
+		return raport.gradOcupare();
+	}
+
+	public static void main(String[] args) throws Exception {
+		new Runner(new OptionsBuilder()
+				.include(ReportBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+}
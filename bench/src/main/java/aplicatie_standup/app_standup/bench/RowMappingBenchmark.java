@@ -0,0 +1,120 @@
+package aplicatie_standup.app_standup.bench;
+
+import aplicatie_standup.app_standup.db.RowMappers;
+import aplicatie_standup.app_standup.model.BiletRow;
+import aplicatie_standup.app_standup.model.SpectacolRow;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara maparea randurilor in HashMap (varianta veche) cu maparea in record-uri
+ * prin RowMappers, pentru /spectacole si /bilete. Rata de alocare se vede cu profiler-ul GC.
+ * <p>
+ * Rulare (din radacina, dupa mvn install -DskipTests):
+ *         mvn -f bench exec:exec -Dexec.args="-cp %classpath aplicatie_standup.app_standup.bench.RowMappingBenchmark"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RowMappingBenchmark {
+
+	@Param({"1000"})
+	int randuri;
+
+	private Object[][] spectacole;
+	private Object[][] bilete;
+
+	@Setup
+	public void date() {
+		spectacole = new Object[randuri][];
+		bilete = new Object[randuri][];
+		for (int i = 0; i < randuri; i++) {
+			spectacole[i] = new Object[]{i, "Spectacol " + i, Date.valueOf("2026-11-" + (10 + i % 20)), Time.valueOf("20:00:00"),
+					new BigDecimal("75.50"), "Sala " + (i % 7), "Organizator " + (i % 5), i % 7, i % 5};
+			bilete[i] = new Object[]{i, "Spectacol " + (i % 50), "Spectator " + i, Timestamp.valueOf("2026-10-01 18:30:00"), "COD" + i};
+		}
+	}
+
+	@Benchmark
+	public List<Map<String, Object>> spectacoleHashMap() throws SQLException {
+		SimpleDateFormat sdf = new SimpleDateFormat("dd/MM/yyyy");
+		ResultSet rs = FakeResultSet.peste(spectacole);
+		List<Map<String, Object>> lista = new ArrayList<>();
+		while (rs.next()) {
+			Map<String, Object> spectacol = new HashMap<>();
+			spectacol.put("id", rs.getInt(1));
+			spectacol.put("titlu", rs.getString(2));
+			Date dataDb = rs.getDate(3);
+			spectacol.put("data", dataDb != null ? sdf.format(dataDb) : "");
+			spectacol.put("ora", rs.getTime(4));
+			spectacol.put("pret", rs.getBigDecimal(5));
+			spectacol.put("locatie", rs.getString(6));
+			spectacol.put("organizator", rs.getString(7));
+			spectacol.put("id_locatie", rs.getInt(8));
+			spectacol.put("id_organizator", rs.getInt(9));
+			lista.add(spectacol);
+		}
+		return lista;
+	}
+
+	@Benchmark
+	public List<SpectacolRow> spectacoleRecord() throws SQLException {
+		RowMapper<SpectacolRow> mapper = RowMappers.SPECTACOL;
+		ResultSet rs = FakeResultSet.peste(spectacole);
+		List<SpectacolRow> lista = new ArrayList<>();
+		while (rs.next()) lista.add(mapper.mapRow(rs, lista.size()));
+		return lista;
+	}
+
+	@Benchmark
+	public List<Map<String, Object>> bileteHashMap() throws SQLException {
+		SimpleDateFormat sdf = new SimpleDateFormat("dd/MM/yyyy HH:mm");
+		ResultSet rs = FakeResultSet.peste(bilete);
+		List<Map<String, Object>> lista = new ArrayList<>();
+		while (rs.next()) {
+			Map<String, Object> bilet = new HashMap<>();
+			bilet.put("id", rs.getInt(1)); bilet.put("spectacol", rs.getString(2));
+			bilet.put("spectator", rs.getString(3));
+			Timestamp ts = rs.getTimestamp(4);
+			bilet.put("data_cumparare", ts != null ? sdf.format(ts) : "");
+			bilet.put("cod", rs.getString(5));
+			lista.add(bilet);
+		}
+		return lista;
+	}
+
+	@Benchmark
+	public List<BiletRow> bileteRecord() throws SQLException {
+		RowMapper<BiletRow> mapper = RowMappers.BILET;
+		ResultSet rs = FakeResultSet.peste(bilete);
+		List<BiletRow> lista = new ArrayList<>();
+		while (rs.next()) lista.add(mapper.mapRow(rs, lista.size()));
+		return lista;
+	}
+
+	public static void main(String[] args) throws Exception {
+		new Runner(new OptionsBuilder()
+				.include(RowMappingBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class)
+				.build()).run();
+	}
+}
@@ -0,0 +1,103 @@
+package aplicatie_standup.app_standup.bench;
+
+import aplicatie_standup.app_standup.service.SalaDeAsteptare;
+import aplicatie_standup.app_standup.service.SalaDeAsteptare.Loc;
+import aplicatie_standup.app_standup.service.SalaDeAsteptare.Stare;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Deschiderea vanzarii unui spectacol mare: cumparatori sosesc in primele sosireMs milisecunde
+ * (fiecare pe un fir virtual) si trec prin SalaDeAsteptare ca prin POST /bilet/buy. Cine asteapta
+ * intreaba de loc la fiecare reimprospatareMs (pagina /coada), iar o parte (abandon) renunta.
+ * Cumpararea propriu-zisa este simulata cu cumparareMs de asteptare. Se afiseaza admiterile pe
+ * secunda fata de rata configurata si percentilele asteptarii, direct si din metricile serviciului.
+ * Cine renunta inainte sa treaca abandon-seconds poate fi totusi admis (serviciul nu stie ca a plecat),
+ * deci coada.admise{mod=coada} este putin peste admiterile vazute de clienti.
+ * <p>
+ * Rulare (din radacina, dupa mvn install -DskipTests):
+ *         mvn -f bench exec:exec -Dexec.args="-cp %classpath aplicatie_standup.app_standup.bench.SalaDeAsteptareLoadTest"
+ * Parametri (-D): cumparatori=5000, sosireMs=1000, rata=500, rafala=50, maxCoada=4000,
+ *                 reimprospatareMs=200, cumparareMs=5, abandon=0.05
+ */
+public class SalaDeAsteptareLoadTest {
+
+	private static final int CUMPARATORI = Integer.getInteger("cumparatori", 5000);
+	private static final int SOSIRE_MS = Integer.getInteger("sosireMs", 1000);
+	private static final double RATA = Double.parseDouble(System.getProperty("rata", "500"));
+	private static final int RAFALA = Integer.getInteger("rafala", 50);
+	private static final int MAX_COADA = Integer.getInteger("maxCoada", 4000);
+	private static final int REIMPROSPATARE_MS = Integer.getInteger("reimprospatareMs", 200);
+	private static final int CUMPARARE_MS = Integer.getInteger("cumparareMs", 5);
+	private static final double ABANDON = Double.parseDouble(System.getProperty("abandon", "0.05"));
+	private static final int ID_SPECTACOL = 1;
+
+	private enum Rezultat { DIRECT, DIN_COADA, RESPINS, ABANDONAT }
+
+	public static void main(String[] args) throws Exception {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		// Abandon dupa 2 reimprospatari ratate
+		long abandonSecunde = Math.max(1, 2 * REIMPROSPATARE_MS / 1000);
+		SalaDeAsteptare sala = new SalaDeAsteptare(id -> true, registry, true, RATA, RAFALA, MAX_COADA, abandonSecunde, 120);
+
+		System.out.printf("%d cumparatori in %d ms, rata %.0f/s, rafala %d, coada maxima %d%n",
+				CUMPARATORI, SOSIRE_MS, RATA, RAFALA, MAX_COADA);
+
+		long start = System.nanoTime();
+		List<Future<Rezultat>> rezultate = new ArrayList<>();
+		Latente asteptari = new Latente();
+		try (ExecutorService clienti = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int i = 0; i < CUMPARATORI; i++) {
+				int idSpectator = i + 1;
+				long sosire = start + (long) i * SOSIRE_MS * 1_000_000L / CUMPARATORI;
+				rezultate.add(clienti.submit(() -> cumpara(sala, idSpectator, sosire, asteptari)));
+			}
+			int[] numar = new int[Rezultat.values().length];
+			for (Future<Rezultat> r : rezultate) numar[r.get().ordinal()]++;
+			double secunde = (System.nanoTime() - start) / 1e9;
+
+			int admise = numar[Rezultat.DIRECT.ordinal()] + numar[Rezultat.DIN_COADA.ordinal()];
+			System.out.printf("%nadmise direct %d, din coada %d, respinse %d, abandonate %d%n",
+					numar[Rezultat.DIRECT.ordinal()], numar[Rezultat.DIN_COADA.ordinal()],
+					numar[Rezultat.RESPINS.ordinal()], numar[Rezultat.ABANDONAT.ordinal()]);
+			System.out.printf("admiteri/s %.0f (rata %.0f + rafala %d in %.1f s)%n", admise / secunde, RATA, RAFALA, secunde);
+			System.out.printf("asteptare p50 %.0f ms, p99 %.0f ms, max %.0f ms%n",
+					asteptari.percentilaMs(0.50), asteptari.percentilaMs(0.99), asteptari.percentilaMs(1.0));
+			System.out.printf("metrici: coada.admise direct %.0f / coada %.0f, coada.respinse %.0f, coada.abandonate %.0f%n",
+					registry.get("coada.admise").tag("mod", "direct").counter().count(),
+					registry.get("coada.admise").tag("mod", "coada").counter().count(),
+					registry.get("coada.respinse").counter().count(),
+					registry.get("coada.abandonate").counter().count());
+		}
+	}
+
+	private static Rezultat cumpara(SalaDeAsteptare sala, int idSpectator, long sosire, Latente asteptari) throws Exception {
+		long pauza = sosire - System.nanoTime();
+		if (pauza > 0) Thread.sleep(pauza / 1_000_000, (int) (pauza % 1_000_000));
+		long t0 = System.nanoTime();
+		Loc loc = sala.intra(ID_SPECTACOL, idSpectator);
+		if (loc.stare() == Stare.RESPINS) return Rezultat.RESPINS;
+		boolean direct = loc.stare() == Stare.ADMIS;
+		boolean renunta = ThreadLocalRandom.current().nextDouble() < ABANDON;
+		while (loc != null && loc.stare() == Stare.ASTEAPTA) {
+			if (renunta) return Rezultat.ABANDONAT;
+			Thread.sleep(REIMPROSPATARE_MS);
+			loc = sala.stare(ID_SPECTACOL, idSpectator);
+		}
+		if (loc == null) return Rezultat.ABANDONAT;
+		if (!direct) {
+			synchronized (asteptari) {
+				asteptari.adauga(System.nanoTime() - t0, true);
+			}
+		}
+		Thread.sleep(CUMPARARE_MS);
+		sala.foloseste(ID_SPECTACOL, idSpectator);
+		return direct ? Rezultat.DIRECT : Rezultat.DIN_COADA;
+	}
+}
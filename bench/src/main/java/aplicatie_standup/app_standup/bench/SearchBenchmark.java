@@ -0,0 +1,132 @@
+package aplicatie_standup.app_standup.bench;
+
+import aplicatie_standup.app_standup.db.Variante;
+import aplicatie_standup.app_standup.service.SearchIndex;
+import org.h2.jdbcx.JdbcDataSource;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cautarea din /spectacole pe un catalog de 50.000 de spectacole (H2 in memorie):
+ * LIKE '%q%' pe trei coloane cu OR, fata de SearchIndex + ID IN (...), ambele cu
+ * prima pagina (TOP 51) sortata dupa data.
+ * <p>
+ * Rulare (din radacina, dupa mvn install -DskipTests):
+ *         mvn -f bench exec:exec -Dexec.args="-cp %classpath aplicatie_standup.app_standup.bench.SearchBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+
+	private static final String[] CUVINTE = {"Comedie", "Seara", "Improvizatie", "Roast", "Monolog", "Satira", "Gala", "Turneu",
+			"Premiera", "Maraton", "Deschis", "Special", "Noapte", "Weekend", "Festival", "Clasic"};
+
+	private static final String SELECT = "SELECT TOP 51 s.ID_Spectacol, s.Titlu, s.Data_Spectacol, l.Nume_Locatie, o.Nume_Organizator " +
+			"FROM Spectacol s LEFT JOIN Locatie l ON s.ID_Locatie = l.ID_Locatie LEFT JOIN Organizator o ON s.ID_Organizator = o.ID_Organizator";
+	private static final String ORDER = " ORDER BY s.Data_Spectacol, s.ID_Spectacol";
+	// app.search.max-ids
+	private static final int MAX_IDS = 1000;
+
+	@Param({"50000"})
+	int spectacole;
+
+	// un organizator (~1000 randuri), doua cuvinte, un prefix care potriveste prea mult (-> LIKE)
+	@Param({"Ionescu", "gala orasul7", "improv"})
+	String q;
+
+	private JdbcDataSource dataSource;
+	private Connection conn;
+	private SearchIndex index;
+
+	@Setup
+	public void date() throws SQLException {
+		dataSource = new JdbcDataSource();
+		dataSource.setURL("jdbc:h2:mem:cautare;MODE=MSSQLServer;DB_CLOSE_DELAY=-1");
+		conn = dataSource.getConnection();
+		try (Statement st = conn.createStatement()) {
+			st.execute("DROP ALL OBJECTS");
+			st.execute("CREATE TABLE Locatie (ID_Locatie INT IDENTITY PRIMARY KEY, Nume_Locatie NVARCHAR(100))");
+			st.execute("CREATE TABLE Organizator (ID_Organizator INT IDENTITY PRIMARY KEY, Nume_Organizator NVARCHAR(100))");
+			st.execute("CREATE TABLE Spectacol (ID_Spectacol INT IDENTITY PRIMARY KEY, Titlu NVARCHAR(200), Data_Spectacol DATE, " +
+					"ID_Locatie INT, ID_Organizator INT)");
+			st.execute("CREATE INDEX IX_Data ON Spectacol (Data_Spectacol, ID_Spectacol)");
+		}
+		try (PreparedStatement l = conn.prepareStatement("INSERT INTO Locatie (Nume_Locatie) VALUES (?)");
+			 PreparedStatement o = conn.prepareStatement("INSERT INTO Organizator (Nume_Organizator) VALUES (?)")) {
+			for (int i = 0; i < 200; i++) { l.setString(1, "Sala Orasul" + i); l.addBatch(); }
+			for (int i = 0; i < 50; i++) { o.setString(1, "Agentia " + (i == 7 ? "Ionescu" : "Org" + i)); o.addBatch(); }
+			l.executeBatch(); o.executeBatch();
+		}
+		try (PreparedStatement ps = conn.prepareStatement("INSERT INTO Spectacol (Titlu, Data_Spectacol, ID_Locatie, ID_Organizator) VALUES (?, ?, ?, ?)")) {
+			for (int i = 0; i < spectacole; i++) {
+				ps.setString(1, CUVINTE[i % CUVINTE.length] + " " + CUVINTE[(i / 7) % CUVINTE.length] + " " + i);
+				ps.setDate(2, java.sql.Date.valueOf(java.time.LocalDate.of(2026, 1, 1).plusDays(i % 1500)));
+				ps.setInt(3, 1 + i % 200);
+				ps.setInt(4, 1 + i % 50);
+				ps.addBatch();
+				if (i % 1000 == 999) ps.executeBatch();
+			}
+			ps.executeBatch();
+		}
+		index = new SearchIndex(dataSource, MAX_IDS);
+		index.construieste(SearchIndex.Entitate.SPECTACOL);
+	}
+
+	@TearDown
+	public void inchide() throws SQLException {
+		conn.close();
+	}
+
+	@Benchmark
+	public int like() throws SQLException {
+		try (PreparedStatement ps = conn.prepareStatement(SELECT +
+				" WHERE (s.Titlu LIKE ? OR l.Nume_Locatie LIKE ? OR o.Nume_Organizator LIKE ?)" + ORDER)) {
+			String sVal = "%" + q + "%";
+			ps.setString(1, sVal); ps.setString(2, sVal); ps.setString(3, sVal);
+			return numara(ps);
+		}
+	}
+
+	// Ca in ListaRepository: peste app.search.max-ids rezultate se revine la LIKE; ID-urile sunt parametri
+	@Benchmark
+	public int index() throws SQLException {
+		int[] ids = index.cauta(SearchIndex.Entitate.SPECTACOL, q);
+		if (ids == null) return like();
+		if (ids.length == 0) return 0;
+		int parametri = Variante.parametriIn(ids.length, MAX_IDS);
+		try (PreparedStatement ps = conn.prepareStatement(SELECT + " WHERE s.ID_Spectacol IN (" + "?,".repeat(parametri - 1) + "?)" + ORDER)) {
+			for (int i = 0; i < parametri; i++) ps.setInt(i + 1, ids[Math.min(i, ids.length - 1)]);
+			return numara(ps);
+		}
+	}
+
+	@Benchmark
+	public int doarIndex() {
+		int[] ids = index.cauta(SearchIndex.Entitate.SPECTACOL, q);
+		return ids != null ? ids.length : -1;
+	}
+
+	private static int numara(PreparedStatement ps) throws SQLException {
+		int n = 0;
+		try (ResultSet rs = ps.executeQuery()) {
+			while (rs.next()) n++;
+		}
+		return n;
+	}
+
+	public static void main(String[] args) throws Exception {
+		new Runner(new OptionsBuilder().include(SearchBenchmark.class.getSimpleName()).build()).run();
+	}
+}
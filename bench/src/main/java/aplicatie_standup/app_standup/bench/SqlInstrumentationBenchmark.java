@@ -0,0 +1,79 @@
+package aplicatie_standup.app_standup.bench;
+
+import aplicatie_standup.app_standup.db.InstrumentedDataSource;
+import aplicatie_standup.app_standup.db.Lista;
+import aplicatie_standup.app_standup.db.RowMappers;
+import aplicatie_standup.app_standup.db.SqlMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costul masuratorilor SQL (InstrumentedDataSource) pe drumul cald: aceeasi interogare prin
+ * DataSource-ul H2 direct si prin varianta masurata. "pagina" este lista din /spectacole
+ * (50 de randuri mapate), "punct" o citire dupa cheie, unde costul proxy-urilor cantareste cel mai mult.
+ * <p>
+ * Rulare (din radacina, dupa mvn install -DskipTests):
+ *         mvn -f bench exec:exec -Dexec.args="-cp %classpath aplicatie_standup.app_standup.bench.SqlInstrumentationBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SqlInstrumentationBenchmark {
+
+	private static final int SPECTACOLE = 2_000;
+
+	@Param({"nu", "da"})
+	String instrumentat;
+
+	private JdbcTemplate jdbc;
+	private String sqlPagina;
+
+	@Setup
+	public void date() throws SQLException {
+		JdbcDataSource h2 = new JdbcDataSource();
+		h2.setURL("jdbc:h2:mem:instrumentare_" + instrumentat + ";MODE=MSSQLServer;DB_CLOSE_DELAY=-1");
+		new JdbcTemplate(h2).execute("DROP ALL OBJECTS");
+		DateSintetice.creeazaSchema(h2);
+		DateSintetice.genereaza(new JdbcTemplate(h2), new DateSintetice.Marime(50, 20, SPECTACOLE, 1_000, 10_000, 0));
+
+		DataSource dataSource = h2;
+		if ("da".equals(instrumentat)) {
+			InstrumentedDataSource masurat = new InstrumentedDataSource(h2);
+			masurat.activeaza(new SqlMetrics(new SimpleMeterRegistry(), 500));
+			dataSource = masurat;
+		}
+		jdbc = new JdbcTemplate(dataSource);
+		Lista lista = Lista.SPECTACOL;
+		sqlPagina = "/* pagina */ SELECT TOP 50 " + lista.coloane() + lista.from() + " ORDER BY " + lista.coloana("titlu") + " ASC";
+	}
+
+	@Benchmark
+	public List<?> pagina() {
+		return jdbc.query(sqlPagina, RowMappers.SPECTACOL);
+	}
+
+	@Benchmark
+	public String punct() {
+		int id = ThreadLocalRandom.current().nextInt(1, SPECTACOLE + 1);
+		return jdbc.queryForObject("SELECT Titlu FROM Spectacol WHERE ID_Spectacol = ?", String.class, id);
+	}
+
+	public static void main(String[] args) throws Exception {
+		new Runner(new OptionsBuilder()
+				.include(SqlInstrumentationBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+}
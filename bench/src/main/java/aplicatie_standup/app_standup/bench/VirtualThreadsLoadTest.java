@@ -0,0 +1,119 @@
+package aplicatie_standup.app_standup.bench;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Test de incarcare pentru /bilete (pagina Thymeleaf cu JDBC blocant): aceeasi aplicatie
+ * pornita o data cu firele platforma ale Tomcat si o data cu spring.threads.virtual.enabled.
+ * Latenta SQL Server este simulata tinand fiecare conexiune ocupata latentaMs inainte de
+ * interogare (H2 raspunde altfel in microsecunde). Pool-ul are mai multe conexiuni decat
+ * Tomcat are fire, ca in varfurile de vanzare: cu fire platforma limita este numarul de fire,
+ * cu fire virtuale este limitatorul de conexiuni (app.db.max-concurrent).
+ * <p>
+ * Rulare (din radacina, dupa mvn install -DskipTests):
+ *         mvn -f bench exec:exec -Dexec.args="-cp %classpath aplicatie_standup.app_standup.bench.VirtualThreadsLoadTest"
+ * Parametri (-D): clienti=400, secunde=10, latentaMs=50, fireTomcat=50, conexiuni=100
+ *                 si marimile setului de date (vezi DateSintetice.Marime)
+ */
+public class VirtualThreadsLoadTest {
+
+	private static final int CLIENTI = Integer.getInteger("clienti", 400);
+	private static final int SECUNDE = Integer.getInteger("secunde", 10);
+	private static final int LATENTA_MS = Integer.getInteger("latentaMs", 50);
+	private static final int FIRE_TOMCAT = Integer.getInteger("fireTomcat", 50);
+	private static final int CONEXIUNI = Integer.getInteger("conexiuni", 100);
+
+	public static void main(String[] args) throws Exception {
+		System.out.printf("%d clienti, %d s, latenta DB %d ms, %d fire Tomcat, %d conexiuni%n",
+				CLIENTI, SECUNDE, LATENTA_MS, FIRE_TOMCAT, CONEXIUNI);
+		String platforma = ruleaza(false);
+		String virtuale = ruleaza(true);
+		System.out.printf("%n%-10s %10s %10s %10s %8s%n", "fire", "cereri/s", "p50 ms", "p99 ms", "erori");
+		System.out.println(platforma);
+		System.out.println(virtuale);
+	}
+
+	private static String ruleaza(boolean fireVirtuale) throws Exception {
+		try (AplicatieBench aplicatie = AplicatieBench.porneste(DateSintetice.Marime.dinProprietati(), new LatentaDb(),
+				"--spring.threads.virtual.enabled=" + fireVirtuale,
+				"--server.tomcat.threads.max=" + FIRE_TOMCAT,
+				"--spring.datasource.hikari.maximum-pool-size=" + CONEXIUNI,
+				"--app.db.max-concurrent=" + CONEXIUNI);
+			 ExecutorService clienti = Executors.newVirtualThreadPerTaskExecutor()) {
+			String baza = aplicatie.adresa();
+			HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).executor(clienti)
+					.connectTimeout(Duration.ofSeconds(5)).build();
+			HttpResponse<Void> login = http.send(HttpRequest.newBuilder(URI.create(baza + "/login"))
+					.header("Content-Type", "application/x-www-form-urlencoded")
+					.POST(HttpRequest.BodyPublishers.ofString("username=bench1&password=" + DateSintetice.PAROLA)).build(),
+					HttpResponse.BodyHandlers.discarding());
+			String cookie = login.headers().firstValue("Set-Cookie").orElseThrow().split(";", 2)[0];
+
+			HttpRequest cerere = HttpRequest.newBuilder(URI.create(baza + "/bilete")).header("Cookie", cookie)
+					.timeout(Duration.ofSeconds(30)).build();
+			incarca(clienti, http, cerere, 3); // incalzire
+			Latente l = incarca(clienti, http, cerere, SECUNDE);
+			return String.format("%-10s %10.0f %10.1f %10.1f %8d", fireVirtuale ? "virtuale" : "platforma",
+					l.numar() / (double) SECUNDE, l.percentilaMs(0.50), l.percentilaMs(0.99), l.erori());
+		}
+	}
+
+	private static Latente incarca(ExecutorService clienti, HttpClient http, HttpRequest cerere, int secunde) throws Exception {
+		long sfarsit = System.nanoTime() + secunde * 1_000_000_000L;
+		List<Future<Latente>> rezultate = new ArrayList<>();
+		for (int i = 0; i < CLIENTI; i++) {
+			rezultate.add(clienti.submit(() -> {
+				Latente latente = new Latente();
+				while (System.nanoTime() < sfarsit) {
+					long t0 = System.nanoTime();
+					boolean ok;
+					try {
+						ok = http.send(cerere, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+					} catch (Exception ex) {
+						ok = false;
+					}
+					latente.adauga(System.nanoTime() - t0, ok);
+				}
+				return latente;
+			}));
+		}
+		Latente total = new Latente();
+		for (Future<Latente> r : rezultate) total.adauga(r.get());
+		return total;
+	}
+
+	/** Tine fiecare conexiune ocupata LATENTA_MS, ca o interogare pe SQL Server. */
+	private static final class LatentaDb implements BeanPostProcessor {
+		@Override
+		public Object postProcessAfterInitialization(Object bean, String beanName) {
+			if (!"dataSource".equals(beanName) || !(bean instanceof DataSource ds)) return bean;
+			return new DelegatingDataSource(ds) {
+				@Override
+				public Connection getConnection() throws SQLException {
+					Connection conexiune = super.getConnection();
+					try {
+						Thread.sleep(LATENTA_MS);
+					} catch (InterruptedException ex) {
+						Thread.currentThread().interrupt();
+					}
+					return conexiune;
+				}
+			};
+		}
+	}
+}